@@ -18,128 +18,116 @@
 
 package org.ddogleg.clustering;
 
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Compares two different techniques for computing the smallest between a point and a set of points.
  *
  * @author Peter Abeles
  */
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value = 2)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
 public class BenchmarkBulkDistance {
 
-	Random rand = new Random(234);
-
-	int DOF = 100;
-	int numPoints = 100000;
-	int numClusters = 300;
-
-	List<double[]> centers = new ArrayList<double[]>();
-	List<double[]> points = new ArrayList<double[]>();
+	@Param({"2", "100"})
+	public int DOF;
 
-	public long standard( int[] assignments , int numIterations ) {
+	@Param({"100000"})
+	public int numPoints;
 
-		long timeStart = System.currentTimeMillis();
+	@Param({"10", "300"})
+	public int numClusters;
 
-		for (int i = 0; i < numIterations; i++) {
-			for (int j = 0; j < points.size(); j++) {
-				double[] p = points.get(j);
+	List<double[]> centers = new ArrayList<>();
+	List<double[]> points = new ArrayList<>();
 
-				int best=-1;
-				double bestDistance = Double.MAX_VALUE;
+	// all the centers in a single hunk of memory so that it is all continuous.
+	double[] array;
 
-				for (int k = 0; k < centers.size(); k++) {
-					double[] c = centers.get(k);
+	int[] assignments;
 
-					double d = 0;
-					for (int l = 0; l < c.length; l++) {
-						double x = c[l]-p[l];
-						d += x*x;
-					}
+	@Setup public void setup() {
+		Random rand = new Random(234);
+		centers.clear();
+		points.clear();
+		randomSet(rand, points, numPoints);
+		randomSet(rand, centers, numClusters);
 
-					if( d < bestDistance ) {
-						bestDistance = d;
-						best = k;
-					}
-				}
-
-				assignments[best]++;
-			}
+		array = new double[centers.size()*DOF];
+		for (int i = 0; i < centers.size(); i++) {
+			System.arraycopy(centers.get(i), 0, array, i*DOF, DOF);
 		}
-
-		long timeStop = System.currentTimeMillis();
-
-		return timeStop - timeStart;
+		assignments = new int[numClusters];
 	}
 
-	public long bulk( int[] assignments , int numIterations ) {
+	@Benchmark public int[] standard() {
+		for (int j = 0; j < points.size(); j++) {
+			double[] p = points.get(j);
 
-		final int N = points.get(0).length;
+			int best=-1;
+			double bestDistance = Double.MAX_VALUE;
 
-		// stick all the center into a single hunk of memory so that it is all continuous.
-		double array[] = new double[ centers.size()*N ];
-		for (int i = 0; i < centers.size(); i++) {
-			double c[] = centers.get(i);
-			System.arraycopy(c,0,array,i*N,N);
-		}
-		double distances[] = new double[centers.size()];
-
-		long timeStart = System.currentTimeMillis();
-
-		for (int i = 0; i < numIterations; i++) {
-			for (int j = 0; j < points.size(); j++) {
-				double[] p = points.get(j);
-
-				int best=-1;
-				double bestDistance = Double.MAX_VALUE;
-
-				int index = 0;
-				for (int k = 0; k < distances.length; k++) {
-					double d = 0;
-					for (int l = 0; l < N; l++) {
-						double x = array[index++]-p[l];
-						d += x*x;
-					}
-					if( d < bestDistance ) {
-						bestDistance = d;
-						best = k;
-					}
+			for (int k = 0; k < centers.size(); k++) {
+				double[] c = centers.get(k);
+
+				double d = 0;
+				for (int l = 0; l < c.length; l++) {
+					double x = c[l]-p[l];
+					d += x*x;
 				}
 
-				assignments[best]++;
+				if( d < bestDistance ) {
+					bestDistance = d;
+					best = k;
+				}
 			}
-		}
-
-		long timeStop = System.currentTimeMillis();
-
-		return timeStop - timeStart;
 
+			assignments[best]++;
+		}
+		return assignments;
 	}
 
-	public void process() {
-		randomSet(points, numPoints);
-		randomSet(centers, numClusters);
+	@Benchmark public int[] bulk() {
+		final int N = DOF;
 
-		int numIterations = 1;
+		for (int j = 0; j < points.size(); j++) {
+			double[] p = points.get(j);
 
-		int assignA[] = new int[numPoints];
-		int assignB[] = new int[numPoints];
+			int best=-1;
+			double bestDistance = Double.MAX_VALUE;
 
-		long timeB = bulk(assignB, numIterations);
-		long timeA = standard(assignA, numIterations);
-
-		System.out.println("Time Standard = "+timeA);
-		System.out.println("Time Bulk     = "+timeB);
+			int index = 0;
+			for (int k = 0; k < numClusters; k++) {
+				double d = 0;
+				for (int l = 0; l < N; l++) {
+					double x = array[index++]-p[l];
+					d += x*x;
+				}
+				if( d < bestDistance ) {
+					bestDistance = d;
+					best = k;
+				}
+			}
 
-		// sanity check
-		for (int i = 0; i < numPoints; i++) {
-			if( assignA[i] != assignB[i])
-				throw new RuntimeException("Oh shit");
+			assignments[best]++;
 		}
+		return assignments;
 	}
 
-	private void randomSet(List<double[]> points, int numPoints) {
+	private void randomSet( Random rand, List<double[]> points, int numPoints) {
 		for (int i = 0; i < numPoints; i++) {
 			double p[] = new double[DOF];
 			for (int j = 0; j < DOF; j++) {
@@ -149,9 +137,11 @@ public class BenchmarkBulkDistance {
 		}
 	}
 
-	public static void main(String[] args) {
-		BenchmarkBulkDistance benchmark = new BenchmarkBulkDistance();
+	public static void main( String[] args ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkBulkDistance.class.getSimpleName())
+				.build();
 
-		benchmark.process();
+		new Runner(opt).run();
 	}
 }
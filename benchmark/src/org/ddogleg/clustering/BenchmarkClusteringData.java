@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.clustering;
+
+import org.ddogleg.clustering.misc.ListAccessor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Creates points for clustering benchmarks. Points are randomly distributed around cluster centers so that the
+ * algorithms have something to converge to.
+ *
+ * @author Peter Abeles
+ */
+public class BenchmarkClusteringData {
+	/**
+	 * Creates points which are normally distributed around randomly selected centers
+	 *
+	 * @param numPoints Total number of points
+	 * @param numClusters Number of cluster centers
+	 * @param dof Dimension of each point
+	 */
+	public static List<double[]> createPoints( Random rand, int numPoints, int numClusters, int dof ) {
+		List<double[]> centers = new ArrayList<>();
+		for (int i = 0; i < numClusters; i++) {
+			var c = new double[dof];
+			for (int j = 0; j < dof; j++) {
+				c[j] = rand.nextDouble()*100.0;
+			}
+			centers.add(c);
+		}
+
+		List<double[]> points = new ArrayList<>();
+		for (int i = 0; i < numPoints; i++) {
+			double[] c = centers.get(rand.nextInt(numClusters));
+			var p = new double[dof];
+			for (int j = 0; j < dof; j++) {
+				p[j] = c[j] + rand.nextGaussian()*2.0;
+			}
+			points.add(p);
+		}
+		return points;
+	}
+
+	public static ListAccessor<double[]> createAccessor( List<double[]> points, int dof ) {
+		return new ListAccessor<>(points, ( src, dst ) -> System.arraycopy(src, 0, dst, 0, dof), double[].class);
+	}
+}
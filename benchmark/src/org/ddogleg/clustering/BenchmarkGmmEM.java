@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.clustering;
+
+import org.ddogleg.clustering.gmm.ExpectationMaximizationGmm_F64;
+import org.ddogleg.clustering.misc.ListAccessor;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares single thread and concurrent expectation maximization for Gaussian mixture models. Seeds are selected
+ * with k-means, which is included in the time.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value = 2)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BenchmarkGmmEM {
+	@Param({"10000", "100000"})
+	public int numPoints;
+
+	@Param({"5", "20"})
+	public int numClusters;
+
+	@Param({"2", "16"})
+	public int dof;
+
+	@Param({"FULL", "DIAGONAL"})
+	public GmmCovarianceTypes covariance;
+
+	ListAccessor<double[]> points;
+
+	ExpectationMaximizationGmm_F64 single;
+	ExpectationMaximizationGmm_F64 concurrent;
+
+	@Setup public void setup() {
+		points = BenchmarkClusteringData.createAccessor(
+				BenchmarkClusteringData.createPoints(new Random(234), numPoints, numClusters, dof), dof);
+
+		single = FactoryClustering.gaussianMixtureModelEM_F64(20, 20, 0.0, dof, covariance);
+		concurrent = FactoryClustering.gaussianMixtureModelEM_F64_MT(20, 20, 0.0, dof, 0, covariance);
+	}
+
+	@Benchmark public double single() {
+		single.initialize(0xBEEF);
+		single.process(points, numClusters);
+		return single.getDistanceMeasure();
+	}
+
+	@Benchmark public double concurrent() {
+		concurrent.initialize(0xBEEF);
+		concurrent.process(points, numClusters);
+		return concurrent.getDistanceMeasure();
+	}
+
+	public static void main( String[] args ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkGmmEM.class.getSimpleName())
+				.build();
+
+		new Runner(opt).run();
+	}
+}
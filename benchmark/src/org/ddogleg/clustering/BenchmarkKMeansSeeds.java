@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.clustering;
+
+import org.ddogleg.clustering.kmeans.*;
+import org.ddogleg.clustering.misc.EuclideanSqArrayF64;
+import org.ddogleg.clustering.misc.ListAccessor;
+import org.ddogleg.struct.DogArray;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares how long it takes to select the initial seeds for k-means
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value = 2)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BenchmarkKMeansSeeds {
+	@Param({"10000", "100000"})
+	public int numPoints;
+
+	@Param({"10", "100", "1000"})
+	public int numClusters;
+
+	@Param({"2", "32"})
+	public int dof;
+
+	ListAccessor<double[]> points;
+	DogArray<double[]> seeds;
+	EuclideanSqArrayF64 distance;
+
+	InitializeKMeans<double[]> standard = new InitializeStandard<>();
+	InitializeKMeans<double[]> plusPlus = new InitializePlusPlus<>();
+	InitializeKMeans<double[]> plusPlus_MT;
+	InitializeKMeans<double[]> scalable;
+	InitializeKMeans<double[]> scalable_MT;
+
+	@Setup public void setup() {
+		points = BenchmarkClusteringData.createAccessor(
+				BenchmarkClusteringData.createPoints(new Random(234), numPoints, numClusters, dof), dof);
+		seeds = new DogArray<>(() -> new double[dof]);
+		distance = new EuclideanSqArrayF64(dof);
+
+		plusPlus_MT = new InitializePlusPlus_MT<>(() -> new double[dof]);
+		scalable = new InitializeScalable<>(() -> new double[dof]);
+		scalable_MT = new InitializeScalable_MT<>(() -> new double[dof]);
+	}
+
+	private DogArray<double[]> select( InitializeKMeans<double[]> alg ) {
+		alg.initialize(distance, 0xBEEF);
+		alg.selectSeeds(points, numClusters, seeds);
+		return seeds;
+	}
+
+	@Benchmark public DogArray<double[]> standard() {return select(standard);}
+
+	@Benchmark public DogArray<double[]> plusPlus() {return select(plusPlus);}
+
+	@Benchmark public DogArray<double[]> plusPlus_MT() {return select(plusPlus_MT);}
+
+	@Benchmark public DogArray<double[]> scalable() {return select(scalable);}
+
+	@Benchmark public DogArray<double[]> scalable_MT() {return select(scalable_MT);}
+
+	public static void main( String[] args ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkKMeansSeeds.class.getSimpleName())
+				.build();
+
+		new Runner(opt).run();
+	}
+}
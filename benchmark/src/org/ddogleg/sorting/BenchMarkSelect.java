@@ -18,6 +18,8 @@
 
 package org.ddogleg.sorting;
 
+import org.ddogleg.DDoglegConcurrency;
+
 import java.util.Random;
 
 
@@ -56,6 +58,22 @@ public class BenchMarkSelect {
         after = System.currentTimeMillis();
         System.out.println("Select double with indexes = "+(after-before));
 
+        // Use all the threads for the parallel select
+        DDoglegConcurrency.USE_CONCURRENT = true;
+        ParallelSelect_F64 parallel = new ParallelSelect_F64();
+        data = createRandom(new Random(0x344),num);
+        before = System.currentTimeMillis();
+        parallel.select(data,13,data.length);
+        after = System.currentTimeMillis();
+        System.out.println("Parallel select double = "+(after-before));
+
+        data = createRandom(new Random(0x344),num);
+        before = System.currentTimeMillis();
+        parallel.selectIndex(data,13,data.length,indexes);
+        after = System.currentTimeMillis();
+        System.out.println("Parallel select double with indexes = "+(after-before));
+        DDoglegConcurrency.USE_CONCURRENT = false;
+
         before = System.currentTimeMillis();
         QuickSelect.select(compData,13,data.length);
         after = System.currentTimeMillis();
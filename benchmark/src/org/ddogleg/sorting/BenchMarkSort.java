@@ -18,6 +18,8 @@
 
 package org.ddogleg.sorting;
 
+import org.ddogleg.DDoglegConcurrency;
+
 import java.util.*;
 
 /**
@@ -58,6 +60,35 @@ public class BenchMarkSort
 		after = System.currentTimeMillis();
 		System.out.println("Quicksort Indexes = "+(after-before));
 
+		data = createRandom_F64(new Random(0x344), num);
+		RadixSort_F64 radix = new RadixSort_F64();
+		before = System.currentTimeMillis();
+		radix.sort(data,data.length);
+		after = System.currentTimeMillis();
+		System.out.println("Radix = "+(after-before));
+
+		data = createRandom_F64(new Random(0x344), num);
+		before = System.currentTimeMillis();
+		radix.sort(data,0,data.length,indexes);
+		after = System.currentTimeMillis();
+		System.out.println("Radix Indexes = "+(after-before));
+
+		// Use all the threads for the parallel sort
+		DDoglegConcurrency.USE_CONCURRENT = true;
+		ParallelSort_F64 parallel = new ParallelSort_F64();
+		data = createRandom_F64(new Random(0x344), num);
+		before = System.currentTimeMillis();
+		parallel.sort(data,data.length);
+		after = System.currentTimeMillis();
+		System.out.println("Parallel = "+(after-before));
+
+		data = createRandom_F64(new Random(0x344), num);
+		before = System.currentTimeMillis();
+		parallel.sort(data,0,data.length,indexes);
+		after = System.currentTimeMillis();
+		System.out.println("Parallel Indexes = "+(after-before));
+		DDoglegConcurrency.USE_CONCURRENT = false;
+
 		data = createRandom_F64(new Random(0x344), num);
 		for( double d : data ) list.add(d);
 		before = System.currentTimeMillis();
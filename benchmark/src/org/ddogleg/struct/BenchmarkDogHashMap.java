@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.struct;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the primitive hash maps and sets against {@link HashMap} and {@link HashSet} with boxed keys. Each
+ * benchmark inserts all the keys, then looks up every key plus the same number of keys which are not in the map.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value = 2)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BenchmarkDogHashMap {
+	@Param({"1000", "100000", "1000000"})
+	public int size;
+
+	long[] keys;
+	long[] missing;
+
+	DogHashMap_I64_I32 dogMap = new DogHashMap_I64_I32();
+	DogHashSet_I64 dogSet = new DogHashSet_I64();
+	HashMap<Long, Integer> javaMap = new HashMap<>();
+	HashSet<Long> javaSet = new HashSet<>();
+
+	@Setup public void setup() {
+		var rand = new Random(234);
+		keys = new long[size];
+		missing = new long[size];
+		for (int i = 0; i < size; i++) {
+			// even keys are in the map and odd keys are not
+			keys[i] = rand.nextLong() & ~1L;
+			missing[i] = keys[i] | 1L;
+		}
+	}
+
+	@Benchmark public long dogMap() {
+		dogMap.reset();
+		for (int i = 0; i < keys.length; i++) {
+			dogMap.put(keys[i], i);
+		}
+		long total = 0;
+		for (int i = 0; i < keys.length; i++) {
+			total += dogMap.getOrDefault(keys[i], -1);
+			total += dogMap.getOrDefault(missing[i], -1);
+		}
+		return total;
+	}
+
+	@Benchmark public long javaMap() {
+		javaMap.clear();
+		for (int i = 0; i < keys.length; i++) {
+			javaMap.put(keys[i], i);
+		}
+		long total = 0;
+		for (int i = 0; i < keys.length; i++) {
+			total += javaMap.getOrDefault(keys[i], -1);
+			total += javaMap.getOrDefault(missing[i], -1);
+		}
+		return total;
+	}
+
+	@Benchmark public int dogSet() {
+		dogSet.reset();
+		for (int i = 0; i < keys.length; i++) {
+			dogSet.add(keys[i]);
+		}
+		int total = 0;
+		for (int i = 0; i < keys.length; i++) {
+			if (dogSet.contains(keys[i]))
+				total++;
+			if (dogSet.contains(missing[i]))
+				total++;
+		}
+		return total;
+	}
+
+	@Benchmark public int javaSet() {
+		javaSet.clear();
+		for (int i = 0; i < keys.length; i++) {
+			javaSet.add(keys[i]);
+		}
+		int total = 0;
+		for (int i = 0; i < keys.length; i++) {
+			if (javaSet.contains(keys[i]))
+				total++;
+			if (javaSet.contains(missing[i]))
+				total++;
+		}
+		return total;
+	}
+
+	public static void main( String[] args ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkDogHashMap.class.getSimpleName())
+				.build();
+
+		new Runner(opt).run();
+	}
+}
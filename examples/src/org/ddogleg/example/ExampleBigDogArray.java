@@ -48,7 +48,7 @@ public class ExampleBigDogArray {
 
 		// Here's an alternative to do the same thing. It will be smart enough toe process it by blocks
 		// reducing the number of array accesses
-		array.applyIdx(0, 50, ( i, value ) -> i*2);
+		array.applyIdx(0, 50, ( i, value ) -> (int)(i*2));
 
 		// if you need to process a range of values it's recommended you use forEach or forIdx and it will
 		// handle the internal complexity for you
@@ -63,7 +63,7 @@ public class ExampleBigDogArray {
 			// idx1 is the upper extent, exclusive
 			// offset is the offset to the array's indexing. So block[idx0 + 1] = array[offset + 1]
 			for (int i = idx0; i < idx1; i++) {
-				block[i] = offset + i;
+				block[i] = (int)(offset + i);
 			}
 		});
 
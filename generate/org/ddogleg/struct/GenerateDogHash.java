@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.struct;
+
+import org.apache.commons.io.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Uses the hash maps and sets with long keys as templates to create all the others. The key type is 'long' and
+ * '_I64' in the templates and the value type is 'double' and '_F64'.
+ *
+ * @author Peter Abeles
+ */
+public class GenerateDogHash {
+	/** Templates where only the key is changed */
+	public static String[] templatesKey = new String[]{
+			"src/org/ddogleg/struct/DogHashMap_I64.java",
+			"src/org/ddogleg/struct/DogHashSet_I64.java",
+			"test/org/ddogleg/struct/TestDogHashMap_I64.java",
+			"test/org/ddogleg/struct/TestDogHashSet_I64.java"};
+
+	/** Templates where the key and value are changed */
+	public static String[] templatesKeyValue = new String[]{
+			"src/org/ddogleg/struct/DogHashMap_I64_F64.java",
+			"test/org/ddogleg/struct/TestDogHashMap_I64_F64.java"};
+
+	public static class WordSwaps {
+		public String dataType;
+		public String suffix;
+
+		public WordSwaps( String dataType, String suffix ) {
+			this.dataType = dataType;
+			this.suffix = suffix;
+		}
+	}
+
+	public static void main( String[] args ) {
+		List<WordSwaps> keys = new ArrayList<>();
+		keys.add(new WordSwaps("int", "_I32"));
+		keys.add(new WordSwaps("long", "_I64"));
+
+		List<WordSwaps> values = new ArrayList<>();
+		values.add(new WordSwaps("int", "_I32"));
+		values.add(new WordSwaps("long", "_I64"));
+		values.add(new WordSwaps("double", "_F64"));
+
+		for (String template : templatesKey) {
+			for (WordSwaps key : keys) {
+				generate(template, key, null);
+			}
+		}
+
+		for (String template : templatesKeyValue) {
+			for (WordSwaps key : keys) {
+				for (WordSwaps value : values) {
+					generate(template, key, value);
+				}
+			}
+		}
+	}
+
+	private static void generate( String template, WordSwaps key, WordSwaps value ) {
+		File templateFile = new File(template);
+		String fileName = templateFile.getName().replace("_I64", key.suffix);
+		if (value != null)
+			fileName = fileName.replace("_F64", value.suffix);
+
+		// Don't overwrite the template
+		if (fileName.equals(templateFile.getName()))
+			return;
+
+		try {
+			String modified = FileUtils.readFileToString(templateFile, StandardCharsets.UTF_8);
+
+			// Change the key first so that a value of 'long' isn't changed into the key's type
+			modified = modified.replace("long", key.dataType);
+			modified = modified.replace("_I64", key.suffix);
+			if (value != null) {
+				modified = modified.replace("double", value.dataType);
+				modified = modified.replace("_F64", value.suffix);
+			}
+
+			FileUtils.write(new File(templateFile.getParent(), fileName), modified, StandardCharsets.UTF_8);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
@@ -18,6 +18,9 @@
 
 package org.ddogleg.clustering;
 
+import org.ddogleg.struct.DogArray_I32;
+import org.ddogleg.struct.LArrayAccessor;
+
 /**
  * Used to assign a point to set of clusters.  Clusters are given labels from 0 to N-1, where N is the number of
  * clusters.
@@ -42,6 +45,20 @@ public interface AssignCluster<D> {
 	 */
 	void assign(D point, double[] fit);
 
+	/**
+	 * Assigns every point to the cluster which is the best fit. Same as calling {@link #assign(Object)} on
+	 * each point, but implementations can process the points in a more efficient way.
+	 *
+	 * @param points (Input) Points which are to be assigned
+	 * @param assignments (Output) Index of the cluster each point is assigned to. Resized.
+	 */
+	default void assign( LArrayAccessor<D> points, DogArray_I32 assignments ) {
+		assignments.resize(points.size());
+		for (int i = 0; i < points.size(); i++) {
+			assignments.data[i] = assign(points.getTemp(i));
+		}
+	}
+
 	/**
 	 * Total number of clusters.
 	 *
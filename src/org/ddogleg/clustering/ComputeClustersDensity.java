@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.clustering;
+
+import org.ddogleg.struct.DogArray_I32;
+import org.ddogleg.struct.LArrayAccessor;
+
+/**
+ * Density based clustering. Clusters are regions where points are densely packed together and are separated by
+ * regions with few points. Unlike {@link ComputeClusters}, the number of clusters is not specified ahead of time
+ * and points which are not in a dense region are not assigned to any cluster. These are referred to as noise.
+ *
+ * @author Peter Abeles
+ */
+public interface ComputeClustersDensity<P> {
+	/** Assignment given to points which are not in any cluster */
+	int NOISE = -1;
+
+	/**
+	 * Finds clusters in the set of points.
+	 *
+	 * @param points Set of points which are to be clustered. Not modified.
+	 */
+	void process( LArrayAccessor<P> points );
+
+	/**
+	 * Which cluster each point belongs to, from 0 to N-1, where N is the number of clusters. Points which are noise
+	 * are assigned {@link #NOISE}. Recycled each time {@link #process} is called.
+	 */
+	DogArray_I32 getAssignments();
+
+	/**
+	 * Number of clusters which were found.
+	 */
+	int getNumberOfClusters();
+
+	/**
+	 * If set to true then information about status will be printed to standard out.  By default verbose is off
+	 *
+	 * @param verbose true for verbose mode.  False for quite mode.
+	 */
+	void setVerbose( boolean verbose );
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.clustering;
+
+import org.ddogleg.struct.LArrayAccessor;
+
+/**
+ * Computes clusters from a stream of points. Points are provided in chunks and the clusters are incrementally
+ * updated as they arrive. Unlike {@link ComputeClusters}, the points don't need to all be available at once and
+ * memory usage doesn't grow with the number of points.
+ *
+ * @author Peter Abeles
+ */
+public interface ComputeClustersStreaming<P> {
+	/**
+	 * Discards all previous results and prepares it to process a new stream of points.
+	 *
+	 * @param numCluster Number of clusters it will use to split the points.
+	 * @param randomSeed Seed for any random number generators used internally.
+	 */
+	void initialize( int numCluster, long randomSeed );
+
+	/**
+	 * Updates the clusters using the next chunk of points in the stream.
+	 *
+	 * @param points Next set of points in the stream. Not modified. A reference isn't saved.
+	 */
+	void process( LArrayAccessor<P> points );
+
+	/**
+	 * Returns a class which is used to assign a point to a cluster. Can be called at any time after at least one
+	 * point has been processed. The returned instance is a copy and won't be modified when more points
+	 * are processed. Calling this function doesn't change the clusters. If too few points have been processed to
+	 * create the clusters, then the assignment is provisional and might have fewer clusters than requested.
+	 *
+	 * @return Instance of {@link org.ddogleg.clustering.AssignCluster}.
+	 */
+	AssignCluster<P> getAssignment();
+
+	/**
+	 * Total number of points which have been processed since {@link #initialize} was called.
+	 */
+	long getTotalPoints();
+
+	/**
+	 * If set to true then information about status will be printed to standard out. By default verbose is off
+	 *
+	 * @param verbose true for verbose mode. False for quite mode.
+	 */
+	void setVerbose( boolean verbose );
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.clustering;
+
+import org.ddogleg.nn.ConfigNearestNeighborSearch;
+
+/**
+ * Configuration for DBSCAN density based clustering
+ *
+ * @author Peter Abeles
+ */
+public class ConfigDbscan {
+	/**
+	 * Maximum distance two points can be apart and be neighbors. Same units as the nearest-neighbor search, which
+	 * is Euclidean distance squared for primitive arrays.
+	 */
+	public double maxDistance = 1.0;
+
+	/** Minimum number of neighbors, including itself, a point needs to be a core point of a cluster */
+	public int minPoints = 5;
+
+	/** Nearest-neighbor search used to find the neighbors of each point */
+	public final ConfigNearestNeighborSearch search = new ConfigNearestNeighborSearch();
+
+	public ConfigDbscan() {
+		search.type = ConfigNearestNeighborSearch.Type.KD_TREE;
+	}
+
+	public void setTo( ConfigDbscan src ) {
+		this.maxDistance = src.maxDistance;
+		this.minPoints = src.minPoints;
+		this.search.setTo(src.search);
+	}
+
+	public void checkValidity() {
+		if (maxDistance <= 0.0)
+			throw new IllegalArgumentException("maxDistance must be positive");
+		if (minPoints <= 0)
+			throw new IllegalArgumentException("minPoints must be positive");
+		search.checkValidity();
+	}
+}
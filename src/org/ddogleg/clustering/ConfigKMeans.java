@@ -27,6 +27,9 @@ public class ConfigKMeans {
 	/** Which initialization algorithm */
 	public KMeansInitializers initializer = KMeansInitializers.PLUS_PLUS;
 
+	/** Which algorithm is used to assign points to clusters */
+	public KMeansAlgorithms algorithm = KMeansAlgorithms.STANDARD;
+
 	/** Maximum number of iterations, across all seeds combined */
 	public int maxIterations = 500;
 
@@ -41,6 +44,7 @@ public class ConfigKMeans {
 
 	public void setTo( ConfigKMeans src ) {
 		this.initializer = src.initializer;
+		this.algorithm = src.algorithm;
 		this.maxIterations = src.maxIterations;
 		this.reseedAfterIterations = src.reseedAfterIterations;
 		this.maxReSeed = src.maxReSeed;
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.clustering;
+
+/**
+ * Configuration for mini-batch K-Means clustering
+ *
+ * @author Peter Abeles
+ */
+public class ConfigMiniBatchKMeans {
+	/** Which initialization algorithm */
+	public KMeansInitializers initializer = KMeansInitializers.PLUS_PLUS;
+
+	/** Number of points in each batch */
+	public int batchSize = 1024;
+
+	/** Number of batches it will process */
+	public int totalBatches = 100;
+
+	/** Number of points which are randomly sampled to select the initial seeds from. If &le; 0 then all points are used. */
+	public int seedSampleSize = 10_000;
+
+	/** If true then every point is assigned to the closest cluster at the end */
+	public boolean finalAssignment = true;
+
+	public void setTo( ConfigMiniBatchKMeans src ) {
+		this.initializer = src.initializer;
+		this.batchSize = src.batchSize;
+		this.totalBatches = src.totalBatches;
+		this.seedSampleSize = src.seedSampleSize;
+		this.finalAssignment = src.finalAssignment;
+	}
+
+	public void checkValidity() {
+		if (batchSize <= 0)
+			throw new IllegalArgumentException("batchSize must be positive");
+		if (totalBatches < 0)
+			throw new IllegalArgumentException("totalBatches can't be negative");
+	}
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.clustering;
+
+/**
+ * Configuration for streaming K-Means clustering
+ *
+ * @author Peter Abeles
+ */
+public class ConfigStreamingKMeans {
+	/** Which initialization algorithm */
+	public KMeansInitializers initializer = KMeansInitializers.PLUS_PLUS;
+
+	/** Number of points at the start of the stream which are saved and used to select the initial seeds */
+	public int seedSampleSize = 1000;
+
+	/**
+	 * Maximum number of points a cluster remembers. Once a cluster has been assigned more points it will
+	 * continue to adapt to new points instead of converging. If &le; 0 then there is no limit.
+	 */
+	public int maxCount = 0;
+
+	public void setTo( ConfigStreamingKMeans src ) {
+		this.initializer = src.initializer;
+		this.seedSampleSize = src.seedSampleSize;
+		this.maxCount = src.maxCount;
+	}
+
+	public void checkValidity() {
+		if (seedSampleSize <= 0)
+			throw new IllegalArgumentException("seedSampleSize must be positive");
+	}
+}
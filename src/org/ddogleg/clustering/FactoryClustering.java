@@ -18,11 +18,19 @@
 
 package org.ddogleg.clustering;
 
+import org.ddogleg.clustering.dbscan.Dbscan;
+import org.ddogleg.clustering.dbscan.Dbscan_MT;
 import org.ddogleg.clustering.gmm.ExpectationMaximizationGmm_F64;
+import org.ddogleg.clustering.gmm.ExpectationMaximizationGmm_F64_MT;
 import org.ddogleg.clustering.gmm.SeedFromKMeans_F64;
 import org.ddogleg.clustering.kmeans.*;
 import org.ddogleg.clustering.misc.EuclideanSqArrayF64;
 import org.ddogleg.clustering.misc.MeanArrayF64;
+import org.ddogleg.nn.ConfigNearestNeighborSearch;
+import org.ddogleg.nn.FactoryNearestNeighbor;
+import org.ddogleg.nn.NearestNeighbor;
+import org.ddogleg.nn.alg.KdTreeDistance;
+import org.ddogleg.nn.alg.distance.KdTreeEuclideanSq_F64;
 import org.ddogleg.struct.DogLambdas;
 import org.jetbrains.annotations.Nullable;
 
@@ -48,6 +56,20 @@ import org.jetbrains.annotations.Nullable;
 	 */
 	public static ExpectationMaximizationGmm_F64 gaussianMixtureModelEM_F64(
 			int maxIterations, int maxConverge, double convergeTol, int pointDimension ) {
+		return gaussianMixtureModelEM_F64(maxIterations, maxConverge, convergeTol, pointDimension,
+				GmmCovarianceTypes.FULL);
+	}
+
+	/**
+	 * Same as {@link #gaussianMixtureModelEM_F64(int, int, double, int)} but the covariance can be constrained.
+	 * Constraining the covariance to be diagonal or spherical is much faster with high dimensional points.
+	 *
+	 * @param covarianceType How the covariance is constrained
+	 * @return ExpectationMaximizationGmm_F64
+	 */
+	public static ExpectationMaximizationGmm_F64 gaussianMixtureModelEM_F64(
+			int maxIterations, int maxConverge, double convergeTol, int pointDimension,
+			GmmCovarianceTypes covarianceType ) {
 
 		ConfigKMeans configKMeans = new ConfigKMeans();
 		configKMeans.reseedAfterIterations = maxConverge;
@@ -57,7 +79,46 @@ import org.jetbrains.annotations.Nullable;
 		StandardKMeans<double[]> kmeans = kMeans(configKMeans, pointDimension, double[].class);
 		SeedFromKMeans_F64 seeds = new SeedFromKMeans_F64(kmeans);
 
-		return new ExpectationMaximizationGmm_F64(maxIterations, convergeTol, pointDimension, seeds);
+		var alg = new ExpectationMaximizationGmm_F64(maxIterations, convergeTol, pointDimension, seeds);
+		alg.setCovarianceType(covarianceType);
+		return alg;
+	}
+
+	/**
+	 * Concurrent version of {@link #gaussianMixtureModelEM_F64(int, int, double, int)}
+	 *
+	 * @param minimumForThreads The minimum number of points required for it to use concurrent code
+	 * @return ExpectationMaximizationGmm_F64_MT
+	 */
+	public static ExpectationMaximizationGmm_F64_MT gaussianMixtureModelEM_F64_MT(
+			int maxIterations, int maxConverge, double convergeTol, int pointDimension, int minimumForThreads ) {
+		return gaussianMixtureModelEM_F64_MT(maxIterations, maxConverge, convergeTol, pointDimension,
+				minimumForThreads, GmmCovarianceTypes.FULL);
+	}
+
+	/**
+	 * Concurrent version of {@link #gaussianMixtureModelEM_F64(int, int, double, int, GmmCovarianceTypes)}
+	 *
+	 * @param minimumForThreads The minimum number of points required for it to use concurrent code
+	 * @param covarianceType How the covariance is constrained
+	 * @return ExpectationMaximizationGmm_F64_MT
+	 */
+	public static ExpectationMaximizationGmm_F64_MT gaussianMixtureModelEM_F64_MT(
+			int maxIterations, int maxConverge, double convergeTol, int pointDimension, int minimumForThreads,
+			GmmCovarianceTypes covarianceType ) {
+
+		ConfigKMeans configKMeans = new ConfigKMeans();
+		configKMeans.reseedAfterIterations = maxConverge;
+		configKMeans.maxIterations = maxIterations;
+		configKMeans.convergeTol = convergeTol;
+
+		StandardKMeans<double[]> kmeans = kMeans_MT(configKMeans, pointDimension, minimumForThreads, double[].class);
+		SeedFromKMeans_F64 seeds = new SeedFromKMeans_F64(kmeans);
+
+		var alg = new ExpectationMaximizationGmm_F64_MT(maxIterations, convergeTol, pointDimension, seeds);
+		alg.setMinimumForConcurrent(minimumForThreads);
+		alg.setCovarianceType(covarianceType);
+		return alg;
 	}
 
 	/**
@@ -118,11 +179,20 @@ import org.jetbrains.annotations.Nullable;
 				seed = new InitializeStandard<>();
 				break;
 
+			case SCALABLE:
+				seed = new InitializeScalable<>(factory);
+				break;
+
 			default:
 				throw new RuntimeException("Unknown initializer " + config.initializer);
 		}
 
-		StandardKMeans<P> alg = new StandardKMeans<>(updateMeans, seed, pointDistance, factory);
+		StandardKMeans<P> alg = switch (config.algorithm) {
+			case STANDARD -> new StandardKMeans<>(updateMeans, seed, pointDistance, factory);
+			case HAMERLY -> new HamerlyKMeans<>(updateMeans, seed, pointDistance, factory);
+			case ELKAN -> new ElkanKMeans<>(updateMeans, seed, pointDistance, factory);
+			default -> throw new IllegalArgumentException("Unknown algorithm " + config.algorithm);
+		};
 		alg.convergeTol = config.convergeTol;
 		alg.maxIterations = config.maxIterations;
 		alg.reseedAfterIterations = config.reseedAfterIterations;
@@ -155,17 +225,248 @@ import org.jetbrains.annotations.Nullable;
 				seed = new InitializeStandard<>(); // TODO make concurrent
 				break;
 
+			case SCALABLE: {
+				seed = new InitializeScalable_MT<>(factory);
+				((InitializeScalable_MT)seed).setMinimumConcurrent(minimumForThreads);
+			} break;
+
 			default:
 				throw new RuntimeException("Unknown initializer " + config.initializer);
 		}
 
-		var alg = new StandardKMeans_MT<>(updateMeans, seed, pointDistance, factory);
+		StandardKMeans<P> alg;
+		switch (config.algorithm) {
+			case STANDARD -> {
+				var mt = new StandardKMeans_MT<>(updateMeans, seed, pointDistance, factory);
+				mt.setMinimumForConcurrent(minimumForThreads);
+				alg = mt;
+			}
+			case HAMERLY -> {
+				var mt = new HamerlyKMeans_MT<>(updateMeans, seed, pointDistance, factory);
+				mt.setMinimumForConcurrent(minimumForThreads);
+				alg = mt;
+			}
+			case ELKAN -> {
+				var mt = new ElkanKMeans_MT<>(updateMeans, seed, pointDistance, factory);
+				mt.setMinimumForConcurrent(minimumForThreads);
+				alg = mt;
+			}
+			default -> throw new IllegalArgumentException("Unknown algorithm " + config.algorithm);
+		}
 		alg.convergeTol = config.convergeTol;
 		alg.maxIterations = config.maxIterations;
 		alg.reseedAfterIterations = config.reseedAfterIterations;
 		alg.maxReSeed = config.maxReSeed;
-		alg.setMinimumForConcurrent(minimumForThreads);
 
 		return alg;
 	}
+
+	/**
+	 * Mini-batch K-Means using a primitive array, e.g. double[].
+	 *
+	 * @param pointDimension Length of the array
+	 * @param dataType Specifies the data type, e.g. double[].class
+	 */
+	public static <T> MiniBatchKMeans<T> kMeansMiniBatch( @Nullable ConfigMiniBatchKMeans config,
+														  int pointDimension, Class<T> dataType ) {
+		if (dataType != double[].class)
+			throw new IllegalArgumentException("Only double[] supported at this time.");
+
+		return (MiniBatchKMeans)kMeansMiniBatch(config, false, 0,
+				new MeanArrayF64(pointDimension),
+				new EuclideanSqArrayF64(pointDimension),
+				createMoveTowardsF64(pointDimension),
+				() -> new double[pointDimension]);
+	}
+
+	/**
+	 * @param minimumForThreads The minimum number of points required for it to use concurrent code
+	 */
+	public static <T> MiniBatchKMeans<T> kMeansMiniBatch_MT( @Nullable ConfigMiniBatchKMeans config,
+															 int pointDimension, int minimumForThreads,
+															 Class<T> dataType ) {
+		if (dataType != double[].class)
+			throw new IllegalArgumentException("Only double[] supported at this time.");
+
+		return (MiniBatchKMeans)kMeansMiniBatch(config, true, minimumForThreads,
+				new MeanArrayF64(pointDimension),
+				new EuclideanSqArrayF64(pointDimension),
+				createMoveTowardsF64(pointDimension),
+				() -> new double[pointDimension]);
+	}
+
+	/**
+	 * High level interface for creating mini-batch k-means.  If more flexibility is needed (e.g. custom seeds)
+	 * then create and instance of {@link MiniBatchKMeans} directly
+	 *
+	 * @param config Configuration for tuning parameters
+	 * @param concurrent If true then the concurrent implementation is used
+	 * @param minimumForThreads The minimum number of points required for it to use concurrent code
+	 * @param updateMeans Used to compute the means given point assignments
+	 * @param mover Moves a cluster towards a point
+	 * @param factory Creates a new instance of a point
+	 * @return MiniBatchKMeans
+	 */
+	public static <P> MiniBatchKMeans<P> kMeansMiniBatch( @Nullable ConfigMiniBatchKMeans config,
+														  boolean concurrent, int minimumForThreads,
+														  ComputeMeanClusters<P> updateMeans,
+														  PointDistance<P> pointDistance,
+														  MiniBatchKMeans.MoveTowards<P> mover,
+														  DogLambdas.NewInstance<P> factory ) {
+		if (config == null)
+			config = new ConfigMiniBatchKMeans();
+		config.checkValidity();
+
+		InitializeKMeans<P> seed = switch (config.initializer) {
+			case PLUS_PLUS -> concurrent ? new InitializePlusPlus_MT<>(factory) : new InitializePlusPlus<>();
+			case STANDARD -> new InitializeStandard<>();
+			case SCALABLE -> concurrent ? new InitializeScalable_MT<>(factory) : new InitializeScalable<>(factory);
+		};
+
+		MiniBatchKMeans<P> alg;
+		if (concurrent) {
+			var mt = new MiniBatchKMeans_MT<>(updateMeans, seed, pointDistance, mover, factory);
+			mt.setMinimumForConcurrent(minimumForThreads);
+			if (seed instanceof InitializePlusPlus_MT)
+				((InitializePlusPlus_MT<P>)seed).setMinimumConcurrent(minimumForThreads);
+			else if (seed instanceof InitializeScalable_MT)
+				((InitializeScalable_MT<P>)seed).setMinimumConcurrent(minimumForThreads);
+			alg = mt;
+		} else {
+			alg = new MiniBatchKMeans<>(updateMeans, seed, pointDistance, mover, factory);
+		}
+		alg.batchSize = config.batchSize;
+		alg.totalBatches = config.totalBatches;
+		alg.seedSampleSize = config.seedSampleSize;
+		alg.finalAssignment = config.finalAssignment;
+
+		return alg;
+	}
+
+	/**
+	 * Streaming K-Means using a primitive array, e.g. double[].
+	 *
+	 * @param pointDimension Length of the array
+	 * @param dataType Specifies the data type, e.g. double[].class
+	 */
+	public static <T> StreamingKMeans<T> kMeansStreaming( @Nullable ConfigStreamingKMeans config,
+														  int pointDimension, Class<T> dataType ) {
+		if (dataType != double[].class)
+			throw new IllegalArgumentException("Only double[] supported at this time.");
+
+		return (StreamingKMeans)kMeansStreaming(config,
+				new EuclideanSqArrayF64(pointDimension),
+				createMoveTowardsF64(pointDimension),
+				( src, dst ) -> System.arraycopy(src, 0, dst, 0, pointDimension),
+				() -> new double[pointDimension]);
+	}
+
+	/**
+	 * High level interface for creating streaming k-means. If more flexibility is needed (e.g. custom seeds)
+	 * then create and instance of {@link StreamingKMeans} directly
+	 *
+	 * @param config Configuration for tuning parameters
+	 * @param mover Moves a cluster towards a point
+	 * @param copier Copies one point into another
+	 * @param factory Creates a new instance of a point
+	 * @return StreamingKMeans
+	 */
+	public static <P> StreamingKMeans<P> kMeansStreaming( @Nullable ConfigStreamingKMeans config,
+														  PointDistance<P> pointDistance,
+														  MiniBatchKMeans.MoveTowards<P> mover,
+														  DogLambdas.Copy<P> copier,
+														  DogLambdas.NewInstance<P> factory ) {
+		if (config == null)
+			config = new ConfigStreamingKMeans();
+		config.checkValidity();
+
+		InitializeKMeans<P> seed = switch (config.initializer) {
+			case PLUS_PLUS -> new InitializePlusPlus<>();
+			case STANDARD -> new InitializeStandard<>();
+			case SCALABLE -> new InitializeScalable<>(factory);
+		};
+
+		var alg = new StreamingKMeans<>(seed, pointDistance, mover, copier, factory);
+		alg.seedSampleSize = config.seedSampleSize;
+		alg.maxCount = config.maxCount;
+
+		return alg;
+	}
+
+	/**
+	 * DBSCAN using a primitive array, e.g. double[]. Distance is Euclidean squared.
+	 *
+	 * @param pointDimension Length of the array
+	 * @param dataType Specifies the data type, e.g. double[].class
+	 */
+	public static <T> Dbscan<T> dbscan( @Nullable ConfigDbscan config, int pointDimension, Class<T> dataType ) {
+		if (dataType != double[].class)
+			throw new IllegalArgumentException("Only double[] supported at this time.");
+
+		return (Dbscan)dbscan(config, false, 0,
+				new KdTreeEuclideanSq_F64(pointDimension), () -> new double[pointDimension]);
+	}
+
+	/**
+	 * @param minimumForThreads The minimum number of points required for it to use concurrent code
+	 */
+	public static <T> Dbscan<T> dbscan_MT( @Nullable ConfigDbscan config, int pointDimension,
+										   int minimumForThreads, Class<T> dataType ) {
+		if (dataType != double[].class)
+			throw new IllegalArgumentException("Only double[] supported at this time.");
+
+		return (Dbscan)dbscan(config, true, minimumForThreads,
+				new KdTreeEuclideanSq_F64(pointDimension), () -> new double[pointDimension]);
+	}
+
+	/**
+	 * High level interface for creating DBSCAN. If more flexibility is needed (e.g. a custom nearest-neighbor
+	 * search) then create and instance of {@link Dbscan} directly
+	 *
+	 * @param config Configuration for tuning parameters
+	 * @param concurrent If true then the concurrent implementation is used
+	 * @param minimumForThreads The minimum number of points required for it to use concurrent code
+	 * @param distance Distance between points used by the nearest-neighbor search
+	 * @param factory Creates a new instance of a point
+	 * @return Dbscan
+	 */
+	public static <P> Dbscan<P> dbscan( @Nullable ConfigDbscan config,
+										boolean concurrent, int minimumForThreads,
+										KdTreeDistance<P> distance,
+										DogLambdas.NewInstance<P> factory ) {
+		if (config == null)
+			config = new ConfigDbscan();
+		config.checkValidity();
+
+		// Best-bin-first searches get slow when there are many neighbors. If there's no limit on the number of
+		// nodes searched then the standard search is used, which gives the same results.
+		NearestNeighbor<P> nn;
+		if (config.search.type == ConfigNearestNeighborSearch.Type.KD_TREE &&
+				config.search.kdtree.maxNodesSearched == Integer.MAX_VALUE) {
+			nn = FactoryNearestNeighbor.kdtree(distance);
+		} else {
+			nn = FactoryNearestNeighbor.generic(config.search, distance);
+		}
+
+		Dbscan<P> alg;
+		if (concurrent) {
+			var mt = new Dbscan_MT<>(nn, factory);
+			mt.setMinimumForConcurrent(minimumForThreads);
+			alg = mt;
+		} else {
+			alg = new Dbscan<>(nn, factory);
+		}
+		alg.setMaxDistance(config.maxDistance);
+		alg.setMinPoints(config.minPoints);
+
+		return alg;
+	}
+
+	private static MiniBatchKMeans.MoveTowards<double[]> createMoveTowardsF64( int pointDimension ) {
+		return ( point, target, fraction ) -> {
+			for (int i = 0; i < pointDimension; i++) {
+				point[i] += fraction*(target[i] - point[i]);
+			}
+		};
+	}
 }
@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.clustering;
+
+/**
+ * Different ways the covariance of each Gaussian in a Gaussian Mixture Model can be constrained. A constrained
+ * covariance has fewer parameters, is faster to compute, and is more stable with high dimensional points.
+ *
+ * @author Peter Abeles
+ */
+public enum GmmCovarianceTypes {
+	/** Full covariance matrix. O(D<sup>2</sup>) to evaluate the likelihood of a point. */
+	FULL,
+	/** Only the diagonal elements are estimated, i.e. each axis is independent. O(D) to evaluate a point. */
+	DIAGONAL,
+	/** A single variance is shared by every axis. O(D) to evaluate a point. */
+	SPHERICAL
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.clustering;
+
+/**
+ * List of different algorithms for assigning points to clusters in k-means. All of them produce the same
+ * results but differ in speed and memory.
+ *
+ * @author Peter Abeles
+ */
+public enum KMeansAlgorithms {
+	/**
+	 * See {@link org.ddogleg.clustering.kmeans.StandardKMeans}. Computes the distance from every point to every
+	 * cluster each iteration.
+	 */
+	STANDARD,
+	/**
+	 * See {@link org.ddogleg.clustering.kmeans.HamerlyKMeans}. Uses a single bound per point to skip distance
+	 * calculations. O(N) extra memory.
+	 */
+	HAMERLY,
+	/**
+	 * See {@link org.ddogleg.clustering.kmeans.ElkanKMeans}. Uses a bound for every point and cluster pair to skip
+	 * distance calculations. O(N*K) extra memory.
+	 */
+	ELKAN
+}
@@ -32,5 +32,11 @@ public enum KMeansInitializers {
 	 * See {@link org.ddogleg.clustering.kmeans.InitializePlusPlus}.  Selects points randomly based on
 	 * distance from previously selected clusters.
 	 */
-	PLUS_PLUS
+	PLUS_PLUS,
+	/**
+	 * See {@link org.ddogleg.clustering.kmeans.InitializeScalable}. Also known as k-means||. Selects many
+	 * candidates in a few passes through the points then selects seeds from the candidates. Much faster
+	 * than {@link #PLUS_PLUS} when there are many seeds.
+	 */
+	SCALABLE
 }
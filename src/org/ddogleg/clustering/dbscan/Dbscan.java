@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.clustering.dbscan;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.ddogleg.clustering.ComputeClustersDensity;
+import org.ddogleg.nn.NearestNeighbor;
+import org.ddogleg.nn.NnData;
+import org.ddogleg.struct.DogArray;
+import org.ddogleg.struct.DogArray_B;
+import org.ddogleg.struct.DogArray_I32;
+import org.ddogleg.struct.DogLambdas;
+import org.ddogleg.struct.LArrayAccessor;
+
+/**
+ * <p>
+ * DBSCAN density based clustering [1]. A point is a core point if there are at least {@link #minPoints}, including
+ * itself, within {@link #maxDistance}. Core points which are neighbors are in the same cluster. Points which are not
+ * core points are assigned to the cluster of a core point they are a neighbor of, if any, otherwise they are noise.
+ * </p>
+ *
+ * <p>
+ * Neighbors are found using a {@link NearestNeighbor} search, which avoids comparing every pair of points.
+ * Instead of growing clusters one at a time, core points which are neighbors are merged using union-find, which
+ * produces the same clusters. A point which is not a core point, but is a neighbor of core points in different
+ * clusters, is assigned to the cluster of the core point with the lowest index.
+ * </p>
+ *
+ * <p>
+ * [1] Ester, Martin, et al. "A density-based algorithm for discovering clusters in large spatial databases with
+ * noise." kdd. Vol. 96. No. 34. 1996.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+@SuppressWarnings("NullAway.Init")
+public class Dbscan<P> implements ComputeClustersDensity<P> {
+	// flag for verbose mode
+	boolean verbose = false;
+
+	/** Maximum distance two points can be apart and be neighbors. Same units as the nearest-neighbor search. */
+	@Getter @Setter double maxDistance = 1.0;
+
+	/** Minimum number of neighbors, including itself, a point needs to be a core point */
+	@Getter @Setter int minPoints = 5;
+
+	// Used to find the neighbors of each point
+	protected final NearestNeighbor<P> nn;
+	// Creates new instances of points
+	protected final DogLambdas.NewInstance<P> factory;
+
+	// Copy of the points. The search keeps a reference to them.
+	protected final DogArray<P> points;
+
+	/** Which points are core points */
+	@Getter protected final DogArray_B core = new DogArray_B();
+
+	/** Which cluster each point is assigned to or {@link #NOISE} */
+	@Getter protected final DogArray_I32 assignments = new DogArray_I32();
+
+	/** Number of points assigned to each cluster */
+	@Getter protected final DogArray_I32 memberCount = new DogArray_I32();
+
+	// Union-find. Parent of each point in the tree. A root is its own parent.
+	protected final DogArray_I32 parents = new DogArray_I32();
+
+	// Cluster assigned to each root
+	protected final DogArray_I32 rootToCluster = new DogArray_I32();
+
+	// Search and its results used by the main thread
+	protected NearestNeighbor.Search<P> search;
+	protected final DogArray<NnData<P>> neighbors = new DogArray<>(NnData::new);
+
+	/**
+	 * @param nn Used to find the neighbors of each point. The search must be exact for the results to be exact.
+	 * @param factory Creates new points
+	 */
+	public Dbscan( NearestNeighbor<P> nn, DogLambdas.NewInstance<P> factory ) {
+		this.nn = nn;
+		this.factory = factory;
+		this.points = new DogArray<>(factory::newInstance);
+	}
+
+	@Override
+	public void process( LArrayAccessor<P> input ) {
+		if (maxDistance <= 0.0)
+			throw new IllegalArgumentException("maxDistance must be positive");
+		if (minPoints <= 0)
+			throw new IllegalArgumentException("minPoints must be positive");
+
+		final int N = input.size();
+		points.resize(N);
+		for (int i = 0; i < N; i++) {
+			input.getCopy(i, points.get(i));
+		}
+		nn.setPoints(points.toList(), true);
+		search = nn.createSearch();
+
+		core.resize(N);
+		findCorePoints();
+
+		if (verbose)
+			System.out.println("core points = " + core.count(true) + " / " + N);
+
+		// Initially every point is in its own set
+		parents.resize(N);
+		for (int i = 0; i < N; i++) {
+			parents.data[i] = i;
+		}
+
+		// Until the clusters are known, a point which isn't a core point stores the core point it's assigned to
+		assignments.resetResize(N, NOISE);
+
+		for (int pointIdx = 0; pointIdx < N; pointIdx++) {
+			if (!core.data[pointIdx])
+				continue;
+
+			// Find all the neighbors
+			search.findNearest(points.get(pointIdx), maxDistance, N, neighbors);
+
+			for (int i = 0; i < neighbors.size; i++) {
+				int neighborIdx = neighbors.get(i).index;
+				if (core.data[neighborIdx]) {
+					union(pointIdx, neighborIdx);
+				} else if (assignments.data[neighborIdx] == NOISE) {
+					assignments.data[neighborIdx] = pointIdx;
+				}
+			}
+		}
+
+		assignClusters(N);
+
+		if (verbose)
+			System.out.println("clusters = " + memberCount.size);
+	}
+
+	/**
+	 * Determines which points are core points by searching for {@link #minPoints} neighbors
+	 */
+	protected void findCorePoints() {
+		for (int pointIdx = 0; pointIdx < points.size; pointIdx++) {
+			core.data[pointIdx] = isCore(points.get(pointIdx), search, neighbors);
+		}
+	}
+
+	/**
+	 * Returns true if the point has enough neighbors to be a core point
+	 */
+	protected boolean isCore( P point, NearestNeighbor.Search<P> search, DogArray<NnData<P>> neighbors ) {
+		search.findNearest(point, maxDistance, minPoints, neighbors);
+		return neighbors.size >= minPoints;
+	}
+
+	/**
+	 * Converts the union-find sets into clusters with sequential indexes, ordered by their first point
+	 */
+	protected void assignClusters( int N ) {
+		rootToCluster.resetResize(N, -1);
+		memberCount.reset();
+
+		for (int pointIdx = 0; pointIdx < N; pointIdx++) {
+			int root;
+			if (core.data[pointIdx]) {
+				root = find(pointIdx);
+			} else if (assignments.data[pointIdx] != NOISE) {
+				root = find(assignments.data[pointIdx]);
+			} else {
+				continue;
+			}
+
+			int cluster = rootToCluster.data[root];
+			if (cluster == -1) {
+				cluster = memberCount.size;
+				rootToCluster.data[root] = cluster;
+				memberCount.add(0);
+			}
+			assignments.data[pointIdx] = cluster;
+			memberCount.data[cluster]++;
+		}
+	}
+
+	/**
+	 * Finds the root of the set the point belongs to. Uses path halving to keep the trees shallow.
+	 */
+	protected int find( int pointIdx ) {
+		final int[] parents = this.parents.data;
+		while (parents[pointIdx] != pointIdx) {
+			parents[pointIdx] = parents[parents[pointIdx]];
+			pointIdx = parents[pointIdx];
+		}
+		return pointIdx;
+	}
+
+	/**
+	 * Merges the sets which the two points belong to. The root with the lower index becomes the new root.
+	 */
+	protected void union( int pointA, int pointB ) {
+		int rootA = find(pointA);
+		int rootB = find(pointB);
+		if (rootA == rootB)
+			return;
+		if (rootA < rootB)
+			parents.data[rootB] = rootA;
+		else
+			parents.data[rootA] = rootB;
+	}
+
+	@Override
+	public int getNumberOfClusters() {
+		return memberCount.size;
+	}
+
+	@Override
+	public void setVerbose( boolean verbose ) {
+		this.verbose = verbose;
+	}
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.clustering.dbscan;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.ddogleg.DDoglegConcurrency;
+import org.ddogleg.nn.NearestNeighbor;
+import org.ddogleg.nn.NnData;
+import org.ddogleg.struct.DogArray;
+import org.ddogleg.struct.DogLambdas;
+import pabeles.concurrency.GrowArray;
+
+/**
+ * <p>Concurrent implementation of {@link Dbscan}. Core points are found in parallel.</p>
+ *
+ * @author Peter Abeles
+ */
+@SuppressWarnings("NullAway.Init")
+public class Dbscan_MT<P> extends Dbscan<P> {
+	/**
+	 * Minimum list size for it to use concurrent code. If a list is small it will run slower than the single
+	 * thread version. By default this is zero since the optimal value is use case specific.
+	 */
+	@Getter @Setter int minimumForConcurrent = 0;
+
+	GrowArray<SearchData> workspace = new GrowArray<>(SearchData::new, SearchData::reset);
+
+	public Dbscan_MT( NearestNeighbor<P> nn, DogLambdas.NewInstance<P> factory ) {
+		super(nn, factory);
+	}
+
+	@Override protected void findCorePoints() {
+		// see if it should run the single thread version instead
+		if (points.size < minimumForConcurrent) {
+			super.findCorePoints();
+			return;
+		}
+
+		DDoglegConcurrency.loopBlocks(0, points.size, workspace, ( work, idx0, idx1 ) -> {
+			for (int pointIdx = idx0; pointIdx < idx1; pointIdx++) {
+				// threads won't modify the same elements
+				core.data[pointIdx] = isCore(points.get(pointIdx), work.search, work.neighbors);
+			}
+		});
+	}
+
+	/**
+	 * Search used by a single thread
+	 */
+	private class SearchData {
+		public NearestNeighbor.Search<P> search;
+		public final DogArray<NnData<P>> neighbors = new DogArray<>(NnData::new);
+
+		public void reset() {
+			// A search is only valid for the points it was created after
+			search = nn.createSearch();
+		}
+	}
+}
@@ -21,6 +21,10 @@ package org.ddogleg.clustering.gmm;
 import lombok.Getter;
 import lombok.Setter;
 import org.ddogleg.clustering.AssignCluster;
+import org.ddogleg.clustering.GmmCovarianceTypes;
+import org.ddogleg.nn.NearestNeighbor;
+import org.ddogleg.nn.NnData;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -35,13 +39,27 @@ public class AssignGmm_F64 implements AssignCluster<double[]> {
 	protected @Getter @Setter List<GaussianGmm_F64> mixture;
 	protected GaussianLikelihoodManager glm;
 
+	/** Optional search over the means used for hard assignment */
+	protected @Nullable NearestNeighbor<double[]> nn;
+	protected @Nullable NearestNeighbor.Search<double[]> search;
+	protected final NnData<double[]> result = new NnData<>();
+
 	/**
 	 * Use reference to provided mixtures
 	 */
 	public AssignGmm_F64(List<GaussianGmm_F64> mixture) {
+		this(mixture, GmmCovarianceTypes.FULL);
+	}
+
+	/**
+	 * Use reference to provided mixtures
+	 *
+	 * @param covarianceType How the covariance in the mixtures is constrained
+	 */
+	public AssignGmm_F64(List<GaussianGmm_F64> mixture, GmmCovarianceTypes covarianceType) {
 		this.mixture = mixture;
 		int N = mixture.get(0).mean.getNumElements();
-		glm = new GaussianLikelihoodManager(N,mixture);
+		glm = new GaussianLikelihoodManager(N,mixture,covarianceType);
 		glm.precomputeAll();
 	}
 
@@ -57,17 +75,53 @@ public class AssignGmm_F64 implements AssignCluster<double[]> {
 		}
 
 		int N = mixture.get(0).mean.getNumElements();
-		glm = new GaussianLikelihoodManager(N,mixture);
+		glm = new GaussianLikelihoodManager(N,mixture,original.glm.covarianceType);
 		glm.precomputeAll();
 	}
 
+	/**
+	 * Specifies a nearest-neighbor search over the means which is used for hard assignment, instead of computing
+	 * the likelihood of every Gaussian. The point is assigned to the Gaussian with the closest mean. This is
+	 * only the same as the most likely Gaussian when they all have the same weight and the same spherical
+	 * covariance, otherwise it's an approximation. Soft assignment is not affected. If the mixture is modified
+	 * after this has been called, then this needs to be called again.
+	 *
+	 * @param nn Search used to find the closest mean. If null then the likelihood of every Gaussian is computed.
+	 */
+	public void setNearestNeighbor( @Nullable NearestNeighbor<double[]> nn ) {
+		this.nn = nn;
+		if (nn == null) {
+			search = null;
+			return;
+		}
+		List<double[]> means = new ArrayList<>();
+		for (int i = 0; i < mixture.size(); i++) {
+			means.add(mixture.get(i).mean.data);
+		}
+		nn.setPoints(means, true);
+		search = nn.createSearch();
+	}
+
+	/**
+	 * Returns the nearest-neighbor search or null if the likelihood of every Gaussian is computed
+	 */
+	public @Nullable NearestNeighbor<double[]> getNearestNeighbor() {
+		return nn;
+	}
+
 	@Override
 	public int assign(double[] point) {
+		if (search != null) {
+			if (!search.findNearest(point, -1, result))
+				return -1;
+			return result.index;
+		}
+
 		int indexBest = -1;
-		double scoreBest = 0;
+		double scoreBest = Double.NEGATIVE_INFINITY;
 
 		for (int i = 0; i < mixture.size(); i++) {
-			double score = glm.getLikelihood(i).likelihood(point);
+			double score = glm.getLikelihood(i).logLikelihood(point);
 			if( score > scoreBest ) {
 				scoreBest = score;
 				indexBest = i;
@@ -79,9 +133,16 @@ public class AssignGmm_F64 implements AssignCluster<double[]> {
 
 	@Override
 	public void assign(double[] point, double[] fit) {
+		// Use log-sum-exp to avoid underflow
+		double best = Double.NEGATIVE_INFINITY;
+		for (int i = 0; i < mixture.size(); i++) {
+			fit[i] = glm.getLikelihood(i).logLikelihood(point);
+			best = Math.max(best, fit[i]);
+		}
+
 		double total = 0;
 		for (int i = 0; i < mixture.size(); i++) {
-			total += fit[i] = glm.getLikelihood(i).likelihood(point);
+			total += fit[i] = best == Double.NEGATIVE_INFINITY ? 0.0 : Math.exp(fit[i] - best);
 		}
 
 		for (int i = 0; i < mixture.size(); i++) {
@@ -18,17 +18,29 @@
 
 package org.ddogleg.clustering.gmm;
 
+import lombok.Getter;
+import lombok.Setter;
 import org.ddogleg.clustering.AssignCluster;
 import org.ddogleg.clustering.ComputeClusters;
+import org.ddogleg.clustering.GmmCovarianceTypes;
+import org.ddogleg.clustering.misc.FlatAccessorF64;
+import org.ddogleg.clustering.misc.FlatArrayAccessorF64;
 import org.ddogleg.struct.DogArray;
 import org.ddogleg.struct.DogArray_F64;
 import org.ddogleg.struct.LArrayAccessor;
+import org.ejml.data.DMatrixRMaj;
 import org.ejml.dense.row.CommonOps_DDRM;
 
 /**
  * Standard expectation maximization based approach to fitting mixture-of-Gaussian models to a set of data.
- * A locally optimal maximum likelihood estimate is found.  The full covariance is found.  Some other
- * variants will estimate just diagonal elements or a single covariance, but that isn't yet supported.
+ * A locally optimal maximum likelihood estimate is found.  By default the full covariance is found, but it can
+ * also be constrained to be diagonal or spherical. See {@link GmmCovarianceTypes}. Responsibilities are computed
+ * in log-space so that they don't underflow with high dimensional points.
+ *
+ * <p>
+ * If the points are provided using a {@link FlatAccessorF64} then they are read in place. Otherwise, they are
+ * copied into a single array. The responsibilities are stored in a single N by K array.
+ * </p>
  *
  * <p>
  * Converged if, {@code(D[i] - D[i-1])/D[i] <= tol}, where D is the sum of point from cluster distance at iteration 'i',
@@ -37,11 +49,11 @@ import org.ejml.dense.row.CommonOps_DDRM;
  *
  * @author Peter Abeles
  */
-// TODO Unconstrained covariance
-// TODO just diagonal covariance
-	// TODO added shared and tied covariance?
+// TODO added shared and tied covariance?
 @SuppressWarnings("NullAway.Init")
 public class ExpectationMaximizationGmm_F64 implements ComputeClusters<double[]>  {
+	/** Largest array which can be declared. Slightly less than Integer.MAX_VALUE due to JVM limits. */
+	public static final int MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
 
 	 // Used to select initial parameters
 	InitializeGmm_F64 selectInitial;
@@ -49,9 +61,18 @@ public class ExpectationMaximizationGmm_F64 implements ComputeClusters<double[]>
 	// storage for mixture models
 	DogArray<GaussianGmm_F64> mixture;
 
-	// info for each points
-	@SuppressWarnings("NullAway")
-	DogArray<PointInfo> info;
+	// Points being clustered. Coordinates are read in place
+	FlatAccessorF64 points;
+
+	// Number of points
+	int numPoints;
+
+	// Storage for the points when the input isn't a FlatAccessorF64
+	final DogArray_F64 pointsCopy = new DogArray_F64();
+	final FlatArrayAccessorF64 copyAccessor;
+
+	/** Responsibility of each Gaussian for each point. Row-major N by K matrix. */
+	final DogArray_F64 responsibilities = new DogArray_F64();
 
 	// Maximum number of iterations
 	int maxIterations;
@@ -68,6 +89,7 @@ public class ExpectationMaximizationGmm_F64 implements ComputeClusters<double[]>
 
 	// internal work space for computing the difference between the mean and point
 	double[] dx = new double[1];
+	DMatrixRMaj diff = new DMatrixRMaj(1, 1);
 
 	// compute chi-square error
 	double errorChiSquare;
@@ -75,6 +97,9 @@ public class ExpectationMaximizationGmm_F64 implements ComputeClusters<double[]>
 	// true for verbose output to standard out
 	boolean verbose;
 
+	/** How the covariance is constrained. Must be set before {@link #initialize} is called. */
+	@Getter @Setter GmmCovarianceTypes covarianceType = GmmCovarianceTypes.FULL;
+
 	/**
 	 * Configures EM parameters
 	 *
@@ -91,7 +116,7 @@ public class ExpectationMaximizationGmm_F64 implements ComputeClusters<double[]>
 		this.selectInitial = selectInitial;
 		this.pointDimension = pointDimension;
 
-		info = new DogArray<>(()->new PointInfo(pointDimension));
+		copyAccessor = new FlatArrayAccessorF64(pointDimension);
 		mixture = new DogArray<>(()->new GaussianGmm_F64(pointDimension));
 
 		System.err.println("WARNING:  GMM-EM is a work in progress!  Might not work in your situation");
@@ -103,20 +128,14 @@ public class ExpectationMaximizationGmm_F64 implements ComputeClusters<double[]>
 
 		if( dx.length < pointDimension )
 			dx = new double[pointDimension];
-		likelihoodManager = new GaussianLikelihoodManager(pointDimension,mixture.toList());
+		diff.reshape(pointDimension, 1);
+		likelihoodManager = new GaussianLikelihoodManager(pointDimension,mixture.toList(),covarianceType);
 	}
 
 	@Override
 	public void process( LArrayAccessor<double[]> points, int numCluster) {
 		// setup data structures
-		mixture.resize(numCluster);
-		info.resize(points.size());
-
-		for (int i = 0; i < points.size(); i++) {
-			PointInfo p = info.get(i);
-			points.getCopy(i,p.point);
-			p.weights.resize(numCluster);
-		}
+		declarePoints(points, numCluster);
 
 		if( verbose ) System.out.println("GMM-EM: Selecting initial seeds");
 
@@ -145,7 +164,35 @@ public class ExpectationMaximizationGmm_F64 implements ComputeClusters<double[]>
 			maximization();
 			likelihoodManager.precomputeAll();
 		}
-		info.reset();
+	}
+
+	/**
+	 * Sets up the data structures for the points. If the points aren't stored in a flat array then they are
+	 * copied into one. Responsibilities and copied points are stored in single arrays, so their total size
+	 * can't exceed {@link #MAX_ARRAY_LENGTH}.
+	 */
+	protected void declarePoints( LArrayAccessor<double[]> input, int numCluster ) {
+		if ((long)input.size()*numCluster > MAX_ARRAY_LENGTH)
+			throw new IllegalArgumentException("Too many points and clusters. " + input.size() + "*" + numCluster +
+					" responsibilities exceeds " + MAX_ARRAY_LENGTH);
+
+		mixture.resize(numCluster);
+		numPoints = input.size();
+
+		if( input instanceof FlatAccessorF64 && ((FlatAccessorF64)input).getDimension() == pointDimension ) {
+			points = (FlatAccessorF64)input;
+		} else {
+			if ((long)numPoints*pointDimension > MAX_ARRAY_LENGTH)
+				throw new IllegalArgumentException("Too many points to copy into one array. Use a FlatAccessorF64");
+			pointsCopy.resize(numPoints*pointDimension);
+			for (int i = 0; i < numPoints; i++) {
+				System.arraycopy(input.getTemp(i), 0, pointsCopy.data, i*pointDimension, pointDimension);
+			}
+			copyAccessor.wrap(pointsCopy.data, numPoints);
+			points = copyAccessor;
+		}
+
+		responsibilities.resize(numPoints*numCluster);
 	}
 
 	/**
@@ -156,38 +203,64 @@ public class ExpectationMaximizationGmm_F64 implements ComputeClusters<double[]>
 	protected double expectation() {
 		double sumChiSq = 0;
 
-		for (int i = 0; i < info.size(); i++) {
-			PointInfo p = info.get(i);
-
-			// identify the best cluster match and save it's chi-square for convergence testing
-			double bestLikelihood = 0;
-			double bestChiSq = Double.MAX_VALUE;
+		for (int i = 0; i < numPoints; i++) {
+			sumChiSq += expectation(i, diff);
+		}
 
-			double total = 0;
-			for (int j = 0; j < mixture.size; j++) {
-				GaussianLikelihoodManager.Likelihood g = likelihoodManager.getLikelihood(j);
-				double likelihood = g.likelihood(p.point);
-				total += p.weights.data[j] = likelihood;
+		return sumChiSq;
+	}
 
-				if( likelihood > bestLikelihood ) {
-					bestLikelihood = likelihood;
-					bestChiSq = g.getChisq();
+	/**
+	 * Computes the "responsibility" of each Gaussian for a single point
+	 *
+	 * @param pointIdx Index of the point. Its responsibilities are modified.
+	 * @param workspace (Workspace) Storage for the difference between the point and a mean.
+	 * @return The chi-square of the Gaussian with the largest likelihood
+	 */
+	protected double expectation( int pointIdx, DMatrixRMaj workspace ) {
+		final double[] data = points.getArray(pointIdx);
+		final int offset = points.getOffset(pointIdx);
+		final double[] weights = responsibilities.data;
+		final int row = pointIdx*mixture.size;
+
+		// identify the best cluster match and save it's chi-square for convergence testing
+		double bestLogLikelihood = Double.NEGATIVE_INFINITY;
+		double bestChiSq = Double.MAX_VALUE;
+
+		// Compute the log-likelihood first to avoid underflow
+		for (int j = 0; j < mixture.size; j++) {
+			GaussianLikelihoodManager.Likelihood g = likelihoodManager.getLikelihood(j);
+			double logLikelihood = Double.NEGATIVE_INFINITY;
+			if( g.valid ) {
+				double chisq = g.computeChisq(data, offset, workspace);
+				logLikelihood = g.logLikelihoodFromChisq(chisq);
+
+				if( logLikelihood > bestLogLikelihood ) {
+					bestLogLikelihood = logLikelihood;
+					bestChiSq = chisq;
 				}
 			}
+			weights[row + j] = logLikelihood;
+		}
 
-			// make sure it sums up to 1
-			if( total > 0 ) {
-				for (int j = 0; j < mixture.size; j++) {
-					p.weights.data[j] /= total;
-				}
-			}
+		// No valid Gaussians
+		if( bestLogLikelihood == Double.NEGATIVE_INFINITY ) {
+			responsibilities.fill(row, row + mixture.size, 0.0);
+			return bestChiSq;
+		}
 
-			// only add the best chi-square since the other mixtures might be far away
-			// I guess I could use the weights to do this too.
-			sumChiSq += bestChiSq;
+		// make sure it sums up to 1 using log-sum-exp
+		double total = 0;
+		for (int j = 0; j < mixture.size; j++) {
+			total += weights[row + j] = Math.exp(weights[row + j] - bestLogLikelihood);
+		}
+		for (int j = 0; j < mixture.size; j++) {
+			weights[row + j] /= total;
 		}
 
-		return sumChiSq;
+		// only add the best chi-square since the other mixtures might be far away
+		// I guess I could use the weights to do this too.
+		return bestChiSq;
 	}
 
 	/**
@@ -200,35 +273,65 @@ public class ExpectationMaximizationGmm_F64 implements ComputeClusters<double[]>
 			mixture.get(i).zero();
 		}
 
+		final int K = mixture.size;
+		final double[] weights = responsibilities.data;
+
 		// compute the new mean
-		for (int i = 0; i < info.size; i++) {
-			PointInfo p = info.get(i);
+		for (int i = 0; i < numPoints; i++) {
+			double[] data = points.getArray(i);
+			int offset = points.getOffset(i);
 
-			for (int j = 0; j < mixture.size; j++) {
-				mixture.get(j).addMean(p.point,p.weights.get(j));
+			for (int j = 0; j < K; j++) {
+				mixture.get(j).addMean(data, offset, weights[i*K + j]);
 			}
 		}
-		for (int i = 0; i < mixture.size; i++) {
-			GaussianGmm_F64 g = mixture.get(i);
-			if( g.weight > 0 )
-				CommonOps_DDRM.divide(g.mean,g.weight);
-		}
+		divideMeans();
 
 		// compute new covariance
-		for (int i = 0; i < info.size; i++) {
-			PointInfo pp = info.get(i);
-			double[] p = pp.point;
+		for (int i = 0; i < numPoints; i++) {
+			double[] data = points.getArray(i);
+			int offset = points.getOffset(i);
 
-			for (int j = 0; j < mixture.size; j++) {
+			for (int j = 0; j < K; j++) {
 				GaussianGmm_F64 g = mixture.get(j);
 
-				for (int k = 0; k < p.length; k++) {
-					dx[k] = p[k]-g.mean.data[k];
+				for (int k = 0; k < pointDimension; k++) {
+					dx[k] = data[offset + k]-g.mean.data[k];
 				}
 
-				mixture.get(j).addCovariance(dx, pp.weights.get(j));
+				addCovariance(g, dx, weights[i*K + j]);
 			}
 		}
+		divideCovariances();
+	}
+
+	/**
+	 * Adds the difference between the point and the mean to the covariance, while taking in account how it's
+	 * constrained
+	 */
+	protected void addCovariance( GaussianGmm_F64 g, double[] difference, double responsibility ) {
+		if( covarianceType == GmmCovarianceTypes.FULL )
+			g.addCovariance(difference, responsibility);
+		else
+			g.addCovarianceDiagonal(difference, responsibility);
+	}
+
+	/**
+	 * Converts the weighted sum of points into the mean of each Gaussian
+	 */
+	protected void divideMeans() {
+		for (int i = 0; i < mixture.size; i++) {
+			GaussianGmm_F64 g = mixture.get(i);
+			if( g.weight > 0 )
+				CommonOps_DDRM.divide(g.mean,g.weight);
+		}
+	}
+
+	/**
+	 * Converts the weighted sum into the covariance of each Gaussian and normalizes the weights so that they
+	 * sum up to one
+	 */
+	protected void divideCovariances() {
 		double totalMixtureWeight = 0;
 		for (int i = 0; i < mixture.size; i++) {
 			GaussianGmm_F64 g = mixture.get(i);
@@ -236,6 +339,13 @@ public class ExpectationMaximizationGmm_F64 implements ComputeClusters<double[]>
 				CommonOps_DDRM.divide(g.covariance, g.weight);
 				totalMixtureWeight += g.weight;
 			}
+			if( covarianceType == GmmCovarianceTypes.SPHERICAL ) {
+				// every axis has the same variance
+				double variance = CommonOps_DDRM.trace(g.covariance)/pointDimension;
+				for (int k = 0; k < pointDimension; k++) {
+					g.covariance.unsafe_set(k, k, variance);
+				}
+			}
 		}
 
 		// update the weight
@@ -246,7 +356,7 @@ public class ExpectationMaximizationGmm_F64 implements ComputeClusters<double[]>
 
 	@Override
 	public AssignCluster<double[]> getAssignment() {
-		return new AssignGmm_F64(mixture.toList());
+		return new AssignGmm_F64(mixture.toList(), covarianceType);
 	}
 
 	@Override
@@ -263,14 +373,4 @@ public class ExpectationMaximizationGmm_F64 implements ComputeClusters<double[]>
 	@Override public ComputeClusters<double[]> newInstanceThread() {
 		throw new RuntimeException("Not yet implemented");
 	}
-
-	public static class PointInfo
-	{
-		public double[] point;
-		public DogArray_F64 weights = new DogArray_F64();
-
-		public PointInfo(int pointDimension) {
-			point = new double[pointDimension];
-		}
-	}
 }
@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.clustering.gmm;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.ddogleg.DDoglegConcurrency;
+import org.ddogleg.struct.DogArray;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+
+/**
+ * <p>Concurrent implementation of {@link ExpectationMaximizationGmm_F64}</p>
+ *
+ * <p>
+ * Points are split into a fixed number of contiguous blocks and each block is processed by a single thread. The
+ * partial sums from each block are then added together in index order. Since the blocks don't depend on the number
+ * of threads, the results will be identical each time. They can be slightly different from the single thread
+ * version due to the order floating point numbers are added in. Each block stores a full set of Gaussians, so
+ * memory is bounded by the number of blocks and not the number of points.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+@SuppressWarnings("NullAway.Init")
+public class ExpectationMaximizationGmm_F64_MT extends ExpectationMaximizationGmm_F64 {
+	/**
+	 * Minimum number of points for it to use concurrent code. If a list is small it will run slower than the single
+	 * thread version. By default this is zero since the optimal value is use case specific.
+	 */
+	@Getter @Setter int minimumForConcurrent = 0;
+
+	/** Maximum number of blocks the points are split into. Each block has its own copy of the Gaussians. */
+	@Getter @Setter int maxBlocks = 32;
+
+	// Partial results from each block
+	final DogArray<BlockData> blocks = new DogArray<>(BlockData::new);
+
+	/**
+	 * Configures EM parameters
+	 *
+	 * @param maxIterations Maximum number of iterations
+	 * @param convergeTol If the relative change in score is less or equal than this amount it has converged
+	 * @param selectInitial Used to select initial seeds for the clusters
+	 */
+	public ExpectationMaximizationGmm_F64_MT( int maxIterations,
+											  double convergeTol,
+											  int pointDimension,
+											  InitializeGmm_F64 selectInitial ) {
+		super(maxIterations, convergeTol, pointDimension, selectInitial);
+	}
+
+	@Override protected double expectation() {
+		if (numPoints < minimumForConcurrent)
+			return super.expectation();
+
+		declareBlocks();
+
+		DDoglegConcurrency.loopFor(0, blocks.size, blockIdx -> {
+			BlockData block = blocks.get(blockIdx);
+
+			block.sumChiSq = 0;
+			for (int i = block.idx0; i < block.idx1; i++) {
+				block.sumChiSq += expectation(i, block.diff);
+			}
+		});
+
+		double sumChiSq = 0;
+		for (int blockIdx = 0; blockIdx < blocks.size; blockIdx++) {
+			sumChiSq += blocks.get(blockIdx).sumChiSq;
+		}
+		return sumChiSq;
+	}
+
+	@Override protected void maximization() {
+		if (numPoints < minimumForConcurrent) {
+			super.maximization();
+			return;
+		}
+
+		declareBlocks();
+		final int K = mixture.size;
+		final double[] weights = responsibilities.data;
+
+		// compute the weighted sum of points in each block
+		DDoglegConcurrency.loopFor(0, blocks.size, blockIdx -> {
+			BlockData block = blocks.get(blockIdx);
+
+			for (int j = 0; j < mixture.size; j++) {
+				block.mixture.get(j).zero();
+			}
+
+			for (int i = block.idx0; i < block.idx1; i++) {
+				double[] data = points.getArray(i);
+				int offset = points.getOffset(i);
+				for (int j = 0; j < K; j++) {
+					block.mixture.get(j).addMean(data, offset, weights[i*K + j]);
+				}
+			}
+		});
+
+		// add the blocks together and compute the mean
+		for (int j = 0; j < mixture.size; j++) {
+			GaussianGmm_F64 g = mixture.get(j);
+			g.zero();
+			for (int blockIdx = 0; blockIdx < blocks.size; blockIdx++) {
+				GaussianGmm_F64 b = blocks.get(blockIdx).mixture.get(j);
+				CommonOps_DDRM.addEquals(g.mean, b.mean);
+				g.weight += b.weight;
+			}
+		}
+		divideMeans();
+
+		// compute the weighted sum of the outer products in each block
+		DDoglegConcurrency.loopFor(0, blocks.size, blockIdx -> {
+			BlockData block = blocks.get(blockIdx);
+			double[] dx = block.dx;
+
+			for (int i = block.idx0; i < block.idx1; i++) {
+				double[] data = points.getArray(i);
+				int offset = points.getOffset(i);
+
+				for (int j = 0; j < K; j++) {
+					GaussianGmm_F64 g = mixture.get(j);
+
+					for (int k = 0; k < pointDimension; k++) {
+						dx[k] = data[offset + k] - g.mean.data[k];
+					}
+
+					addCovariance(block.mixture.get(j), dx, weights[i*K + j]);
+				}
+			}
+		});
+
+		// add the blocks together and compute the covariance
+		for (int j = 0; j < mixture.size; j++) {
+			GaussianGmm_F64 g = mixture.get(j);
+			for (int blockIdx = 0; blockIdx < blocks.size; blockIdx++) {
+				CommonOps_DDRM.addEquals(g.covariance, blocks.get(blockIdx).mixture.get(j).covariance);
+			}
+		}
+		divideCovariances();
+	}
+
+	/**
+	 * Splits the points up into contiguous blocks and makes sure each block has enough storage
+	 */
+	void declareBlocks() {
+		if (maxBlocks <= 0)
+			throw new IllegalArgumentException("maxBlocks must be positive");
+
+		blocks.resize(Math.max(1, Math.min(maxBlocks, numPoints)));
+		for (int blockIdx = 0; blockIdx < blocks.size; blockIdx++) {
+			BlockData block = blocks.get(blockIdx);
+			block.idx0 = (int)((long)numPoints*blockIdx/blocks.size);
+			block.idx1 = (int)((long)numPoints*(blockIdx + 1)/blocks.size);
+			block.mixture.resize(mixture.size);
+		}
+	}
+
+	/**
+	 * Workspace and partial results for a block of points
+	 */
+	class BlockData {
+		// index of the first point in the block
+		int idx0;
+		// index of the point after the last point in the block
+		int idx1;
+		// sum of chi-square for all points in the block
+		double sumChiSq;
+		// weighted sums for each Gaussian
+		final DogArray<GaussianGmm_F64> mixture = new DogArray<>(() -> new GaussianGmm_F64(pointDimension));
+		// difference between the point and the mean
+		final double[] dx = new double[pointDimension];
+		final DMatrixRMaj diff = new DMatrixRMaj(pointDimension, 1);
+	}
+}
@@ -61,8 +61,15 @@ public class GaussianGmm_F64 implements Serializable {
 	 * Helper function for computing Gaussian parameters.  Adds the point to mean and weight.
 	 */
 	public void addMean( double[] point , double responsibility ) {
+		addMean(point, 0, responsibility);
+	}
+
+	/**
+	 * Same as {@link #addMean(double[], double)} but the point starts at 'offset' inside the array
+	 */
+	public void addMean( double[] data , int offset , double responsibility ) {
 		for (int i = 0; i < mean.numRows; i++) {
-			mean.data[i] += responsibility*point[i];
+			mean.data[i] += responsibility*data[offset+i];
 		}
 		weight += responsibility;
 	}
@@ -86,6 +93,17 @@ public class GaussianGmm_F64 implements Serializable {
 		}
 	}
 
+	/**
+	 * Same as {@link #addCovariance} but only the diagonal elements are updated. Used when the covariance
+	 * is constrained to be diagonal.
+	 */
+	public void addCovarianceDiagonal( double[] difference , double responsibility ) {
+		int N = mean.numRows;
+		for (int i = 0; i < N; i++) {
+			covariance.data[i*N+i] += responsibility*difference[i]*difference[i];
+		}
+	}
+
 	/**
 	 * Sets the mean to be the same as the provided point\
 	 */
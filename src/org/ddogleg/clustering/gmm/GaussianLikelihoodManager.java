@@ -18,6 +18,7 @@
 
 package org.ddogleg.clustering.gmm;
 
+import org.ddogleg.clustering.GmmCovarianceTypes;
 import org.ddogleg.struct.DogArray;
 import org.ejml.LinearSolverSafe;
 import org.ejml.data.DMatrixRMaj;
@@ -30,6 +31,9 @@ import java.util.List;
 
 /**
  * Computes the likelihood of a Gaussian distribution.  Parts of the equation are precomputed to seed up the process.
+ * The log-likelihood can also be computed, which won't underflow for points which are far away or have many
+ * dimensions. If the covariance is constrained, see {@link GmmCovarianceTypes}, then only the diagonal elements
+ * of the covariance matrix are used and the likelihood can be evaluated in O(D) instead of O(D<sup>2</sup>).
  *
  * @author Peter Abeles
  */
@@ -46,8 +50,20 @@ public class GaussianLikelihoodManager {
 	// Used internally when computing difference between point and mean
 	DMatrixRMaj diff;
 
+	// Storage for the triangular matrix from the Cholesky decomposition
+	DMatrixRMaj workT = new DMatrixRMaj(1,1);
+
+	// How the covariance is constrained
+	final GmmCovarianceTypes covarianceType;
+
 	public GaussianLikelihoodManager( final int pointDimension , List<GaussianGmm_F64> mixtures ) {
+		this(pointDimension, mixtures, GmmCovarianceTypes.FULL);
+	}
+
+	public GaussianLikelihoodManager( final int pointDimension , List<GaussianGmm_F64> mixtures,
+									  GmmCovarianceTypes covarianceType ) {
 		this.mixtures = mixtures;
+		this.covarianceType = covarianceType;
 
 		// this will produce a cholesky decomposition
 		solver = LinearSolverFactory_DDRM.symmPosDef(pointDimension);
@@ -86,6 +102,10 @@ public class GaussianLikelihoodManager {
 		// used to precompute parts of the likelihood function
 		public DMatrixRMaj invCov;
 		public double leftSide; // precomputed left side of likelihood
+		public double logLeftSide; // log of leftSide
+
+		// inverse of the variance along each axis. Only used if the covariance is constrained
+		public double[] invVariance;
 
 		public double chisq; // chi-sq (x-mu)'*inv(Sigma)*(x-mu)
 
@@ -93,6 +113,7 @@ public class GaussianLikelihoodManager {
 
 		public Likelihood(int N) {
 			invCov = new DMatrixRMaj(N,N);
+			invVariance = new double[N];
 		}
 
 		/**
@@ -102,19 +123,68 @@ public class GaussianLikelihoodManager {
 		public void setGaussian(GaussianGmm_F64 gaussian) {
 			this.gaussian = gaussian;
 
-			if (!solver.setA(gaussian.covariance)) {
-				valid = false;
-				return;
+			// log of the determinant
+			double logDet;
+			if (covarianceType == GmmCovarianceTypes.FULL) {
+				if (!solver.setA(gaussian.covariance)) {
+					valid = false;
+					return;
+				}
+				solver.invert(invCov);
+
+				// The determinant can easily overflow with many dimensions, so the log is computed directly
+				// from the diagonal elements of the decomposition
+				CholeskyDecomposition_F64<DMatrixRMaj> decomposition = solver.getDecomposition();
+				DMatrixRMaj T = decomposition.getT(workT);
+				logDet = 0;
+				for (int i = 0; i < T.numRows; i++) {
+					logDet += 2.0*Math.log(T.unsafe_get(i, i));
+				}
 			} else {
-				valid = true;
+				logDet = precomputeConstrained(gaussian.covariance);
+				if (Double.isNaN(logDet)) {
+					valid = false;
+					return;
+				}
 			}
-			solver.invert(invCov);
-
-			CholeskyDecomposition_F64<DMatrixRMaj> decomposition = solver.getDecomposition();
-			double det = decomposition.computeDeterminant().real;
+			valid = true;
 
 			// (2*PI)^(D/2) has been omitted since it's the same for all the Gaussians and will get normalized out
-			leftSide = 1.0 / Math.sqrt(det);
+			logLeftSide = -0.5*logDet;
+			leftSide = Math.exp(logLeftSide);
+		}
+
+		/**
+		 * Computes the inverse variance along each axis for a constrained covariance
+		 *
+		 * @return log of the determinant or NaN if it isn't valid
+		 */
+		double precomputeConstrained(DMatrixRMaj covariance) {
+			int N = covariance.numRows;
+
+			if (covarianceType == GmmCovarianceTypes.SPHERICAL) {
+				double variance = 0;
+				for (int i = 0; i < N; i++) {
+					variance += covariance.unsafe_get(i, i);
+				}
+				variance /= N;
+				if (!(variance > 0))
+					return Double.NaN;
+				for (int i = 0; i < N; i++) {
+					invVariance[i] = 1.0/variance;
+				}
+				return N*Math.log(variance);
+			}
+
+			double logDet = 0;
+			for (int i = 0; i < N; i++) {
+				double variance = covariance.unsafe_get(i, i);
+				if (!(variance > 0))
+					return Double.NaN;
+				invVariance[i] = 1.0/variance;
+				logDet += Math.log(variance);
+			}
+			return logDet;
 		}
 
 		/**
@@ -127,16 +197,75 @@ public class GaussianLikelihoodManager {
 			if( !valid )
 				return 0;
 
+			chisq = computeChisq(point, diff);
+
+			return likelihoodFromChisq(chisq);
+		}
+
+		/**
+		 * Computes log(p(x|mu,Sigma)) where x is the point.  The chi-square value is also computed. Unlike
+		 * {@link #likelihood} this won't underflow to zero when the point is far away.
+		 *
+		 * @param point     The point being examined
+		 * @return log-likelihood of the point or negative infinity if the distribution isn't valid
+		 */
+		public double logLikelihood(double[] point) {
+			if( !valid )
+				return Double.NEGATIVE_INFINITY;
+
+			chisq = computeChisq(point, diff);
+
+			return logLikelihoodFromChisq(chisq);
+		}
+
+		/**
+		 * Computes the chi-square (x-mu)'*inv(Sigma)*(x-mu) for the point. Internal state isn't modified so
+		 * this can be called by multiple threads at the same time, as long as each has its own workspace.
+		 *
+		 * @param point     The point being examined
+		 * @param workspace (Workspace) Storage for the difference between the point and the mean. N by 1.
+		 * @return chi-square
+		 */
+		public double computeChisq(double[] point, DMatrixRMaj workspace) {
+			return computeChisq(point, 0, workspace);
+		}
+
+		/**
+		 * Same as {@link #computeChisq(double[], DMatrixRMaj)} but the point starts at 'offset' inside the array
+		 */
+		public double computeChisq(double[] data, int offset, DMatrixRMaj workspace) {
 			int N = gaussian.mean.numRows;
+
+			if (covarianceType != GmmCovarianceTypes.FULL) {
+				double sum = 0;
+				for (int i = 0; i < N; i++) {
+					double d = data[offset + i] - gaussian.mean.data[i];
+					sum += d*d*invVariance[i];
+				}
+				return sum;
+			}
+
 			// x - mu
 			for (int i = 0; i < N; i++) {
-				diff.data[i] = point[i] - gaussian.mean.data[i];
+				workspace.data[i] = data[offset + i] - gaussian.mean.data[i];
 			}
-			chisq = VectorVectorMult_DDRM.innerProdA(diff, invCov, diff);
+			return VectorVectorMult_DDRM.innerProdA(workspace, invCov, workspace);
+		}
 
+		/**
+		 * Computes the likelihood from the chi-square. See {@link #computeChisq}
+		 */
+		public double likelihoodFromChisq(double chisq) {
 			return leftSide * Math.exp(-0.5 * chisq);
 		}
 
+		/**
+		 * Computes the log-likelihood from the chi-square. See {@link #computeChisq}
+		 */
+		public double logLikelihoodFromChisq(double chisq) {
+			return logLeftSide - 0.5 * chisq;
+		}
+
 		public double getChisq() {
 			return chisq;
 		}
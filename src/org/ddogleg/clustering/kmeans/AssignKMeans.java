@@ -22,7 +22,9 @@ import lombok.Getter;
 import lombok.Setter;
 import org.ddogleg.clustering.AssignCluster;
 import org.ddogleg.clustering.PointDistance;
-import org.ddogleg.struct.FastAccess;
+import org.ddogleg.nn.NearestNeighbor;
+import org.ddogleg.nn.NnData;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.Serializable;
 import java.util.ArrayList;
@@ -34,24 +36,89 @@ import java.util.List;
  * used to select the best fit clusters to a point.  This distance metric works well for hard assignment but can
  * produce undesirable results for soft assignment, see JavaDoc.
  *
+ * When there are many clusters, hard assignment can be sped up by searching the cluster centers with a
+ * {@link NearestNeighbor}, see {@link #setNearestNeighbor}.
+ *
  * @author Peter Abeles
  */
 public class AssignKMeans<P> implements AssignCluster<P>, Serializable{
 
 	/** Each point is the mean of a cluster */
-	@Getter @Setter List<P> clusters;
+	@Getter List<P> clusters;
 
 	/** Computes the distance two points are apart */
 	@Getter @Setter PointDistance<P> distancer;
 
+	/** Optional search over the cluster centers used for hard assignment. Not serialized. */
+	protected transient @Nullable NearestNeighbor<P> nn;
+	// Search and storage for its result, used by the calling thread
+	protected transient @Nullable NearestNeighbor.Search<P> search;
+	protected transient @Nullable NnData<P> result;
+
 	public AssignKMeans(List<P> clusters, PointDistance<P> distancer) {
 		// Copy to make sure there are no serialization issues.
 		this.clusters = new ArrayList<>(clusters);
 		this.distancer = distancer;
 	}
 
+	/**
+	 * Changes the clusters. If a nearest-neighbor search is being used then it's updated too.
+	 */
+	public void setClusters( List<P> clusters ) {
+		this.clusters = clusters;
+		if (nn != null)
+			setNearestNeighbor(nn);
+	}
+
+	/**
+	 * Specifies a nearest-neighbor search which is used to find the closest cluster for hard assignment, instead
+	 * of checking every cluster. This is much faster when there are many clusters. Its distance metric must be
+	 * the same as {@link #distancer}. If the search is approximate, e.g. a K-D tree with a limited number of nodes
+	 * searched, then so is the assignment. Soft assignment is not affected. If the list of clusters is
+	 * modified after this has been called, then this needs to be called again.
+	 *
+	 * @param nn Search used to find the closest cluster. If null then every cluster will be checked.
+	 */
+	public void setNearestNeighbor( @Nullable NearestNeighbor<P> nn ) {
+		this.nn = nn;
+		if (nn == null) {
+			search = null;
+			result = null;
+			return;
+		}
+		nn.setPoints(clusters, true);
+		search = nn.createSearch();
+		result = new NnData<>();
+	}
+
+	/**
+	 * Returns the nearest-neighbor search or null if every cluster is checked
+	 */
+	public @Nullable NearestNeighbor<P> getNearestNeighbor() {
+		return nn;
+	}
+
 	@Override
 	public int assign(P point) {
+		return findClosest(point, distancer, search, result);
+	}
+
+	/**
+	 * Finds the cluster which is closest to the point
+	 *
+	 * @param distancer Used when every cluster is checked
+	 * @param search If not null then it's used to find the closest cluster
+	 * @param result Storage for the search's result
+	 * @return Index of the closest cluster
+	 */
+	protected int findClosest( P point, PointDistance<P> distancer,
+							   @Nullable NearestNeighbor.Search<P> search, @Nullable NnData<P> result ) {
+		if (search != null && result != null) {
+			if (!search.findNearest(point, -1, result))
+				return -1;
+			return result.index;
+		}
+
 		int best = -1;
 		double bestScore = Double.MAX_VALUE;
 
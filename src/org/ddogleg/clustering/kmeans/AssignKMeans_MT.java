@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.clustering.kmeans;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.ddogleg.DDoglegConcurrency;
+import org.ddogleg.clustering.PointDistance;
+import org.ddogleg.nn.NearestNeighbor;
+import org.ddogleg.nn.NnData;
+import org.ddogleg.struct.DogArray_I32;
+import org.ddogleg.struct.DogLambdas;
+import org.ddogleg.struct.LArrayAccessor;
+import org.jetbrains.annotations.Nullable;
+import pabeles.concurrency.GrowArray;
+
+import java.util.List;
+
+/**
+ * <p>Concurrent implementation of {@link AssignKMeans}. Points are assigned in parallel when assigning a batch.</p>
+ *
+ * @author Peter Abeles
+ */
+@SuppressWarnings("NullAway.Init")
+public class AssignKMeans_MT<P> extends AssignKMeans<P> {
+	/**
+	 * Minimum list size for it to use concurrent code. If a list is small it will run slower than the single
+	 * thread version. By default this is zero since the optimal value is use case specific.
+	 */
+	@Getter @Setter int minimumForConcurrent = 0;
+
+	// Creates new instances of points. Not serialized, see assign()
+	transient DogLambdas.NewInstance<P> factory;
+
+	transient GrowArray<ThreadData> workspace;
+
+	/**
+	 * @param clusters Each point is the mean of a cluster
+	 * @param distancer Computes the distance two points are apart
+	 * @param factory Creates new points
+	 */
+	public AssignKMeans_MT( List<P> clusters, PointDistance<P> distancer, DogLambdas.NewInstance<P> factory ) {
+		super(clusters, distancer);
+		this.factory = factory;
+		this.workspace = new GrowArray<>(ThreadData::new, ThreadData::reset);
+	}
+
+	@Override public void assign( LArrayAccessor<P> points, DogArray_I32 assignments ) {
+		// see if it should run the single thread version instead. After being deserialized it can't create
+		// new points for each thread and has to run the single thread version too
+		if (points.size() < minimumForConcurrent || workspace == null) {
+			super.assign(points, assignments);
+			return;
+		}
+		assignments.resize(points.size());
+
+		DDoglegConcurrency.loopBlocks(0, points.size(), workspace, ( work, idx0, idx1 ) -> {
+			for (int i = idx0; i < idx1; i++) {
+				points.getCopy(i, work.point);
+				// threads won't modify the same elements
+				assignments.data[i] = findClosest(work.point, work.distancer, work.search, work.result);
+			}
+		});
+	}
+
+	/**
+	 * Everything a thread needs to assign points
+	 */
+	private class ThreadData {
+		public final P point = factory.newInstance();
+		public PointDistance<P> distancer = AssignKMeans_MT.this.distancer.newInstanceThread();
+		public @Nullable NearestNeighbor.Search<P> search = nn == null ? null : nn.createSearch();
+		public final NnData<P> result = new NnData<>();
+
+		// What the distance and search were created from
+		PointDistance<P> sourceDistancer = AssignKMeans_MT.this.distancer;
+		@Nullable NearestNeighbor<P> sourceNn = nn;
+
+		public void reset() {
+			// A search is bound to its NearestNeighbor, which is updated when the clusters change. So new instances
+			// are only needed if the distance or nearest neighbor has been replaced since the last call
+			if (sourceDistancer != AssignKMeans_MT.this.distancer) {
+				sourceDistancer = AssignKMeans_MT.this.distancer;
+				distancer = sourceDistancer.newInstanceThread();
+			}
+			if (sourceNn != nn) {
+				sourceNn = nn;
+				search = nn == null ? null : nn.createSearch();
+			}
+		}
+	}
+}
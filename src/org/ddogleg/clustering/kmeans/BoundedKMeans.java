@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.clustering.kmeans;
+
+import org.ddogleg.clustering.ComputeMeanClusters;
+import org.ddogleg.clustering.PointDistance;
+import org.ddogleg.struct.DogArray;
+import org.ddogleg.struct.DogArray_F64;
+import org.ddogleg.struct.DogArray_I32;
+import org.ddogleg.struct.DogLambdas;
+import org.ddogleg.struct.LArrayAccessor;
+
+/**
+ * <p>
+ * Base class for variants of {@link StandardKMeans} which use the triangle inequality to skip most of the distance
+ * calculations when assigning points to clusters. Each point has bounds on how far away it is from the cluster
+ * centers. After the centers move, the bounds are updated using how far each center moved. If the bounds show
+ * that no other cluster can be closer, then the point's assignment can't change and it's skipped.
+ * </p>
+ *
+ * <p>
+ * The distance from each point to its assigned cluster is always computed exactly, so the sum of distances, and
+ * therefore convergence, is the same as with {@link StandardKMeans}.
+ * </p>
+ *
+ * <p>
+ * NOTE: {@link PointDistance} must return the square of a metric, e.g. Euclidean distance squared. The bounds
+ * are computed using the square root of the distance.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+@SuppressWarnings("NullAway.Init")
+public abstract class BoundedKMeans<P> extends StandardKMeans<P> {
+	// Copy of the cluster centers when points were last assigned
+	protected final DogArray<P> previousClusters;
+
+	/** Distance each center moved since the last time points were assigned. Not squared. */
+	protected final DogArray_F64 drift = new DogArray_F64();
+
+	/** Distance between each pair of cluster centers. Row major K by K matrix. Not squared. */
+	protected final DogArray_F64 centerDistances = new DogArray_F64();
+
+	/** Half the distance from each center to the center which is closest to it. Not squared. */
+	protected final DogArray_F64 halfMinDistance = new DogArray_F64();
+
+	// If true then the bounds are valid for the previous clusters
+	protected boolean boundsValid;
+
+	// Used when assigning points in the main thread
+	protected final BlockData mainWork;
+
+	protected BoundedKMeans( ComputeMeanClusters<P> updateMeans,
+							 InitializeKMeans<P> seedSelector,
+							 PointDistance<P> distancer,
+							 DogLambdas.NewInstance<P> factory ) {
+		super(updateMeans, seedSelector, distancer, factory);
+
+		previousClusters = new DogArray<>(factory::newInstance);
+		mainWork = new BlockData();
+		mainWork.useTemp = true;
+	}
+
+	@Override
+	public void process( LArrayAccessor<P> points, int numCluster ) {
+		// The points might have changed since the last call
+		boundsValid = false;
+		super.process(points, numCluster);
+	}
+
+	@Override protected void matchPointsToClusters( LArrayAccessor<P> points, DogArray<P> clusters ) {
+		// Bounds are only maintained for the clusters which are being optimized
+		if (clusters != workClusters) {
+			boundsValid = false;
+			super.matchPointsToClusters(points, clusters);
+			return;
+		}
+
+		final int N = points.size();
+		final int K = clusters.size;
+
+		if (boundsValid && (previousClusters.size != K || assignments.size != N))
+			boundsValid = false;
+
+		boolean fullSearch = !boundsValid;
+		if (fullSearch) {
+			initializeBounds(N, K);
+		} else {
+			computeDrift(clusters);
+			updateBounds(N, K);
+		}
+		computeCenterDistances(clusters);
+
+		assignments.resize(N);
+		assignAllPoints(points, clusters, fullSearch);
+		boundsValid = true;
+
+		// Save the centers so that it can compute how much they moved next time
+		previousClusters.resize(K);
+		for (int i = 0; i < K; i++) {
+			points.copy(clusters.get(i), previousClusters.get(i));
+		}
+	}
+
+	/**
+	 * Assigns every point to a cluster and updates memberCount and sumDistance
+	 */
+	protected void assignAllPoints( LArrayAccessor<P> points, DogArray<P> clusters, boolean fullSearch ) {
+		mainWork.reset();
+		assignBlock(points, clusters, 0, points.size(), fullSearch, mainWork);
+		memberCount.setTo(mainWork.memberCount);
+		sumDistance = mainWork.sumDistance;
+	}
+
+	/**
+	 * Computes how far each cluster center moved since the last time points were assigned
+	 */
+	protected void computeDrift( DogArray<P> clusters ) {
+		drift.resize(clusters.size);
+		for (int i = 0; i < clusters.size; i++) {
+			drift.data[i] = Math.sqrt(distancer.distance(previousClusters.get(i), clusters.get(i)));
+		}
+	}
+
+	/**
+	 * Computes the distance between every pair of cluster centers and half the distance to the closest center
+	 */
+	protected void computeCenterDistances( DogArray<P> clusters ) {
+		final int K = clusters.size;
+		centerDistances.resize(K*K);
+		halfMinDistance.resize(K);
+		halfMinDistance.fill(Double.MAX_VALUE);
+
+		for (int i = 0; i < K; i++) {
+			centerDistances.data[i*K + i] = 0.0;
+			P a = clusters.get(i);
+			for (int j = i + 1; j < K; j++) {
+				double d = Math.sqrt(distancer.distance(a, clusters.get(j)));
+				centerDistances.data[i*K + j] = d;
+				centerDistances.data[j*K + i] = d;
+				halfMinDistance.data[i] = Math.min(halfMinDistance.data[i], 0.5*d);
+				halfMinDistance.data[j] = Math.min(halfMinDistance.data[j], 0.5*d);
+			}
+		}
+	}
+
+	/**
+	 * Called when the bounds are no longer valid and every point will be searched
+	 *
+	 * @param numPoints Number of points
+	 * @param numClusters Number of clusters
+	 */
+	protected abstract void initializeBounds( int numPoints, int numClusters );
+
+	/**
+	 * Updates the bounds of every point using how far each cluster moved. See {@link #drift}.
+	 *
+	 * @param numPoints Number of points
+	 * @param numClusters Number of clusters
+	 */
+	protected abstract void updateBounds( int numPoints, int numClusters );
+
+	/**
+	 * Assigns points in the specified range to the closest cluster.
+	 *
+	 * @param idx0 First point, inclusive
+	 * @param idx1 Last point, exclusive
+	 * @param fullSearch If true then the bounds are not valid and every cluster needs to be checked
+	 * @param work Storage for member count and sum of distances.
+	 */
+	protected abstract void assignBlock( LArrayAccessor<P> points, DogArray<P> clusters,
+										 int idx0, int idx1, boolean fullSearch, BlockData work );
+
+	/**
+	 * Storage for assigning a block of points
+	 */
+	protected class BlockData {
+		public final P point = factory.newInstance();
+		public final DogArray_I32 memberCount = new DogArray_I32();
+		public double sumDistance;
+		// If true it can use the accessor's temporary storage since it's only used by one thread
+		public boolean useTemp = false;
+
+		public void reset() {
+			sumDistance = 0;
+			memberCount.reset();
+		}
+
+		/** Returns the point at the specified index */
+		public P lookup( LArrayAccessor<P> points, int index ) {
+			if (useTemp)
+				return points.getTemp(index);
+			points.getCopy(index, point);
+			return point;
+		}
+
+		/** Adds a point to the cluster */
+		public void add( int cluster, double distance ) {
+			memberCount.data[cluster]++;
+			sumDistance += distance;
+		}
+	}
+}
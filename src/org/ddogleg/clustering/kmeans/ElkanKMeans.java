@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.clustering.kmeans;
+
+import org.ddogleg.clustering.ComputeClusters;
+import org.ddogleg.clustering.ComputeMeanClusters;
+import org.ddogleg.clustering.PointDistance;
+import org.ddogleg.struct.DogArray;
+import org.ddogleg.struct.DogArray_F64;
+import org.ddogleg.struct.DogLambdas;
+import org.ddogleg.struct.LArrayAccessor;
+
+/**
+ * <p>
+ * Elkan's k-means [1]. Each point has a lower bound on its distance to every cluster, which allows it to skip
+ * clusters individually. This skips more distance calculations than {@link HamerlyKMeans} when there are many
+ * clusters, but requires O(N*K) memory for the bounds. See {@link BoundedKMeans} for more details. The bounds
+ * are stored in a single array, so N*K can't exceed {@link #MAX_BOUNDS}. Use {@link HamerlyKMeans} for larger
+ * problems.
+ * </p>
+ *
+ * <p>
+ * [1] Elkan, Charles. "Using the triangle inequality to accelerate k-means." Proceedings of the 20th
+ * international conference on Machine Learning (ICML-03). 2003.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+@SuppressWarnings("NullAway.Init")
+public class ElkanKMeans<P> extends BoundedKMeans<P> {
+	/** Largest number of lower bounds which can be stored. Slightly less than the largest array Java allows. */
+	public static final int MAX_BOUNDS = Integer.MAX_VALUE - 8;
+
+	/** Lower bound on the distance from each point to each cluster. Row major N by K matrix. Not squared. */
+	protected final DogArray_F64 lowerBounds = new DogArray_F64();
+
+	/**
+	 * Configures k-means parameters
+	 *
+	 * @param seedSelector Used to select initial seeds for the clusters
+	 */
+	public ElkanKMeans( ComputeMeanClusters<P> updateMeans,
+						InitializeKMeans<P> seedSelector,
+						PointDistance<P> distancer,
+						DogLambdas.NewInstance<P> factory ) {
+		super(updateMeans, seedSelector, distancer, factory);
+	}
+
+	@Override protected void initializeBounds( int numPoints, int numClusters ) {
+		long total = (long)numPoints*numClusters;
+		if (total > MAX_BOUNDS)
+			throw new IllegalArgumentException("Too many points and clusters for Elkan. " + numPoints + "*" +
+					numClusters + " bounds exceeds " + MAX_BOUNDS + ". Use Hamerly instead.");
+		lowerBounds.resize((int)total);
+	}
+
+	@Override protected void updateBounds( int numPoints, int numClusters ) {
+		for (int pointIdx = 0, index = 0; pointIdx < numPoints; pointIdx++) {
+			for (int clusterIdx = 0; clusterIdx < numClusters; clusterIdx++, index++) {
+				lowerBounds.data[index] = Math.max(0.0, lowerBounds.data[index] - drift.data[clusterIdx]);
+			}
+		}
+	}
+
+	@Override protected void assignBlock( LArrayAccessor<P> points, DogArray<P> clusters,
+										  int idx0, int idx1, boolean fullSearch, BlockData work ) {
+		final int K = clusters.size;
+		work.memberCount.resize(K, 0);
+
+		for (int pointIdx = idx0; pointIdx < idx1; pointIdx++) {
+			P point = work.lookup(points, pointIdx);
+			final int offset = pointIdx*K;
+
+			if (fullSearch) {
+				int best = -1;
+				double bestDistance = Double.MAX_VALUE;
+				for (int clusterIdx = 0; clusterIdx < K; clusterIdx++) {
+					double d = distancer.distance(point, clusters.get(clusterIdx));
+					lowerBounds.data[offset + clusterIdx] = Math.sqrt(d);
+					if (d < bestDistance) {
+						bestDistance = d;
+						best = clusterIdx;
+					}
+				}
+				assignments.data[pointIdx] = best;
+				work.add(best, bestDistance);
+				continue;
+			}
+
+			int assigned = assignments.data[pointIdx];
+			double assignedSq = distancer.distance(point, clusters.get(assigned));
+			double assignedDistance = Math.sqrt(assignedSq);
+			lowerBounds.data[offset + assigned] = assignedDistance;
+
+			if (assignedDistance < halfMinDistance.data[assigned]) {
+				work.add(assigned, assignedSq);
+				continue;
+			}
+
+			for (int clusterIdx = 0; clusterIdx < K; clusterIdx++) {
+				if (clusterIdx == assigned)
+					continue;
+
+				// Skip if this cluster must be farther away than the assigned cluster
+				if (assignedDistance < lowerBounds.data[offset + clusterIdx] ||
+						assignedDistance < 0.5*centerDistances.data[assigned*K + clusterIdx])
+					continue;
+
+				double d = distancer.distance(point, clusters.get(clusterIdx));
+				lowerBounds.data[offset + clusterIdx] = Math.sqrt(d);
+
+				// Ties go to the lower index to be consistent with StandardKMeans
+				if (d < assignedSq || (d == assignedSq && clusterIdx < assigned)) {
+					assigned = clusterIdx;
+					assignedSq = d;
+					assignedDistance = lowerBounds.data[offset + clusterIdx];
+				}
+			}
+
+			assignments.data[pointIdx] = assigned;
+			work.add(assigned, assignedSq);
+		}
+	}
+
+	@Override public ComputeClusters<P> newInstanceThread() {
+		var spawn = new ElkanKMeans<>(
+				updateMeans.newInstanceThread(),
+				seedSelector.newInstanceThread(),
+				distancer.newInstanceThread(), factory);
+
+		spawn.convergeTol = convergeTol;
+		spawn.maxIterations = maxIterations;
+		spawn.reseedAfterIterations = reseedAfterIterations;
+		spawn.verbose = verbose;
+
+		return spawn;
+	}
+}
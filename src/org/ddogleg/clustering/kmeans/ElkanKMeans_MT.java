@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.clustering.kmeans;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.ddogleg.DDoglegConcurrency;
+import org.ddogleg.clustering.ComputeClusters;
+import org.ddogleg.clustering.ComputeMeanClusters;
+import org.ddogleg.clustering.PointDistance;
+import org.ddogleg.struct.DogArray;
+import org.ddogleg.struct.DogLambdas;
+import org.ddogleg.struct.LArrayAccessor;
+import pabeles.concurrency.GrowArray;
+
+/**
+ * <p>Concurrent implementation of {@link ElkanKMeans}</p>
+ *
+ * @author Peter Abeles
+ */
+@SuppressWarnings("NullAway.Init")
+public class ElkanKMeans_MT<P> extends ElkanKMeans<P> {
+	GrowArray<BlockData> workspace;
+
+	/**
+	 * Minimum list size for it to use concurrent code. If a list is small it will run slower than the single
+	 * thread version. By default this is zero since the optimal value is use case specific.
+	 */
+	@Getter @Setter int minimumForConcurrent = 0;
+
+	/**
+	 * Configures k-means parameters
+	 *
+	 * @param seedSelector Used to select initial seeds for the clusters
+	 */
+	public ElkanKMeans_MT( ComputeMeanClusters<P> updateMeans,
+						   InitializeKMeans<P> seedSelector,
+						   PointDistance<P> distancer,
+						   DogLambdas.NewInstance<P> factory ) {
+		super(updateMeans, seedSelector, distancer, factory);
+
+		workspace = new GrowArray<>(BlockData::new, BlockData::reset);
+	}
+
+	@Override
+	protected void assignAllPoints( LArrayAccessor<P> points, DogArray<P> clusters, boolean fullSearch ) {
+		// see if it should run the single thread version instead
+		if (points.size() < minimumForConcurrent) {
+			super.assignAllPoints(points, clusters, fullSearch);
+			return;
+		}
+
+		DDoglegConcurrency.loopBlocks(0, points.size(), workspace, ( work, idx0, idx1 ) ->
+				assignBlock(points, clusters, idx0, idx1, fullSearch, work));
+
+		// Stitch results back together from the threads
+		memberCount.resize(clusters.size);
+		memberCount.fill(0);
+		sumDistance = 0;
+
+		for (int i = 0; i < workspace.size(); i++) {
+			BlockData work = workspace.get(i);
+			sumDistance += work.sumDistance;
+			for (int clusterIdx = 0; clusterIdx < clusters.size; clusterIdx++) {
+				memberCount.data[clusterIdx] += work.memberCount.data[clusterIdx];
+			}
+		}
+	}
+
+	@Override public ComputeClusters<P> newInstanceThread() {
+		var spawn = new ElkanKMeans_MT<>(
+				updateMeans.newInstanceThread(),
+				seedSelector.newInstanceThread(),
+				distancer.newInstanceThread(), factory);
+
+		spawn.convergeTol = convergeTol;
+		spawn.maxIterations = maxIterations;
+		spawn.reseedAfterIterations = reseedAfterIterations;
+		spawn.minimumForConcurrent = minimumForConcurrent;
+		spawn.verbose = verbose;
+
+		return spawn;
+	}
+}
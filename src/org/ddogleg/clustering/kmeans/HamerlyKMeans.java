@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.clustering.kmeans;
+
+import org.ddogleg.clustering.ComputeClusters;
+import org.ddogleg.clustering.ComputeMeanClusters;
+import org.ddogleg.clustering.PointDistance;
+import org.ddogleg.struct.DogArray;
+import org.ddogleg.struct.DogArray_F64;
+import org.ddogleg.struct.DogLambdas;
+import org.ddogleg.struct.LArrayAccessor;
+
+/**
+ * <p>
+ * Hamerly's k-means [1]. Each point has a single lower bound on the distance to the second closest cluster. If the
+ * distance to the assigned cluster is less than the lower bound, or less than half the distance to the nearest
+ * other cluster, then the assignment can't change. Only needs O(N) extra memory, which makes it a good choice
+ * for a small to moderate number of clusters. See {@link BoundedKMeans} for more details.
+ * </p>
+ *
+ * <p>
+ * [1] Hamerly, Greg. "Making k-means even faster." Proceedings of the 2010 SIAM international conference on
+ * data mining. 2010.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+@SuppressWarnings("NullAway.Init")
+public class HamerlyKMeans<P> extends BoundedKMeans<P> {
+	/** Lower bound on the distance from each point to the second closest cluster. Not squared. */
+	protected final DogArray_F64 lowerBound = new DogArray_F64();
+
+	/**
+	 * Configures k-means parameters
+	 *
+	 * @param seedSelector Used to select initial seeds for the clusters
+	 */
+	public HamerlyKMeans( ComputeMeanClusters<P> updateMeans,
+						  InitializeKMeans<P> seedSelector,
+						  PointDistance<P> distancer,
+						  DogLambdas.NewInstance<P> factory ) {
+		super(updateMeans, seedSelector, distancer, factory);
+	}
+
+	@Override protected void initializeBounds( int numPoints, int numClusters ) {
+		lowerBound.resize(numPoints);
+	}
+
+	@Override protected void updateBounds( int numPoints, int numClusters ) {
+		// Find the two clusters which moved the most
+		int largestIdx = -1;
+		double largest = 0.0;
+		double second = 0.0;
+		for (int i = 0; i < numClusters; i++) {
+			double d = drift.data[i];
+			if (d > largest) {
+				second = largest;
+				largest = d;
+				largestIdx = i;
+			} else if (d > second) {
+				second = d;
+			}
+		}
+
+		// The second closest cluster can't be the assigned cluster
+		for (int i = 0; i < numPoints; i++) {
+			lowerBound.data[i] -= assignments.data[i] == largestIdx ? second : largest;
+		}
+	}
+
+	@Override protected void assignBlock( LArrayAccessor<P> points, DogArray<P> clusters,
+										  int idx0, int idx1, boolean fullSearch, BlockData work ) {
+		work.memberCount.resize(clusters.size, 0);
+
+		for (int pointIdx = idx0; pointIdx < idx1; pointIdx++) {
+			P point = work.lookup(points, pointIdx);
+
+			if (!fullSearch) {
+				int assigned = assignments.data[pointIdx];
+				double distanceSq = distancer.distance(point, clusters.get(assigned));
+				double bound = Math.max(halfMinDistance.data[assigned], lowerBound.data[pointIdx]);
+
+				// Every other cluster must be farther away
+				if (Math.sqrt(distanceSq) < bound) {
+					work.add(assigned, distanceSq);
+					continue;
+				}
+			}
+
+			// Search all the clusters for the closest and second closest
+			int best = -1;
+			double bestDistance = Double.MAX_VALUE;
+			double secondDistance = Double.MAX_VALUE;
+			for (int clusterIdx = 0; clusterIdx < clusters.size; clusterIdx++) {
+				double d = distancer.distance(point, clusters.get(clusterIdx));
+				if (d < bestDistance) {
+					secondDistance = bestDistance;
+					bestDistance = d;
+					best = clusterIdx;
+				} else if (d < secondDistance) {
+					secondDistance = d;
+				}
+			}
+
+			assignments.data[pointIdx] = best;
+			lowerBound.data[pointIdx] = Math.sqrt(secondDistance);
+			work.add(best, bestDistance);
+		}
+	}
+
+	@Override public ComputeClusters<P> newInstanceThread() {
+		var spawn = new HamerlyKMeans<>(
+				updateMeans.newInstanceThread(),
+				seedSelector.newInstanceThread(),
+				distancer.newInstanceThread(), factory);
+
+		spawn.convergeTol = convergeTol;
+		spawn.maxIterations = maxIterations;
+		spawn.reseedAfterIterations = reseedAfterIterations;
+		spawn.verbose = verbose;
+
+		return spawn;
+	}
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.clustering.kmeans;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.ddogleg.clustering.PointDistance;
+import org.ddogleg.struct.DogArray;
+import org.ddogleg.struct.DogArray_F64;
+import org.ddogleg.struct.DogArray_I32;
+import org.ddogleg.struct.DogLambdas;
+import org.ddogleg.struct.LArrayAccessor;
+
+import java.util.Random;
+
+/**
+ * <p>
+ * Scalable k-means++, also known as k-means||, [1]. {@link InitializePlusPlus} needs to go through all the
+ * points once for each seed. Instead, this selects many candidates at once in a few rounds. In each round, every
+ * point is independently selected as a candidate with a probability proportional to its distance from the
+ * closest candidate. Each candidate is then weighted by the number of points which are closest to it, and the
+ * final seeds are selected from the candidates using a weighted version of k-means++.
+ * </p>
+ *
+ * <p>
+ * [1] Bahmani, Bahman, et al. "Scalable k-means++." Proceedings of the VLDB Endowment 5.7 (2012).
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+@SuppressWarnings("NullAway.Init")
+public class InitializeScalable<P> implements InitializeKMeans<P> {
+	/** Number of rounds it will go through the points and select candidates */
+	@Getter @Setter int rounds = 5;
+
+	/** Expected number of candidates selected each round, relative to the number of requested seeds */
+	@Getter @Setter double oversampling = 2.0;
+
+	Random rand;
+
+	PointDistance<P> computeDistance;
+
+	// Creates new points
+	DogLambdas.NewInstance<P> factoryPoint;
+
+	/** Candidate seeds */
+	@Getter final DogArray<P> candidates;
+
+	/** Number of points which are closest to each candidate */
+	@Getter final DogArray_F64 weights = new DogArray_F64();
+
+	// Distance of each point from the closest candidate
+	DogArray_F64 distances = new DogArray_F64();
+	// Index of the closest candidate to each point
+	DogArray_I32 closest = new DogArray_I32();
+
+	// Sum of distances
+	double sumDistances;
+
+	// Distance of each candidate from the closest selected seed
+	DogArray_F64 candidateDistances = new DogArray_F64();
+
+	public InitializeScalable( DogLambdas.NewInstance<P> factoryPoint ) {
+		this.factoryPoint = factoryPoint;
+		this.candidates = new DogArray<>(factoryPoint::newInstance);
+	}
+
+	@Override
+	public void initialize( PointDistance<P> distance, long randomSeed ) {
+		this.computeDistance = distance;
+		rand = new Random(randomSeed);
+	}
+
+	@Override
+	public void selectSeeds( LArrayAccessor<P> points, int requestedSeeds, DogArray<P> selectedSeeds ) {
+		// Pre-allocate memory and reset the output
+		selectedSeeds.reserve(requestedSeeds);
+		selectedSeeds.reset();
+		candidates.reset();
+
+		// Handle edge cases here. There is nothing that can be done.
+		if (points.size() == 0 || requestedSeeds == 0)
+			return;
+
+		final int N = points.size();
+
+		// the first candidate is randomly selected from the list of points
+		points.getCopy(rand.nextInt(N), candidates.grow());
+
+		distances.resize(N);
+		distances.fill(Double.MAX_VALUE);
+		closest.resize(N);
+		updateDistances(points, 0, 1);
+
+		// Select candidates with probability proportional to their distance. If there are too few candidates
+		// then keep on going until there are enough or every point is a candidate
+		double expected = oversampling*requestedSeeds;
+		for (int round = 0; (round < rounds || candidates.size < requestedSeeds) && sumDistances > 0.0; round++) {
+			int idx0 = candidates.size;
+			for (int pointIdx = 0; pointIdx < N; pointIdx++) {
+				double d = distances.data[pointIdx];
+				// rand is always called so that selected points don't change the sequence of random numbers
+				if (rand.nextDouble()*sumDistances < expected*d)
+					points.getCopy(pointIdx, candidates.grow());
+			}
+			if (candidates.size == idx0)
+				continue;
+			updateDistances(points, idx0, candidates.size);
+		}
+
+		// Weight each candidate by the number of points which are closest to it
+		weights.resize(candidates.size);
+		weights.fill(0.0);
+		for (int pointIdx = 0; pointIdx < N; pointIdx++) {
+			weights.data[closest.data[pointIdx]] += 1.0;
+		}
+
+		selectSeedsFromCandidates(points, requestedSeeds, selectedSeeds);
+	}
+
+	/**
+	 * New candidates have been added. Update the distance of each point from the closest candidate and
+	 * recompute the sum of distances
+	 *
+	 * @param idx0 First new candidate, inclusive
+	 * @param idx1 Last new candidate, exclusive
+	 */
+	protected void updateDistances( LArrayAccessor<P> points, int idx0, int idx1 ) {
+		sumDistances = 0;
+		for (int pointIdx = 0; pointIdx < points.size(); pointIdx++) {
+			sumDistances += updatePoint(points.getTemp(pointIdx), pointIdx, idx0, idx1);
+		}
+	}
+
+	/**
+	 * Updates the distance of a single point from the closest candidate
+	 *
+	 * @return distance from the closest candidate
+	 */
+	protected double updatePoint( P point, int pointIdx, int idx0, int idx1 ) {
+		double best = distances.data[pointIdx];
+		for (int candidateIdx = idx0; candidateIdx < idx1; candidateIdx++) {
+			double d = computeDistance.distance(point, candidates.get(candidateIdx));
+			if (d < best) {
+				best = d;
+				closest.data[pointIdx] = candidateIdx;
+			}
+		}
+		distances.data[pointIdx] = best;
+		return best;
+	}
+
+	/**
+	 * Selects the seeds from the weighted candidates using k-means++
+	 */
+	protected void selectSeedsFromCandidates( LArrayAccessor<P> points, int requestedSeeds,
+											  DogArray<P> selectedSeeds ) {
+		final int M = candidates.size;
+		candidateDistances.resize(M);
+		candidateDistances.fill(Double.MAX_VALUE);
+
+		// First seed is selected based on weight alone
+		int selected = selectCandidate(false);
+		for (int seedIdx = 0; seedIdx < requestedSeeds && selected >= 0; seedIdx++) {
+			P seed = candidates.get(selected);
+			points.copy(seed, selectedSeeds.grow());
+
+			// Update distance from the closest seed
+			for (int i = 0; i < M; i++) {
+				double d = computeDistance.distance(candidates.get(i), seed);
+				if (d < candidateDistances.data[i])
+					candidateDistances.data[i] = d;
+			}
+
+			selected = selectCandidate(true);
+		}
+	}
+
+	/**
+	 * Randomly selects a candidate with a probability proportional to its weight, and optionally its distance
+	 *
+	 * @return Index of the selected candidate or -1 if there are no valid candidates left
+	 */
+	protected int selectCandidate( boolean useDistance ) {
+		double sum = 0.0;
+		for (int i = 0; i < candidates.size; i++) {
+			sum += weights.data[i]*(useDistance ? candidateDistances.data[i] : 1.0);
+		}
+		if (sum <= 0.0)
+			return -1;
+
+		double target = rand.nextDouble()*sum;
+		double cumulative = 0.0;
+		int last = -1;
+		for (int i = 0; i < candidates.size; i++) {
+			double value = weights.data[i]*(useDistance ? candidateDistances.data[i] : 1.0);
+			if (value == 0.0)
+				continue;
+			cumulative += value;
+			last = i;
+			if (cumulative >= target)
+				return i;
+		}
+		// Can only get here due to round off errors
+		return last;
+	}
+
+	@Override public InitializeKMeans<P> newInstanceThread() {
+		var spawn = new InitializeScalable<>(factoryPoint);
+		spawn.rounds = rounds;
+		spawn.oversampling = oversampling;
+		return spawn;
+	}
+}
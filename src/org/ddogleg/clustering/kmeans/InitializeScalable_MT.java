@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.clustering.kmeans;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.ddogleg.DDoglegConcurrency;
+import org.ddogleg.struct.DogLambdas;
+import org.ddogleg.struct.LArrayAccessor;
+import pabeles.concurrency.GrowArray;
+
+/**
+ * <p>Concurrent implementation of {@link InitializeScalable}. The distance of each point from the new candidates
+ * is computed in parallel. Candidates are still sampled in the main thread, so results only differ from the single
+ * thread version by round off errors in the sum of distances.</p>
+ *
+ * @author Peter Abeles
+ */
+@SuppressWarnings("NullAway.Init")
+public class InitializeScalable_MT<P> extends InitializeScalable<P> {
+	// Stores the sum computed in each thread
+	GrowArray<DistanceWork> threadsData;
+
+	/**
+	 * Minimum list size for it to use concurrent code. If a list is small it will run slower than the single
+	 * thread version. By default this is zero since the optimal value is use case specific.
+	 */
+	@Getter @Setter int minimumConcurrent = 0;
+
+	public InitializeScalable_MT( DogLambdas.NewInstance<P> factoryPoint ) {
+		super(factoryPoint);
+		this.threadsData = new GrowArray<>(DistanceWork::new, DistanceWork::reset);
+	}
+
+	@Override public InitializeKMeans<P> newInstanceThread() {
+		var spawn = new InitializeScalable_MT<>(factoryPoint);
+		spawn.rounds = rounds;
+		spawn.oversampling = oversampling;
+		spawn.minimumConcurrent = minimumConcurrent;
+		return spawn;
+	}
+
+	@Override protected void updateDistances( LArrayAccessor<P> points, int idx0, int idx1 ) {
+		// see if it should run the single thread version instead
+		if (points.size() < minimumConcurrent) {
+			super.updateDistances(points, idx0, idx1);
+			return;
+		}
+
+		DDoglegConcurrency.loopBlocks(0, points.size(), threadsData, ( work, pointIdx0, pointIdx1 ) -> {
+			final P point = work.point;
+			double sum = 0.0;
+			for (int pointIdx = pointIdx0; pointIdx < pointIdx1; pointIdx++) {
+				points.getCopy(pointIdx, point);
+				sum += updatePoint(point, pointIdx, idx0, idx1);
+			}
+			work.sum = sum;
+		});
+
+		sumDistances = 0;
+		for (int i = 0; i < threadsData.size(); i++) {
+			sumDistances += threadsData.get(i).sum;
+		}
+	}
+
+	private class DistanceWork {
+		public double sum;
+		public P point = factoryPoint.newInstance();
+
+		public void reset() {
+			sum = 0;
+		}
+	}
+}
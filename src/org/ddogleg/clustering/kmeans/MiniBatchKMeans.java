@@ -0,0 +1,320 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.clustering.kmeans;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.ddogleg.clustering.AssignCluster;
+import org.ddogleg.clustering.ComputeClusters;
+import org.ddogleg.clustering.ComputeMeanClusters;
+import org.ddogleg.clustering.PointDistance;
+import org.ddogleg.struct.DogArray;
+import org.ddogleg.struct.DogArray_F64;
+import org.ddogleg.struct.DogArray_I32;
+import org.ddogleg.struct.DogLambdas;
+import org.ddogleg.struct.LArrayAccessor;
+
+import java.util.Random;
+
+/**
+ * <p>
+ * Mini-batch k-means [1]. Instead of assigning every point each iteration, a small random batch of points is
+ * assigned to the closest cluster and each cluster center is moved towards the mean of its batch points. Each
+ * center has its own learning rate, which is the inverse of the number of points which have been assigned to it
+ * so far. This makes it possible to cluster very large data sets quickly, at the cost of slightly worse clusters.
+ * </p>
+ *
+ * <p>
+ * Initial seeds are selected from a random subset of the points. After all the batches have been processed, an
+ * optional final pass assigns every point to its closest cluster. See {@link #getAssignments()}.
+ * </p>
+ *
+ * <p>
+ * [1] Sculley, David. "Web-scale k-means clustering." Proceedings of the 19th international conference on
+ * World wide web. 2010.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+@SuppressWarnings("NullAway.Init")
+public class MiniBatchKMeans<P> implements ComputeClusters<P> {
+	// flag for verbose mode
+	boolean verbose = false;
+
+	/** Number of points in each batch */
+	public @Getter @Setter int batchSize = 1024;
+
+	/** Number of batches it will process */
+	public @Getter @Setter int totalBatches = 100;
+
+	/** Number of points which are randomly sampled to select the initial seeds from. If &le; 0 then all points are used. */
+	public @Getter @Setter int seedSampleSize = 0;
+
+	/** If true then every point is assigned to the closest cluster after all the batches have been processed */
+	public @Getter @Setter boolean finalAssignment = true;
+
+	// Used to compute the mean of the points in a batch
+	public ComputeMeanClusters<P> updateMeans;
+	// selects the initial locations of each seed
+	public InitializeKMeans<P> seedSelector;
+	// Computes the distance between two points
+	PointDistance<P> distancer;
+	// Moves a cluster towards a point
+	MoveTowards<P> mover;
+	// Creates new instances of points
+	DogLambdas.NewInstance<P> factory;
+
+	/** The cluster centers */
+	final @Getter DogArray<P> clusters;
+
+	/** Which cluster each point is assigned to. Only filled in if finalAssignment is true. */
+	final @Getter DogArray_I32 assignments = new DogArray_I32();
+
+	/** Number of points assigned to each cluster. Only filled in if finalAssignment is true. */
+	final @Getter DogArray_I32 memberCount = new DogArray_I32();
+
+	// Number of points which have been assigned to each cluster across all batches
+	final DogArray_F64 totalAssigned = new DogArray_F64();
+
+	// Indexes of points in the current batch and which cluster they are assigned to
+	final DogArray_I32 batchIndexes = new DogArray_I32();
+	final DogArray_I32 batchAssignments = new DogArray_I32();
+	final DogArray_I32 batchCounts = new DogArray_I32();
+	// Mean of the points in the batch which were assigned to each cluster
+	final DogArray<P> batchMeans;
+	final SubsetAccessor batch = new SubsetAccessor();
+
+	// sum of distances for all the points
+	double sumDistance;
+
+	Random rand = new Random();
+
+	/**
+	 * Configures mini-batch k-means
+	 *
+	 * @param updateMeans Used to compute the mean of points in a batch
+	 * @param seedSelector Used to select initial seeds for the clusters
+	 * @param distancer Distance between two points
+	 * @param mover Moves a cluster towards a point
+	 * @param factory Creates new points
+	 */
+	public MiniBatchKMeans( ComputeMeanClusters<P> updateMeans,
+							InitializeKMeans<P> seedSelector,
+							PointDistance<P> distancer,
+							MoveTowards<P> mover,
+							DogLambdas.NewInstance<P> factory ) {
+		this.updateMeans = updateMeans;
+		this.seedSelector = seedSelector;
+		this.distancer = distancer;
+		this.mover = mover;
+		this.factory = factory;
+
+		clusters = new DogArray<>(factory::newInstance);
+		batchMeans = new DogArray<>(factory::newInstance);
+	}
+
+	@Override
+	public void initialize( long randomSeed ) {
+		if (batchSize <= 0)
+			throw new IllegalArgumentException("batchSize must be positive");
+		rand = new Random(randomSeed);
+		seedSelector.initialize(distancer, randomSeed);
+	}
+
+	@Override
+	public void process( LArrayAccessor<P> points, int numCluster ) {
+		if (numCluster <= 0)
+			throw new IllegalArgumentException("There must be at least one cluster");
+		if (points.size() == 0)
+			throw new IllegalArgumentException("There must be at least one point");
+
+		batch.points = points;
+
+		// Select the initial seeds from a random subset of the points
+		if (seedSampleSize <= 0 || seedSampleSize >= points.size()) {
+			seedSelector.selectSeeds(points, numCluster, clusters);
+		} else {
+			drawBatch(points.size(), seedSampleSize);
+			seedSelector.selectSeeds(batch, numCluster, clusters);
+		}
+
+		totalAssigned.resize(clusters.size);
+		totalAssigned.fill(0.0);
+		batchCounts.resize(clusters.size);
+		batchMeans.resize(clusters.size);
+
+		double batchSum = 0.0;
+		for (int batchIdx = 0; batchIdx < totalBatches; batchIdx++) {
+			drawBatch(points.size(), batchSize);
+
+			// Assign points in the batch to the closest cluster
+			batchAssignments.resize(batchIndexes.size);
+			batchSum = assignPoints(batch, batchAssignments);
+
+			// Compute the mean of the batch points assigned to each cluster
+			batchCounts.fill(0);
+			for (int i = 0; i < batchAssignments.size; i++) {
+				batchCounts.data[batchAssignments.data[i]]++;
+			}
+			updateMeans.process(batch, batchAssignments, batchMeans);
+
+			// Move each cluster towards the mean with a learning rate that decreases as more points are seen
+			for (int clusterIdx = 0; clusterIdx < clusters.size; clusterIdx++) {
+				int count = batchCounts.data[clusterIdx];
+				if (count == 0)
+					continue;
+				totalAssigned.data[clusterIdx] += count;
+				double rate = count/totalAssigned.data[clusterIdx];
+				mover.move(clusters.get(clusterIdx), batchMeans.get(clusterIdx), rate);
+			}
+
+			if (verbose)
+				System.out.println(batchIdx + "  batch distance = " + batchSum);
+		}
+
+		if (finalAssignment) {
+			assignments.resize(points.size());
+			sumDistance = assignPoints(points, assignments);
+			memberCount.resize(clusters.size);
+			memberCount.fill(0);
+			for (int i = 0; i < assignments.size; i++) {
+				memberCount.data[assignments.data[i]]++;
+			}
+		} else {
+			// Estimate the sum using the last batch
+			assignments.reset();
+			memberCount.reset();
+			sumDistance = totalBatches > 0 ? batchSum*points.size()/batchIndexes.size : Double.NaN;
+		}
+	}
+
+	/**
+	 * Randomly selects points, with replacement, for the batch
+	 */
+	protected void drawBatch( int numPoints, int size ) {
+		batchIndexes.resize(size);
+		for (int i = 0; i < size; i++) {
+			batchIndexes.data[i] = rand.nextInt(numPoints);
+		}
+	}
+
+	/**
+	 * Assigns each point to the closest cluster
+	 *
+	 * @param points The points
+	 * @param assignments (Output) The cluster each point is assigned to
+	 * @return Sum of distance from each point to its cluster
+	 */
+	protected double assignPoints( LArrayAccessor<P> points, DogArray_I32 assignments ) {
+		double sum = 0.0;
+		for (int i = 0; i < points.size(); i++) {
+			P point = points.getTemp(i);
+			int best = -1;
+			double bestDistance = Double.MAX_VALUE;
+			for (int clusterIdx = 0; clusterIdx < clusters.size; clusterIdx++) {
+				double d = distancer.distance(point, clusters.get(clusterIdx));
+				if (d < bestDistance) {
+					bestDistance = d;
+					best = clusterIdx;
+				}
+			}
+			assignments.data[i] = best;
+			sum += bestDistance;
+		}
+		return sum;
+	}
+
+	@Override
+	public AssignCluster<P> getAssignment() {
+		return new AssignKMeans<>(clusters.toList(), distancer);
+	}
+
+	/**
+	 * Sum of the distance of each point from its cluster. If the final assignment is turned off then this is
+	 * estimated from the last batch.
+	 */
+	@Override
+	public double getDistanceMeasure() {
+		return sumDistance;
+	}
+
+	@Override
+	public void setVerbose( boolean verbose ) {
+		this.verbose = verbose;
+	}
+
+	@Override public ComputeClusters<P> newInstanceThread() {
+		var spawn = new MiniBatchKMeans<>(
+				updateMeans.newInstanceThread(),
+				seedSelector.newInstanceThread(),
+				distancer.newInstanceThread(), mover, factory);
+		copyConfig(spawn);
+		return spawn;
+	}
+
+	protected void copyConfig( MiniBatchKMeans<P> spawn ) {
+		spawn.batchSize = batchSize;
+		spawn.totalBatches = totalBatches;
+		spawn.seedSampleSize = seedSampleSize;
+		spawn.finalAssignment = finalAssignment;
+		spawn.verbose = verbose;
+	}
+
+	/**
+	 * Moves a point towards a target point
+	 */
+	@FunctionalInterface
+	public interface MoveTowards<P> {
+		/**
+		 * Modifies the point using {@code point = point + fraction*(target - point)}
+		 *
+		 * @param point (Input/Output) The point which is moved
+		 * @param target (Input) Where it's moved towards
+		 * @param fraction (Input) Fraction of the distance it's moved. 0 to 1.
+		 */
+		void move( P point, P target, double fraction );
+	}
+
+	/**
+	 * Provides access to the points in the batch
+	 */
+	protected class SubsetAccessor implements LArrayAccessor<P> {
+		LArrayAccessor<P> points;
+
+		@Override public P getTemp( int index ) {
+			return points.getTemp(batchIndexes.data[index]);
+		}
+
+		@Override public void getCopy( int index, P dst ) {
+			points.getCopy(batchIndexes.data[index], dst);
+		}
+
+		@Override public void copy( P src, P dst ) {
+			points.copy(src, dst);
+		}
+
+		@Override public int size() {
+			return batchIndexes.size;
+		}
+
+		@Override public Class<P> getElementType() {
+			return points.getElementType();
+		}
+	}
+}
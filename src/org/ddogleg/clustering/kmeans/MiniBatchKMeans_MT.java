@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.clustering.kmeans;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.ddogleg.DDoglegConcurrency;
+import org.ddogleg.clustering.ComputeClusters;
+import org.ddogleg.clustering.ComputeMeanClusters;
+import org.ddogleg.clustering.PointDistance;
+import org.ddogleg.struct.DogArray_I32;
+import org.ddogleg.struct.DogLambdas;
+import org.ddogleg.struct.LArrayAccessor;
+import pabeles.concurrency.GrowArray;
+
+/**
+ * <p>Concurrent implementation of {@link MiniBatchKMeans}. Points in each batch and the final assignment
+ * are assigned to clusters in parallel.</p>
+ *
+ * @author Peter Abeles
+ */
+@SuppressWarnings("NullAway.Init")
+public class MiniBatchKMeans_MT<P> extends MiniBatchKMeans<P> {
+	GrowArray<MatchData> workspace;
+
+	/**
+	 * Minimum list size for it to use concurrent code. If a list is small it will run slower than the single
+	 * thread version. By default this is zero since the optimal value is use case specific.
+	 */
+	@Getter @Setter int minimumForConcurrent = 0;
+
+	/**
+	 * @see MiniBatchKMeans
+	 */
+	public MiniBatchKMeans_MT( ComputeMeanClusters<P> updateMeans,
+							   InitializeKMeans<P> seedSelector,
+							   PointDistance<P> distancer,
+							   MoveTowards<P> mover,
+							   DogLambdas.NewInstance<P> factory ) {
+		super(updateMeans, seedSelector, distancer, mover, factory);
+
+		workspace = new GrowArray<>(MatchData::new, MatchData::reset);
+	}
+
+	@Override
+	protected double assignPoints( LArrayAccessor<P> points, DogArray_I32 assignments ) {
+		// see if it should run the single thread version instead
+		if (points.size() < minimumForConcurrent) {
+			return super.assignPoints(points, assignments);
+		}
+
+		DDoglegConcurrency.loopBlocks(0, points.size(), workspace, ( work, idx0, idx1 ) -> {
+			final P point = work.point;
+			for (int i = idx0; i < idx1; i++) {
+				points.getCopy(i, point);
+
+				int best = -1;
+				double bestDistance = Double.MAX_VALUE;
+				for (int clusterIdx = 0; clusterIdx < clusters.size; clusterIdx++) {
+					double d = distancer.distance(point, clusters.get(clusterIdx));
+					if (d < bestDistance) {
+						bestDistance = d;
+						best = clusterIdx;
+					}
+				}
+				assignments.data[i] = best; // threads won't modify the same elements
+				work.sumDistance += bestDistance;
+			}
+		});
+
+		double sum = 0.0;
+		for (int i = 0; i < workspace.size(); i++) {
+			sum += workspace.get(i).sumDistance;
+		}
+		return sum;
+	}
+
+	@Override public ComputeClusters<P> newInstanceThread() {
+		var spawn = new MiniBatchKMeans_MT<>(
+				updateMeans.newInstanceThread(),
+				seedSelector.newInstanceThread(),
+				distancer.newInstanceThread(), mover, factory);
+		copyConfig(spawn);
+		spawn.minimumForConcurrent = minimumForConcurrent;
+		return spawn;
+	}
+
+	private class MatchData {
+		public double sumDistance;
+		public P point = factory.newInstance();
+
+		public void reset() {
+			sumDistance = 0;
+		}
+	}
+}
@@ -24,10 +24,13 @@ import org.ddogleg.clustering.AssignCluster;
 import org.ddogleg.clustering.ComputeClusters;
 import org.ddogleg.clustering.ComputeMeanClusters;
 import org.ddogleg.clustering.PointDistance;
+import org.ddogleg.clustering.misc.FlatAccessorF64;
+import org.ddogleg.clustering.misc.FlatPointDistanceF64;
 import org.ddogleg.struct.DogArray;
 import org.ddogleg.struct.DogArray_I32;
 import org.ddogleg.struct.DogLambdas;
 import org.ddogleg.struct.LArrayAccessor;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * <p>
@@ -50,6 +53,11 @@ import org.ddogleg.struct.LArrayAccessor;
  * </p>
  *
  * <p>
+ * If the points are provided using a {@link FlatAccessorF64} and the distance is a {@link FlatPointDistanceF64}
+ * then points are read in place when they are assigned to clusters, instead of being copied.
+ * </p>
+ *
+ * <p>
  * [1] Lloyd, S. P. (1957). "Least square quantization in PCM". Bell Telephone Laboratories Paper.
  * Published in journal much later: Lloyd., S. P. (1982)
  * </p>
@@ -234,17 +242,20 @@ public class StandardKMeans<P> implements ComputeClusters<P> {
 		// updated inside the call to findBestMatch
 		sumDistance = 0;
 
-		// NOTE: This is a good candidate for optimizing
-		// Maybe reverse loop order by having outer loop go through clusters
-		// instead of doing points.getTemp() compute the distance directly on the internal array
+		// Avoid copying the points if possible
+		FlatAccessorF64 flat = points instanceof FlatAccessorF64 ? (FlatAccessorF64)points : null;
+		FlatPointDistanceF64 flatDistance = flatDistance(points);
 
 		// Assign each point a single cluster
 		assignments.resize(points.size());
 		for (int i = 0; i < points.size(); i++) {
-			P point = points.getTemp(i);
-
 			// find the cluster which is closest to the point
-			int assignment = findBestMatch(point, clusters);
+			int assignment;
+			if (flat != null && flatDistance != null) {
+				assignment = findBestMatch(flat.getArray(i), flat.getOffset(i), clusters, flatDistance);
+			} else {
+				assignment = findBestMatch(points.getTemp(i), clusters);
+			}
 			assignments.set(i, assignment);
 			// increment the number of points assigned to this cluster
 			memberCount.data[assignment]++;
@@ -269,6 +280,35 @@ public class StandardKMeans<P> implements ComputeClusters<P> {
 		return bestCluster;
 	}
 
+	/**
+	 * Searches for this cluster which is the closest to the point inside the array
+	 */
+	protected int findBestMatch( final double[] data, final int offset, final DogArray<P> clusters,
+								 final FlatPointDistanceF64 distance ) {
+		int bestCluster = -1;
+		double bestDistance = Double.MAX_VALUE;
+
+		for (int clusterIdx = 0; clusterIdx < clusters.size; clusterIdx++) {
+			double d = distance.distance(data, offset, (double[])clusters.get(clusterIdx));
+			if (d < bestDistance) {
+				bestDistance = d;
+				bestCluster = clusterIdx;
+			}
+		}
+		sumDistance += bestDistance;
+		return bestCluster;
+	}
+
+	/**
+	 * Returns the distance function if the points can be read in place, otherwise null. If the points are in a
+	 * {@link FlatAccessorF64} then P must be double[].
+	 */
+	protected @Nullable FlatPointDistanceF64 flatDistance( LArrayAccessor<P> points ) {
+		if (points instanceof FlatAccessorF64 && distancer instanceof FlatPointDistanceF64)
+			return (FlatPointDistanceF64)distancer;
+		return null;
+	}
+
 	/**
 	 * Computes the potential function.  The sum of distance for each point from their cluster centers.\
 	 */
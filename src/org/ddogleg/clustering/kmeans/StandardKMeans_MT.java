@@ -24,6 +24,8 @@ import org.ddogleg.DDoglegConcurrency;
 import org.ddogleg.clustering.ComputeClusters;
 import org.ddogleg.clustering.ComputeMeanClusters;
 import org.ddogleg.clustering.PointDistance;
+import org.ddogleg.clustering.misc.FlatAccessorF64;
+import org.ddogleg.clustering.misc.FlatPointDistanceF64;
 import org.ddogleg.struct.DogArray;
 import org.ddogleg.struct.DogArray_I32;
 import org.ddogleg.struct.DogLambdas;
@@ -71,6 +73,10 @@ public class StandardKMeans_MT<P> extends StandardKMeans<P> {
 		}
 		assignments.resize(points.size());
 
+		// Avoid copying the points if possible
+		FlatAccessorF64 flat = points instanceof FlatAccessorF64 ? (FlatAccessorF64)points : null;
+		FlatPointDistanceF64 flatDistance = flatDistance(points);
+
 		DDoglegConcurrency.loopBlocks(0, points.size(), workspace, ( work, idx0, idx1 ) -> {
 			final DogArray_I32 memberCount = work.memberCount;
 			// reset the member counts to zero for each cluster
@@ -79,10 +85,14 @@ public class StandardKMeans_MT<P> extends StandardKMeans<P> {
 
 			// Assign each point a single cluster
 			for (int i = idx0; i < idx1; i++) {
-				points.getCopy(i, point);
-
 				// find the cluster which is closest to the point
-				int assignment = findBestMatch(point, clusters, work);
+				int assignment;
+				if (flat != null && flatDistance != null) {
+					assignment = findBestMatch(flat.getArray(i), flat.getOffset(i), clusters, flatDistance, work);
+				} else {
+					points.getCopy(i, point);
+					assignment = findBestMatch(point, clusters, work);
+				}
 				assignments.set(i, assignment); // threads won't modify the same elements
 				// increment the number of points assigned to this cluster
 				memberCount.data[assignment]++;
@@ -120,6 +130,25 @@ public class StandardKMeans_MT<P> extends StandardKMeans<P> {
 		return bestCluster;
 	}
 
+	/**
+	 * Searches for this cluster which is the closest to the point inside the array
+	 */
+	protected int findBestMatch( double[] data, int offset, DogArray<P> clusters,
+								 FlatPointDistanceF64 distance, MatchData match ) {
+		int bestCluster = -1;
+		double bestDistance = Double.MAX_VALUE;
+
+		for (int clusterIdx = 0; clusterIdx < clusters.size; clusterIdx++) {
+			double d = distance.distance(data, offset, (double[])clusters.get(clusterIdx));
+			if (d < bestDistance) {
+				bestDistance = d;
+				bestCluster = clusterIdx;
+			}
+		}
+		match.sumDistance += bestDistance;
+		return bestCluster;
+	}
+
 	@Override public ComputeClusters<P> newInstanceThread() {
 		var spawn = new StandardKMeans_MT<>(
 				updateMeans.newInstanceThread(),
@@ -0,0 +1,258 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.clustering.kmeans;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.ddogleg.clustering.AssignCluster;
+import org.ddogleg.clustering.ComputeClustersStreaming;
+import org.ddogleg.clustering.PointDistance;
+import org.ddogleg.struct.DogArray;
+import org.ddogleg.struct.DogArray_I64;
+import org.ddogleg.struct.DogLambdas;
+import org.ddogleg.struct.LArrayAccessor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Sequential k-means [1], which clusters a stream of points. The first points in the stream are saved and used to
+ * select the initial seeds. After that, each point is assigned to the closest cluster, which is then moved
+ * towards the point by the inverse of the number of points assigned to the cluster. The cluster is then the mean
+ * of all the points assigned to it. Memory is bounded by the number of saved seed points and clusters.
+ * </p>
+ *
+ * <p>
+ * If {@link #maxCount} is set then the learning rate will never go below 1/maxCount, allowing the clusters to
+ * adapt as the distribution of points changes over time.
+ * </p>
+ *
+ * <p>
+ * [1] MacQueen, James. "Some methods for classification and analysis of multivariate observations."
+ * Proceedings of the fifth Berkeley symposium on mathematical statistics and probability. 1967.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+@SuppressWarnings("NullAway.Init")
+public class StreamingKMeans<P> implements ComputeClustersStreaming<P> {
+	// flag for verbose mode
+	boolean verbose = false;
+
+	/** Number of points at the start of the stream which are saved and used to select the initial seeds */
+	public @Getter @Setter int seedSampleSize = 1000;
+
+	/** Maximum number of points a cluster remembers. If &le; 0 then there is no limit. */
+	public @Getter @Setter int maxCount = 0;
+
+	// selects the initial locations of each seed
+	public InitializeKMeans<P> seedSelector;
+	// Computes the distance between two points
+	PointDistance<P> distancer;
+	// Moves a cluster towards a point
+	MiniBatchKMeans.MoveTowards<P> mover;
+	// Copies one point into another
+	DogLambdas.Copy<P> copier;
+	// Creates new instances of points
+	DogLambdas.NewInstance<P> factory;
+
+	/** The cluster centers. Empty until the seeds have been selected. */
+	final @Getter DogArray<P> clusters;
+
+	/** Number of points which have been assigned to each cluster */
+	final @Getter DogArray_I64 counts = new DogArray_I64();
+
+	/** Total number of points which have been processed */
+	@Getter long totalPoints;
+
+	// Points saved at the start of the stream for selecting the seeds
+	final DogArray<P> seedPoints;
+	final SeedAccessor seedAccessor = new SeedAccessor();
+
+	// Number of requested clusters
+	int numCluster;
+
+	// The random seed
+	long randomSeed;
+
+	/**
+	 * Configures streaming k-means
+	 *
+	 * @param seedSelector Used to select initial seeds for the clusters
+	 * @param distancer Distance between two points
+	 * @param mover Moves a cluster towards a point
+	 * @param copier Copies one point into another
+	 * @param factory Creates new points
+	 */
+	public StreamingKMeans( InitializeKMeans<P> seedSelector,
+							PointDistance<P> distancer,
+							MiniBatchKMeans.MoveTowards<P> mover,
+							DogLambdas.Copy<P> copier,
+							DogLambdas.NewInstance<P> factory ) {
+		this.seedSelector = seedSelector;
+		this.distancer = distancer;
+		this.mover = mover;
+		this.copier = copier;
+		this.factory = factory;
+
+		clusters = new DogArray<>(factory::newInstance);
+		seedPoints = new DogArray<>(factory::newInstance);
+	}
+
+	@Override
+	public void initialize( int numCluster, long randomSeed ) {
+		if (numCluster <= 0)
+			throw new IllegalArgumentException("There must be at least one cluster");
+		if (seedSampleSize <= 0)
+			throw new IllegalArgumentException("seedSampleSize must be positive");
+		this.numCluster = numCluster;
+		this.randomSeed = randomSeed;
+		clusters.reset();
+		counts.reset();
+		seedPoints.reset();
+		totalPoints = 0;
+	}
+
+	@Override
+	public void process( LArrayAccessor<P> points ) {
+		int index = 0;
+
+		// Save points until there are enough to select the seeds
+		if (!isSeeded()) {
+			seedAccessor.elementType = points.getElementType();
+			while (index < points.size() && seedPoints.size < Math.max(numCluster, seedSampleSize)) {
+				points.getCopy(index++, seedPoints.grow());
+			}
+			totalPoints += index;
+			if (seedPoints.size < Math.max(numCluster, seedSampleSize))
+				return;
+			selectSeeds();
+		}
+
+		totalPoints += points.size() - index;
+		for (; index < points.size(); index++) {
+			update(points.getTemp(index));
+		}
+	}
+
+	/**
+	 * Selects the seeds from the saved points, then updates the clusters using the same points
+	 */
+	protected void selectSeeds() {
+		seedSelector.initialize(distancer, randomSeed);
+		seedSelector.selectSeeds(seedAccessor, numCluster, clusters);
+		counts.resize(clusters.size);
+		counts.fill(0);
+
+		if (verbose)
+			System.out.println("Selected " + clusters.size + " seeds from " + seedPoints.size + " points");
+
+		for (int i = 0; i < seedPoints.size; i++) {
+			update(seedPoints.get(i));
+		}
+
+		// The saved points are no longer needed
+		seedPoints.reset();
+	}
+
+	/**
+	 * Assigns the point to the closest cluster and moves the cluster towards the point
+	 */
+	protected void update( P point ) {
+		int best = -1;
+		double bestDistance = Double.MAX_VALUE;
+		for (int clusterIdx = 0; clusterIdx < clusters.size; clusterIdx++) {
+			double d = distancer.distance(point, clusters.get(clusterIdx));
+			if (d < bestDistance) {
+				bestDistance = d;
+				best = clusterIdx;
+			}
+		}
+
+		long count = ++counts.data[best];
+		if (maxCount > 0)
+			count = Math.min(count, maxCount);
+		mover.move(clusters.get(best), point, 1.0/count);
+	}
+
+	/** True if the seeds have been selected */
+	public boolean isSeeded() {
+		return clusters.size > 0;
+	}
+
+	/**
+	 * Returns a copy of the current clusters. If the seeds have not been selected yet then a provisional set of
+	 * clusters is selected from the points seen so far. The provisional clusters are discarded and don't modify
+	 * the state, so the seeds will still be selected from the full sample. There can be fewer provisional
+	 * clusters than requested if fewer points have been seen.
+	 */
+	@Override
+	public AssignCluster<P> getAssignment() {
+		if (!isSeeded()) {
+			if (seedPoints.size == 0)
+				throw new IllegalStateException("No points have been processed");
+
+			var provisional = new DogArray<>(factory::newInstance);
+			seedSelector.initialize(distancer, randomSeed);
+			seedSelector.selectSeeds(seedAccessor, numCluster, provisional);
+			return new AssignKMeans<>(provisional.toList(), distancer);
+		}
+
+		List<P> copy = new ArrayList<>(clusters.size);
+		for (int i = 0; i < clusters.size; i++) {
+			P c = factory.newInstance();
+			copier.copy(clusters.get(i), c);
+			copy.add(c);
+		}
+		return new AssignKMeans<>(copy, distancer);
+	}
+
+	@Override
+	public void setVerbose( boolean verbose ) {
+		this.verbose = verbose;
+	}
+
+	/**
+	 * Provides access to the points saved for selecting the seeds
+	 */
+	protected class SeedAccessor implements LArrayAccessor<P> {
+		Class<P> elementType;
+
+		@Override public P getTemp( int index ) {
+			return seedPoints.get(index);
+		}
+
+		@Override public void getCopy( int index, P dst ) {
+			copier.copy(seedPoints.get(index), dst);
+		}
+
+		@Override public void copy( P src, P dst ) {
+			copier.copy(src, dst);
+		}
+
+		@Override public int size() {
+			return seedPoints.size;
+		}
+
+		@Override public Class<P> getElementType() {
+			return elementType;
+		}
+	}
+}
@@ -18,8 +18,6 @@
 
 package org.ddogleg.clustering.misc;
 
-import org.ddogleg.clustering.PointDistance;
-
 import java.io.Serializable;
 
 /**
@@ -27,7 +25,7 @@ import java.io.Serializable;
  *
  * @author Peter Abeles
  */
-public class EuclideanSqArrayF64 implements PointDistance<double[]>, Serializable {
+public class EuclideanSqArrayF64 implements FlatPointDistanceF64, Serializable {
 	// Number of elements in the array
 	final int arrayLength;
 
@@ -45,7 +43,16 @@ public class EuclideanSqArrayF64 implements PointDistance<double[]>, Serializabl
 		return sum;
 	}
 
-	@Override public PointDistance<double[]> newInstanceThread() {
+	@Override public double distance( double[] a, int offsetA, double[] b ) {
+		double sum = 0.0;
+		for (int i = 0; i < arrayLength; i++) {
+			double d = a[offsetA + i] - b[i];
+			sum += d*d;
+		}
+		return sum;
+	}
+
+	@Override public FlatPointDistanceF64 newInstanceThread() {
 		return this;
 	}
 }
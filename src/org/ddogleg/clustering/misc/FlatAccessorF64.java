@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.clustering.misc;
+
+import org.ddogleg.struct.LArrayAccessor;
+
+/**
+ * {@link LArrayAccessor} for double[] points which are stored in flat row-major arrays. Each point is a sequence
+ * of {@link #getDimension()} elements inside a single array. This allows the coordinates of a point to be read
+ * in place without copying, which is a lot faster and uses less memory than {@link #getTemp} and
+ * {@link #getCopy} with a very large number of points.
+ *
+ * @author Peter Abeles
+ */
+public interface FlatAccessorF64 extends LArrayAccessor<double[]> {
+	/** Number of elements in each point */
+	int getDimension();
+
+	/**
+	 * Returns the array which contains the point. The point's elements start at {@link #getOffset}.
+	 *
+	 * @param index Index of the point
+	 */
+	double[] getArray( int index );
+
+	/**
+	 * Index of the point's first element inside of the array returned by {@link #getArray}
+	 *
+	 * @param index Index of the point
+	 */
+	int getOffset( int index );
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.clustering.misc;
+
+import lombok.Getter;
+
+/**
+ * Points which are stored inside a single double[] in row-major order. Point 'i' starts at index i*D, where
+ * D is the dimension of a point.
+ *
+ * @author Peter Abeles
+ */
+public class FlatArrayAccessorF64 implements FlatAccessorF64 {
+	/** Array which contains all the points */
+	@Getter double[] data = new double[0];
+
+	/** Number of elements in each point */
+	@Getter final int dimension;
+
+	// Number of points
+	int size;
+
+	// Storage for the point returned by getTemp
+	final double[] temp;
+
+	public FlatArrayAccessorF64( int dimension ) {
+		this.dimension = dimension;
+		this.temp = new double[dimension];
+	}
+
+	/**
+	 * Wraps the array. No copy is made.
+	 *
+	 * @param data Array with points in row-major order
+	 * @param numPoints Number of points in the array
+	 */
+	public FlatArrayAccessorF64( double[] data, int dimension, int numPoints ) {
+		this(dimension);
+		wrap(data, numPoints);
+	}
+
+	/**
+	 * Wraps the array. No copy is made.
+	 *
+	 * @param data Array with points in row-major order
+	 * @param numPoints Number of points in the array
+	 */
+	public void wrap( double[] data, int numPoints ) {
+		if (data.length < numPoints*dimension)
+			throw new IllegalArgumentException("Array is too small. " + data.length + " < " + numPoints*dimension);
+		this.data = data;
+		this.size = numPoints;
+	}
+
+	@Override public double[] getTemp( int index ) {
+		System.arraycopy(data, index*dimension, temp, 0, dimension);
+		return temp;
+	}
+
+	@Override public void getCopy( int index, double[] dst ) {
+		System.arraycopy(data, index*dimension, dst, 0, dimension);
+	}
+
+	@Override public void copy( double[] src, double[] dst ) {
+		System.arraycopy(src, 0, dst, 0, dimension);
+	}
+
+	@Override public int size() {
+		return size;
+	}
+
+	@Override public Class<double[]> getElementType() {
+		return double[].class;
+	}
+
+	@Override public double[] getArray( int index ) {
+		return data;
+	}
+
+	@Override public int getOffset( int index ) {
+		return index*dimension;
+	}
+}
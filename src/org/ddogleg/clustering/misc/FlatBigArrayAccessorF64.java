@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.clustering.misc;
+
+import lombok.Getter;
+import org.ddogleg.struct.BigDogArray_F64;
+
+/**
+ * Points which are stored inside a {@link BigDogArray_F64} in row-major order. Point 'i' starts at element i*D,
+ * where D is the dimension of a point. The array's block size must be a multiple of D so that a point is never
+ * split between two blocks. This can store more points than will fit inside a single array.
+ *
+ * @author Peter Abeles
+ */
+@SuppressWarnings("NullAway.Init")
+public class FlatBigArrayAccessorF64 implements FlatAccessorF64 {
+	/** Array which contains all the points */
+	@Getter BigDogArray_F64 data;
+
+	/** Number of elements in each point */
+	@Getter final int dimension;
+
+	// Number of points in a block
+	int pointsInBlock;
+
+	// Storage for the point returned by getTemp
+	final double[] temp;
+
+	/**
+	 * Wraps the array. No copy is made.
+	 *
+	 * @param data Array with points in row-major order
+	 */
+	public FlatBigArrayAccessorF64( BigDogArray_F64 data, int dimension ) {
+		this.dimension = dimension;
+		this.temp = new double[dimension];
+		wrap(data);
+	}
+
+	/**
+	 * Wraps the array. No copy is made. The number of points is determined by the array's size.
+	 *
+	 * @param data Array with points in row-major order
+	 */
+	public void wrap( BigDogArray_F64 data ) {
+		if (data.getBlockSize()%dimension != 0)
+			throw new IllegalArgumentException("Block size must be a multiple of the dimension");
+		if (data.size%dimension != 0)
+			throw new IllegalArgumentException("Array size must be a multiple of the dimension");
+		this.data = data;
+		this.pointsInBlock = data.getBlockSize()/dimension;
+	}
+
+	@Override public double[] getTemp( int index ) {
+		getCopy(index, temp);
+		return temp;
+	}
+
+	@Override public void getCopy( int index, double[] dst ) {
+		System.arraycopy(getArray(index), getOffset(index), dst, 0, dimension);
+	}
+
+	@Override public void copy( double[] src, double[] dst ) {
+		System.arraycopy(src, 0, dst, 0, dimension);
+	}
+
+	@Override public int size() {
+		return (int)(data.size/dimension);
+	}
+
+	@Override public Class<double[]> getElementType() {
+		return double[].class;
+	}
+
+	@Override public double[] getArray( int index ) {
+		return data.getBlocks().data[index/pointsInBlock];
+	}
+
+	@Override public int getOffset( int index ) {
+		return (index%pointsInBlock)*dimension;
+	}
+}
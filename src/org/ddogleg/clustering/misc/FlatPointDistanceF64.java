@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.clustering.misc;
+
+import org.ddogleg.clustering.PointDistance;
+
+/**
+ * {@link PointDistance} which can also compute the distance to a point stored inside a flat array. Used with
+ * {@link FlatAccessorF64} so that points can be read in place instead of being copied.
+ *
+ * @author Peter Abeles
+ */
+public interface FlatPointDistanceF64 extends PointDistance<double[]> {
+	/**
+	 * Computes the distance between a point inside of an array and another point
+	 *
+	 * @param a Array which contains the first point
+	 * @param offsetA Index of the first point's first element inside of 'a'
+	 * @param b point
+	 * @return distance
+	 */
+	double distance( double[] a, int offsetA, double[] b );
+}
@@ -26,7 +26,8 @@ import org.ddogleg.struct.LArrayAccessor;
 import java.util.Arrays;
 
 /**
- * Computes the mean for points composed of double[]
+ * Computes the mean for points composed of double[]. If the points are stored in a {@link FlatAccessorF64} then
+ * they are read in place.
  *
  * @author Peter Abeles
  */
@@ -54,15 +55,26 @@ public class MeanArrayF64 implements ComputeMeanClusters<double[]> {
 			Arrays.fill(clusters.get(i),0,length,0.0);
 		}
 
+		// Avoid copying the points if possible
+		FlatAccessorF64 flat = points instanceof FlatAccessorF64 ? (FlatAccessorF64)points : null;
+
 		// Compute the sum of all points in each cluster
 		for (int pointIdx = 0; pointIdx < points.size(); pointIdx++) {
-			double[] point = points.getTemp(pointIdx);
+			double[] point;
+			int offset;
+			if (flat != null) {
+				point = flat.getArray(pointIdx);
+				offset = flat.getOffset(pointIdx);
+			} else {
+				point = points.getTemp(pointIdx);
+				offset = 0;
+			}
 
 			int clusterIdx = assignments.get(pointIdx);
 			counts.data[clusterIdx]++;
 			double[] cluster = clusters.get(clusterIdx);
 			for (int i = 0; i < length; i++) {
-				cluster[i] += point[i];
+				cluster[i] += point[offset + i];
 			}
 		}
 
@@ -45,6 +45,13 @@ import static org.ddogleg.fitting.modelset.ransac.Ransac.randomDraw;
  * selection of inlier set is done.
  * </p>
  *
+ * <p>
+ * Early Abort: Once a good model has been found most hypotheses can be rejected without computing the error
+ * for every point. Errors are computed in blocks and a count is kept of how many points have an error which is
+ * larger than the best median so far. Once that count is large enough the median of the hypothesis must
+ * be worse than the best and the remaining points are skipped. Results are identical to when it's turned off.
+ * </p>
+ *
  * @author Peter Abeles
  */
 // TODO Better algorithm for selecting the inlier set.
@@ -79,6 +86,12 @@ public class LeastMedianOfSquares<Model, Point> implements ModelMatcherPost<Mode
 	// The specifies the error fraction its optimizing against. Almost always this should be 0.5
 	protected double errorFraction = 0.5; // 0.5 = median
 
+	/**
+	 * Number of points whose error is computed before checking to see if a hypothesis can be aborted early.
+	 * If &le; 0 then it will never abort early.
+	 */
+	@Getter @Setter protected int abortBlockSize = 500;
+
 	protected List<Point> inlierSet;
 	protected final double inlierFrac;
 
@@ -181,10 +194,7 @@ public class LeastMedianOfSquares<Model, Point> implements ModelMatcherPost<Mode
 			if (!helper.modelGenerator.generate(helper.initialSample, helper.candidate))
 				continue;
 
-			helper.modelDistance.setModel(helper.candidate);
-			helper.modelDistance.distances(dataSet, helper.errors.data);
-
-			double median = QuickSelect.select(helper.errors.data, (int)(N*errorFraction + 0.5), N);
+			double median = helper.computeMedian(dataSet, bestMedian);
 
 			if (median < bestMedian) {
 				helper.swapModels();
@@ -209,7 +219,8 @@ public class LeastMedianOfSquares<Model, Point> implements ModelMatcherPost<Mode
 			helper.modelDistance.setModel(helper.bestParam);
 			helper.modelDistance.distances(dataSet, helper.errors.data);
 
-			int[] indexes = new int[n];
+			helper.indexes.resize(n);
+			int[] indexes = helper.indexes.data;
 			QuickSelect.selectIndex(helper.errors.data, numPts, n, indexes);
 			for (int i = 0; i < numPts; i++) {
 				int origIndex = indexes[i];
@@ -256,10 +267,13 @@ public class LeastMedianOfSquares<Model, Point> implements ModelMatcherPost<Mode
 		// stores all the errors for quicker sorting
 		protected final DogArray_F64 errors = new DogArray_F64();
 
+		// storage for sorted indexes when computing the inlier set
+		protected final DogArray_I32 indexes = new DogArray_I32();
+
 		public void initialize( int datasetSize ) {
 			selectedIdx.reset();
 			errors.resize(datasetSize);
-			if (matchToInput.length != datasetSize) {
+			if (matchToInput.length < datasetSize) {
 				matchToInput = new int[datasetSize];
 			}
 
@@ -267,6 +281,46 @@ public class LeastMedianOfSquares<Model, Point> implements ModelMatcherPost<Mode
 				initializeModels.initialize(modelGenerator, modelDistance);
 		}
 
+		/**
+		 * Computes the median error of the candidate model. If the median is known to be larger than the
+		 * best median then it can stop early.
+		 *
+		 * @param dataSet All the points
+		 * @param bestMedian The best median found so far
+		 * @return The median error or Double.MAX_VALUE if it's known to be worse than bestMedian
+		 */
+		public double computeMedian( List<Point> dataSet, double bestMedian ) {
+			final int N = dataSet.size();
+			final int selectIdx = (int)(N*errorFraction + 0.5);
+			modelDistance.setModel(candidate);
+
+			if (abortBlockSize <= 0 || bestMedian == Double.MAX_VALUE) {
+				modelDistance.distances(dataSet, errors.data);
+				return QuickSelect.select(errors.data, selectIdx, N);
+			}
+
+			// If this many points have a larger error than bestMedian then the median will also be larger
+			final int maxWorse = N - selectIdx;
+
+			int totalWorse = 0;
+			for (int idx0 = 0; idx0 < N; idx0 += abortBlockSize) {
+				int idx1 = Math.min(N, idx0 + abortBlockSize);
+
+				// Points are evaluated individually so that a sub list doesn't need to be created for each block
+				for (int i = idx0; i < idx1; i++) {
+					double e = modelDistance.distance(dataSet.get(i));
+					errors.data[i] = e;
+					if (e > bestMedian)
+						totalWorse++;
+				}
+
+				if (totalWorse >= maxWorse)
+					return Double.MAX_VALUE;
+			}
+
+			return QuickSelect.select(errors.data, selectIdx, N);
+		}
+
 		public void swapModels() {
 			Model t = bestParam;
 			bestParam = candidate;
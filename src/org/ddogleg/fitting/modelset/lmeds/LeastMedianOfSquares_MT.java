@@ -22,7 +22,6 @@ import org.ddogleg.DDoglegConcurrency;
 import org.ddogleg.fitting.modelset.DistanceFromModel;
 import org.ddogleg.fitting.modelset.ModelGenerator;
 import org.ddogleg.fitting.modelset.ModelManager;
-import org.ddogleg.sorting.QuickSelect;
 import org.ddogleg.struct.Factory;
 import org.jetbrains.annotations.Nullable;
 import pabeles.concurrency.GrowArray;
@@ -95,10 +94,8 @@ public class LeastMedianOfSquares_MT<Model, Point> extends LeastMedianOfSquares<
 			if (!helper.modelGenerator.generate(helper.initialSample, helper.candidate))
 				return;
 
-			helper.modelDistance.setModel(helper.candidate);
-			helper.modelDistance.distances(dataSet, helper.errors.data);
-
-			double median = QuickSelect.select(helper.errors.data, (int)(N*errorFraction + 0.5), N);
+			// Only hypotheses which are strictly worse are aborted so ties are still resolved below
+			double median = helper.computeMedian(dataSet, bestMedian);
 
 			// see if it could be better and avoid the synchronize
 			if (median > bestMedian) {
@@ -18,8 +18,10 @@
 
 package org.ddogleg.fitting.modelset.ransac;
 
+import lombok.Getter;
 import lombok.Setter;
 import org.ddogleg.fitting.modelset.*;
+import org.ddogleg.struct.DogArray_F64;
 import org.ddogleg.struct.DogArray_I32;
 import org.ddogleg.struct.Factory;
 import org.ddogleg.struct.FastArray;
@@ -44,6 +46,30 @@ import java.util.Random;
  * it to any number.
  * </p>
  *
+ * <p>
+ * Scoring: By default the hypothesis with the most inliers is selected. Soft scoring, MSAC and MLESAC, can be
+ * selected with {@link #setScoring}. See {@link RansacScoring}. In all cases the fit quality and the inlier set
+ * are computed using the same inlier threshold.
+ * </p>
+ *
+ * <p>
+ * Local Optimization: If a {@link ModelFitter} is provided with {@link #setModelFitter} then LO-RANSAC is used.
+ * Each time a new best model is found it is refit to its inlier set using a non-minimal number of points while
+ * the inlier threshold is iteratively shrunk. The refined model is then used to score the inlier set. This tends
+ * to find better models in fewer iterations. See [1] for details.
+ * </p>
+ *
+ * <p>
+ * Adaptive Termination: If {@link #setConfidence confidence} is set then it will stop iterating once the
+ * probability of having drawn a sample with only inliers exceeds the confidence. The inlier ratio of the best
+ * model found so far is used to compute this probability.
+ * </p>
+ *
+ * <p>
+ * [1] Chum, Ondřej, Jiří Matas, and Josef Kittler. "Locally optimized RANSAC." Joint Pattern Recognition
+ * Symposium. Springer, 2003.
+ * </p>
+ *
  * @author Peter Abeles
  */
 public class Ransac<Model, Point> implements ModelMatcherPost<Model, Point>, InlierThreshold {
@@ -71,6 +97,36 @@ public class Ransac<Model, Point> implements ModelMatcherPost<Model, Point>, Inl
 	// RANSAC's internal state while trying to find the best solution
 	protected @Nullable TrialHelper helper;
 
+	/** Optional. If not null then local optimization is applied using a model fitter created by this factory */
+	protected @Nullable Factory<ModelFitter<Model, Point>> factoryFitter;
+
+	/** Number of times the model is refit to its inliers each time local optimization is invoked */
+	protected @Getter @Setter int localIterations = 4;
+
+	/**
+	 * During local optimization the inlier threshold starts at thresholdFit*localThresholdScale and shrinks
+	 * linearly to thresholdFit on the last iteration.
+	 */
+	protected @Getter @Setter double localThresholdScale = 3.0;
+
+	/**
+	 * If &gt; 0 then it will stop once the probability of drawing an all inlier sample is this or more.
+	 * Must be &lt; 1. Only used by the single threaded implementation.
+	 */
+	protected @Getter @Setter double confidence = 0.0;
+
+	/** Specifies how hypotheses are scored */
+	protected @Getter @Setter RansacScoring scoring = RansacScoring.INLIER_COUNT;
+
+	/**
+	 * Only used by MLESAC. Size of the region outliers are uniformly distributed across, in units of distance.
+	 * If &le; 0 then 10*thresholdFit is used.
+	 */
+	protected @Getter @Setter double outlierRange = 0.0;
+
+	/** Number of trials it performed the last time process was called */
+	protected @Getter int iterationsPerformed;
+
 	/** Optional function for initializing generator and distance functions */
 	protected @Setter @Nullable InitializeModels<Model, Point> initializeModels;
 
@@ -110,10 +166,12 @@ public class Ransac<Model, Point> implements ModelMatcherPost<Model, Point>, Inl
 		checkTrialGenerators();
 
 		// iterate until it has exhausted all iterations or stop if the entire data set
-		// is in the inlier set
+		// is in the inlier set. With soft scoring a model with every point as an inlier can still be improved
 		TrialHelper helper = Objects.requireNonNull(this.helper, "Need to call setModel()");
 		helper.reset();
-		for (int trial = 0; trial < maxIterations && helper.bestFitPoints.size() != dataSet.size(); trial++) {
+		int totalTrials = maxIterations;
+		int trial;
+		for (trial = 0; trial < totalTrials && !helper.isPerfect(dataSet.size()); trial++) {
 			// sample the a small set of points, then make sure the index ordering is back to the original
 			// This more convoluted way of sampling the array is needed to ensure single and threaded code
 			// produces the exact same results. To always produce the same results the order of the sampled
@@ -129,14 +187,21 @@ public class Ransac<Model, Point> implements ModelMatcherPost<Model, Point>, Inl
 				continue;
 
 			// see if it can find a model better than the current best one
-			if (!helper.selectMatchSet(dataSet, helper.bestFitPoints.size(), thresholdFit, helper.candidateParam))
+			if (!helper.scoreHypothesis(dataSet, thresholdFit, helper.candidateParam))
 				continue;
 
 			// save this results
-			if (helper.bestFitPoints.size() < helper.candidatePoints.size()) {
+			if (helper.candidateScore < helper.bestScore) {
 				helper.swapCandidateWithBest();
+
+				// LO-RANSAC. Refine the new best model using all of its inliers
+				if (helper.modelFitter != null)
+					helper.localOptimization(dataSet, thresholdFit);
+
+				totalTrials = computeRequiredTrials(helper.bestFitPoints.size(), dataSet.size());
 			}
 		}
+		iterationsPerformed = trial;
 
 		return helper.bestFitPoints.size() > 0;
 	}
@@ -150,6 +215,83 @@ public class Ransac<Model, Point> implements ModelMatcherPost<Model, Point>, Inl
 		sampleSize = helper.modelGenerator.getMinimumPoints();
 	}
 
+	/**
+	 * Specifies the fitter used by local optimization. If null then local optimization is turned off.
+	 *
+	 * @param factoryFitter Creates a {@link ModelFitter} which refits a model to a set of inliers.
+	 */
+	public void setModelFitter( @Nullable Factory<ModelFitter<Model, Point>> factoryFitter ) {
+		this.factoryFitter = factoryFitter;
+		if (helper != null)
+			helper.modelFitter = factoryFitter == null ? null : factoryFitter.newInstance();
+	}
+
+	/**
+	 * Computes the number of trials needed to draw a sample which only contains inliers with the
+	 * specified confidence, given the inlier ratio of the best model so far. If adaptive termination is turned
+	 * off then the maximum number of iterations is returned.
+	 *
+	 * @param inlierCount Number of inliers in the best model
+	 * @param dataSize Number of points in the data set
+	 * @return Number of trials it should perform
+	 */
+	protected int computeRequiredTrials( int inlierCount, int dataSize ) {
+		if (confidence <= 0.0 || inlierCount == 0)
+			return maxIterations;
+
+		double probAllInliers = Math.pow(inlierCount/(double)dataSize, sampleSize);
+		if (probAllInliers >= 1.0)
+			return 0;
+
+		// if it underflows to zero then it can't estimate the number of trials
+		double denominator = Math.log1p(-probAllInliers);
+		if (denominator == 0.0)
+			return maxIterations;
+
+		double required = Math.ceil(Math.log1p(-confidence)/denominator);
+		return (int)Math.min(maxIterations, required);
+	}
+
+	/**
+	 * Computes the MLESAC score, which is the negative log likelihood of a mixture of Gaussian inliers and
+	 * uniformly distributed outliers. The inlier standard deviation is threshold/1.96. The mixing parameter is
+	 * estimated using a few iterations of EM.
+	 *
+	 * @param distances (Input) Distance each point is from the model. (Output) Likelihood of being an inlier.
+	 * @param length Number of points
+	 * @param threshold Inlier threshold
+	 * @param outlierRange Size of the region outliers are uniformly distributed across
+	 * @return negative log likelihood
+	 */
+	public static double computeMlesacScore( double[] distances, int length, double threshold, double outlierRange ) {
+		double sigma = threshold/1.96;
+		double normalizer = 1.0/(Math.sqrt(2.0*Math.PI)*sigma);
+		double outlierLikelihood = 1.0/outlierRange;
+
+		// Convert the distance into the likelihood of it being an inlier
+		for (int i = 0; i < length; i++) {
+			double d = distances[i]/sigma;
+			distances[i] = normalizer*Math.exp(-0.5*d*d);
+		}
+
+		// Estimate the fraction of inliers using EM
+		double mixing = 0.5;
+		for (int iteration = 0; iteration < 5; iteration++) {
+			double sum = 0.0;
+			for (int i = 0; i < length; i++) {
+				double inlier = mixing*distances[i];
+				sum += inlier/(inlier + (1.0 - mixing)*outlierLikelihood);
+			}
+			mixing = sum/length;
+		}
+
+		double score = 0.0;
+		for (int i = 0; i < length; i++) {
+			score -= Math.log(mixing*distances[i] + (1.0 - mixing)*outlierLikelihood);
+		}
+		return score;
+	}
+
 	/**
 	 * If the maximum number of iterations has changed then re-generate the RNG for each trial
 	 */
@@ -239,8 +381,14 @@ public class Ransac<Model, Point> implements ModelMatcherPost<Model, Point>, Inl
 		// computes the distance a point is from the model
 		DistanceFromModel<Model, Point> modelDistance = Objects.requireNonNull(factoryDistance).newInstance();
 
+		// refits the model to its inliers during local optimization
+		@Nullable ModelFitter<Model, Point> modelFitter = factoryFitter == null ? null : factoryFitter.newInstance();
+
 		List<Point> initialSample = new ArrayList<>();
 
+		// inliers found with the relaxed threshold during local optimization
+		List<Point> localInliers = new ArrayList<>();
+
 		// list of points which are a candidate for the best fit set
 		List<Point> candidatePoints = new ArrayList<>();
 
@@ -256,6 +404,14 @@ public class Ransac<Model, Point> implements ModelMatcherPost<Model, Point>, Inl
 		protected int[] matchToInput = new int[1];
 		protected int[] bestMatchToInput = new int[1];
 
+		// Score of the best and candidate models. Lower is better.
+		// When counting inliers the score is the negative of the number of inliers
+		double bestScore;
+		double candidateScore;
+
+		// Distance of each point from the model when computing soft scores
+		final DogArray_F64 distances = new DogArray_F64();
+
 		// Which indexes were selected
 		DogArray_I32 selectedIdx = new DogArray_I32();
 
@@ -266,10 +422,7 @@ public class Ransac<Model, Point> implements ModelMatcherPost<Model, Point>, Inl
 		 * @param dataSet The points being considered
 		 */
 		protected boolean selectMatchSet( List<Point> dataSet, int bestModelSize, double threshold, Model param ) {
-			if (dataSet.size() > matchToInput.length) {
-				matchToInput = new int[dataSet.size()];
-				bestMatchToInput = new int[dataSet.size()];
-			}
+			growMatchToInput(dataSet.size());
 
 			candidatePoints.clear();
 			modelDistance.setModel(param);
@@ -288,10 +441,154 @@ public class Ransac<Model, Point> implements ModelMatcherPost<Model, Point>, Inl
 					maxFailures--;
 				}
 			}
+			candidateScore = -candidatePoints.size();
 
 			return maxFailures >= 0;
 		}
 
+		/**
+		 * Finds the inlier set and scores the hypothesis using the selected scoring method.
+		 *
+		 * @return true if the hypothesis could be as good or better than the best model
+		 */
+		protected boolean scoreHypothesis( List<Point> dataSet, double threshold, Model param ) {
+			if (scoring == RansacScoring.INLIER_COUNT)
+				return selectMatchSet(dataSet, bestFitPoints.size(), threshold, param);
+			return selectMatchSetScore(dataSet, bestScore, threshold, param);
+		}
+
+		/**
+		 * Finds the inlier set and computes a soft score, e.g. MSAC or MLESAC.
+		 *
+		 * @param bestScore Score of the best model. Used to stop early.
+		 * @return true if the score is less than or equal to bestScore
+		 */
+		protected boolean selectMatchSetScore( List<Point> dataSet, double bestScore, double threshold, Model param ) {
+			growMatchToInput(dataSet.size());
+			candidatePoints.clear();
+			modelDistance.setModel(param);
+
+			// MSAC can stop early once the score is worse than the best
+			if (scoring == RansacScoring.MSAC) {
+				double thresholdSq = threshold*threshold;
+				double score = 0.0;
+				for (int i = 0; i < dataSet.size(); i++) {
+					Point point = dataSet.get(i);
+
+					double distance = modelDistance.distance(point);
+					if (distance < threshold) {
+						matchToInput[candidatePoints.size()] = i;
+						candidatePoints.add(point);
+						score += distance*distance;
+					} else {
+						score += thresholdSq;
+					}
+					if (score > bestScore)
+						return false;
+				}
+				candidateScore = score;
+				return true;
+			}
+
+			distances.resize(dataSet.size());
+			for (int i = 0; i < dataSet.size(); i++) {
+				distances.data[i] = modelDistance.distance(dataSet.get(i));
+			}
+			return scoreDistances(dataSet, bestScore, threshold);
+		}
+
+		/**
+		 * Finds the inlier set and computes a soft score from the already computed distances. Must produce
+		 * the same results as {@link #selectMatchSetScore}.
+		 */
+		protected boolean scoreDistances( List<Point> dataSet, double bestScore, double threshold ) {
+			double[] distances = this.distances.data;
+
+			if (scoring == RansacScoring.MSAC) {
+				double thresholdSq = threshold*threshold;
+				double score = 0.0;
+				for (int i = 0; i < dataSet.size(); i++) {
+					double distance = distances[i];
+					if (distance < threshold) {
+						matchToInput[candidatePoints.size()] = i;
+						candidatePoints.add(dataSet.get(i));
+						score += distance*distance;
+					} else {
+						score += thresholdSq;
+					}
+					if (score > bestScore)
+						return false;
+				}
+				candidateScore = score;
+				return true;
+			}
+
+			for (int i = 0; i < dataSet.size(); i++) {
+				if (distances[i] < threshold) {
+					matchToInput[candidatePoints.size()] = i;
+					candidatePoints.add(dataSet.get(i));
+				}
+			}
+			double range = outlierRange > 0.0 ? outlierRange : 10.0*threshold;
+			candidateScore = computeMlesacScore(distances, dataSet.size(), threshold, range);
+			return candidateScore <= bestScore;
+		}
+
+		/**
+		 * Returns true if the best model can't be improved upon
+		 */
+		protected boolean isPerfect( int dataSize ) {
+			return scoring == RansacScoring.INLIER_COUNT && bestFitPoints.size() == dataSize;
+		}
+
+		protected void growMatchToInput( int size ) {
+			if (size <= matchToInput.length)
+				return;
+			matchToInput = new int[size];
+			bestMatchToInput = new int[size];
+		}
+
+		/**
+		 * Local optimization from LO-RANSAC. The best model is refit to the inliers found using a relaxed
+		 * threshold, which shrinks each iteration until it's the same as the inlier threshold. A refit model
+		 * replaces the best model only if it has more inliers.
+		 *
+		 * @param dataSet The points being considered
+		 * @param threshold Inlier threshold
+		 */
+		protected void localOptimization( List<Point> dataSet, double threshold ) {
+			ModelFitter<Model, Point> fitter = Objects.requireNonNull(modelFitter);
+
+			for (int iteration = 0; iteration < localIterations; iteration++) {
+				double scale = 1.0;
+				if (localIterations > 1)
+					scale += (localThresholdScale - 1.0)*(localIterations - 1 - iteration)/(localIterations - 1);
+				double localThreshold = threshold*scale;
+
+				// Find the inliers of the best model using the relaxed threshold
+				localInliers.clear();
+				modelDistance.setModel(bestFitParam);
+				for (int i = 0; i < dataSet.size(); i++) {
+					Point point = dataSet.get(i);
+					if (modelDistance.distance(point) < localThreshold)
+						localInliers.add(point);
+				}
+
+				if (localInliers.size() < sampleSize)
+					break;
+
+				if (!fitter.fitModel(localInliers, bestFitParam, candidateParam))
+					continue;
+
+				// See if the refined model is better
+				if (!scoreHypothesis(dataSet, threshold, candidateParam))
+					continue;
+
+				if (candidateScore < bestScore)
+					swapCandidateWithBest();
+			}
+		}
+
 		/**
 		 * Turns the current candidates into the best ones.
 		 */
@@ -307,11 +604,17 @@ public class Ransac<Model, Point> implements ModelMatcherPost<Model, Point>, Inl
 			Model m = candidateParam;
 			candidateParam = bestFitParam;
 			bestFitParam = m;
+
+			double tempScore = candidateScore;
+			candidateScore = bestScore;
+			bestScore = tempScore;
 		}
 
 		public void reset() {
 			candidatePoints.clear();
 			bestFitPoints.clear();
+			// When counting inliers, a model needs at least one inlier to be accepted
+			bestScore = scoring == RansacScoring.INLIER_COUNT ? 0.0 : Double.MAX_VALUE;
 			selectedIdx.reset();
 
 			if (initializeModels != null)
@@ -334,9 +637,15 @@ public class Ransac<Model, Point> implements ModelMatcherPost<Model, Point>, Inl
 		return Objects.requireNonNull(helper).bestFitParam;
 	}
 
+	/**
+	 * Returns the number of inliers when counting inliers, otherwise the soft score of the best model.
+	 */
 	@Override
 	public double getFitQuality() {
-		return Objects.requireNonNull(helper).bestFitPoints.size();
+		TrialHelper helper = Objects.requireNonNull(this.helper);
+		if (scoring == RansacScoring.INLIER_COUNT)
+			return helper.bestFitPoints.size();
+		return helper.bestScore;
 	}
 
 	public int getMaxIterations() {
@@ -22,6 +22,7 @@ import org.ddogleg.fitting.modelset.DistanceFromModel;
 import org.ddogleg.fitting.modelset.ModelGenerator;
 import org.ddogleg.fitting.modelset.ModelManager;
 import org.ddogleg.fitting.modelset.ModelMatcherMulti;
+import org.ddogleg.struct.DogArray_F64;
 import org.ddogleg.struct.FastArray;
 
 import java.util.ArrayList;
@@ -39,13 +40,20 @@ import java.util.Random;
  * </p>
  *
  * <p>
+ * By default the model with the most inliers is selected. Soft scoring can be selected with {@link #setScoring}.
+ * See {@link RansacScoring}. Soft scores are only comparable across object types when they have similar
+ * thresholds.
+ * </p>
+ *
+ * <p>
  * To change the default behavior of the class for specific applications the child class can override internal
  * functions.  Suggestions are shown below.
  * </p>
  * <ul>
  * <li>{@link #checkExitIteration}: Override to provide custom logic for when the RANSAC iteration should stop</li>
  * <li>{@link #selectMatchSet}: Override to provide custom for how the inlier set is found.  Be sure to
- * set up matchToInput[] correctly.</li>
+ * set up matchToInput[] correctly. When soft scoring is used, distances[] also needs to be filled in.</li>
+ * <li>{@link #computeCandidateScore}: Override to provide a custom soft score. Not used when counting inliers.</li>
  * </ul>
  *
  * @author Peter Abeles
@@ -92,6 +100,19 @@ public class RansacMulti<Point> implements ModelMatcherMulti<Point> {
 	protected int []matchToInput = new int[1];
 	protected int []bestMatchToInput = new int[1];
 
+	// Specifies how hypotheses are scored
+	protected RansacScoring scoring = RansacScoring.INLIER_COUNT;
+	// Only used by MLESAC. If <= 0 then 10*thresholdFit is used
+	protected double outlierRange = 0.0;
+
+	// Score of the best and candidate models. Lower is better.
+	// When counting inliers the score is the negative of the number of inliers
+	protected double bestScore;
+	protected double candidateScore;
+
+	// Distance of each point from the model when computing MLESAC
+	protected DogArray_F64 distances = new DogArray_F64();
+
 	/**
 	 * Creates a new instance of the ransac algorithm.  The number of points sampled will default to the
 	 * minimum number.  To override this default invoke {@link #setSampleSize(int)}.
@@ -170,8 +191,17 @@ public class RansacMulti<Point> implements ModelMatcherMulti<Point> {
 					// see if it can find a model better than the current best one
 					selectMatchSet(_dataSet, model.modelDistance, model.thresholdFit, param);
 
+					boolean better;
+					if (scoring == RansacScoring.INLIER_COUNT) {
+						candidateScore = -candidatePoints.size();
+						better = candidatePoints.size() > bestFitPoints.size();
+					} else {
+						candidateScore = computeCandidateScore(_dataSet.size(), model.thresholdFit);
+						better = candidateScore < bestScore;
+					}
+
 					// save this results
-					if (bestFitPoints.size() < candidatePoints.size()) {
+					if (better) {
 						bestFitModelIndex = j;
 						objectCandidateParam.set(j,objectParam.get(j));
 						objectParam.set(j,param);
@@ -189,13 +219,15 @@ public class RansacMulti<Point> implements ModelMatcherMulti<Point> {
 	 * a custom behavior.  The default code is shown below:
 	 *
 	 * <pre>
-	 * {@code iteration < maxIterations && bestFitPoints.size() != dataSet.size()}
+	 * {@code iteration < maxIterations && !(scoring == INLIER_COUNT && bestFitPoints.size() == dataSet.size())}
 	 * </pre>
 	 *
 	 * @return if true RANSAC should continue iterating if false then RANSAC will stop.
 	 */
 	protected boolean checkExitIteration() {
-		return iteration < maxIterations && bestFitPoints.size() != dataSet.size();
+		if (scoring == RansacScoring.INLIER_COUNT && bestFitPoints.size() == dataSet.size())
+			return false;
+		return iteration < maxIterations;
 	}
 
 	/**
@@ -203,6 +235,8 @@ public class RansacMulti<Point> implements ModelMatcherMulti<Point> {
 	 */
 	protected void initialize( List<Point> dataSet ) {
 		bestFitPoints.clear();
+		// When counting inliers, a model needs at least one inlier to be accepted
+		bestScore = scoring == RansacScoring.INLIER_COUNT ? 0.0 : Double.MAX_VALUE;
 
 		if( dataSet.size() > matchToInput.length ) {
 			matchToInput = new int[ dataSet.size() ];
@@ -214,7 +248,8 @@ public class RansacMulti<Point> implements ModelMatcherMulti<Point> {
 	 * Exhaustively searches through the list of points contained in 'dataSet' for the set of inliers which match
 	 * the provided model.  It keeps track of the mapping between the index of the inlier list and the 'dataSet' list
 	 * using the matchToInput[] array.   If there is no corresponding (can't happen by default) match then -1
-	 * should be set in matchToInput..
+	 * should be set in matchToInput..  The distance of each point in 'dataSet' from the model is saved in
+	 * distances, which is used to compute soft scores.
 	 *
 	 * @param modelDistance Computes
 	 */
@@ -223,11 +258,12 @@ public class RansacMulti<Point> implements ModelMatcherMulti<Point> {
 										  double threshold, Model param) {
 		candidatePoints.clear();
 		modelDistance.setModel(param);
+		distances.resize(dataSet.size());
 
 		for (int i = 0; i < dataSet.size(); i++) {
 			Point point = dataSet.get(i);
 
-			double distance = modelDistance.distance(point);
+			double distance = distances.data[i] = modelDistance.distance(point);
 			if (distance < threshold) {
 				matchToInput[candidatePoints.size()] = i;
 				candidatePoints.add(point);
@@ -235,6 +271,27 @@ public class RansacMulti<Point> implements ModelMatcherMulti<Point> {
 		}
 	}
 
+	/**
+	 * Computes the soft score of the candidate model from the distances found by {@link #selectMatchSet}.
+	 * Only called when scoring isn't {@link RansacScoring#INLIER_COUNT}. Lower is better.
+	 *
+	 * @param numPoints Number of points in the data set
+	 * @param threshold Inlier threshold of the model
+	 */
+	protected double computeCandidateScore( int numPoints, double threshold ) {
+		if (scoring == RansacScoring.MLESAC)
+			return Ransac.computeMlesacScore(distances.data, numPoints, threshold,
+					outlierRange > 0.0 ? outlierRange : 10.0*threshold);
+
+		double thresholdSq = threshold*threshold;
+		double score = 0.0;
+		for (int i = 0; i < numPoints; i++) {
+			double distance = distances.data[i];
+			score += distance < threshold ? distance*distance : thresholdSq;
+		}
+		return score;
+	}
+
 	/**
 	 * Turns the current candidates into the best ones.
 	 */
@@ -248,6 +305,7 @@ public class RansacMulti<Point> implements ModelMatcherMulti<Point> {
 		bestMatchToInput = tempIndex;
 
 		bestFitParam = param;
+		bestScore = candidateScore;
 	}
 
 	@Override
@@ -260,9 +318,14 @@ public class RansacMulti<Point> implements ModelMatcherMulti<Point> {
 		return bestMatchToInput[matchIndex];
 	}
 
+	/**
+	 * Returns the number of inliers when counting inliers, otherwise the soft score of the best model.
+	 */
 	@Override
 	public double getFitQuality() {
-		return bestFitPoints.size();
+		if (scoring == RansacScoring.INLIER_COUNT)
+			return bestFitPoints.size();
+		return bestScore;
 	}
 
 	@Override
@@ -319,6 +382,26 @@ public class RansacMulti<Point> implements ModelMatcherMulti<Point> {
 		return iteration;
 	}
 
+	public RansacScoring getScoring() {
+		return scoring;
+	}
+
+	public void setScoring(RansacScoring scoring) {
+		this.scoring = scoring;
+	}
+
+	public double getOutlierRange() {
+		return outlierRange;
+	}
+
+	/**
+	 * Only used by MLESAC. Size of the region outliers are uniformly distributed across, in units of distance.
+	 * If &le; 0 then 10*thresholdFit is used.
+	 */
+	public void setOutlierRange(double outlierRange) {
+		this.outlierRange = outlierRange;
+	}
+
 	@Override
 	public Class<Point> getPointType() {
 		return initialSample.type;
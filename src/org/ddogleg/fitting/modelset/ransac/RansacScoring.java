@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.fitting.modelset.ransac;
+
+/**
+ * <p>
+ * Specifies how a hypothesis is scored by RANSAC. In all cases the inlier set is composed of points with a
+ * distance less than the threshold. Soft scoring can better distinguish between hypotheses with a similar
+ * number of inliers, often resulting in a more accurate model for the same number of iterations.
+ * </p>
+ *
+ * <p>
+ * [1] Torr, Philip HS, and Andrew Zisserman. "MLESAC: A new robust estimator with application to estimating
+ * image geometry." Computer vision and image understanding 78.1 (2000): 138-156.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public enum RansacScoring {
+	/** Classic RANSAC. The hypothesis with the most inliers is selected. */
+	INLIER_COUNT,
+	/**
+	 * M-Estimator SAC [1]. Sum of each point's cost, where the cost is distance squared for inliers and
+	 * threshold squared for outliers. The hypothesis with the lowest cost is selected.
+	 */
+	MSAC,
+	/**
+	 * Maximum Likelihood SAC [1]. Negative log likelihood of a mixture of Gaussian inliers and uniformly distributed
+	 * outliers. The standard deviation of inliers is threshold/1.96 and the mixing parameter is estimated using
+	 * EM. The hypothesis with the lowest negative log likelihood is selected.
+	 */
+	MLESAC
+}
@@ -18,20 +18,40 @@
 
 package org.ddogleg.fitting.modelset.ransac;
 
+import lombok.Getter;
+import lombok.Setter;
 import org.ddogleg.DDoglegConcurrency;
 import org.ddogleg.fitting.modelset.DistanceFromModel;
+import org.ddogleg.fitting.modelset.ModelFitter;
 import org.ddogleg.fitting.modelset.ModelGenerator;
 import org.ddogleg.fitting.modelset.ModelManager;
+import org.ddogleg.struct.DogArray_I32;
 import org.ddogleg.struct.Factory;
 import org.jetbrains.annotations.Nullable;
 import pabeles.concurrency.GrowArray;
 
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Concurrent implementation of {@link Ransac}. It will produce identical results when given the same seed.
  *
+ * <p>
+ * There are two ways the work can be split up between threads. When there are many trials, each thread
+ * processes a different trial. When there are few trials but a large number of points, the trials are processed
+ * one at a time and the inlier set for each hypothesis is scored in parallel by splitting the points into blocks.
+ * See {@link ParallelMode}. By default the mode is selected automatically.
+ * </p>
+ *
+ * <p>
+ * When trials are run in parallel and local optimization is turned on, it is only applied to the final best model
+ * since applying it each time a new best model is found would make the results depend on the order threads
+ * finish in. Results will then be different from the single threaded version. Adaptive termination is not
+ * supported and all iterations are run. When scoring in parallel, local optimization and adaptive termination
+ * behave exactly the same as in the single threaded version.
+ * </p>
+ *
  * @author Peter Abeles
  */
 public class Ransac_MT<Model, Point> extends Ransac<Model, Point> {
@@ -44,12 +64,38 @@ public class Ransac_MT<Model, Point> extends Ransac<Model, Point> {
 	// Size of the best model across all threads
 	// NOTE: Reading from an int is safe across threads on 32-bit and 64-bit machines.
 	volatile int bestInlierSize;
+	// Score of the best model across all threads. Lower is better.
+	volatile double bestScore;
 	// The trial which has the best. See code comments below
 	volatile int bestInlierTrial;
 	// The helper which contains the best solution
 	volatile @Nullable TrialHelper bestHelper;
 	//------------------- END LOCK OWNED
 
+	/** Specifies how work is split between threads */
+	@Getter @Setter ParallelMode mode = ParallelMode.AUTO;
+
+	/**
+	 * In AUTO mode, parallel scoring is selected when there are at least this many points for each trial,
+	 * or when there are fewer trials than threads.
+	 */
+	@Getter @Setter int pointsPerTrialScoring = 1000;
+
+	/** Minimum number of points in a block when scoring in parallel */
+	@Getter @Setter int scoringBlockSize = 2000;
+
+	// Used when trials are processed sequentially and scoring is done in parallel
+	@Nullable ScoringTrialHelper scoringHelper;
+
+	// Storage for each block of points when scoring in parallel
+	final GrowArray<ScoreBlock> blocks;
+
+	// Total number of outliers found by all blocks while scoring a hypothesis
+	final AtomicInteger totalFailures = new AtomicInteger();
+
+	// Number of times process has been called. Used to decide when to initialize models in a block
+	int processCount;
+
 	public Ransac_MT( long randSeed, int maxIterations, double thresholdFit,
 					  ModelManager<Model> modelManager,
 					  Class<Point> pointType ) {
@@ -57,6 +103,7 @@ public class Ransac_MT<Model, Point> extends Ransac<Model, Point> {
 
 		// This should be safe even though the factories aren't defined size the initial size will be zero
 		helpers = new GrowArray<>(TrialHelper::new, TrialHelper::reset, TrialHelper.class);
+		blocks = new GrowArray<>(ScoreBlock::new, ScoreBlock::reset, (Class)ScoreBlock.class);
 	}
 
 	@Override
@@ -67,10 +114,21 @@ public class Ransac_MT<Model, Point> extends Ransac<Model, Point> {
 
 		Objects.requireNonNull(factoryDistance, "Must specify the model");
 
+		processCount++;
+
+		// Process one trial at a time and score each hypothesis in parallel
+		if (isParallelScoring(dataSet.size())) {
+			if (scoringHelper == null)
+				scoringHelper = new ScoringTrialHelper();
+			super.helper = scoringHelper;
+			return super.process(dataSet);
+		}
+
 		// make sure there is a RNG for each trial
 		checkTrialGenerators();
 
 		bestInlierSize = -1;
+		bestScore = Double.MAX_VALUE;
 		bestInlierTrial = -1;
 		bestHelper = null;
 
@@ -87,31 +145,40 @@ public class Ransac_MT<Model, Point> extends Ransac<Model, Point> {
 				return;
 
 			// NOTE: A design requirement is that produce identical results to the single thread version.
-			//       That means that if there are multiple models with the same number of inliers then the
+			//       That means that if there are multiple models with the same score then the
 			//       model which was generated in a lower trial number is selected
 
-			// the global best inlier size is set to -1 so that if a model just as good is found now
-			// we can compare trial numbers to see who the winner is
-			int threshold = Math.max(bestInlierSize - 1, helper.bestFitPoints.size());
-
 			// see if it can find a model better than the current best one
-			if (!helper.selectMatchSet(dataSet, threshold, thresholdFit, helper.candidateParam))
-				return;
+			if (scoring == RansacScoring.INLIER_COUNT) {
+				// the global best inlier size is set to -1 so that if a model just as good is found now
+				// we can compare trial numbers to see who the winner is
+				int threshold = Math.max(bestInlierSize - 1, helper.bestFitPoints.size());
+
+				if (!helper.selectMatchSet(dataSet, threshold, thresholdFit, helper.candidateParam))
+					return;
+			} else {
+				// models with the same score are let through so that trial numbers can be compared
+				double threshold = Math.min(bestScore, helper.bestScore);
+
+				if (!helper.selectMatchSetScore(dataSet, threshold, thresholdFit, helper.candidateParam))
+					return;
+			}
 
 			// See if the global best is the winner
-			if (bestInlierSize > helper.candidatePoints.size())
+			if (bestScore < helper.candidateScore)
 				return;
 
 			synchronized (lock) {
 				// Need to do it again since previously it wasn't locked and might have changed
-				if (bestInlierSize > helper.candidatePoints.size())
+				if (bestScore < helper.candidateScore)
 					return;
 
 				// There is a tie. Current results are only better if they come from an earlier trial
-				if (bestInlierSize == helper.candidatePoints.size() && bestInlierTrial < trial)
+				if (bestScore == helper.candidateScore && bestInlierTrial < trial)
 					return;
 
 				// Record the new champion
+				bestScore = helper.candidateScore;
 				bestInlierSize = helper.candidatePoints.size();
 				bestInlierTrial = trial;
 				bestHelper = helper;
@@ -123,6 +190,11 @@ public class Ransac_MT<Model, Point> extends Ransac<Model, Point> {
 
 		// Set the winner to the helper with the best results
 		TrialHelper result = super.helper = Objects.requireNonNull(bestHelper);
+		iterationsPerformed = maxIterations;
+
+		// LO-RANSAC. Refine the winner using all of its inliers
+		if (result.modelFitter != null)
+			result.localOptimization(dataSet, thresholdFit);
 
 		return result.bestFitPoints.size() > 0;
 	}
@@ -135,7 +207,172 @@ public class Ransac_MT<Model, Point> extends Ransac<Model, Point> {
 
 		// discard previous helpers since they are no longer valid
 		helpers.releaseInternalArray();
+		blocks.releaseInternalArray();
+		scoringHelper = null;
 
 		sampleSize = factoryGenerator.newInstance().getMinimumPoints();
 	}
+
+	@Override
+	public void setModelFitter( @Nullable Factory<ModelFitter<Model, Point>> factoryFitter ) {
+		this.factoryFitter = factoryFitter;
+
+		// discard previous helpers so that they will be created with the new fitter
+		helpers.releaseInternalArray();
+		scoringHelper = null;
+	}
+
+	/**
+	 * Decides if each hypothesis should be scored in parallel or if trials should be run in parallel.
+	 *
+	 * @param numPoints Number of points in the data set
+	 * @return true if scoring should be done in parallel
+	 */
+	protected boolean isParallelScoring( int numPoints ) {
+		return switch (mode) {
+			case TRIALS -> false;
+			case SCORING -> true;
+			case AUTO -> numPoints >= 2*scoringBlockSize &&
+					(maxIterations < DDoglegConcurrency.getMaxThreads() ||
+							numPoints >= (long)pointsPerTrialScoring*maxIterations);
+		};
+	}
+
+	/**
+	 * Processes trials in sequence but finds the inlier set by splitting the points into blocks which are
+	 * processed in parallel.
+	 */
+	protected class ScoringTrialHelper extends TrialHelper {
+		@Override
+		protected boolean selectMatchSet( List<Point> dataSet, int bestModelSize, double threshold, Model param ) {
+			growMatchToInput(dataSet.size());
+			candidatePoints.clear();
+
+			// If it fails more than this it can't possibly beat the best model and should stop
+			int maxFailures = dataSet.size() - bestModelSize;
+			totalFailures.set(0);
+
+			DDoglegConcurrency.loopBlocks(0, dataSet.size(), scoringBlockSize, blocks, ( block, idx0, idx1 ) ->
+					block.score(dataSet, idx0, idx1, threshold, param, maxFailures));
+
+			if (totalFailures.get() > maxFailures)
+				return false;
+
+			// Merge the inliers from each block while preserving the order they appear in the data set
+			int nextIdx0 = 0;
+			for (int blockCount = 0; blockCount < blocks.size(); blockCount++) {
+				ScoreBlock block = findBlock(nextIdx0);
+				for (int i = 0; i < block.inliers.size; i++) {
+					int index = block.inliers.data[i];
+					matchToInput[candidatePoints.size()] = index;
+					candidatePoints.add(dataSet.get(index));
+				}
+				nextIdx0 = block.idx1;
+			}
+			candidateScore = -candidatePoints.size();
+
+			return true;
+		}
+
+		@Override
+		protected boolean selectMatchSetScore( List<Point> dataSet, double bestScore, double threshold, Model param ) {
+			growMatchToInput(dataSet.size());
+			candidatePoints.clear();
+
+			// Compute distances in parallel then score them in sequence so that it's identical to single thread
+			distances.resize(dataSet.size());
+			DDoglegConcurrency.loopBlocks(0, dataSet.size(), scoringBlockSize, blocks, ( block, idx0, idx1 ) ->
+					block.computeDistances(dataSet, idx0, idx1, param, distances.data));
+
+			return scoreDistances(dataSet, bestScore, threshold);
+		}
+
+		/** Finds the block which starts at the specified index */
+		ScoreBlock findBlock( int idx0 ) {
+			for (int i = 0; i < blocks.size(); i++) {
+				if (blocks.get(i).idx0 == idx0)
+					return blocks.get(i);
+			}
+			throw new IllegalStateException("No block starts at " + idx0);
+		}
+	}
+
+	/**
+	 * Workspace for finding the inliers in a block of points
+	 */
+	protected class ScoreBlock {
+		// computes the distance a point is from the model
+		DistanceFromModel<Model, Point> modelDistance = Objects.requireNonNull(factoryDistance).newInstance();
+
+		// Only used when initializing the models
+		ModelGenerator<Model, Point> modelGenerator = Objects.requireNonNull(factoryGenerator).newInstance();
+
+		// Index of inliers in the data set
+		final DogArray_I32 inliers = new DogArray_I32();
+
+		// Range of points in the data set this block processed
+		int idx0, idx1;
+
+		// Value of processCount when the models were last initialized
+		int initializedCount = -1;
+
+		/**
+		 * Finds all the inliers in the block. Stops early if the total number of outliers across all blocks
+		 * means this hypothesis can't beat the best model.
+		 */
+		void score( List<Point> dataSet, int idx0, int idx1, double threshold, Model param, int maxFailures ) {
+			this.idx0 = idx0;
+			this.idx1 = idx1;
+			modelDistance.setModel(param);
+
+			int failures = 0;
+			for (int i = idx0; i < idx1; i++) {
+				if (modelDistance.distance(dataSet.get(i)) < threshold) {
+					inliers.add(i);
+					continue;
+				}
+
+				// Periodically share the number of failures with the other threads
+				if (++failures == 256) {
+					if (totalFailures.addAndGet(failures) > maxFailures)
+						return;
+					failures = 0;
+				}
+			}
+			totalFailures.addAndGet(failures);
+		}
+
+		/**
+		 * Computes the distance of every point in the block from the model
+		 */
+		void computeDistances( List<Point> dataSet, int idx0, int idx1, Model param, double[] distances ) {
+			modelDistance.setModel(param);
+			for (int i = idx0; i < idx1; i++) {
+				distances[i] = modelDistance.distance(dataSet.get(i));
+			}
+		}
+
+		public void reset() {
+			inliers.reset();
+
+			// Only initialize the models once each time process is called
+			if (initializedCount == processCount)
+				return;
+			initializedCount = processCount;
+			if (initializeModels != null)
+				initializeModels.initialize(modelGenerator, modelDistance);
+		}
+	}
+
+	/**
+	 * Specifies how work is split up between threads
+	 */
+	public enum ParallelMode {
+		/** Automatically select the mode based on the number of points and trials */
+		AUTO,
+		/** Each thread processes a different trial */
+		TRIALS,
+		/** Trials are processed in sequence and the inlier set for each hypothesis is found in parallel */
+		SCORING
+	}
 }
@@ -0,0 +1,435 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.fitting.modelset.ransac;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.ddogleg.fitting.modelset.DistanceFromModel;
+import org.ddogleg.fitting.modelset.ModelFitter;
+import org.ddogleg.fitting.modelset.ModelGenerator;
+import org.ddogleg.fitting.modelset.ModelManager;
+import org.ddogleg.struct.DogArray;
+import org.ddogleg.struct.DogArray_I32;
+import org.ddogleg.struct.Factory;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+
+/**
+ * <p>
+ * Finds multiple instances of the same model in a data set, e.g. every plane in a point cloud. Like sequential
+ * RANSAC, the instance with the most inliers is found, its inliers are removed, and the process repeats. Unlike
+ * calling {@link Ransac} repeatedly, hypotheses are reused between rounds. When an instance is found each
+ * hypothesis only needs to check the points which were just claimed, instead of the entire data set. Hypotheses
+ * which no longer have enough inliers are replaced by new hypotheses sampled from points which have not been
+ * claimed yet.
+ * </p>
+ *
+ * <p>
+ * Points are never copied or removed from the input list. Instead, which instance owns each point is tracked
+ * using an array of indexes. See {@link #getOwners()}. Inliers of each instance are also stored as indexes into
+ * the input list.
+ * </p>
+ *
+ * <p>
+ * If a {@link ModelFitter} is provided then the model of each instance is refit to its inliers before its
+ * inliers are claimed.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class SequentialRansac<Model, Point> {
+	// how many points are drawn to generate the model
+	protected int sampleSize;
+
+	// how close a point needs to be considered part of the model
+	protected final double thresholdFit;
+
+	// Number of hypotheses which are considered each round
+	protected final int totalHypotheses;
+
+	/** The maximum number of instances it will find */
+	@Getter @Setter protected int maxInstances = Integer.MAX_VALUE;
+
+	/** An instance needs to have at least this many inliers to be accepted */
+	@Getter @Setter protected int minimumInliers = 10;
+
+	@Nullable Factory<ModelGenerator<Model, Point>> factoryGenerator;
+	@Nullable Factory<DistanceFromModel<Model, Point>> factoryDistance;
+	@Nullable Factory<ModelFitter<Model, Point>> factoryFitter;
+
+	// Used to create new models
+	protected final ModelManager<Model> modelManager;
+
+	// used to randomly select points. Only used on the main thread so results are repeatable
+	protected final long randSeed;
+	protected final Random rand;
+
+	// Helper used by the main thread
+	protected @Nullable ScoreHelper helper;
+	protected @Nullable ModelFitter<Model, Point> modelFitter;
+
+	/** Every hypothesis being considered */
+	protected final DogArray<Hypothesis> hypotheses;
+
+	/** Instances which have been found */
+	@Getter protected final DogArray<Instance> instances;
+
+	/** Which instance owns each point in the input list or -1 if it's not owned by any instance */
+	@Getter protected final DogArray_I32 owners = new DogArray_I32();
+
+	// Indexes of points which have not been claimed yet
+	protected final DogArray_I32 remaining = new DogArray_I32();
+	// Indexes of points which were just claimed by an instance
+	protected final DogArray_I32 claimed = new DogArray_I32();
+	// Indexes of hypotheses which need to be processed
+	protected final DogArray_I32 work = new DogArray_I32();
+
+	// Storage for points being refit
+	protected final List<Point> fitPoints = new ArrayList<>();
+	// Storage for a refit model
+	protected final Model refit;
+
+	/** Type of input point */
+	@Getter final Class<Point> pointType;
+
+	/**
+	 * Configures the algorithm.
+	 *
+	 * @param randSeed The random seed used by the random number generator.
+	 * @param totalHypotheses Number of hypotheses which are considered each round.
+	 * @param thresholdFit How close of a fit a points needs to be to the model to be considered a fit.
+	 */
+	public SequentialRansac( long randSeed,
+							 int totalHypotheses,
+							 double thresholdFit,
+							 ModelManager<Model> modelManager,
+							 Class<Point> pointType ) {
+		if (totalHypotheses <= 0)
+			throw new IllegalArgumentException("Number of hypotheses must be positive");
+		this.randSeed = randSeed;
+		this.rand = new Random(randSeed);
+		this.totalHypotheses = totalHypotheses;
+		this.thresholdFit = thresholdFit;
+		this.modelManager = modelManager;
+		this.pointType = pointType;
+		this.refit = modelManager.createModelInstance();
+
+		hypotheses = new DogArray<>(Hypothesis::new, Hypothesis::reset);
+		instances = new DogArray<>(Instance::new, Instance::reset);
+	}
+
+	/**
+	 * Specifies the functions used to generate hypotheses and compute their distance from points
+	 */
+	public void setModel( Factory<ModelGenerator<Model, Point>> factoryGenerator,
+						  Factory<DistanceFromModel<Model, Point>> factoryDistance ) {
+		this.factoryGenerator = factoryGenerator;
+		this.factoryDistance = factoryDistance;
+		this.helper = new ScoreHelper();
+		sampleSize = helper.modelGenerator.getMinimumPoints();
+	}
+
+	/**
+	 * Specifies the fitter used to refine each instance. If null then instances are not refit.
+	 *
+	 * @param factoryFitter Creates a {@link ModelFitter} which refits a model to a set of inliers.
+	 */
+	public void setModelFitter( @Nullable Factory<ModelFitter<Model, Point>> factoryFitter ) {
+		this.factoryFitter = factoryFitter;
+		this.modelFitter = factoryFitter == null ? null : factoryFitter.newInstance();
+	}
+
+	/**
+	 * Finds all the instances of the model in the data set
+	 *
+	 * @param dataSet Set of points (with noise) that are to be fit.
+	 * @return true if at least one instance was found.
+	 */
+	public boolean process( List<Point> dataSet ) {
+		ScoreHelper helper = Objects.requireNonNull(this.helper, "Need to call setModel()");
+		final int N = dataSet.size();
+
+		instances.reset();
+		owners.resize(N);
+		owners.fill(-1);
+		remaining.resize(N);
+		for (int i = 0; i < N; i++) {
+			remaining.data[i] = i;
+		}
+
+		// Sample the initial set of hypotheses. Discard hypotheses from the previous data set
+		hypotheses.reset();
+		hypotheses.resize(totalHypotheses);
+		work.reset();
+		for (int i = 0; i < totalHypotheses; i++) {
+			if (drawSample(hypotheses.get(i)))
+				work.add(i);
+		}
+		generateHypotheses(dataSet, work);
+
+		while (instances.size < maxInstances) {
+			// Select the hypothesis with the most inliers. Ties go to the lowest index
+			int bestIdx = -1;
+			int bestCount = minimumInliers - 1;
+			for (int i = 0; i < hypotheses.size; i++) {
+				Hypothesis h = hypotheses.get(i);
+				if (h.valid && h.inlierCount > bestCount) {
+					bestCount = h.inlierCount;
+					bestIdx = i;
+				}
+			}
+			if (bestIdx < 0)
+				break;
+
+			if (!createInstance(dataSet, helper, hypotheses.get(bestIdx).model))
+				break;
+
+			// Remove the claimed points from the count of each hypothesis
+			work.reset();
+			for (int i = 0; i < hypotheses.size; i++) {
+				if (hypotheses.get(i).valid)
+					work.add(i);
+			}
+			removeClaimed(dataSet, work);
+
+			// Replace hypotheses which can no longer be selected
+			work.reset();
+			for (int i = 0; i < hypotheses.size; i++) {
+				Hypothesis h = hypotheses.get(i);
+				if (h.inlierCount >= minimumInliers)
+					continue;
+				h.valid = false;
+				if (drawSample(h))
+					work.add(i);
+			}
+			generateHypotheses(dataSet, work);
+		}
+
+		return instances.size > 0;
+	}
+
+	/**
+	 * Creates a new instance from the model and claims its inliers
+	 *
+	 * @return true if an instance was created
+	 */
+	protected boolean createInstance( List<Point> dataSet, ScoreHelper helper, Model model ) {
+		Instance instance = instances.grow();
+		modelManager.copyModel(model, instance.model);
+		findInliers(dataSet, helper, instance.model, instance.inliers);
+
+		// Refine the model using all of its inliers. Only keep it if it's at least as good
+		if (modelFitter != null) {
+			fitPoints.clear();
+			for (int i = 0; i < instance.inliers.size; i++) {
+				fitPoints.add(dataSet.get(instance.inliers.data[i]));
+			}
+			if (modelFitter.fitModel(fitPoints, instance.model, refit)) {
+				findInliers(dataSet, helper, refit, claimed);
+				if (claimed.size >= instance.inliers.size) {
+					modelManager.copyModel(refit, instance.model);
+					instance.inliers.setTo(claimed);
+				}
+			}
+		}
+
+		// Every instance must claim at least one point to ensure it will terminate
+		if (instance.inliers.size == 0 || instance.inliers.size < minimumInliers) {
+			instances.removeTail();
+			return false;
+		}
+
+		// Claim the inliers
+		claimed.setTo(instance.inliers);
+		int instanceIdx = instances.size - 1;
+		for (int i = 0; i < claimed.size; i++) {
+			owners.data[claimed.data[i]] = instanceIdx;
+		}
+
+		// Remove claimed points from the list of remaining points while preserving the order
+		int count = 0;
+		for (int i = 0; i < remaining.size; i++) {
+			int idx = remaining.data[i];
+			if (owners.data[idx] == -1)
+				remaining.data[count++] = idx;
+		}
+		remaining.size = count;
+
+		return true;
+	}
+
+	/**
+	 * Finds indexes of all remaining points which are inliers of the model
+	 */
+	protected void findInliers( List<Point> dataSet, ScoreHelper helper, Model model, DogArray_I32 inliers ) {
+		inliers.reset();
+		helper.modelDistance.setModel(model);
+		for (int i = 0; i < remaining.size; i++) {
+			int idx = remaining.data[i];
+			if (helper.modelDistance.distance(dataSet.get(idx)) < thresholdFit)
+				inliers.add(idx);
+		}
+	}
+
+	/**
+	 * Randomly selects points from the remaining points for the hypothesis
+	 *
+	 * @return true if there were enough points remaining
+	 */
+	protected boolean drawSample( Hypothesis h ) {
+		h.reset();
+		if (remaining.size < Math.max(sampleSize, minimumInliers))
+			return false;
+
+		while (h.sample.size < sampleSize) {
+			int idx = remaining.data[rand.nextInt(remaining.size)];
+			if (!h.sample.contains(idx))
+				h.sample.add(idx);
+		}
+		return true;
+	}
+
+	/**
+	 * Generates a model for each hypothesis and counts the number of inliers among the remaining points
+	 *
+	 * @param which Indexes of hypotheses which are to be generated
+	 */
+	protected void generateHypotheses( List<Point> dataSet, DogArray_I32 which ) {
+		ScoreHelper helper = Objects.requireNonNull(this.helper);
+		for (int i = 0; i < which.size; i++) {
+			helper.generate(dataSet, hypotheses.get(which.data[i]));
+		}
+	}
+
+	/**
+	 * Updates the inlier count of each hypothesis after points have been claimed
+	 *
+	 * @param which Indexes of hypotheses which are to be updated
+	 */
+	protected void removeClaimed( List<Point> dataSet, DogArray_I32 which ) {
+		ScoreHelper helper = Objects.requireNonNull(this.helper);
+		for (int i = 0; i < which.size; i++) {
+			helper.removeClaimed(dataSet, hypotheses.get(which.data[i]));
+		}
+	}
+
+	/**
+	 * Resets the random number generator so that identical inputs will produce identical outputs
+	 */
+	public void reset() {
+		rand.setSeed(randSeed);
+	}
+
+	/**
+	 * Number of points it samples to compute a model from.  Typically this is the minimum number of points needed.
+	 */
+	public int getMinimumSize() {
+		return sampleSize;
+	}
+
+	/**
+	 * Number of points it samples to compute a model from.  Typically this is the minimum number of points needed.
+	 *
+	 * @param sampleSize Number of points sampled when computing the model.
+	 */
+	public void setSampleSize( int sampleSize ) {
+		this.sampleSize = sampleSize;
+	}
+
+	/**
+	 * Contains the functions needed to generate and score a hypothesis. One is needed for each thread.
+	 */
+	protected class ScoreHelper {
+		ModelGenerator<Model, Point> modelGenerator = Objects.requireNonNull(factoryGenerator).newInstance();
+		DistanceFromModel<Model, Point> modelDistance = Objects.requireNonNull(factoryDistance).newInstance();
+
+		// points which the model is generated from
+		final List<Point> initialSample = new ArrayList<>();
+
+		/**
+		 * Generates the hypothesis's model from its sample and counts its inliers
+		 */
+		public void generate( List<Point> dataSet, Hypothesis h ) {
+			initialSample.clear();
+			for (int i = 0; i < h.sample.size; i++) {
+				initialSample.add(dataSet.get(h.sample.data[i]));
+			}
+
+			h.inlierCount = 0;
+			h.valid = modelGenerator.generate(initialSample, h.model);
+			if (!h.valid)
+				return;
+
+			modelDistance.setModel(h.model);
+			for (int i = 0; i < remaining.size; i++) {
+				if (modelDistance.distance(dataSet.get(remaining.data[i])) < thresholdFit)
+					h.inlierCount++;
+			}
+		}
+
+		/**
+		 * Subtracts claimed points which are inliers from the inlier count
+		 */
+		public void removeClaimed( List<Point> dataSet, Hypothesis h ) {
+			modelDistance.setModel(h.model);
+			for (int i = 0; i < claimed.size; i++) {
+				if (modelDistance.distance(dataSet.get(claimed.data[i])) < thresholdFit)
+					h.inlierCount--;
+			}
+		}
+	}
+
+	/**
+	 * A hypothesis generated from a random sample
+	 */
+	public class Hypothesis {
+		/** The model */
+		public final Model model = modelManager.createModelInstance();
+		/** Indexes of points which were used to generate the model */
+		public final DogArray_I32 sample = new DogArray_I32();
+		/** Number of unclaimed points which are inliers */
+		public int inlierCount;
+		/** If the model could be generated */
+		public boolean valid;
+
+		public void reset() {
+			sample.reset();
+			inlierCount = 0;
+			valid = false;
+		}
+	}
+
+	/**
+	 * An instance of the model which was found in the data set
+	 */
+	public class Instance {
+		/** The model */
+		public final Model model = modelManager.createModelInstance();
+		/** Index of each inlier in the input list */
+		public final DogArray_I32 inliers = new DogArray_I32();
+
+		public void reset() {
+			inliers.reset();
+		}
+	}
+}
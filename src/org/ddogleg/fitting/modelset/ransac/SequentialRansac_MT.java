@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.fitting.modelset.ransac;
+
+import org.ddogleg.DDoglegConcurrency;
+import org.ddogleg.fitting.modelset.DistanceFromModel;
+import org.ddogleg.fitting.modelset.ModelGenerator;
+import org.ddogleg.fitting.modelset.ModelManager;
+import org.ddogleg.struct.DogArray_I32;
+import org.ddogleg.struct.Factory;
+import pabeles.concurrency.GrowArray;
+
+import java.util.List;
+
+/**
+ * Concurrent implementation of {@link SequentialRansac}. Hypotheses are generated and scored in parallel.
+ * Random samples are still drawn by the main thread, so it produces identical results when given the same seed.
+ *
+ * @author Peter Abeles
+ */
+public class SequentialRansac_MT<Model, Point> extends SequentialRansac<Model, Point> {
+	// Storage for each thread's state
+	final GrowArray<ScoreHelper> helpers;
+
+	/**
+	 * @see SequentialRansac
+	 */
+	public SequentialRansac_MT( long randSeed,
+								int totalHypotheses,
+								double thresholdFit,
+								ModelManager<Model> modelManager,
+								Class<Point> pointType ) {
+		super(randSeed, totalHypotheses, thresholdFit, modelManager, pointType);
+
+		// Initialize size is zero. so factories not being defined won't cause problems
+		helpers = new GrowArray<>(ScoreHelper::new, ( a ) -> {}, (Class)ScoreHelper.class);
+	}
+
+	@Override
+	public void setModel( Factory<ModelGenerator<Model, Point>> factoryGenerator,
+						  Factory<DistanceFromModel<Model, Point>> factoryDistance ) {
+		super.setModel(factoryGenerator, factoryDistance);
+
+		// discard previous helpers since they are no longer valid
+		helpers.releaseInternalArray();
+	}
+
+	@Override
+	protected void generateHypotheses( List<Point> dataSet, DogArray_I32 which ) {
+		DDoglegConcurrency.loopFor(0, which.size, 1, helpers, ( helper, i ) ->
+				helper.generate(dataSet, hypotheses.get(which.data[i])));
+	}
+
+	@Override
+	protected void removeClaimed( List<Point> dataSet, DogArray_I32 which ) {
+		DDoglegConcurrency.loopFor(0, which.size, 1, helpers, ( helper, i ) ->
+				helper.removeClaimed(dataSet, hypotheses.get(which.data[i])));
+	}
+}
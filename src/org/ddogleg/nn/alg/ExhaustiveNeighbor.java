@@ -18,7 +18,7 @@
 
 package org.ddogleg.nn.alg;
 
-import org.ddogleg.sorting.QuickSelect;
+import org.ddogleg.sorting.ParallelSelect_F64;
 import org.ddogleg.struct.DogArray_F64;
 import org.ddogleg.struct.DogArray_I32;
 
@@ -42,6 +42,9 @@ public class ExhaustiveNeighbor<P> {
 	final DogArray_I32 indexes = new DogArray_I32();
 	final DogArray_I32 indexesSort = new DogArray_I32();
 
+	// Selects the N closest. Only concurrent if turned on and there are a very large number of points
+	final ParallelSelect_F64 select = new ParallelSelect_F64();
+
 	KdTreeDistance<P> distance;
 
 	public ExhaustiveNeighbor( KdTreeDistance<P> distance) {
@@ -118,7 +121,7 @@ public class ExhaustiveNeighbor<P> {
 			return;
 
 		indexesSort.resize(distances.size);
-		QuickSelect.selectIndex(distances.data,numNeighbors-1,distances.size,indexesSort.data);
+		select.selectIndex(distances.data,numNeighbors-1,distances.size,indexesSort.data);
 
 		for( int i = 0; i < numNeighbors; i++ ) {
 			int index = indexes.get(indexesSort.get(i));
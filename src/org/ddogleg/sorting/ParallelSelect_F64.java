@@ -0,0 +1,283 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.sorting;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.ddogleg.DDoglegConcurrency;
+import org.ddogleg.struct.DogArray;
+import org.ddogleg.struct.DogArray_I32;
+
+/**
+ * <p>
+ * Concurrent selection of the k-th smallest element for very large arrays of doubles. Same behavior as
+ * {@link QuickSelect}: elements before 'k' will be &le; the k-th element and elements after will be &ge;.
+ * </p>
+ *
+ * <p>
+ * The k-th value is found by computing a histogram of the upper 16-bits of every element concurrently,
+ * using the same keys as {@link RadixSort_F64}. The elements in the bucket which contains the k-th element are
+ * then copied out and {@link QuickSelect} is used on them. Usually this is a tiny fraction of the array. Finally the
+ * array is partitioned around the k-th value concurrently. Elements are in the same order as
+ * {@link java.util.Arrays#sort(double[])}, so -0.0 is less than 0.0 and NaN is more than everything.
+ * </p>
+ *
+ * <p>
+ * Only runs concurrently if {@link DDoglegConcurrency#isUseConcurrent()} is true and the array is large enough,
+ * otherwise {@link QuickSelect} is called. Work space is saved internally and re-used.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class ParallelSelect_F64 {
+	// Number of bits in the histogram
+	static final int BITS = 16;
+	static final int SHIFT = 64 - BITS;
+
+	/** Minimum number of elements in each block. Arrays smaller than twice this are processed in a single thread. */
+	@Getter @Setter int minimumBlock = 100_000;
+
+	// Location of the first element in each block, relative to the start of the array. One extra at the end.
+	int[] blocks = new int[0];
+
+	// Storage for the histogram and partition counts in each block
+	final DogArray<BlockCounts> blockCounts = new DogArray<>(BlockCounts::new);
+
+	// Keys of elements in the bucket with the k-th element. Signed so that QuickSelect can be used.
+	long[] candidates = new long[0];
+
+	// Elements are partitioned into these arrays then copied back
+	double[] work = new double[0];
+	int[] workIndexes = new int[0];
+
+	/**
+	 * Same as {@link QuickSelect#select(double[], int, int)}
+	 */
+	public double select( double[] data, int k, int size ) {
+		return select(data, k, 0, size);
+	}
+
+	/**
+	 * Same as {@link QuickSelect#select(double[], int, int, int)}
+	 *
+	 * @param k All elements i data[idx0+i] &le; data[idx0+k]
+	 * @param idx0 Lower extent of the array considered. Inclusive.
+	 * @param idx1 Upper extent of the array considered. Exclusive.
+	 * @return value at 'k'
+	 */
+	public double select( double[] data, int k, int idx0, int idx1 ) {
+		int length = idx1 - idx0;
+		int numBlocks = selectNumberOfBlocks(length);
+		if (numBlocks <= 1)
+			return QuickSelect.select(data, k, idx0, idx1);
+
+		long target = findKey(numBlocks, k, idx0, data);
+
+		if (work.length < length)
+			work = new double[length];
+
+		// Count how many elements are less than and equal to the k-th element in each block
+		countPartitions(numBlocks, target, idx0, data);
+
+		// Partition elements into the work array
+		DDoglegConcurrency.loopFor(0, numBlocks, blockIdx -> {
+			BlockCounts c = blockCounts.get(blockIdx);
+			int less = c.lessStart, equal = c.equalStart, greater = c.greaterStart;
+			for (int i = idx0 + blocks[blockIdx]; i < idx0 + blocks[blockIdx + 1]; i++) {
+				double value = data[i];
+				long key = RadixSort_F64.toKey(value);
+				if (key == target)
+					work[equal++] = value;
+				else if (Long.compareUnsigned(key, target) < 0)
+					work[less++] = value;
+				else
+					work[greater++] = value;
+			}
+		});
+
+		DDoglegConcurrency.loopBlocks(0, length, ( i0, i1 ) ->
+				System.arraycopy(work, i0, data, idx0 + i0, i1 - i0));
+
+		return data[idx0 + k];
+	}
+
+	/**
+	 * Same as {@link QuickSelect#selectIndex(double[], int, int, int[])}. The first 'k' indexes will point to
+	 * elements which are &le; the k-th element.
+	 *
+	 * @param data (Input) The array. Not modified.
+	 * @param k The element of the sorted list that is to be found
+	 * @param maxIndex Only elements up to this value are considered
+	 * @param indexes (Output) Partially sorted indexes. Must be at least maxIndex.
+	 * @return Index of the k-th element in the array
+	 */
+	public int selectIndex( double[] data, int k, int maxIndex, int[] indexes ) {
+		int numBlocks = selectNumberOfBlocks(maxIndex);
+		if (numBlocks <= 1)
+			return QuickSelect.selectIndex(data, k, maxIndex, indexes);
+
+		long target = findKey(numBlocks, k, 0, data);
+
+		if (workIndexes.length < maxIndex)
+			workIndexes = new int[maxIndex];
+
+		countPartitions(numBlocks, target, 0, data);
+
+		// Partition the indexes into the work array
+		DDoglegConcurrency.loopFor(0, numBlocks, blockIdx -> {
+			BlockCounts c = blockCounts.get(blockIdx);
+			int less = c.lessStart, equal = c.equalStart, greater = c.greaterStart;
+			for (int i = blocks[blockIdx]; i < blocks[blockIdx + 1]; i++) {
+				long key = RadixSort_F64.toKey(data[i]);
+				if (key == target)
+					workIndexes[equal++] = i;
+				else if (Long.compareUnsigned(key, target) < 0)
+					workIndexes[less++] = i;
+				else
+					workIndexes[greater++] = i;
+			}
+		});
+
+		DDoglegConcurrency.loopBlocks(0, maxIndex, ( i0, i1 ) ->
+				System.arraycopy(workIndexes, i0, indexes, i0, i1 - i0));
+
+		return indexes[k];
+	}
+
+	/**
+	 * Finds the key of the k-th element
+	 */
+	long findKey( int numBlocks, int k, int offset, double[] data ) {
+		// Histogram of the upper bits in each block
+		blockCounts.resize(numBlocks);
+		DDoglegConcurrency.loopFor(0, numBlocks, blockIdx -> {
+			DogArray_I32 histogram = blockCounts.get(blockIdx).histogram;
+			histogram.resetResize(1 << BITS, 0);
+			for (int i = offset + blocks[blockIdx]; i < offset + blocks[blockIdx + 1]; i++) {
+				histogram.data[(int)(RadixSort_F64.toKey(data[i]) >>> SHIFT)]++;
+			}
+		});
+
+		// Find the bucket which contains the k-th element
+		int bucket = -1;
+		int remaining = k;
+		for (int b = 0; b < 1 << BITS; b++) {
+			int count = 0;
+			for (int blockIdx = 0; blockIdx < numBlocks; blockIdx++) {
+				count += blockCounts.get(blockIdx).histogram.data[b];
+			}
+			if (remaining < count) {
+				bucket = b;
+				break;
+			}
+			remaining -= count;
+		}
+		if (bucket < 0)
+			throw new IllegalArgumentException("k is larger than the number of elements");
+
+		// Copy the elements in the bucket. Each block knows where to write from its histogram
+		int total = 0;
+		for (int blockIdx = 0; blockIdx < numBlocks; blockIdx++) {
+			BlockCounts c = blockCounts.get(blockIdx);
+			c.lessStart = total;
+			total += c.histogram.data[bucket];
+		}
+		if (candidates.length < total)
+			candidates = new long[total];
+
+		final int selected = bucket;
+		DDoglegConcurrency.loopFor(0, numBlocks, blockIdx -> {
+			int location = blockCounts.get(blockIdx).lessStart;
+			for (int i = offset + blocks[blockIdx]; i < offset + blocks[blockIdx + 1]; i++) {
+				long key = RadixSort_F64.toKey(data[i]);
+				if ((int)(key >>> SHIFT) == selected)
+					candidates[location++] = key ^ Long.MIN_VALUE;
+			}
+		});
+
+		return QuickSelect.select(candidates, remaining, total) ^ Long.MIN_VALUE;
+	}
+
+	/**
+	 * Counts the number of elements in each block which are less than, equal to, and greater than the target
+	 * then computes where each block should start writing in the output.
+	 */
+	void countPartitions( int numBlocks, long target, int offset, double[] data ) {
+		DDoglegConcurrency.loopFor(0, numBlocks, blockIdx -> {
+			BlockCounts c = blockCounts.get(blockIdx);
+			c.less = c.equal = 0;
+			for (int i = offset + blocks[blockIdx]; i < offset + blocks[blockIdx + 1]; i++) {
+				long key = RadixSort_F64.toKey(data[i]);
+				if (key == target)
+					c.equal++;
+				else if (Long.compareUnsigned(key, target) < 0)
+					c.less++;
+			}
+		});
+
+		int totalLess = 0, totalEqual = 0;
+		for (int blockIdx = 0; blockIdx < numBlocks; blockIdx++) {
+			BlockCounts c = blockCounts.get(blockIdx);
+			totalLess += c.less;
+			totalEqual += c.equal;
+		}
+
+		int less = 0, equal = totalLess, greater = totalLess + totalEqual;
+		for (int blockIdx = 0; blockIdx < numBlocks; blockIdx++) {
+			BlockCounts c = blockCounts.get(blockIdx);
+			int blockLength = blocks[blockIdx + 1] - blocks[blockIdx];
+			c.lessStart = less;
+			c.equalStart = equal;
+			c.greaterStart = greater;
+			less += c.less;
+			equal += c.equal;
+			greater += blockLength - c.less - c.equal;
+		}
+	}
+
+	/**
+	 * Decides how many blocks the array should be split into and computes where each block starts
+	 *
+	 * @return Number of blocks. If one then it should be processed in a single thread.
+	 */
+	protected int selectNumberOfBlocks( int length ) {
+		if (!DDoglegConcurrency.isUseConcurrent())
+			return 1;
+
+		int numBlocks = Math.min(length/Math.max(1, minimumBlock), Math.max(2, DDoglegConcurrency.getMaxThreads()));
+		if (numBlocks <= 1)
+			return 1;
+
+		if (blocks.length < numBlocks + 1)
+			blocks = new int[numBlocks + 1];
+		for (int i = 0; i <= numBlocks; i++) {
+			blocks[i] = (int)((long)length*i/numBlocks);
+		}
+		return numBlocks;
+	}
+
+	/**
+	 * Counts for a single block
+	 */
+	static class BlockCounts {
+		final DogArray_I32 histogram = new DogArray_I32();
+		int less, equal;
+		int lessStart, equalStart, greaterStart;
+	}
+}
@@ -0,0 +1,294 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.sorting;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.ddogleg.DDoglegConcurrency;
+import org.ddogleg.struct.DogArray;
+import org.ddogleg.struct.DogArray_I32;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Concurrent merge sort for ints. The array is split into one block per thread and each block is sorted in a
+ * single thread. Blocks are then merged in pairs until there's one sorted block. Each merge is split into
+ * multiple pieces, by searching for where the output should be divided, so that all the threads are still
+ * used when only a few large blocks are left.
+ * </p>
+ *
+ * <p>
+ * Only runs concurrently if {@link DDoglegConcurrency#isUseConcurrent()} is true and the array is large enough,
+ * otherwise it's sorted in a single thread. Work space
+ * is saved internally and re-used. Sorting indexes is stable.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class ParallelSort_S32 {
+	/** Minimum number of elements in each block. Arrays smaller than twice this are sorted in a single thread. */
+	@Getter @Setter int minimumBlock = 50_000;
+
+	// Elements are merged back and forth between the input and these arrays
+	int[] work = new int[0];
+	int[] workIndexes = new int[0];
+
+	// Location of the first element in each block, relative to the start of the array. One extra at the end.
+	int[] blocks = new int[0];
+
+	// Used to sort indexes in a single thread
+	final RadixSort_S32 radix = new RadixSort_S32();
+
+	// Storage used when sorting indexes in each block
+	final DogArray<IndexBlock> indexBlocks = new DogArray<>(IndexBlock::new);
+
+	/**
+	 * Sorts the first 'length' elements in the array
+	 */
+	public void sort( int[] arr, int length ) {
+		sort(arr, 0, length);
+	}
+
+	/**
+	 * Sorts the elements in the array from offset to offset+length-1
+	 */
+	public void sort( int[] arr, int offset, int length ) {
+		int numBlocks = selectNumberOfBlocks(length);
+		if (numBlocks <= 1) {
+			Arrays.sort(arr, offset, offset + length);
+			return;
+		}
+
+		// Sort each block independently
+		DDoglegConcurrency.loopFor(0, numBlocks, blockIdx ->
+				Arrays.sort(arr, offset + blocks[blockIdx], offset + blocks[blockIdx + 1]));
+
+		if (work.length < length)
+			work = new int[length];
+
+		// Merge pairs of blocks until only one is left
+		int[] src = arr, dst = work;
+		int srcOffset = offset, dstOffset = 0;
+		for (int width = 1; width < numBlocks; width *= 2) {
+			mergeBlocks(src, srcOffset, dst, dstOffset, width, numBlocks);
+
+			int[] tmp = src;
+			src = dst;
+			dst = tmp;
+			int tmpOffset = srcOffset;
+			srcOffset = dstOffset;
+			dstOffset = tmpOffset;
+		}
+
+		if (src != arr)
+			copy(src, srcOffset, arr, offset, length);
+	}
+
+	/**
+	 * Computes the indexes of the sorted array without modifying it. Same behavior as
+	 * {@link RadixSort_S32#sort(int[], int, int, int[])}.
+	 *
+	 * @param arr (Input) Array which is to be sorted. Not modified.
+	 * @param offset First element in the array
+	 * @param length Number of elements which are sorted
+	 * @param indexes (Output) Index of the element in 'arr' at each sorted position. Must be at least 'length'.
+	 */
+	public void sort( int[] arr, int offset, int length, int[] indexes ) {
+		int numBlocks = selectNumberOfBlocks(length);
+		if (numBlocks <= 1) {
+			radix.sort(arr, offset, length, indexes);
+			return;
+		}
+
+		// Sort the indexes in each block independently
+		indexBlocks.resize(numBlocks);
+		DDoglegConcurrency.loopFor(0, numBlocks, blockIdx -> {
+			IndexBlock block = indexBlocks.get(blockIdx);
+			int idx0 = blocks[blockIdx];
+			int blockLength = blocks[blockIdx + 1] - idx0;
+			block.indexes.resize(blockLength);
+			block.sorter.sort(arr, offset + idx0, blockLength, block.indexes.data);
+			System.arraycopy(block.indexes.data, 0, indexes, idx0, blockLength);
+		});
+
+		if (workIndexes.length < length)
+			workIndexes = new int[length];
+
+		// Merge pairs of blocks until only one is left
+		int[] src = indexes, dst = workIndexes;
+		for (int width = 1; width < numBlocks; width *= 2) {
+			mergeBlocks(arr, src, dst, width, numBlocks);
+
+			int[] tmp = src;
+			src = dst;
+			dst = tmp;
+		}
+
+		if (src != indexes)
+			copy(src, indexes, length);
+	}
+
+	/**
+	 * Decides how many blocks the array should be split into and computes where each block starts
+	 *
+	 * @return Number of blocks. If one then it should be sorted in a single thread.
+	 */
+	protected int selectNumberOfBlocks( int length ) {
+		if (!DDoglegConcurrency.isUseConcurrent())
+			return 1;
+
+		int numBlocks = Math.min(length/Math.max(1, minimumBlock), Math.max(2, DDoglegConcurrency.getMaxThreads()));
+		if (numBlocks <= 1)
+			return 1;
+
+		if (blocks.length < numBlocks + 1)
+			blocks = new int[numBlocks + 1];
+		for (int i = 0; i <= numBlocks; i++) {
+			blocks[i] = (int)((long)length*i/numBlocks);
+		}
+		return numBlocks;
+	}
+
+	/**
+	 * Merges sorted runs of 'width' blocks in pairs. Each pair is split into pieces which are merged concurrently.
+	 */
+	void mergeBlocks( int[] src, int srcOffset, int[] dst, int dstOffset, int width, int numBlocks ) {
+		int numPairs = (numBlocks + 2*width - 1)/(2*width);
+		int piecesPerPair = 2*width;
+
+		DDoglegConcurrency.loopFor(0, numPairs*piecesPerPair, task -> {
+			int pair = task/piecesPerPair;
+			int piece = task%piecesPerPair;
+
+			int a0 = blocks[pair*2*width];
+			int b0 = blocks[Math.min(numBlocks, pair*2*width + width)];
+			int b1 = blocks[Math.min(numBlocks, pair*2*width + 2*width)];
+
+			// Range of the output which this piece is responsible for
+			int t0 = (int)((long)(b1 - a0)*piece/piecesPerPair);
+			int t1 = (int)((long)(b1 - a0)*(piece + 1)/piecesPerPair);
+			if (t0 == t1)
+				return;
+
+			int i0 = splitMerge(src, srcOffset + a0, b0 - a0, srcOffset + b0, b1 - b0, t0);
+			int i1 = splitMerge(src, srcOffset + a0, b0 - a0, srcOffset + b0, b1 - b0, t1);
+
+			int i = srcOffset + a0 + i0, iEnd = srcOffset + a0 + i1;
+			int j = srcOffset + b0 + t0 - i0, jEnd = srcOffset + b0 + t1 - i1;
+			int k = dstOffset + a0 + t0;
+			while (i < iEnd && j < jEnd) {
+				if (Integer.compare(src[i], src[j]) <= 0)
+					dst[k++] = src[i++];
+				else
+					dst[k++] = src[j++];
+			}
+			System.arraycopy(src, i, dst, k, iEnd - i);
+			System.arraycopy(src, j, dst, k + iEnd - i, jEnd - j);
+		});
+	}
+
+	/**
+	 * Same as {@link #mergeBlocks(int[], int, int[], int, int, int)} but for indexes
+	 */
+	void mergeBlocks( int[] arr, int[] src, int[] dst, int width, int numBlocks ) {
+		int numPairs = (numBlocks + 2*width - 1)/(2*width);
+		int piecesPerPair = 2*width;
+
+		DDoglegConcurrency.loopFor(0, numPairs*piecesPerPair, task -> {
+			int pair = task/piecesPerPair;
+			int piece = task%piecesPerPair;
+
+			int a0 = blocks[pair*2*width];
+			int b0 = blocks[Math.min(numBlocks, pair*2*width + width)];
+			int b1 = blocks[Math.min(numBlocks, pair*2*width + 2*width)];
+
+			int t0 = (int)((long)(b1 - a0)*piece/piecesPerPair);
+			int t1 = (int)((long)(b1 - a0)*(piece + 1)/piecesPerPair);
+			if (t0 == t1)
+				return;
+
+			int i0 = splitMerge(arr, src, a0, b0 - a0, b0, b1 - b0, t0);
+			int i1 = splitMerge(arr, src, a0, b0 - a0, b0, b1 - b0, t1);
+
+			int i = a0 + i0, iEnd = a0 + i1;
+			int j = b0 + t0 - i0, jEnd = b0 + t1 - i1;
+			int k = a0 + t0;
+			while (i < iEnd && j < jEnd) {
+				if (Integer.compare(arr[src[i]], arr[src[j]]) <= 0)
+					dst[k++] = src[i++];
+				else
+					dst[k++] = src[j++];
+			}
+			System.arraycopy(src, i, dst, k, iEnd - i);
+			System.arraycopy(src, j, dst, k + iEnd - i, jEnd - j);
+		});
+	}
+
+	/**
+	 * Finds how many elements from the first sorted run will be in the first 'total' elements of the merged output.
+	 * Ties go to the first run so that the merge is stable.
+	 */
+	static int splitMerge( int[] data, int offsetA, int lengthA, int offsetB, int lengthB, int total ) {
+		int lo = Math.max(0, total - lengthB);
+		int hi = Math.min(total, lengthA);
+		while (lo < hi) {
+			int i = (lo + hi) >>> 1;
+			if (Integer.compare(data[offsetA + i], data[offsetB + total - i - 1]) <= 0)
+				lo = i + 1;
+			else
+				hi = i;
+		}
+		return lo;
+	}
+
+	/**
+	 * Same as {@link #splitMerge(int[], int, int, int, int, int)} but for indexes
+	 */
+	static int splitMerge( int[] arr, int[] indexes, int offsetA, int lengthA, int offsetB, int lengthB, int total ) {
+		int lo = Math.max(0, total - lengthB);
+		int hi = Math.min(total, lengthA);
+		while (lo < hi) {
+			int i = (lo + hi) >>> 1;
+			if (Integer.compare(arr[indexes[offsetA + i]], arr[indexes[offsetB + total - i - 1]]) <= 0)
+				lo = i + 1;
+			else
+				hi = i;
+		}
+		return lo;
+	}
+
+	void copy( int[] src, int srcOffset, int[] dst, int dstOffset, int length ) {
+		DDoglegConcurrency.loopBlocks(0, length, ( idx0, idx1 ) ->
+				System.arraycopy(src, srcOffset + idx0, dst, dstOffset + idx0, idx1 - idx0));
+	}
+
+	void copy( int[] src, int[] dst, int length ) {
+		DDoglegConcurrency.loopBlocks(0, length, ( idx0, idx1 ) ->
+				System.arraycopy(src, idx0, dst, idx0, idx1 - idx0));
+	}
+
+	/**
+	 * Storage for sorting the indexes in a block
+	 */
+	static class IndexBlock {
+		final RadixSort_S32 sorter = new RadixSort_S32();
+		final DogArray_I32 indexes = new DogArray_I32();
+	}
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.sorting;
+
+/**
+ * <p>
+ * Radix sort for doubles. Each double is converted into a 64-bit key which has the same order when sorted as an
+ * unsigned integer, by flipping the sign bit of positive numbers and all the bits of negative numbers. The keys
+ * are then sorted using {@link RadixSort_S64}. For large arrays this is several times faster than
+ * {@link QuickSort_F64} and {@link java.util.Arrays#sort(double[])}.
+ * </p>
+ *
+ * <p>
+ * The order is the same as {@link java.util.Arrays#sort(double[])}, i.e. -0.0 comes before 0.0 and NaN is
+ * at the end. The sort is stable, so the index variant will preserve the original order of equal elements.
+ * Work space is saved internally and re-used.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class RadixSort_F64 {
+	// Sorts the keys
+	final RadixSort_S64 sorter = new RadixSort_S64();
+
+	// Storage for the keys
+	long[] keys = new long[0];
+
+	/**
+	 * Sorts the first 'length' elements in the array
+	 */
+	public void sort( double[] arr, int length ) {
+		sort(arr, 0, length);
+	}
+
+	/**
+	 * Sorts the elements in the array from offset to offset+length-1
+	 */
+	public void sort( double[] arr, int offset, int length ) {
+		if (keys.length < length)
+			keys = new long[length];
+
+		for (int i = 0; i < length; i++) {
+			keys[i] = toKey(arr[offset + i]);
+		}
+
+		sorter.sortUnsigned(keys, 0, length, null);
+
+		for (int i = 0; i < length; i++) {
+			arr[offset + i] = fromKey(keys[i]);
+		}
+	}
+
+	/**
+	 * Computes the indexes of the sorted array without modifying it. Same behavior as
+	 * {@link QuickSort_F64#sort(double[], int, int, int[])}.
+	 *
+	 * @param arr (Input) Array which is to be sorted. Not modified.
+	 * @param offset First element in the array
+	 * @param length Number of elements which are sorted
+	 * @param indexes (Output) Index of the element in 'arr' at each sorted position. Must be at least 'length'.
+	 */
+	public void sort( double[] arr, int offset, int length, int[] indexes ) {
+		if (keys.length < length)
+			keys = new long[length];
+
+		for (int i = 0; i < length; i++) {
+			keys[i] = toKey(arr[offset + i]);
+			indexes[i] = offset + i;
+		}
+
+		sorter.sortUnsigned(keys, 0, length, indexes);
+	}
+
+	/**
+	 * Converts a double into a key which has the same order when sorted as an unsigned integer
+	 */
+	public static long toKey( double value ) {
+		// doubleToLongBits() is used so that all NaN have the same bits and are placed at the end
+		long bits = Double.doubleToLongBits(value);
+		return bits ^ ((bits >> 63) | Long.MIN_VALUE);
+	}
+
+	/**
+	 * Converts a key back into the original double
+	 */
+	public static double fromKey( long key ) {
+		return Double.longBitsToDouble(key ^ ((~key >> 63) | Long.MIN_VALUE));
+	}
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.sorting;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Least significant digit (LSD) radix sort for 32-bit signed integers. Each pass distributes the elements into
+ * one of 256 buckets using 8 bits of the key, so the array is sorted in at most 4 passes without doing any
+ * comparisons. Passes where every element has the same digit are skipped. For large arrays this is several times
+ * faster than {@link QuickSort_S32} and {@link java.util.Arrays#sort(int[])}. For small arrays it's slower.
+ * </p>
+ *
+ * <p>
+ * The sort is stable, so the index variant will preserve the original order of equal elements. Work space is
+ * saved internally and re-used, so sorting arrays of the same size or smaller won't declare new memory.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class RadixSort_S32 {
+	// Number of bits in each digit
+	static final int BITS = 8;
+	static final int RADIX = 1 << BITS;
+	static final int MASK = RADIX - 1;
+	static final int PASSES = 32/BITS;
+
+	// Histogram of digits for every pass
+	final int[] histogram = new int[PASSES*RADIX];
+
+	// Elements are copied back and forth between the input and these arrays
+	int[] workKeys = new int[0];
+	int[] workIndexes = new int[0];
+
+	// Storage for keys when the input array is not modified
+	int[] keys = new int[0];
+
+	/**
+	 * Sorts the first 'length' elements in the array
+	 */
+	public void sort( int[] arr, int length ) {
+		sort(arr, 0, length);
+	}
+
+	/**
+	 * Sorts the elements in the array from offset to offset+length-1
+	 */
+	public void sort( int[] arr, int offset, int length ) {
+		// Flipping the sign bit makes signed numbers sort correctly as unsigned numbers
+		flipSign(arr, offset, length);
+		sortUnsigned(arr, offset, length, null);
+		flipSign(arr, offset, length);
+	}
+
+	/**
+	 * Computes the indexes of the sorted array without modifying it. Same behavior as
+	 * {@link QuickSort_S32#sort(int[], int, int, int[])}.
+	 *
+	 * @param arr (Input) Array which is to be sorted. Not modified.
+	 * @param offset First element in the array
+	 * @param length Number of elements which are sorted
+	 * @param indexes (Output) Index of the element in 'arr' at each sorted position. Must be at least 'length'.
+	 */
+	public void sort( int[] arr, int offset, int length, int[] indexes ) {
+		if (keys.length < length)
+			keys = new int[length];
+
+		for (int i = 0; i < length; i++) {
+			keys[i] = arr[offset + i] ^ Integer.MIN_VALUE;
+			indexes[i] = offset + i;
+		}
+
+		sortUnsigned(keys, 0, length, indexes);
+	}
+
+	/**
+	 * Sorts the keys as unsigned integers. If indexes isn't null then it's rearranged the same way as the keys.
+	 *
+	 * @param keys (Input/Output) Keys which are sorted
+	 * @param offset First key
+	 * @param length Number of keys
+	 * @param indexes (Input/Output) Optional. Element i is moved along with key offset+i.
+	 */
+	public void sortUnsigned( int[] keys, int offset, int length, @Nullable int[] indexes ) {
+		if (length <= 1)
+			return;
+
+		if (workKeys.length < length)
+			workKeys = new int[length];
+		if (indexes != null && workIndexes.length < length)
+			workIndexes = new int[length];
+
+		// The digits don't change as elements are moved, so the histograms for all the passes are computed at once
+		Arrays.fill(histogram, 0);
+		for (int i = offset; i < offset + length; i++) {
+			int key = keys[i];
+			histogram[key & MASK]++;
+			histogram[RADIX + ((key >>> 8) & MASK)]++;
+			histogram[2*RADIX + ((key >>> 16) & MASK)]++;
+			histogram[3*RADIX + (key >>> 24)]++;
+		}
+
+		int[] srcKeys = keys, dstKeys = workKeys;
+		int[] srcIndexes = indexes, dstIndexes = workIndexes;
+		int srcOffset = offset, dstOffset = 0;
+
+		for (int pass = 0; pass < PASSES; pass++) {
+			int shift = pass*BITS;
+			int h0 = pass*RADIX;
+
+			// Nothing will change if every key has the same digit
+			if (histogram[h0 + ((srcKeys[srcOffset] >>> shift) & MASK)] == length)
+				continue;
+
+			// Convert the histogram into the location of the first element in each bucket
+			int total = 0;
+			for (int digit = 0; digit < RADIX; digit++) {
+				int count = histogram[h0 + digit];
+				histogram[h0 + digit] = total;
+				total += count;
+			}
+
+			if (srcIndexes == null) {
+				for (int i = 0; i < length; i++) {
+					int key = srcKeys[srcOffset + i];
+					dstKeys[dstOffset + histogram[h0 + ((key >>> shift) & MASK)]++] = key;
+				}
+			} else {
+				for (int i = 0; i < length; i++) {
+					int key = srcKeys[srcOffset + i];
+					int location = histogram[h0 + ((key >>> shift) & MASK)]++;
+					dstKeys[dstOffset + location] = key;
+					dstIndexes[location] = srcIndexes[i];
+				}
+				int[] tmpIndexes = srcIndexes;
+				srcIndexes = dstIndexes;
+				dstIndexes = tmpIndexes;
+			}
+
+			int[] tmpKeys = srcKeys;
+			srcKeys = dstKeys;
+			dstKeys = tmpKeys;
+			int tmpOffset = srcOffset;
+			srcOffset = dstOffset;
+			dstOffset = tmpOffset;
+		}
+
+		// Copy the results back into the input arrays
+		if (srcKeys != keys) {
+			System.arraycopy(srcKeys, srcOffset, keys, offset, length);
+			if (srcIndexes != null)
+				System.arraycopy(srcIndexes, 0, indexes, 0, length);
+		}
+	}
+
+	private static void flipSign( int[] arr, int offset, int length ) {
+		for (int i = offset; i < offset + length; i++) {
+			arr[i] ^= Integer.MIN_VALUE;
+		}
+	}
+}
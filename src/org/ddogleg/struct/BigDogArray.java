@@ -84,7 +84,7 @@ public class BigDogArray<T> extends BigDogArrayBase<T[]> {
 	}
 
 	/** Modify reserve so that it doesn't discard the already allocated objects */
-	@Override public void reserve( int desiredSize ) {
+	@Override public void reserve( long desiredSize ) {
 		allocate(desiredSize, true, false);
 	}
 
@@ -100,14 +100,14 @@ public class BigDogArray<T> extends BigDogArrayBase<T[]> {
 	/**
 	 * Removes an element in O(1) time by swapping the specified index with the last index and resizing to size -1.
 	 */
-	@Override public void removeSwap( int index ) {
-		int indexTail = size - 1;
+	@Override public void removeSwap( long index ) {
+		long indexTail = size - 1;
 
 		T target = get(index);
 		T tail = get(indexTail);
 
-		blocks.data[indexTail/blockSize][indexTail%blockSize] = target;
-		blocks.data[index/blockSize][index%blockSize] = tail;
+		blocks.data[(int)(indexTail/blockSize)][(int)(indexTail%blockSize)] = target;
+		blocks.data[(int)(index/blockSize)][(int)(index%blockSize)] = tail;
 		size--;
 	}
 
@@ -116,7 +116,7 @@ public class BigDogArray<T> extends BigDogArrayBase<T[]> {
 	 *
 	 * @param desiredSize (Input) New array size
 	 */
-	@Override public void resize( int desiredSize ) {
+	@Override public void resize( long desiredSize ) {
 		resize(desiredSize, reset);
 	}
 
@@ -126,9 +126,9 @@ public class BigDogArray<T> extends BigDogArrayBase<T[]> {
 	 * @param desiredSize New array size
 	 * @param configure Operator that the "new" element is passed in to.
 	 */
-	public void resize( int desiredSize, DProcess<T> configure ) {
+	public void resize( long desiredSize, DProcess<T> configure ) {
 		allocate(desiredSize, true, false);
-		int originalSize = size;
+		long originalSize = size;
 		this.size = desiredSize;
 		fill(originalSize, desiredSize, configure);
 	}
@@ -140,7 +140,7 @@ public class BigDogArray<T> extends BigDogArrayBase<T[]> {
 	 * @param idx1 (Input) last index, exclusive.
 	 * @param configure Operator that the "new" element is passed in to.
 	 */
-	public void fill( int idx0, int idx1, DProcess<T> configure ) {
+	public void fill( long idx0, long idx1, DProcess<T> configure ) {
 		processByBlock(idx0, idx1, ( block, block0, block1, offset ) -> {
 			for (int i = block0; i < block1; i++) {
 				configure.process(block[i]);
@@ -158,12 +158,22 @@ public class BigDogArray<T> extends BigDogArrayBase<T[]> {
 		return blocks.data[index/blockSize][index%blockSize];
 	}
 
+	/**
+	 * Same as {@link #get(int)} but with a long index so that it can reference any element.
+	 *
+	 * @param index (Input) Index in the array
+	 * @return value at index
+	 */
+	public T get( long index ) {
+		return blocks.data[(int)(index/blockSize)][(int)(index%blockSize)];
+	}
+
 	/**
 	 * Returns the value in the array at the specified index, counting from the end of the array.
 	 *
 	 * @param index (Input) Index relative to the end counting in reverse order. 0 = get(size-1)
 	 */
-	public T getTail( int index ) {
+	public T getTail( long index ) {
 		return get(size - index - 1);
 	}
 
@@ -174,7 +184,7 @@ public class BigDogArray<T> extends BigDogArrayBase<T[]> {
 	 * @param idx1 (Input) Last index, exclusive.
 	 * @param op The operator which processes the values
 	 */
-	public void forEach( int idx0, int idx1, DProcess<T> op ) {
+	public void forEach( long idx0, long idx1, DProcess<T> op ) {
 		processByBlock(idx0, idx1, ( block, block0, block1, offset ) -> {
 			for (int i = block0; i < block1; i++) {
 				op.process(block[i]);
@@ -189,12 +199,48 @@ public class BigDogArray<T> extends BigDogArrayBase<T[]> {
 	 * @param idx1 (Input) Last index, exclusive.
 	 * @param op The operator which processes the values
 	 */
-	public void forIdx( int idx0, int idx1, DProcessIdx<T> op ) {
+	public void forIdx( long idx0, long idx1, FunctionEachIdx<T> op ) {
 		processByBlock(idx0, idx1, ( block, block0, block1, offset ) -> {
-			int index = idx0 + offset;
+			long index = idx0 + offset;
 			for (int i = block0; i < block1; i++) {
 				op.process(index++, block[i]);
 			}
 		});
 	}
+
+	/**
+	 * Concurrent version of {@link #forEach}. Elements are passed in an unspecified order and 'op' must be thread safe.
+	 *
+	 * @param idx0 (Input) First index, inclusive.
+	 * @param idx1 (Input) Last index, exclusive.
+	 * @param op The operator which processes the values
+	 */
+	public void forEach_MT( long idx0, long idx1, DProcess<T> op ) {
+		processByBlock_MT(idx0, idx1, ( block, block0, block1, offset ) -> {
+			for (int i = block0; i < block1; i++) {
+				op.process(block[i]);
+			}
+		});
+	}
+
+	/**
+	 * Concurrent version of {@link #forIdx}. Elements are passed in an unspecified order and 'op' must be thread safe.
+	 *
+	 * @param idx0 (Input) First index, inclusive.
+	 * @param idx1 (Input) Last index, exclusive.
+	 * @param op The operator which processes the values
+	 */
+	public void forIdx_MT( long idx0, long idx1, FunctionEachIdx<T> op ) {
+		processByBlock_MT(idx0, idx1, ( block, block0, block1, offset ) -> {
+			long index = idx0 + offset;
+			for (int i = block0; i < block1; i++) {
+				op.process(index++, block[i]);
+			}
+		});
+	}
+
+	@FunctionalInterface
+	public interface FunctionEachIdx<T> {
+		void process( long index, T o );
+	}
 }
@@ -19,6 +19,7 @@
 package org.ddogleg.struct;
 
 import lombok.Getter;
+import org.ddogleg.DDoglegConcurrency;
 
 /**
  * A growable array that is composed of internal blocks. This is intended to reduce overhead when growing a very large
@@ -29,6 +30,9 @@ import lombok.Getter;
  * When operations are used which add/append to the end of the array then extra room is typically added, if a grow
  * strategy is employed. This is done to avoid excessive amount of memory copy operations.
  *
+ * Indexes and the size are long values so that the array can have more than 2<sup>31</sup> elements. Each block
+ * is still a Java array and can't be larger than that.
+ *
  * @author Peter Abeles
  */
 @SuppressWarnings({"SuspiciousSystemArraycopy", "unchecked"})
@@ -48,7 +52,7 @@ public abstract class BigDogArrayBase<Array> {
 	/**
 	 * Number of elements in the array being used. Know what you're doing before modifying.
 	 */
-	public @Getter int size;
+	public @Getter long size;
 
 	/**
 	 * If a grow strategy is employed, this is the initial size of a block. Do not set this to be
@@ -104,7 +108,7 @@ public abstract class BigDogArrayBase<Array> {
 	/**
 	 * Returns true if the specified array index is outside the allowed value range
 	 */
-	public boolean isIndexOutOfBounds( int index ) {
+	public boolean isIndexOutOfBounds( long index ) {
 		return index < 0 || index >= size;
 	}
 
@@ -119,7 +123,7 @@ public abstract class BigDogArrayBase<Array> {
 	 * Ensures that the internal data can store up to this number of elements before needing to allocate more memory.
 	 * No extra data is added and this function is only recommended when the array has a known max size.
 	 */
-	public void reserve( int desiredSize ) {
+	public void reserve( long desiredSize ) {
 		allocate(desiredSize, false, false);
 	}
 
@@ -132,7 +136,7 @@ public abstract class BigDogArrayBase<Array> {
 	 * @param addExtra If using a grow strategy, is this a case where it should add extra elements or do the
 	 * exact request?
 	 */
-	protected void allocate( int desiredSize, boolean saveValues, boolean addExtra ) {
+	protected void allocate( long desiredSize, boolean saveValues, boolean addExtra ) {
 		if (desiredSize < 0)
 			throw new IllegalArgumentException("desiredSize must be positive. Overflowed? desiredSize=" + desiredSize);
 
@@ -208,11 +212,12 @@ public abstract class BigDogArrayBase<Array> {
 	 * @param desiredSize (Input) The new desired size of this array
 	 * @return A new array
 	 */
-	private int computeLastBlockSize( int desiredSize, int numBlocks ) {
+	private int computeLastBlockSize( long desiredSize, int numBlocks ) {
 		if (growth == BigDogGrowth.FIXED || (numBlocks > 1 && growth == BigDogGrowth.GROW_FIRST)) {
 			return blockSize;
 		} else {
-			return desiredSize%blockSize == 0 ? blockSize : desiredSize%blockSize;
+			int remainder = (int)(desiredSize%blockSize);
+			return remainder == 0 ? blockSize : remainder;
 		}
 	}
 
@@ -222,7 +227,7 @@ public abstract class BigDogArrayBase<Array> {
 	 *
 	 * @param desiredSize (Input) New array size
 	 */
-	public void resize( int desiredSize ) {
+	public void resize( long desiredSize ) {
 		allocate(desiredSize, true, false);
 		this.size = desiredSize;
 	}
@@ -251,7 +256,7 @@ public abstract class BigDogArrayBase<Array> {
 	/**
 	 * Removes an element in O(1) time by swapping the specified index with the last index and resizing to size -1.
 	 */
-	public abstract void removeSwap( int index );
+	public abstract void removeSwap( long index );
 
 	/**
 	 * Copies the passed in array into this array at the specified location
@@ -298,43 +303,68 @@ public abstract class BigDogArrayBase<Array> {
 	 * @param idx1 (Input) Last index, exclusive.
 	 * @param op The operator which processes the values
 	 */
-	public void processByBlock( int idx0, int idx1, FunctionEachRange<Array> op ) {
+	public void processByBlock( long idx0, long idx1, FunctionEachRange<Array> op ) {
 		// Handle edge case. Here it shouldn't do anything since the completion criteria has already been reached
 		if (idx0 >= idx1)
 			return;
-		int origIdx0 = idx0;
+		long origIdx0 = idx0;
 
 		// If not initially aligned at the block boundaries, process it until it hits the first boundary
 		if (idx0%blockSize != 0) {
-			int blockIdx0 = idx0%blockSize;
+			int blockIdx0 = (int)(idx0%blockSize);
 			int remainingInBlock = blockSize - blockIdx0;
-			int lengthInBlock = Math.min(remainingInBlock, idx1 - idx0);
+			int lengthInBlock = (int)Math.min(remainingInBlock, idx1 - idx0);
 			int blockIdx1 = blockIdx0 + lengthInBlock;
 
-			op.process(blocks.data[idx0/blockSize], blockIdx0, blockIdx1, 0);
+			op.process(blocks.data[(int)(idx0/blockSize)], blockIdx0, blockIdx1, 0);
 
 			idx0 += lengthInBlock;
 		}
 
 		// We can now process it one block at a time
 		while (idx0 + blockSize < idx1) {
-			op.process(blocks.data[idx0/blockSize], 0, blockSize, idx0 - origIdx0);
+			op.process(blocks.data[(int)(idx0/blockSize)], 0, blockSize, idx0 - origIdx0);
 			idx0 += blockSize;
 		}
 
 		// The end is another special case. It might end before a block boundary
 		if (idx0 != idx1) {
-			if (blocks.data.length <= idx0/blockSize)
-				System.out.println("FOO");
-			op.process(blocks.data[idx0/blockSize], 0, idx1 - idx0, idx0 - origIdx0);
+			op.process(blocks.data[(int)(idx0/blockSize)], 0, (int)(idx1 - idx0), idx0 - origIdx0);
 		}
 	}
 
+	/**
+	 * Concurrent version of {@link #processByBlock}. Each block is processed by a single thread and the
+	 * operator is called with the same arguments as the single thread version, but in an unspecified order.
+	 * The operator must be thread safe.
+	 *
+	 * @param idx0 (Input) First index, inclusive.
+	 * @param idx1 (Input) Last index, exclusive.
+	 * @param op The operator which processes the values
+	 */
+	public void processByBlock_MT( long idx0, long idx1, FunctionEachRange<Array> op ) {
+		if (idx0 >= idx1)
+			return;
+
+		int block0 = (int)(idx0/blockSize);
+		int block1 = (int)((idx1 - 1)/blockSize) + 1;
+
+		DDoglegConcurrency.loopFor(block0, block1, blockIdx -> {
+			long start = Math.max(idx0, (long)blockIdx*blockSize);
+			long end = Math.min(idx1, (blockIdx + 1L)*blockSize);
+			int blockIdx0 = (int)(start%blockSize);
+			op.process(blocks.data[blockIdx], blockIdx0, blockIdx0 + (int)(end - start), start - idx0);
+		});
+	}
+
 	/**
 	 * Returns the number of blocks needed to store an array of the specified size
 	 */
-	protected final int getDesiredBlocks( int desiredSize ) {
-		return desiredSize/blockSize + (desiredSize%blockSize > 0 ? 1 : 0);
+	protected final int getDesiredBlocks( long desiredSize ) {
+		long numBlocks = desiredSize/blockSize + (desiredSize%blockSize > 0 ? 1 : 0);
+		if (numBlocks > Integer.MAX_VALUE)
+			throw new IllegalArgumentException("Too many blocks. Increase the block size. desiredSize=" + desiredSize);
+		return (int)numBlocks;
 	}
 
 	/**
@@ -347,7 +377,7 @@ public abstract class BigDogArrayBase<Array> {
 			return false;
 
 		// make sure the size isn't impossibly large
-		int maxStorage = arrayLength(blocks.getTail()) + (blocks.size - 1)*blockSize;
+		long maxStorage = arrayLength(blocks.getTail()) + (blocks.size - 1L)*blockSize;
 		if (size > maxStorage)
 			return false;
 
@@ -389,8 +419,8 @@ public abstract class BigDogArrayBase<Array> {
 	 * Returns the number of elements which have been allocated. This array size has to be less than
 	 * or equal to this number\
 	 */
-	public int getTotalAllocation() {
-		return (blocks.size - 1)*blockSize + arrayLength(blocks.data[blocks.size - 1]);
+	public long getTotalAllocation() {
+		return (blocks.size - 1L)*blockSize + arrayLength(blocks.data[blocks.size - 1]);
 	}
 
 	protected int blockArrayLength( int block ) {
@@ -417,7 +447,7 @@ public abstract class BigDogArrayBase<Array> {
 		 * @param idx1 Last index in the array, exclusive
 		 * @param offset The number of elements offset from the first element it requested
 		 */
-		void process( Array block, int idx0, int idx1, int offset );
+		void process( Array block, int idx0, int idx1, long offset );
 	}
 
 	@FunctionalInterface
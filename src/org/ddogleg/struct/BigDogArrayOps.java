@@ -0,0 +1,299 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.struct;
+
+import org.ddogleg.util.PrimitiveArrays;
+
+/**
+ * Reductions, e.g. sum, min, max, count, over a range of elements in a {@link BigDogArray_F64} or
+ * {@link BigDogArray_I32}. Each has a concurrent version which processes the blocks in parallel. Each block
+ * is reduced independently and the results are combined in block order, so the single and concurrent versions
+ * return the same value.
+ *
+ * @author Peter Abeles
+ */
+public class BigDogArrayOps {
+	/**
+	 * Sum of the elements in the range
+	 *
+	 * @param idx0 (Input) First index, inclusive.
+	 * @param idx1 (Input) Last index, exclusive.
+	 */
+	public static double sum( BigDogArray_F64 array, long idx0, long idx1 ) {
+		return sum(array, idx0, idx1, false);
+	}
+
+	/**
+	 * Concurrent version of {@link #sum(BigDogArray_F64, long, long)}. Returns an identical result.
+	 */
+	public static double sum_MT( BigDogArray_F64 array, long idx0, long idx1 ) {
+		return sum(array, idx0, idx1, true);
+	}
+
+	/**
+	 * Minimum value of the elements in the range. The range can't be empty.
+	 *
+	 * @param idx0 (Input) First index, inclusive.
+	 * @param idx1 (Input) Last index, exclusive.
+	 */
+	public static double min( BigDogArray_F64 array, long idx0, long idx1 ) {
+		return min(array, idx0, idx1, false);
+	}
+
+	/**
+	 * Concurrent version of {@link #min(BigDogArray_F64, long, long)}
+	 */
+	public static double min_MT( BigDogArray_F64 array, long idx0, long idx1 ) {
+		return min(array, idx0, idx1, true);
+	}
+
+	/**
+	 * Maximum value of the elements in the range. The range can't be empty.
+	 *
+	 * @param idx0 (Input) First index, inclusive.
+	 * @param idx1 (Input) Last index, exclusive.
+	 */
+	public static double max( BigDogArray_F64 array, long idx0, long idx1 ) {
+		return max(array, idx0, idx1, false);
+	}
+
+	/**
+	 * Concurrent version of {@link #max(BigDogArray_F64, long, long)}
+	 */
+	public static double max_MT( BigDogArray_F64 array, long idx0, long idx1 ) {
+		return max(array, idx0, idx1, true);
+	}
+
+	/**
+	 * Counts the number of elements in the range which pass the filter
+	 *
+	 * @param idx0 (Input) First index, inclusive.
+	 * @param idx1 (Input) Last index, exclusive.
+	 * @param filter (Input) Returns true if the element should be counted
+	 */
+	public static long count( BigDogArray_F64 array, long idx0, long idx1, DogArray_F64.Filter filter ) {
+		return count(array, idx0, idx1, filter, false);
+	}
+
+	/**
+	 * Concurrent version of {@link #count(BigDogArray_F64, long, long, DogArray_F64.Filter)}. The filter must be
+	 * thread safe.
+	 */
+	public static long count_MT( BigDogArray_F64 array, long idx0, long idx1, DogArray_F64.Filter filter ) {
+		return count(array, idx0, idx1, filter, true);
+	}
+
+	static double sum( BigDogArray_F64 array, long idx0, long idx1, boolean concurrent ) {
+		double[] partial = new double[countBlocks(array, idx0, idx1)];
+		process(array, idx0, idx1, concurrent, ( block, block0, block1, offset ) ->
+				partial[blockSlot(array, idx0, offset)] = PrimitiveArrays.sumD(block, block0, block1 - block0));
+
+		// Add them up in the same order so that the single and concurrent versions produce identical results
+		double total = 0;
+		for (int i = 0; i < partial.length; i++) {
+			total += partial[i];
+		}
+		return total;
+	}
+
+	static double min( BigDogArray_F64 array, long idx0, long idx1, boolean concurrent ) {
+		double[] partial = new double[checkNotEmpty(array, idx0, idx1)];
+		process(array, idx0, idx1, concurrent, ( block, block0, block1, offset ) ->
+				partial[blockSlot(array, idx0, offset)] = PrimitiveArrays.min(block, block0, block1 - block0));
+		return PrimitiveArrays.min(partial, 0, partial.length);
+	}
+
+	static double max( BigDogArray_F64 array, long idx0, long idx1, boolean concurrent ) {
+		double[] partial = new double[checkNotEmpty(array, idx0, idx1)];
+		process(array, idx0, idx1, concurrent, ( block, block0, block1, offset ) ->
+				partial[blockSlot(array, idx0, offset)] = PrimitiveArrays.max(block, block0, block1 - block0));
+		return PrimitiveArrays.max(partial, 0, partial.length);
+	}
+
+	static long count( BigDogArray_F64 array, long idx0, long idx1, DogArray_F64.Filter filter, boolean concurrent ) {
+		long[] partial = new long[countBlocks(array, idx0, idx1)];
+		process(array, idx0, idx1, concurrent, ( block, block0, block1, offset ) -> {
+			int total = 0;
+			for (int i = block0; i < block1; i++) {
+				if (filter.include(block[i]))
+					total++;
+			}
+			partial[blockSlot(array, idx0, offset)] = total;
+		});
+
+		long total = 0;
+		for (int i = 0; i < partial.length; i++) {
+			total += partial[i];
+		}
+		return total;
+	}
+
+	/**
+	 * Sum of the elements in the range
+	 *
+	 * @param idx0 (Input) First index, inclusive.
+	 * @param idx1 (Input) Last index, exclusive.
+	 */
+	public static long sum( BigDogArray_I32 array, long idx0, long idx1 ) {
+		return sum(array, idx0, idx1, false);
+	}
+
+	/**
+	 * Concurrent version of {@link #sum(BigDogArray_I32, long, long)}. Returns an identical result.
+	 */
+	public static long sum_MT( BigDogArray_I32 array, long idx0, long idx1 ) {
+		return sum(array, idx0, idx1, true);
+	}
+
+	/**
+	 * Minimum value of the elements in the range. The range can't be empty.
+	 *
+	 * @param idx0 (Input) First index, inclusive.
+	 * @param idx1 (Input) Last index, exclusive.
+	 */
+	public static int min( BigDogArray_I32 array, long idx0, long idx1 ) {
+		return min(array, idx0, idx1, false);
+	}
+
+	/**
+	 * Concurrent version of {@link #min(BigDogArray_I32, long, long)}
+	 */
+	public static int min_MT( BigDogArray_I32 array, long idx0, long idx1 ) {
+		return min(array, idx0, idx1, true);
+	}
+
+	/**
+	 * Maximum value of the elements in the range. The range can't be empty.
+	 *
+	 * @param idx0 (Input) First index, inclusive.
+	 * @param idx1 (Input) Last index, exclusive.
+	 */
+	public static int max( BigDogArray_I32 array, long idx0, long idx1 ) {
+		return max(array, idx0, idx1, false);
+	}
+
+	/**
+	 * Concurrent version of {@link #max(BigDogArray_I32, long, long)}
+	 */
+	public static int max_MT( BigDogArray_I32 array, long idx0, long idx1 ) {
+		return max(array, idx0, idx1, true);
+	}
+
+	/**
+	 * Counts the number of elements in the range which pass the filter
+	 *
+	 * @param idx0 (Input) First index, inclusive.
+	 * @param idx1 (Input) Last index, exclusive.
+	 * @param filter (Input) Returns true if the element should be counted
+	 */
+	public static long count( BigDogArray_I32 array, long idx0, long idx1, DogArray_I32.Filter filter ) {
+		return count(array, idx0, idx1, filter, false);
+	}
+
+	/**
+	 * Concurrent version of {@link #count(BigDogArray_I32, long, long, DogArray_I32.Filter)}. The filter must be
+	 * thread safe.
+	 */
+	public static long count_MT( BigDogArray_I32 array, long idx0, long idx1, DogArray_I32.Filter filter ) {
+		return count(array, idx0, idx1, filter, true);
+	}
+
+	static long sum( BigDogArray_I32 array, long idx0, long idx1, boolean concurrent ) {
+		long[] partial = new long[countBlocks(array, idx0, idx1)];
+		process(array, idx0, idx1, concurrent, ( block, block0, block1, offset ) -> {
+			long total = 0;
+			for (int i = block0; i < block1; i++) {
+				total += block[i];
+			}
+			partial[blockSlot(array, idx0, offset)] = total;
+		});
+
+		// Add them up in the same order so that the single and concurrent versions produce identical results
+		long total = 0;
+		for (int i = 0; i < partial.length; i++) {
+			total += partial[i];
+		}
+		return total;
+	}
+
+	static int min( BigDogArray_I32 array, long idx0, long idx1, boolean concurrent ) {
+		int[] partial = new int[checkNotEmpty(array, idx0, idx1)];
+		process(array, idx0, idx1, concurrent, ( block, block0, block1, offset ) ->
+				partial[blockSlot(array, idx0, offset)] = PrimitiveArrays.min(block, block0, block1 - block0));
+		return PrimitiveArrays.min(partial, 0, partial.length);
+	}
+
+	static int max( BigDogArray_I32 array, long idx0, long idx1, boolean concurrent ) {
+		int[] partial = new int[checkNotEmpty(array, idx0, idx1)];
+		process(array, idx0, idx1, concurrent, ( block, block0, block1, offset ) ->
+				partial[blockSlot(array, idx0, offset)] = PrimitiveArrays.max(block, block0, block1 - block0));
+		return PrimitiveArrays.max(partial, 0, partial.length);
+	}
+
+	static long count( BigDogArray_I32 array, long idx0, long idx1, DogArray_I32.Filter filter, boolean concurrent ) {
+		long[] partial = new long[countBlocks(array, idx0, idx1)];
+		process(array, idx0, idx1, concurrent, ( block, block0, block1, offset ) -> {
+			int total = 0;
+			for (int i = block0; i < block1; i++) {
+				if (filter.include(block[i]))
+					total++;
+			}
+			partial[blockSlot(array, idx0, offset)] = total;
+		});
+
+		long total = 0;
+		for (int i = 0; i < partial.length; i++) {
+			total += partial[i];
+		}
+		return total;
+	}
+
+	/**
+	 * Number of blocks which the range touches
+	 */
+	static int countBlocks( BigDogArrayBase<?> array, long idx0, long idx1 ) {
+		if (idx0 >= idx1)
+			return 0;
+		return (int)((idx1 - 1)/array.blockSize - idx0/array.blockSize) + 1;
+	}
+
+	/**
+	 * Number of blocks which the range touches. Throws an exception if the range is empty.
+	 */
+	static int checkNotEmpty( BigDogArrayBase<?> array, long idx0, long idx1 ) {
+		if (idx0 >= idx1)
+			throw new IllegalArgumentException("Range is empty. idx0=" + idx0 + " idx1=" + idx1);
+		return countBlocks(array, idx0, idx1);
+	}
+
+	/**
+	 * Index of a block relative to the first block in the range. 'offset' is the value passed in by processByBlock.
+	 */
+	static int blockSlot( BigDogArrayBase<?> array, long idx0, long offset ) {
+		return (int)((idx0 + offset)/array.blockSize - idx0/array.blockSize);
+	}
+
+	static <Array> void process( BigDogArrayBase<Array> array, long idx0, long idx1, boolean concurrent,
+								 BigDogArrayBase.FunctionEachRange<Array> op ) {
+		if (concurrent)
+			array.processByBlock_MT(idx0, idx1, op);
+		else
+			array.processByBlock(idx0, idx1, op);
+	}
+}
@@ -41,14 +41,14 @@ public class BigDogArray_I64 extends BigDogArrayBase<long[]> {
 		super(initialAllocation, blockSize, growth, long[]::new, ( a, b ) -> {});
 	}
 
-	@Override public void removeSwap( int index ) {
-		int indexTail = size - 1;
+	@Override public void removeSwap( long index ) {
+		long indexTail = size - 1;
 
 		long target = get(index);
 		long tail = get(indexTail);
 
-		blocks.data[indexTail/blockSize][indexTail%blockSize] = target;
-		blocks.data[index/blockSize][index%blockSize] = tail;
+		set(indexTail, target);
+		set(index, tail);
 		size--;
 	}
 
@@ -63,7 +63,7 @@ public class BigDogArray_I64 extends BigDogArrayBase<long[]> {
 	 */
 	public void append( long value ) {
 		allocate(this.size + 1, true, true);
-		blocks.data[size/blockSize][size%blockSize] = value;
+		blocks.data[(int)(size/blockSize)][(int)(size%blockSize)] = value;
 		this.size++;
 	}
 
@@ -82,9 +82,9 @@ public class BigDogArray_I64 extends BigDogArrayBase<long[]> {
 	 * @param desiredSize New array size
 	 * @param initialValue The value of new elements
 	 */
-	public void resize( int desiredSize, long initialValue ) {
+	public void resize( long desiredSize, long initialValue ) {
 		allocate(desiredSize, true, false);
-		int originalSize = size;
+		long originalSize = size;
 		this.size = desiredSize;
 		fill(originalSize, desiredSize, initialValue);
 	}
@@ -96,7 +96,7 @@ public class BigDogArray_I64 extends BigDogArrayBase<long[]> {
 	 * @param idx1 (Input) last index, exclusive.
 	 * @param value (Input) Fill value
 	 */
-	public void fill( int idx0, int idx1, long value ) {
+	public void fill( long idx0, long idx1, long value ) {
 		processByBlock(idx0, idx1, ( block, block0, block1, offset ) -> {
 			Arrays.fill(block, block0, block1, value);
 		});
@@ -112,13 +112,23 @@ public class BigDogArray_I64 extends BigDogArrayBase<long[]> {
 		blocks.data[index/blockSize][index%blockSize] = value;
 	}
 
+	/**
+	 * Same as {@link #set(int, long)} but with a long index so that it can reference any element.
+	 *
+	 * @param index (Input) Which element to modify
+	 * @param value (Input) The element's new value
+	 */
+	public void set( long index, long value ) {
+		blocks.data[(int)(index/blockSize)][(int)(index%blockSize)] = value;
+	}
+
 	/**
 	 * Assigns an element a new value, counting from the end of the array.
 	 *
 	 * @param index (Input) Index relative to the end counting in reverse order. setTail(0, 5) = set(size-1, 5)
 	 * @param value (Input) The element's new value
 	 */
-	public void setTail( int index, long value ) {
+	public void setTail( long index, long value ) {
 		set(size - index - 1, value);
 	}
 
@@ -130,9 +140,9 @@ public class BigDogArray_I64 extends BigDogArrayBase<long[]> {
 	 * @param offset Offset from start of destination array
 	 * @param length Number of elements to copy
 	 */
-	public void getArray( int index, long[] array, int offset, int length ) {
+	public void getArray( long index, long[] array, int offset, int length ) {
 		processByBlock(index, index + length, ( block, block0, block1, arrayLoc ) -> {
-			System.arraycopy(block, block0, array, offset + arrayLoc, block1 - block0);
+			System.arraycopy(block, block0, array, offset + (int)arrayLoc, block1 - block0);
 		});
 	}
 
@@ -146,12 +156,22 @@ public class BigDogArray_I64 extends BigDogArrayBase<long[]> {
 		return blocks.data[index/blockSize][index%blockSize];
 	}
 
+	/**
+	 * Same as {@link #get(int)} but with a long index so that it can reference any element.
+	 *
+	 * @param index (Input) Index in the array
+	 * @return value at index
+	 */
+	public long get( long index ) {
+		return blocks.data[(int)(index/blockSize)][(int)(index%blockSize)];
+	}
+
 	/**
 	 * Returns the value in the array at the specified index, counting from the end of the array.
 	 *
 	 * @param index (Input) Index relative to the end counting in reverse order. 0 = get(size-1)
 	 */
-	public long getTail( int index ) {
+	public long getTail( long index ) {
 		return get(size - index - 1);
 	}
 
@@ -162,7 +182,7 @@ public class BigDogArray_I64 extends BigDogArrayBase<long[]> {
 	 * @param idx1 (Input) Last index, exclusive.
 	 * @param op The operator which processes the values
 	 */
-	public void forEach( int idx0, int idx1, DogArray_I64.FunctionEach op ) {
+	public void forEach( long idx0, long idx1, DogArray_I64.FunctionEach op ) {
 		processByBlock(idx0, idx1, ( block, block0, block1, offset ) -> {
 			for (int i = block0; i < block1; i++) {
 				op.process(block[i]);
@@ -177,9 +197,9 @@ public class BigDogArray_I64 extends BigDogArrayBase<long[]> {
 	 * @param idx1 (Input) Last index, exclusive.
 	 * @param op The operator which processes the values
 	 */
-	public void forIdx( int idx0, int idx1, DogArray_I64.FunctionEachIdx op ) {
+	public void forIdx( long idx0, long idx1, FunctionEachIdx op ) {
 		processByBlock(idx0, idx1, ( block, block0, block1, offset ) -> {
-			int index = idx0 + offset;
+			long index = idx0 + offset;
 			for (int i = block0; i < block1; i++) {
 				op.process(index++, block[i]);
 			}
@@ -194,9 +214,57 @@ public class BigDogArray_I64 extends BigDogArrayBase<long[]> {
 	 * @param idx1 (Input) Last index, exclusive.
 	 * @param op The operator which processes the values
 	 */
-	public void applyIdx( int idx0, int idx1, DogArray_I64.FunctionApplyIdx op ) {
+	public void applyIdx( long idx0, long idx1, FunctionApplyIdx op ) {
 		processByBlock(idx0, idx1, ( block, block0, block1, offset ) -> {
-			int index = idx0 + offset;
+			long index = idx0 + offset;
+			for (int i = block0; i < block1; i++) {
+				block[i] = op.process(index++, block[i]);
+			}
+		});
+	}
+
+	/**
+	 * Concurrent version of {@link #forEach}. Values are passed in an unspecified order and 'op' must be thread safe.
+	 *
+	 * @param idx0 (Input) First index, inclusive.
+	 * @param idx1 (Input) Last index, exclusive.
+	 * @param op The operator which processes the values
+	 */
+	public void forEach_MT( long idx0, long idx1, DogArray_I64.FunctionEach op ) {
+		processByBlock_MT(idx0, idx1, ( block, block0, block1, offset ) -> {
+			for (int i = block0; i < block1; i++) {
+				op.process(block[i]);
+			}
+		});
+	}
+
+	/**
+	 * Concurrent version of {@link #forIdx}. Values are passed in an unspecified order and 'op' must be thread safe.
+	 *
+	 * @param idx0 (Input) First index, inclusive.
+	 * @param idx1 (Input) Last index, exclusive.
+	 * @param op The operator which processes the values
+	 */
+	public void forIdx_MT( long idx0, long idx1, FunctionEachIdx op ) {
+		processByBlock_MT(idx0, idx1, ( block, block0, block1, offset ) -> {
+			long index = idx0 + offset;
+			for (int i = block0; i < block1; i++) {
+				op.process(index++, block[i]);
+			}
+		});
+	}
+
+	/**
+	 * Concurrent version of {@link #applyIdx}. Values are passed in an unspecified order and 'op' must be
+	 * thread safe.
+	 *
+	 * @param idx0 (Input) First index, inclusive.
+	 * @param idx1 (Input) Last index, exclusive.
+	 * @param op The operator which processes the values
+	 */
+	public void applyIdx_MT( long idx0, long idx1, FunctionApplyIdx op ) {
+		processByBlock_MT(idx0, idx1, ( block, block0, block1, offset ) -> {
+			long index = idx0 + offset;
 			for (int i = block0; i < block1; i++) {
 				block[i] = op.process(index++, block[i]);
 			}
@@ -211,12 +279,12 @@ public class BigDogArray_I64 extends BigDogArrayBase<long[]> {
 		if (size != o.size)
 			return false;
 
-		for (int i = 0; i < size; i++) {
+		for (long i = 0; i < size; i++) {
 			// compute the coordinate for both arrays
-			int blockA = i/blockSize;
-			int idxA = i%blockSize;
-			int blockB = i/o.blockSize;
-			int idxB = i%o.blockSize;
+			int blockA = (int)(i/blockSize);
+			int idxA = (int)(i%blockSize);
+			int blockB = (int)(i/o.blockSize);
+			int idxB = (int)(i%o.blockSize);
 
 			// compare the values
 			if (blocks.data[blockA][idxA] != o.blocks.data[blockB][idxB])
@@ -227,4 +295,14 @@ public class BigDogArray_I64 extends BigDogArrayBase<long[]> {
 		}
 		return true;
 	}
+
+	@FunctionalInterface
+	public interface FunctionEachIdx {
+		void process( long index, long value );
+	}
+
+	@FunctionalInterface
+	public interface FunctionApplyIdx {
+		long process( long index, long value );
+	}
 }
@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.struct;
+
+import lombok.Getter;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * <p>
+ * Off-heap version of {@link BigDogArrayBase}. The array is composed of blocks, but instead of Java arrays, each block
+ * is a {@link Buffer} which is a view into a {@link ByteBuffer}. Where the bytes come from is specified by
+ * {@link NewBlock}. By default, they are direct buffers which are allocated outside the Java heap. A very large
+ * array will then not slow down the garbage collector. Blocks can also be mapped to a file using
+ * {@link BigDogMappedFile}, which allows a large array to be opened from disk without reading or parsing it.
+ * </p>
+ *
+ * <p>
+ * Unlike {@link BigDogArrayBase}, every block has the same size and blocks are never copied when the array grows.
+ * Memory is only released when the array is garbage collected. Direct memory is limited by the JVM and the limit
+ * can be changed with -XX:MaxDirectMemorySize.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public abstract class BigDogBufferBase<Block extends Buffer> {
+	/**
+	 * Storage for blocks. Every block has {@link #blockSize} elements.
+	 */
+	protected @Getter final FastArray<Block> blocks;
+	/**
+	 * Number of elements in a block
+	 */
+	protected @Getter final int blockSize;
+	/**
+	 * Number of elements in the array being used. Know what you're doing before modifying.
+	 */
+	public @Getter long size;
+
+	/** Number of bytes in a single element */
+	protected @Getter final int elementBytes;
+
+	/** Creates the bytes which back each block */
+	protected @Getter final NewBlock generatorBlock;
+
+	protected BigDogBufferBase( int blockSize, int elementBytes, Class<Block> type, NewBlock generator ) {
+		if (blockSize <= 0)
+			throw new IllegalArgumentException("Block size must be a positive value");
+		if ((long)blockSize*elementBytes > Integer.MAX_VALUE)
+			throw new IllegalArgumentException("Block size is too large for a ByteBuffer");
+		this.blockSize = blockSize;
+		this.elementBytes = elementBytes;
+		this.generatorBlock = generator;
+		this.blocks = new FastArray<>(type);
+	}
+
+	/**
+	 * Returns true if the specified array index is outside the allowed value range
+	 */
+	public boolean isIndexOutOfBounds( long index ) {
+		return index < 0 || index >= size;
+	}
+
+	/**
+	 * Sets the array size to zero. No memory is freed.
+	 */
+	public void reset() {
+		this.size = 0;
+	}
+
+	/**
+	 * Ensures that the internal data can store up to this number of elements before needing to allocate more memory.
+	 */
+	public void reserve( long desiredSize ) {
+		allocate(desiredSize);
+	}
+
+	/**
+	 * Adds blocks until an array of the specified size can be stored. Existing blocks are never modified.
+	 *
+	 * @param desiredSize New size of internal array, not just a single block.
+	 */
+	protected void allocate( long desiredSize ) {
+		if (desiredSize < 0)
+			throw new IllegalArgumentException("desiredSize must be positive. Overflowed? desiredSize=" + desiredSize);
+
+		int desiredNumBlocks = getDesiredBlocks(desiredSize);
+		if (blocks.size >= desiredNumBlocks)
+			return;
+
+		int priorNumBlocks = blocks.size;
+		blocks.reserve(desiredNumBlocks);
+		for (int i = priorNumBlocks; i < desiredNumBlocks; i++) {
+			blocks.add(view(generatorBlock.create(i, blockSize*elementBytes)));
+		}
+	}
+
+	/**
+	 * Either increased or decreases the array size. If it's increased then the new elements will be filled with
+	 * undefined values, depending on their previous state.
+	 *
+	 * @param desiredSize (Input) New array size
+	 */
+	public void resize( long desiredSize ) {
+		allocate(desiredSize);
+		this.size = desiredSize;
+	}
+
+	/**
+	 * Shrinks the array by one
+	 */
+	public void removeTail() {
+		resize(size - 1);
+	}
+
+	/**
+	 * Removes an element in O(1) time by swapping the specified index with the last index and resizing to size -1.
+	 */
+	public abstract void removeSwap( long index );
+
+	/**
+	 * Passes in array elements to the operator one block at a time. What's given to the operator
+	 * is the first index in the block it should process, the last (exclusive) index in the block,
+	 * and the number of elements offset from the original range requested.
+	 *
+	 * @param idx0 (Input) First index, inclusive.
+	 * @param idx1 (Input) Last index, exclusive.
+	 * @param op The operator which processes the values
+	 */
+	public void processByBlock( long idx0, long idx1, BigDogArrayBase.FunctionEachRange<Block> op ) {
+		if (idx0 >= idx1)
+			return;
+		long origIdx0 = idx0;
+
+		// If not initially aligned at the block boundaries, process it until it hits the first boundary
+		if (idx0%blockSize != 0) {
+			int blockIdx0 = (int)(idx0%blockSize);
+			int lengthInBlock = (int)Math.min(blockSize - blockIdx0, idx1 - idx0);
+
+			op.process(blocks.data[(int)(idx0/blockSize)], blockIdx0, blockIdx0 + lengthInBlock, 0);
+
+			idx0 += lengthInBlock;
+		}
+
+		// We can now process it one block at a time
+		while (idx0 + blockSize < idx1) {
+			op.process(blocks.data[(int)(idx0/blockSize)], 0, blockSize, idx0 - origIdx0);
+			idx0 += blockSize;
+		}
+
+		// The end might be before a block boundary
+		if (idx0 != idx1) {
+			op.process(blocks.data[(int)(idx0/blockSize)], 0, (int)(idx1 - idx0), idx0 - origIdx0);
+		}
+	}
+
+	/**
+	 * Returns the number of blocks needed to store an array of the specified size
+	 */
+	protected final int getDesiredBlocks( long desiredSize ) {
+		long numBlocks = desiredSize/blockSize + (desiredSize%blockSize > 0 ? 1 : 0);
+		if (numBlocks > Integer.MAX_VALUE)
+			throw new IllegalArgumentException("Too many blocks. Increase the block size. desiredSize=" + desiredSize);
+		return (int)numBlocks;
+	}
+
+	/**
+	 * Returns the number of elements which have been allocated. This array size has to be less than
+	 * or equal to this number.
+	 */
+	public long getTotalAllocation() {
+		if (blocks.size == 0)
+			return 0;
+		return (blocks.size - 1L)*blockSize + blocks.getTail().capacity();
+	}
+
+	/**
+	 * Creates a view of the bytes which has the array's element type
+	 */
+	protected abstract Block view( ByteBuffer bytes );
+
+	/**
+	 * Allocates a direct buffer outside the heap. Uses the platform's native byte order.
+	 */
+	public static ByteBuffer allocateDirect( int block, int numBytes ) {
+		return ByteBuffer.allocateDirect(numBytes).order(ByteOrder.nativeOrder());
+	}
+
+	/**
+	 * Creates the bytes for a block in the array
+	 */
+	@FunctionalInterface
+	public interface NewBlock {
+		/**
+		 * @param block Index of the block
+		 * @param numBytes Number of bytes in the block
+		 * @return Bytes which back the block. Byte order must be set.
+		 */
+		ByteBuffer create( int block, int numBytes );
+	}
+}
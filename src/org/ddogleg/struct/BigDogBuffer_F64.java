@@ -0,0 +1,278 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.struct;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Implementation of {@link BigDogBufferBase} for double. Off-heap alternative to {@link BigDogArray_F64}.
+ *
+ * @author Peter Abeles
+ */
+public class BigDogBuffer_F64 extends BigDogBufferBase<DoubleBuffer> {
+
+	public BigDogBuffer_F64() {
+		this(BigDogArrayBase.DEFAULT_BLOCK_SIZE);
+	}
+
+	public BigDogBuffer_F64( int blockSize ) {
+		this(blockSize, BigDogBufferBase::allocateDirect);
+	}
+
+	public BigDogBuffer_F64( int blockSize, NewBlock generator ) {
+		super(blockSize, Double.BYTES, DoubleBuffer.class, generator);
+	}
+
+	/**
+	 * Creates an array which is mapped to a file. All the elements in the file are in the array.
+	 *
+	 * @param channel (Input) The file
+	 * @param mode (Input) How the file is mapped. If not read only then it can grow.
+	 * @param blockSize (Input) Number of elements in a block
+	 * @return The mapped array
+	 * @throws IOException If the file's length isn't a multiple of the element size
+	 * @see BigDogMappedFile
+	 */
+	public static BigDogBuffer_F64 map( FileChannel channel, FileChannel.MapMode mode, int blockSize )
+			throws IOException {
+		long length = channel.size();
+		if (length%Double.BYTES != 0)
+			throw new IOException("File length is not a multiple of the element size. length=" + length);
+		var array = new BigDogBuffer_F64(blockSize, new BigDogMappedFile(channel, mode));
+		array.resize(length/Double.BYTES);
+		return array;
+	}
+
+	@Override protected DoubleBuffer view( ByteBuffer bytes ) {
+		return bytes.asDoubleBuffer();
+	}
+
+	@Override public void removeSwap( long index ) {
+		long indexTail = size - 1;
+
+		double target = get(index);
+		double tail = get(indexTail);
+
+		set(indexTail, target);
+		set(index, tail);
+		size--;
+	}
+
+	/**
+	 * Appends a single value to the end of the array
+	 *
+	 * @param value (Input) The new value which is to be added
+	 */
+	public void append( double value ) {
+		allocate(this.size + 1);
+		blocks.data[(int)(size/blockSize)].put((int)(size%blockSize), value);
+		this.size++;
+	}
+
+	/**
+	 * Appends a single value to the end of the array. identical to {@link #append(double)}.
+	 *
+	 * @param value (Input) The new value which is to be added
+	 */
+	public void add( double value ) {
+		append(value);
+	}
+
+	/**
+	 * Adds the input array to the end of this array.
+	 *
+	 * @param array (Input) Array which is to be copied
+	 * @param offset (Input) First element in the array which is to be copied
+	 * @param length (Input) Number of elements which are to be copied
+	 */
+	public void append( double[] array, int offset, int length ) {
+		resize(this.size + length);
+		setArray(this.size - length, array, offset, length);
+	}
+
+	/**
+	 * Resizes the array and fills all new elements with the specified value
+	 *
+	 * @param desiredSize New array size
+	 * @param initialValue The value of new elements
+	 */
+	public void resize( long desiredSize, double initialValue ) {
+		allocate(desiredSize);
+		long originalSize = size;
+		this.size = desiredSize;
+		fill(originalSize, desiredSize, initialValue);
+	}
+
+	/**
+	 * Fills the elements in the specified range with the specified value.
+	 *
+	 * @param idx0 (Input) First index, inclusive.
+	 * @param idx1 (Input) last index, exclusive.
+	 * @param value (Input) Fill value
+	 */
+	public void fill( long idx0, long idx1, double value ) {
+		processByBlock(idx0, idx1, ( block, block0, block1, offset ) -> {
+			for (int i = block0; i < block1; i++) {
+				block.put(i, value);
+			}
+		});
+	}
+
+	/**
+	 * Assigns an element a new value
+	 *
+	 * @param index (Input) Which element to modify
+	 * @param value (Input) The element's new value
+	 */
+	public void set( int index, double value ) {
+		blocks.data[index/blockSize].put(index%blockSize, value);
+	}
+
+	/**
+	 * Same as {@link #set(int, double)} but with a long index so that it can reference any element.
+	 *
+	 * @param index (Input) Which element to modify
+	 * @param value (Input) The element's new value
+	 */
+	public void set( long index, double value ) {
+		blocks.data[(int)(index/blockSize)].put((int)(index%blockSize), value);
+	}
+
+	/**
+	 * Assigns an element a new value, counting from the end of the array.
+	 *
+	 * @param index (Input) Index relative to the end counting in reverse order. setTail(0, 5) = set(size-1, 5)
+	 * @param value (Input) The element's new value
+	 */
+	public void setTail( long index, double value ) {
+		set(size - index - 1, value);
+	}
+
+	/**
+	 * Copies the passed in array into this array at the specified location
+	 *
+	 * @param location (Input) First element that the array is to be inserted at
+	 * @param array (Input) Array which is to be copied in
+	 * @param offset (Input) Offset inside of array that it should be copied from
+	 * @param length (Input) Number of elements in array to copy
+	 */
+	public void setArray( long location, double[] array, int offset, int length ) {
+		processByBlock(location, location + length, ( block, block0, block1, arrayLoc ) -> {
+			DoubleBuffer dst = block.duplicate();
+			dst.position(block0);
+			dst.put(array, offset + (int)arrayLoc, block1 - block0);
+		});
+	}
+
+	/**
+	 * Copies a sub-array into the passed in array
+	 *
+	 * @param index (Input) Start index in this array
+	 * @param array (Output) destination array
+	 * @param offset Offset from start of destination array
+	 * @param length Number of elements to copy
+	 */
+	public void getArray( long index, double[] array, int offset, int length ) {
+		processByBlock(index, index + length, ( block, block0, block1, arrayLoc ) -> {
+			DoubleBuffer src = block.duplicate();
+			src.position(block0);
+			src.get(array, offset + (int)arrayLoc, block1 - block0);
+		});
+	}
+
+	/**
+	 * Returns the value in the array at the specified index
+	 *
+	 * @param index (Input) Index in the array
+	 * @return value at index
+	 */
+	public double get( int index ) {
+		return blocks.data[index/blockSize].get(index%blockSize);
+	}
+
+	/**
+	 * Same as {@link #get(int)} but with a long index so that it can reference any element.
+	 *
+	 * @param index (Input) Index in the array
+	 * @return value at index
+	 */
+	public double get( long index ) {
+		return blocks.data[(int)(index/blockSize)].get((int)(index%blockSize));
+	}
+
+	/**
+	 * Returns the value in the array at the specified index, counting from the end of the array.
+	 *
+	 * @param index (Input) Index relative to the end counting in reverse order. 0 = get(size-1)
+	 */
+	public double getTail( long index ) {
+		return get(size - index - 1);
+	}
+
+	/**
+	 * Simulates a for-each loop. Passes in element values to 'op' from the specified range.
+	 *
+	 * @param idx0 (Input) First index, inclusive.
+	 * @param idx1 (Input) Last index, exclusive.
+	 * @param op The operator which processes the values
+	 */
+	public void forEach( long idx0, long idx1, DogArray_F64.FunctionEach op ) {
+		processByBlock(idx0, idx1, ( block, block0, block1, offset ) -> {
+			for (int i = block0; i < block1; i++) {
+				op.process(block.get(i));
+			}
+		});
+	}
+
+	/**
+	 * Simulates a for-each loop. Passes in array indexes and element values to 'op' from the specified range.
+	 *
+	 * @param idx0 (Input) First index, inclusive.
+	 * @param idx1 (Input) Last index, exclusive.
+	 * @param op The operator which processes the values
+	 */
+	public void forIdx( long idx0, long idx1, BigDogArray_F64.FunctionEachIdx op ) {
+		processByBlock(idx0, idx1, ( block, block0, block1, offset ) -> {
+			long index = idx0 + offset;
+			for (int i = block0; i < block1; i++) {
+				op.process(index++, block.get(i));
+			}
+		});
+	}
+
+	/**
+	 * Simulates a for-each loop. Passes in array indexes and element values to 'op' from the specified range.
+	 * After calling op, the array is modified by the return value
+	 *
+	 * @param idx0 (Input) First index, inclusive.
+	 * @param idx1 (Input) Last index, exclusive.
+	 * @param op The operator which processes the values
+	 */
+	public void applyIdx( long idx0, long idx1, BigDogArray_F64.FunctionApplyIdx op ) {
+		processByBlock(idx0, idx1, ( block, block0, block1, offset ) -> {
+			long index = idx0 + offset;
+			for (int i = block0; i < block1; i++) {
+				block.put(i, op.process(index++, block.get(i)));
+			}
+		});
+	}
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.struct;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Maps the blocks in a {@link BigDogBufferBase} to a file. Block 'i' is mapped to the bytes starting at
+ * offset + i*numBytes, so the file is just the array's elements one after another in little endian byte order,
+ * after an optional header. The operating system handles reading and writing the file as elements are accessed.
+ * </p>
+ *
+ * <p>
+ * When writable, the file is extended as blocks are added so its length is always a multiple of the block size.
+ * The number of elements in the array needs to be saved separately or the file truncated once it's no longer
+ * mapped. When read only, the last block is only mapped up to the end of the file.
+ * </p>
+ *
+ * <p>
+ * NOTE: Java has no way to explicitly unmap a file. Mapped memory is released when the array is garbage collected
+ * and the file can be closed once all the blocks have been mapped.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class BigDogMappedFile implements BigDogBufferBase.NewBlock {
+	/** File which blocks are mapped to */
+	final FileChannel channel;
+	/** How the file is mapped */
+	final FileChannel.MapMode mode;
+	/** Number of bytes before the first element. E.g. the size of a header */
+	final long offset;
+
+	// Every block which has been mapped
+	final List<MappedByteBuffer> mapped = new ArrayList<>();
+
+	public BigDogMappedFile( FileChannel channel, FileChannel.MapMode mode ) {
+		this(channel, mode, 0);
+	}
+
+	public BigDogMappedFile( FileChannel channel, FileChannel.MapMode mode, long offset ) {
+		this.channel = channel;
+		this.mode = mode;
+		this.offset = offset;
+	}
+
+	@Override public ByteBuffer create( int block, int numBytes ) {
+		try {
+			long location = offset + (long)block*numBytes;
+			long length = numBytes;
+
+			// The file can't be extended if it's read only
+			if (mode == FileChannel.MapMode.READ_ONLY)
+				length = Math.max(0, Math.min(length, channel.size() - location));
+
+			MappedByteBuffer bytes = channel.map(mode, location, length);
+			mapped.add(bytes);
+			return bytes.order(ByteOrder.LITTLE_ENDIAN);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Forces changes in all the mapped blocks to be written to the file
+	 */
+	public void force() {
+		if (mode != FileChannel.MapMode.READ_WRITE)
+			return;
+		for (int i = 0; i < mapped.size(); i++) {
+			mapped.get(i).force();
+		}
+	}
+}
@@ -0,0 +1,318 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.struct;
+
+import lombok.Getter;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>
+ * Thread safe version of {@link RecycleManager}. Each thread has its own magazine, which is a small stack of
+ * unused instances that it can request from and recycle to without any synchronization. When a thread's
+ * magazine is full, it's pushed onto a shared lock-free stack of full magazines and replaced with an empty one.
+ * When a magazine is empty, it's swapped for a full one from the shared stack. If there are no full magazines
+ * then a new instance is created.
+ * </p>
+ *
+ * <p>
+ * Magazines are reused. They're only created when a thread needs an empty magazine and none are available,
+ * so the number of magazines stops growing once the number of unused instances stops growing. After warming up,
+ * requesting and recycling instances doesn't allocate any memory, even if instances are requested in one thread
+ * and recycled in another. The shared stacks use a versioned head so that reusing magazines is safe.
+ * </p>
+ *
+ * <p>
+ * Statistics are kept on how many requests were filled with recycled instances (hits), how many required a new
+ * instance (misses), and how many instances have been requested but not recycled (outstanding). In steady state
+ * the number of misses should stop increasing.
+ * </p>
+ *
+ * <p>
+ * Instances in a thread's magazine can only be used by that thread. Call {@link #flushThread()} before a thread
+ * stops using the manager so that other threads can use them.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class ConcurrentRecycleManager<T> {
+	/** Maximum number of instances in each thread's magazine */
+	@Getter protected final int magazineSize;
+
+	// Used to create new instances
+	protected final Factory<T> factory;
+
+	// Magazines which are shared between threads. Doesn't reference this class or the ThreadLocal, so that the
+	// ThreadLocal can be garbage collected along with this class, even if the threads are still alive
+	protected final Depot depot;
+
+	// Each thread's magazine
+	protected final ThreadLocal<Magazine> magazines;
+
+	// Statistics
+	protected final LongAdder hits = new LongAdder();
+	protected final LongAdder misses = new LongAdder();
+	protected final LongAdder outstanding = new LongAdder();
+
+	/**
+	 * Creates new instances with the class's default constructor
+	 */
+	public ConcurrentRecycleManager( Class<T> targetClass ) {
+		this(() -> {
+			try {
+				return targetClass.getConstructor().newInstance();
+			} catch (ReflectiveOperationException e) {
+				throw new RuntimeException(e);
+			}
+		});
+	}
+
+	public ConcurrentRecycleManager( Factory<T> factory ) {
+		this(factory, 32);
+	}
+
+	/**
+	 * @param factory Creates new instances
+	 * @param magazineSize Maximum number of instances each thread will hold before sharing them
+	 */
+	public ConcurrentRecycleManager( Factory<T> factory, int magazineSize ) {
+		if (magazineSize <= 0)
+			throw new IllegalArgumentException("magazineSize must be positive");
+		this.factory = factory;
+		this.magazineSize = magazineSize;
+		Depot depot = this.depot = new Depot(magazineSize);
+		this.magazines = ThreadLocal.withInitial(() -> new Magazine(depot));
+	}
+
+	/**
+	 * Either returns a recycled instance or a new one.
+	 */
+	@SuppressWarnings("unchecked")
+	public T requestInstance() {
+		outstanding.increment();
+		Magazine magazine = magazines.get();
+		if (magazine.current.size == 0 && !magazine.refill()) {
+			misses.increment();
+			return createInstance();
+		}
+		hits.increment();
+		Node current = magazine.current;
+		current.size--;
+		Object a = current.items[current.size];
+		current.items[current.size] = null;
+		return (T)a;
+	}
+
+	/**
+	 * Call when an instance is no longer needed and can be recycled. Can be called from a different thread
+	 * than the one which requested it.
+	 */
+	public void recycleInstance( T object ) {
+		outstanding.decrement();
+		Magazine magazine = magazines.get();
+		if (magazine.current.size == magazineSize)
+			magazine.flush();
+		Node current = magazine.current;
+		current.items[current.size++] = object;
+	}
+
+	/**
+	 * Moves all the instances in this thread's magazine to the shared stack so that other threads can use them.
+	 * Call before a thread goes away or stops using this manager.
+	 */
+	public void flushThread() {
+		Magazine magazine = magazines.get();
+		if (magazine.current.size > 0)
+			magazine.flush();
+	}
+
+	/**
+	 * Creates a new instance. Overload this to handle more complex construction.
+	 */
+	protected T createInstance() {
+		return factory.newInstance();
+	}
+
+	/** Number of requests which were filled with a recycled instance */
+	public long getHits() {
+		return hits.sum();
+	}
+
+	/** Number of requests which required a new instance to be created */
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	/** Number of instances which have been requested and not yet recycled */
+	public long getOutstanding() {
+		return outstanding.sum();
+	}
+
+	/** Number of magazines which have been created. Stops increasing once it has warmed up. */
+	public int getMagazineCount() {
+		return depot.count;
+	}
+
+	/**
+	 * Sets hits and misses back to zero. Outstanding is not modified since instances are still in use.
+	 */
+	public void resetStatistics() {
+		hits.reset();
+		misses.reset();
+	}
+
+	/**
+	 * The magazine owned by a single thread. Static so that it doesn't reference the manager.
+	 */
+	protected static class Magazine {
+		final Depot depot;
+		// Magazine which is being requested from and recycled to
+		Node current;
+
+		Magazine( Depot depot ) {
+			this.depot = depot;
+			this.current = depot.takeEmpty();
+		}
+
+		/**
+		 * Swaps the empty magazine for a full one from the shared stack
+		 *
+		 * @return true if successful or false if there were no full magazines
+		 */
+		boolean refill() {
+			Node full = depot.pop(depot.full);
+			if (full == null)
+				return false;
+			depot.push(depot.empty, current);
+			current = full;
+			return true;
+		}
+
+		/**
+		 * Pushes the magazine onto the shared stack and switches to an empty one
+		 */
+		void flush() {
+			depot.push(depot.full, current);
+			current = depot.takeEmpty();
+		}
+	}
+
+	/**
+	 * <p>
+	 * Shared lock-free stacks of full and empty magazines. Each magazine has an ID and the head of a stack
+	 * stores the ID of the top magazine in the lower 32-bits and a version number in the upper 32-bits. The
+	 * version is incremented every time the head changes. A thread which read the head before a magazine was
+	 * removed and then pushed back will see a different version and try again, which prevents the ABA problem.
+	 * </p>
+	 *
+	 * <p>
+	 * Magazines are never destroyed, so an ID can be used to look up a magazine at any time.
+	 * </p>
+	 */
+	protected static class Depot {
+		// Value of the head when the stack is empty
+		static final int NONE = -1;
+
+		final int magazineSize;
+
+		// Heads of the stacks
+		final AtomicLong full = new AtomicLong(encode(0, NONE));
+		final AtomicLong empty = new AtomicLong(encode(0, NONE));
+
+		// Look up table from ID to magazine. Only grows and a new array is published when it's grown
+		volatile Node[] nodes = new Node[16];
+		// Number of magazines which have been created
+		volatile int count;
+
+		Depot( int magazineSize ) {
+			this.magazineSize = magazineSize;
+		}
+
+		static long encode( long version, int id ) {
+			return (version << 32) | (id & 0xFFFFFFFFL);
+		}
+
+		/**
+		 * Returns an empty magazine. A new one is created if none are available.
+		 */
+		Node takeEmpty() {
+			Node node = pop(empty);
+			return node != null ? node : create();
+		}
+
+		/**
+		 * Creates a new magazine and adds it to the look up table. Only called while warming up.
+		 */
+		synchronized Node create() {
+			Node[] nodes = this.nodes;
+			int id = count;
+			if (id == nodes.length)
+				nodes = Arrays.copyOf(nodes, id*2);
+			Node node = new Node(id, magazineSize);
+			nodes[id] = node;
+			this.nodes = nodes;
+			count = id + 1;
+			return node;
+		}
+
+		void push( AtomicLong head, Node node ) {
+			long top;
+			do {
+				top = head.get();
+				node.next = (int)top;
+			} while (!head.compareAndSet(top, encode((top >>> 32) + 1, node.id)));
+		}
+
+		@Nullable Node pop( AtomicLong head ) {
+			long top;
+			Node node;
+			do {
+				top = head.get();
+				int id = (int)top;
+				if (id == NONE)
+					return null;
+				node = nodes[id];
+				// If node has been popped and pushed since top was read, then next could be wrong. That's
+				// fine since the version will have changed and the CAS will fail
+			} while (!head.compareAndSet(top, encode((top >>> 32) + 1, node.next)));
+			return node;
+		}
+	}
+
+	/**
+	 * A magazine. Stores up to magazineSize unused instances.
+	 */
+	protected static class Node {
+		// Index in the look up table
+		final int id;
+		final Object[] items;
+		// Number of instances in items. Only accessed by the thread which owns the magazine
+		int size;
+		// ID of the magazine below this one in a shared stack
+		volatile int next = Depot.NONE;
+
+		Node( int id, int magazineSize ) {
+			this.id = id;
+			this.items = new Object[magazineSize];
+		}
+	}
+}
@@ -0,0 +1,335 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.struct;
+
+import lombok.Getter;
+import org.ddogleg.sorting.RadixSort_F32;
+import org.ddogleg.sorting.RadixSort_F64;
+import org.ddogleg.sorting.RadixSort_S32;
+import org.ddogleg.sorting.RadixSort_S64;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Stores records as a structure of arrays. Each field in the record is a column, which is a primitive
+ * {@link DogArrayPrimitive}, and record 'i' is element 'i' in every column. This avoids the overhead of an object
+ * for every record and algorithms which process a single field can stream over a contiguous primitive array.
+ * </p>
+ *
+ * <p>
+ * The schema is defined by adding columns, e.g. {@link #addF64()}, which returns the column. Values are then
+ * read and written directly in the column's array. All columns have the same size, which is why the size of
+ * a column should never be changed directly. Instead call functions in this class, such as {@link #resize(int)}
+ * and {@link #removeSwap(int)}, which modify all the columns at once.
+ * </p>
+ *
+ * <pre>
+ * var records = new DogArrayColumns();
+ * DogArray_F64 x = records.addF64();
+ * DogArray_F64 score = records.addF64();
+ * DogArray_I32 id = records.addI32();
+ * records.resize(100);
+ * ...
+ * records.sortBy(score);
+ * </pre>
+ *
+ * @author Peter Abeles
+ */
+public class DogArrayColumns {
+	/** Number of records */
+	@Getter int size;
+
+	// All the columns. Each one is a primitive DogArray
+	final List<DogArrayPrimitive<?>> columns = new ArrayList<>();
+
+	// Work space for reordering
+	final DogArray_I32 order = new DogArray_I32();
+	final DogArray_B workB = new DogArray_B();
+	final DogArray_I8 workI8 = new DogArray_I8();
+	final DogArray_I16 workI16 = new DogArray_I16();
+	final DogArray_I32 workI32 = new DogArray_I32();
+	final DogArray_I64 workI64 = new DogArray_I64();
+	final DogArray_F32 workF32 = new DogArray_F32();
+	final DogArray_F64 workF64 = new DogArray_F64();
+
+	// Sorters are only declared if needed
+	@Nullable RadixSort_S32 sorterI32;
+	@Nullable RadixSort_S64 sorterI64;
+	@Nullable RadixSort_F32 sorterF32;
+	@Nullable RadixSort_F64 sorterF64;
+
+	/** Adds a column of booleans */
+	public DogArray_B addB() {
+		return addColumn(new DogArray_B());
+	}
+
+	/** Adds a column of bytes */
+	public DogArray_I8 addI8() {
+		return addColumn(new DogArray_I8());
+	}
+
+	/** Adds a column of shorts */
+	public DogArray_I16 addI16() {
+		return addColumn(new DogArray_I16());
+	}
+
+	/** Adds a column of ints */
+	public DogArray_I32 addI32() {
+		return addColumn(new DogArray_I32());
+	}
+
+	/** Adds a column of longs */
+	public DogArray_I64 addI64() {
+		return addColumn(new DogArray_I64());
+	}
+
+	/** Adds a column of floats */
+	public DogArray_F32 addF32() {
+		return addColumn(new DogArray_F32());
+	}
+
+	/** Adds a column of doubles */
+	public DogArray_F64 addF64() {
+		return addColumn(new DogArray_F64());
+	}
+
+	/**
+	 * Adds a column. It's resized to match the number of records. The value of new elements is undefined.
+	 *
+	 * @param column The column. Must be one of the primitive DogArray classes.
+	 * @return The column
+	 */
+	public <T extends DogArrayPrimitive<T>> T addColumn( T column ) {
+		if (!(column instanceof DogArray_B || column instanceof DogArray_I8 || column instanceof DogArray_I16 ||
+				column instanceof DogArray_I32 || column instanceof DogArray_I64 ||
+				column instanceof DogArray_F32 || column instanceof DogArray_F64))
+			throw new IllegalArgumentException("Unsupported column type " + column.getClass().getSimpleName());
+		if (contains(column))
+			throw new IllegalArgumentException("Column has already been added");
+
+		column.resize(size);
+		columns.add(column);
+		return column;
+	}
+
+	/** Number of columns */
+	public int getColumnCount() {
+		return columns.size();
+	}
+
+	/** Returns the column at the specified index. Columns are in the order they were added. */
+	public DogArrayPrimitive<?> getColumn( int index ) {
+		return columns.get(index);
+	}
+
+	/** Removes all the records. Columns are not removed. */
+	public DogArrayColumns reset() {
+		size = 0;
+		for (int i = 0; i < columns.size(); i++) {
+			columns.get(i).reset();
+		}
+		return this;
+	}
+
+	/**
+	 * Changes the number of records. Values of existing records are not changed. If the size increases then the
+	 * values of new records are undefined.
+	 */
+	public DogArrayColumns resize( int size ) {
+		for (int i = 0; i < columns.size(); i++) {
+			columns.get(i).resize(size);
+		}
+		this.size = size;
+		return this;
+	}
+
+	/**
+	 * Ensures that every column can store this number of records without declaring new memory
+	 */
+	public void reserve( int amount ) {
+		for (int i = 0; i < columns.size(); i++) {
+			columns.get(i).reserve(amount);
+		}
+	}
+
+	/**
+	 * Adds a new record to the end. The values of the new record are undefined.
+	 *
+	 * @return Index of the new record
+	 */
+	public int grow() {
+		resize(size + 1);
+		return size - 1;
+	}
+
+	/**
+	 * Removes the last record
+	 */
+	public void removeTail() {
+		if (size == 0)
+			throw new IllegalArgumentException("Size zero, no tail");
+		resize(size - 1);
+	}
+
+	/**
+	 * Removes the specified record by replacing it with the last record. Does not preserve order but has a
+	 * runtime of O(1) for each column.
+	 *
+	 * @param index The index of the record which is to be removed
+	 */
+	public void removeSwap( int index ) {
+		if (index < 0 || index >= size)
+			throw new IllegalArgumentException("Out of bounds. index=" + index + " max size " + size);
+
+		for (int i = 0; i < columns.size(); i++) {
+			DogArrayPrimitive<?> column = columns.get(i);
+			if (column instanceof DogArray_B c)
+				c.removeSwap(index);
+			else if (column instanceof DogArray_I8 c)
+				c.removeSwap(index);
+			else if (column instanceof DogArray_I16 c)
+				c.removeSwap(index);
+			else if (column instanceof DogArray_I32 c)
+				c.removeSwap(index);
+			else if (column instanceof DogArray_I64 c)
+				c.removeSwap(index);
+			else if (column instanceof DogArray_F32 c)
+				c.removeSwap(index);
+			else if (column instanceof DogArray_F64 c)
+				c.removeSwap(index);
+		}
+		size--;
+	}
+
+	/**
+	 * Rearranges the records so that record 'i' will be the record at order[i]. This is the same format as the
+	 * indexes which are computed when sorting, e.g. {@link DogArray_F64#sortIndexes}.
+	 *
+	 * @param order Permutation of the records. Must contain every index from 0 to size-1 once. Not modified.
+	 */
+	public void reorder( int[] order ) {
+		for (int i = 0; i < columns.size(); i++) {
+			DogArrayPrimitive<?> column = columns.get(i);
+			// Copy the records into the work array then write them back in the new order. The column's array is
+			// not replaced so references to it remain valid
+			if (column instanceof DogArray_B c) {
+				workB.resize(size);
+				System.arraycopy(c.data, 0, workB.data, 0, size);
+				for (int j = 0; j < size; j++) {
+					c.data[j] = workB.data[order[j]];
+				}
+			} else if (column instanceof DogArray_I8 c) {
+				workI8.resize(size);
+				System.arraycopy(c.data, 0, workI8.data, 0, size);
+				for (int j = 0; j < size; j++) {
+					c.data[j] = workI8.data[order[j]];
+				}
+			} else if (column instanceof DogArray_I16 c) {
+				workI16.resize(size);
+				System.arraycopy(c.data, 0, workI16.data, 0, size);
+				for (int j = 0; j < size; j++) {
+					c.data[j] = workI16.data[order[j]];
+				}
+			} else if (column instanceof DogArray_I32 c) {
+				workI32.resize(size);
+				System.arraycopy(c.data, 0, workI32.data, 0, size);
+				for (int j = 0; j < size; j++) {
+					c.data[j] = workI32.data[order[j]];
+				}
+			} else if (column instanceof DogArray_I64 c) {
+				workI64.resize(size);
+				System.arraycopy(c.data, 0, workI64.data, 0, size);
+				for (int j = 0; j < size; j++) {
+					c.data[j] = workI64.data[order[j]];
+				}
+			} else if (column instanceof DogArray_F32 c) {
+				workF32.resize(size);
+				System.arraycopy(c.data, 0, workF32.data, 0, size);
+				for (int j = 0; j < size; j++) {
+					c.data[j] = workF32.data[order[j]];
+				}
+			} else if (column instanceof DogArray_F64 c) {
+				workF64.resize(size);
+				System.arraycopy(c.data, 0, workF64.data, 0, size);
+				for (int j = 0; j < size; j++) {
+					c.data[j] = workF64.data[order[j]];
+				}
+			}
+		}
+	}
+
+	/**
+	 * Sorts the records from smallest to largest value in the specified column. The sort is stable.
+	 *
+	 * @param column One of the columns in this container
+	 */
+	public void sortBy( DogArray_F64 column ) {
+		checkColumn(column);
+		if (sorterF64 == null)
+			sorterF64 = new RadixSort_F64();
+		column.sortIndexes(sorterF64, order);
+		reorder(order.data);
+	}
+
+	/** Same as {@link #sortBy(DogArray_F64)} */
+	public void sortBy( DogArray_F32 column ) {
+		checkColumn(column);
+		if (sorterF32 == null)
+			sorterF32 = new RadixSort_F32();
+		column.sortIndexes(sorterF32, order);
+		reorder(order.data);
+	}
+
+	/** Same as {@link #sortBy(DogArray_F64)} */
+	public void sortBy( DogArray_I32 column ) {
+		checkColumn(column);
+		if (sorterI32 == null)
+			sorterI32 = new RadixSort_S32();
+		column.sortIndexes(sorterI32, order);
+		reorder(order.data);
+	}
+
+	/** Same as {@link #sortBy(DogArray_F64)} */
+	public void sortBy( DogArray_I64 column ) {
+		checkColumn(column);
+		if (sorterI64 == null)
+			sorterI64 = new RadixSort_S64();
+		column.sortIndexes(sorterI64, order);
+		reorder(order.data);
+	}
+
+	/**
+	 * Returns true if the column is in this container
+	 */
+	public boolean contains( DogArrayPrimitive<?> column ) {
+		for (int i = 0; i < columns.size(); i++) {
+			if (columns.get(i) == column)
+				return true;
+		}
+		return false;
+	}
+
+	private void checkColumn( DogArrayPrimitive<?> column ) {
+		if (!contains(column))
+			throw new IllegalArgumentException("Not a column in this container");
+	}
+}
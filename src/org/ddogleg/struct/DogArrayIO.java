@@ -0,0 +1,637 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.struct;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * <p>
+ * Reads and writes primitive {@link DogArray} and {@link BigDogArray} types using a compact binary format. Much
+ * faster and smaller than Java serialization. Data is streamed through a NIO channel one chunk at a time so memory
+ * usage is constant no matter how large the array is. The same format is used by all the types, so an array
+ * written by a DogArray can be read by a BigDogArray and vice-versa.
+ * </p>
+ *
+ * <p>
+ * Format: A {@link #HEADER_BYTES} header, which is the magic number "DDOG", the format version, element type,
+ * two unused bytes, and the number of elements as a long. Then all the elements in little endian byte order.
+ * Booleans are stored as a single byte which is 0 or 1. The header's size is a multiple of 8 so that every element
+ * in a memory mapped file is aligned. See {@link #map_F64(FileChannel, int)}.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class DogArrayIO {
+	/** Magic number at the start of every file. "DDOG" in ASCII */
+	public static final int MAGIC = 0x474F4444;
+	/** Version of the file format */
+	public static final int VERSION = 1;
+	/** Number of bytes in the header */
+	public static final int HEADER_BYTES = 16;
+
+	/** Number of bytes in the buffer used to move data to and from the channel */
+	public static final int CHUNK_BYTES = 1 << 16;
+
+	// Codes for the element type which are saved in the header
+	public static final int TYPE_B = 1;
+	public static final int TYPE_I8 = 2;
+	public static final int TYPE_I16 = 3;
+	public static final int TYPE_I32 = 4;
+	public static final int TYPE_I64 = 5;
+	public static final int TYPE_F32 = 6;
+	public static final int TYPE_F64 = 7;
+
+	/**
+	 * Writes the array to the channel
+	 */
+	public static void write( DogArray_B array, WritableByteChannel channel ) throws IOException {
+		ByteBuffer buffer = writeHeader(channel, TYPE_B, array.size);
+		writeChunks(array.data, 0, array.size, 1, buffer, channel, DogArrayIO::putB);
+	}
+
+	/**
+	 * Reads an array which was saved by {@link #write(DogArray_B, WritableByteChannel)}
+	 *
+	 * @param channel (Input) Channel it's read from
+	 * @param storage (Output) Storage for the array. Resized to match the saved array.
+	 * @return storage
+	 */
+	public static DogArray_B read( ReadableByteChannel channel, DogArray_B storage ) throws IOException {
+		ByteBuffer buffer = createBuffer();
+		storage.resize(toIntSize(readHeader(channel, buffer, TYPE_B)));
+		readChunks(channel, buffer, storage.data, 0, storage.size, 1, DogArrayIO::getB);
+		return storage;
+	}
+
+	/**
+	 * Writes the array to the channel
+	 */
+	public static void write( BigDogArray_B array, WritableByteChannel channel ) throws IOException {
+		writeBlocks(array, TYPE_B, 1, channel, DogArrayIO::putB);
+	}
+
+	/**
+	 * Reads an array which was saved by {@link #write(BigDogArray_B, WritableByteChannel)}
+	 *
+	 * @param channel (Input) Channel it's read from
+	 * @param storage (Output) Storage for the array. Resized to match the saved array.
+	 * @return storage
+	 */
+	public static BigDogArray_B read( ReadableByteChannel channel, BigDogArray_B storage ) throws IOException {
+		readBlocks(channel, TYPE_B, 1, storage, DogArrayIO::getB);
+		return storage;
+	}
+
+	/**
+	 * Writes the array to the channel
+	 */
+	public static void write( DogArray_I8 array, WritableByteChannel channel ) throws IOException {
+		ByteBuffer buffer = writeHeader(channel, TYPE_I8, array.size);
+		writeChunks(array.data, 0, array.size, Byte.BYTES, buffer, channel, DogArrayIO::putI8);
+	}
+
+	/**
+	 * Reads an array which was saved by {@link #write(DogArray_I8, WritableByteChannel)}
+	 *
+	 * @param channel (Input) Channel it's read from
+	 * @param storage (Output) Storage for the array. Resized to match the saved array.
+	 * @return storage
+	 */
+	public static DogArray_I8 read( ReadableByteChannel channel, DogArray_I8 storage ) throws IOException {
+		ByteBuffer buffer = createBuffer();
+		storage.resize(toIntSize(readHeader(channel, buffer, TYPE_I8)));
+		readChunks(channel, buffer, storage.data, 0, storage.size, Byte.BYTES, DogArrayIO::getI8);
+		return storage;
+	}
+
+	/**
+	 * Writes the array to the channel
+	 */
+	public static void write( BigDogArray_I8 array, WritableByteChannel channel ) throws IOException {
+		writeBlocks(array, TYPE_I8, Byte.BYTES, channel, DogArrayIO::putI8);
+	}
+
+	/**
+	 * Reads an array which was saved by {@link #write(BigDogArray_I8, WritableByteChannel)}
+	 *
+	 * @param channel (Input) Channel it's read from
+	 * @param storage (Output) Storage for the array. Resized to match the saved array.
+	 * @return storage
+	 */
+	public static BigDogArray_I8 read( ReadableByteChannel channel, BigDogArray_I8 storage ) throws IOException {
+		readBlocks(channel, TYPE_I8, Byte.BYTES, storage, DogArrayIO::getI8);
+		return storage;
+	}
+
+	/**
+	 * Writes the array to the channel
+	 */
+	public static void write( DogArray_I16 array, WritableByteChannel channel ) throws IOException {
+		ByteBuffer buffer = writeHeader(channel, TYPE_I16, array.size);
+		writeChunks(array.data, 0, array.size, Short.BYTES, buffer, channel, DogArrayIO::putI16);
+	}
+
+	/**
+	 * Reads an array which was saved by {@link #write(DogArray_I16, WritableByteChannel)}
+	 *
+	 * @param channel (Input) Channel it's read from
+	 * @param storage (Output) Storage for the array. Resized to match the saved array.
+	 * @return storage
+	 */
+	public static DogArray_I16 read( ReadableByteChannel channel, DogArray_I16 storage ) throws IOException {
+		ByteBuffer buffer = createBuffer();
+		storage.resize(toIntSize(readHeader(channel, buffer, TYPE_I16)));
+		readChunks(channel, buffer, storage.data, 0, storage.size, Short.BYTES, DogArrayIO::getI16);
+		return storage;
+	}
+
+	/**
+	 * Writes the array to the channel
+	 */
+	public static void write( DogArray_I32 array, WritableByteChannel channel ) throws IOException {
+		ByteBuffer buffer = writeHeader(channel, TYPE_I32, array.size);
+		writeChunks(array.data, 0, array.size, Integer.BYTES, buffer, channel, DogArrayIO::putI32);
+	}
+
+	/**
+	 * Reads an array which was saved by {@link #write(DogArray_I32, WritableByteChannel)}
+	 *
+	 * @param channel (Input) Channel it's read from
+	 * @param storage (Output) Storage for the array. Resized to match the saved array.
+	 * @return storage
+	 */
+	public static DogArray_I32 read( ReadableByteChannel channel, DogArray_I32 storage ) throws IOException {
+		ByteBuffer buffer = createBuffer();
+		storage.resize(toIntSize(readHeader(channel, buffer, TYPE_I32)));
+		readChunks(channel, buffer, storage.data, 0, storage.size, Integer.BYTES, DogArrayIO::getI32);
+		return storage;
+	}
+
+	/**
+	 * Writes the array to the channel
+	 */
+	public static void write( BigDogArray_I32 array, WritableByteChannel channel ) throws IOException {
+		writeBlocks(array, TYPE_I32, Integer.BYTES, channel, DogArrayIO::putI32);
+	}
+
+	/**
+	 * Reads an array which was saved by {@link #write(BigDogArray_I32, WritableByteChannel)}
+	 *
+	 * @param channel (Input) Channel it's read from
+	 * @param storage (Output) Storage for the array. Resized to match the saved array.
+	 * @return storage
+	 */
+	public static BigDogArray_I32 read( ReadableByteChannel channel, BigDogArray_I32 storage ) throws IOException {
+		readBlocks(channel, TYPE_I32, Integer.BYTES, storage, DogArrayIO::getI32);
+		return storage;
+	}
+
+	/**
+	 * Writes the array to the channel
+	 */
+	public static void write( DogArray_I64 array, WritableByteChannel channel ) throws IOException {
+		ByteBuffer buffer = writeHeader(channel, TYPE_I64, array.size);
+		writeChunks(array.data, 0, array.size, Long.BYTES, buffer, channel, DogArrayIO::putI64);
+	}
+
+	/**
+	 * Reads an array which was saved by {@link #write(DogArray_I64, WritableByteChannel)}
+	 *
+	 * @param channel (Input) Channel it's read from
+	 * @param storage (Output) Storage for the array. Resized to match the saved array.
+	 * @return storage
+	 */
+	public static DogArray_I64 read( ReadableByteChannel channel, DogArray_I64 storage ) throws IOException {
+		ByteBuffer buffer = createBuffer();
+		storage.resize(toIntSize(readHeader(channel, buffer, TYPE_I64)));
+		readChunks(channel, buffer, storage.data, 0, storage.size, Long.BYTES, DogArrayIO::getI64);
+		return storage;
+	}
+
+	/**
+	 * Writes the array to the channel
+	 */
+	public static void write( BigDogArray_I64 array, WritableByteChannel channel ) throws IOException {
+		writeBlocks(array, TYPE_I64, Long.BYTES, channel, DogArrayIO::putI64);
+	}
+
+	/**
+	 * Reads an array which was saved by {@link #write(BigDogArray_I64, WritableByteChannel)}
+	 *
+	 * @param channel (Input) Channel it's read from
+	 * @param storage (Output) Storage for the array. Resized to match the saved array.
+	 * @return storage
+	 */
+	public static BigDogArray_I64 read( ReadableByteChannel channel, BigDogArray_I64 storage ) throws IOException {
+		readBlocks(channel, TYPE_I64, Long.BYTES, storage, DogArrayIO::getI64);
+		return storage;
+	}
+
+	/**
+	 * Writes the array to the channel
+	 */
+	public static void write( DogArray_F32 array, WritableByteChannel channel ) throws IOException {
+		ByteBuffer buffer = writeHeader(channel, TYPE_F32, array.size);
+		writeChunks(array.data, 0, array.size, Float.BYTES, buffer, channel, DogArrayIO::putF32);
+	}
+
+	/**
+	 * Reads an array which was saved by {@link #write(DogArray_F32, WritableByteChannel)}
+	 *
+	 * @param channel (Input) Channel it's read from
+	 * @param storage (Output) Storage for the array. Resized to match the saved array.
+	 * @return storage
+	 */
+	public static DogArray_F32 read( ReadableByteChannel channel, DogArray_F32 storage ) throws IOException {
+		ByteBuffer buffer = createBuffer();
+		storage.resize(toIntSize(readHeader(channel, buffer, TYPE_F32)));
+		readChunks(channel, buffer, storage.data, 0, storage.size, Float.BYTES, DogArrayIO::getF32);
+		return storage;
+	}
+
+	/**
+	 * Writes the array to the channel
+	 */
+	public static void write( BigDogArray_F32 array, WritableByteChannel channel ) throws IOException {
+		writeBlocks(array, TYPE_F32, Float.BYTES, channel, DogArrayIO::putF32);
+	}
+
+	/**
+	 * Reads an array which was saved by {@link #write(BigDogArray_F32, WritableByteChannel)}
+	 *
+	 * @param channel (Input) Channel it's read from
+	 * @param storage (Output) Storage for the array. Resized to match the saved array.
+	 * @return storage
+	 */
+	public static BigDogArray_F32 read( ReadableByteChannel channel, BigDogArray_F32 storage ) throws IOException {
+		readBlocks(channel, TYPE_F32, Float.BYTES, storage, DogArrayIO::getF32);
+		return storage;
+	}
+
+	/**
+	 * Writes the array to the channel
+	 */
+	public static void write( DogArray_F64 array, WritableByteChannel channel ) throws IOException {
+		ByteBuffer buffer = writeHeader(channel, TYPE_F64, array.size);
+		writeChunks(array.data, 0, array.size, Double.BYTES, buffer, channel, DogArrayIO::putF64);
+	}
+
+	/**
+	 * Reads an array which was saved by {@link #write(DogArray_F64, WritableByteChannel)}
+	 *
+	 * @param channel (Input) Channel it's read from
+	 * @param storage (Output) Storage for the array. Resized to match the saved array.
+	 * @return storage
+	 */
+	public static DogArray_F64 read( ReadableByteChannel channel, DogArray_F64 storage ) throws IOException {
+		ByteBuffer buffer = createBuffer();
+		storage.resize(toIntSize(readHeader(channel, buffer, TYPE_F64)));
+		readChunks(channel, buffer, storage.data, 0, storage.size, Double.BYTES, DogArrayIO::getF64);
+		return storage;
+	}
+
+	/**
+	 * Writes the array to the channel
+	 */
+	public static void write( BigDogArray_F64 array, WritableByteChannel channel ) throws IOException {
+		writeBlocks(array, TYPE_F64, Double.BYTES, channel, DogArrayIO::putF64);
+	}
+
+	/**
+	 * Reads an array which was saved by {@link #write(BigDogArray_F64, WritableByteChannel)}
+	 *
+	 * @param channel (Input) Channel it's read from
+	 * @param storage (Output) Storage for the array. Resized to match the saved array.
+	 * @return storage
+	 */
+	public static BigDogArray_F64 read( ReadableByteChannel channel, BigDogArray_F64 storage ) throws IOException {
+		readBlocks(channel, TYPE_F64, Double.BYTES, storage, DogArrayIO::getF64);
+		return storage;
+	}
+
+	/**
+	 * Maps a file which was written by {@link #write(DogArray_I8, WritableByteChannel)} or
+	 * {@link #write(BigDogArray_I8, WritableByteChannel)} into an off-heap array without copying it.
+	 * The file is mapped as read only and the channel's position is not modified.
+	 *
+	 * @param channel (Input) The file
+	 * @param blockSize (Input) Number of elements in each block
+	 * @return The mapped array
+	 */
+	public static BigDogBuffer_I8 map_I8( FileChannel channel, int blockSize ) throws IOException {
+		long size = readHeader(channel, TYPE_I8);
+		var array = new BigDogBuffer_I8(blockSize,
+				new BigDogMappedFile(channel, FileChannel.MapMode.READ_ONLY, HEADER_BYTES));
+		array.resize(size);
+		return array;
+	}
+
+	/**
+	 * Maps a file which was written by {@link #write(DogArray_I32, WritableByteChannel)} or
+	 * {@link #write(BigDogArray_I32, WritableByteChannel)} into an off-heap array without copying it.
+	 * The file is mapped as read only and the channel's position is not modified.
+	 *
+	 * @param channel (Input) The file
+	 * @param blockSize (Input) Number of elements in each block
+	 * @return The mapped array
+	 */
+	public static BigDogBuffer_I32 map_I32( FileChannel channel, int blockSize ) throws IOException {
+		long size = readHeader(channel, TYPE_I32);
+		var array = new BigDogBuffer_I32(blockSize,
+				new BigDogMappedFile(channel, FileChannel.MapMode.READ_ONLY, HEADER_BYTES));
+		array.resize(size);
+		return array;
+	}
+
+	/**
+	 * Maps a file which was written by {@link #write(DogArray_I64, WritableByteChannel)} or
+	 * {@link #write(BigDogArray_I64, WritableByteChannel)} into an off-heap array without copying it.
+	 * The file is mapped as read only and the channel's position is not modified.
+	 *
+	 * @param channel (Input) The file
+	 * @param blockSize (Input) Number of elements in each block
+	 * @return The mapped array
+	 */
+	public static BigDogBuffer_I64 map_I64( FileChannel channel, int blockSize ) throws IOException {
+		long size = readHeader(channel, TYPE_I64);
+		var array = new BigDogBuffer_I64(blockSize,
+				new BigDogMappedFile(channel, FileChannel.MapMode.READ_ONLY, HEADER_BYTES));
+		array.resize(size);
+		return array;
+	}
+
+	/**
+	 * Maps a file which was written by {@link #write(DogArray_F32, WritableByteChannel)} or
+	 * {@link #write(BigDogArray_F32, WritableByteChannel)} into an off-heap array without copying it.
+	 * The file is mapped as read only and the channel's position is not modified.
+	 *
+	 * @param channel (Input) The file
+	 * @param blockSize (Input) Number of elements in each block
+	 * @return The mapped array
+	 */
+	public static BigDogBuffer_F32 map_F32( FileChannel channel, int blockSize ) throws IOException {
+		long size = readHeader(channel, TYPE_F32);
+		var array = new BigDogBuffer_F32(blockSize,
+				new BigDogMappedFile(channel, FileChannel.MapMode.READ_ONLY, HEADER_BYTES));
+		array.resize(size);
+		return array;
+	}
+
+	/**
+	 * Maps a file which was written by {@link #write(DogArray_F64, WritableByteChannel)} or
+	 * {@link #write(BigDogArray_F64, WritableByteChannel)} into an off-heap array without copying it.
+	 * The file is mapped as read only and the channel's position is not modified.
+	 *
+	 * @param channel (Input) The file
+	 * @param blockSize (Input) Number of elements in each block
+	 * @return The mapped array
+	 */
+	public static BigDogBuffer_F64 map_F64( FileChannel channel, int blockSize ) throws IOException {
+		long size = readHeader(channel, TYPE_F64);
+		var array = new BigDogBuffer_F64(blockSize,
+				new BigDogMappedFile(channel, FileChannel.MapMode.READ_ONLY, HEADER_BYTES));
+		array.resize(size);
+		return array;
+	}
+
+	static ByteBuffer createBuffer() {
+		return ByteBuffer.allocateDirect(CHUNK_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	/**
+	 * Writes the header and returns a buffer which can be used to write the elements
+	 */
+	static ByteBuffer writeHeader( WritableByteChannel channel, int type, long size ) throws IOException {
+		ByteBuffer buffer = createBuffer();
+		buffer.putInt(MAGIC);
+		buffer.put((byte)VERSION);
+		buffer.put((byte)type);
+		buffer.putShort((short)0);
+		buffer.putLong(size);
+		buffer.flip();
+		writeFully(channel, buffer);
+		return buffer;
+	}
+
+	/**
+	 * Reads and validates the header
+	 *
+	 * @return Number of elements in the array
+	 */
+	static long readHeader( ReadableByteChannel channel, ByteBuffer buffer, int expectedType ) throws IOException {
+		readFully(channel, buffer, HEADER_BYTES);
+		return checkHeader(buffer, expectedType);
+	}
+
+	/**
+	 * Reads and validates the header at the start of the file without modifying the channel's position
+	 *
+	 * @return Number of elements in the array
+	 */
+	static long readHeader( FileChannel channel, int expectedType ) throws IOException {
+		if (channel.size() < HEADER_BYTES)
+			throw new EOFException("File is too small to contain a header");
+		ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+		return checkHeader(header.order(ByteOrder.LITTLE_ENDIAN), expectedType);
+	}
+
+	/**
+	 * Validates the header stored at the start of the buffer
+	 *
+	 * @return Number of elements in the array
+	 */
+	static long checkHeader( ByteBuffer buffer, int expectedType ) throws IOException {
+		if (buffer.getInt(0) != MAGIC)
+			throw new IOException("Not a DogArray file. Bad magic number");
+		if (buffer.get(4) != VERSION)
+			throw new IOException("Unsupported version " + buffer.get(4));
+		if (buffer.get(5) != expectedType)
+			throw new IOException("Unexpected element type. expected=" + expectedType + " found=" + buffer.get(5));
+		long size = buffer.getLong(8);
+		if (size < 0)
+			throw new IOException("Negative array size " + size);
+		return size;
+	}
+
+	static int toIntSize( long size ) throws IOException {
+		if (size > Integer.MAX_VALUE)
+			throw new IOException("Too many elements for a DogArray. Use a BigDogArray. size=" + size);
+		return (int)size;
+	}
+
+	static void writeFully( WritableByteChannel channel, ByteBuffer buffer ) throws IOException {
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+	}
+
+	/**
+	 * Reads exactly the specified number of bytes into the start of the buffer
+	 */
+	static void readFully( ReadableByteChannel channel, ByteBuffer buffer, int length ) throws IOException {
+		buffer.clear();
+		buffer.limit(length);
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer) < 0)
+				throw new EOFException("Unexpected end of channel");
+		}
+		buffer.flip();
+	}
+
+	/**
+	 * Writes the header then each block in the array
+	 */
+	static <Array> void writeBlocks( BigDogArrayBase<Array> array, int type, int elementBytes,
+									 WritableByteChannel channel, PutChunk<Array> op ) throws IOException {
+		ByteBuffer buffer = writeHeader(channel, type, array.size);
+		int numBlocks = array.getDesiredBlocks(array.size);
+		for (int block = 0; block < numBlocks; block++) {
+			int length = (int)Math.min(array.blockSize, array.size - (long)block*array.blockSize);
+			writeChunks(array.blocks.data[block], 0, length, elementBytes, buffer, channel, op);
+		}
+	}
+
+	/**
+	 * Reads the header, resizes the array, then reads in each block
+	 */
+	static <Array> void readBlocks( ReadableByteChannel channel, int type, int elementBytes,
+									BigDogArrayBase<Array> storage, GetChunk<Array> op ) throws IOException {
+		ByteBuffer buffer = createBuffer();
+		storage.resize(readHeader(channel, buffer, type));
+		int numBlocks = storage.getDesiredBlocks(storage.size);
+		for (int block = 0; block < numBlocks; block++) {
+			int length = (int)Math.min(storage.blockSize, storage.size - (long)block*storage.blockSize);
+			readChunks(channel, buffer, storage.blocks.data[block], 0, length, elementBytes, op);
+		}
+	}
+
+	/**
+	 * Writes elements from the array to the channel one buffer at a time
+	 */
+	static <Array> void writeChunks( Array src, int offset, int length, int elementBytes,
+									 ByteBuffer buffer, WritableByteChannel channel, PutChunk<Array> op )
+			throws IOException {
+		while (length > 0) {
+			int n = Math.min(length, buffer.capacity()/elementBytes);
+			buffer.clear();
+			op.put(buffer, src, offset, n);
+			buffer.position(0);
+			buffer.limit(n*elementBytes);
+			writeFully(channel, buffer);
+			offset += n;
+			length -= n;
+		}
+	}
+
+	/**
+	 * Reads elements from the channel into the array one buffer at a time
+	 */
+	static <Array> void readChunks( ReadableByteChannel channel, ByteBuffer buffer, Array dst, int offset, int length,
+									int elementBytes, GetChunk<Array> op ) throws IOException {
+		while (length > 0) {
+			int n = Math.min(length, buffer.capacity()/elementBytes);
+			readFully(channel, buffer, n*elementBytes);
+			op.get(buffer, dst, offset, n);
+			offset += n;
+			length -= n;
+		}
+	}
+
+	static void putB( ByteBuffer buffer, boolean[] src, int offset, int length ) {
+		for (int i = 0; i < length; i++) {
+			buffer.put(i, src[offset + i] ? (byte)1 : (byte)0);
+		}
+	}
+
+	static void getB( ByteBuffer buffer, boolean[] dst, int offset, int length ) {
+		for (int i = 0; i < length; i++) {
+			dst[offset + i] = buffer.get(i) != 0;
+		}
+	}
+
+	static void putI8( ByteBuffer buffer, byte[] src, int offset, int length ) {
+		buffer.put(src, offset, length);
+	}
+
+	static void getI8( ByteBuffer buffer, byte[] dst, int offset, int length ) {
+		buffer.get(dst, offset, length);
+	}
+
+	static void putI16( ByteBuffer buffer, short[] src, int offset, int length ) {
+		buffer.asShortBuffer().put(src, offset, length);
+	}
+
+	static void getI16( ByteBuffer buffer, short[] dst, int offset, int length ) {
+		buffer.asShortBuffer().get(dst, offset, length);
+	}
+
+	static void putI32( ByteBuffer buffer, int[] src, int offset, int length ) {
+		buffer.asIntBuffer().put(src, offset, length);
+	}
+
+	static void getI32( ByteBuffer buffer, int[] dst, int offset, int length ) {
+		buffer.asIntBuffer().get(dst, offset, length);
+	}
+
+	static void putI64( ByteBuffer buffer, long[] src, int offset, int length ) {
+		buffer.asLongBuffer().put(src, offset, length);
+	}
+
+	static void getI64( ByteBuffer buffer, long[] dst, int offset, int length ) {
+		buffer.asLongBuffer().get(dst, offset, length);
+	}
+
+	static void putF32( ByteBuffer buffer, float[] src, int offset, int length ) {
+		buffer.asFloatBuffer().put(src, offset, length);
+	}
+
+	static void getF32( ByteBuffer buffer, float[] dst, int offset, int length ) {
+		buffer.asFloatBuffer().get(dst, offset, length);
+	}
+
+	static void putF64( ByteBuffer buffer, double[] src, int offset, int length ) {
+		buffer.asDoubleBuffer().put(src, offset, length);
+	}
+
+	static void getF64( ByteBuffer buffer, double[] dst, int offset, int length ) {
+		buffer.asDoubleBuffer().get(dst, offset, length);
+	}
+
+	/**
+	 * Copies elements from an array into the start of a byte buffer
+	 */
+	@FunctionalInterface
+	interface PutChunk<Array> {
+		void put( ByteBuffer buffer, Array src, int offset, int length );
+	}
+
+	/**
+	 * Copies elements from the start of a byte buffer into an array
+	 */
+	@FunctionalInterface
+	interface GetChunk<Array> {
+		void get( ByteBuffer buffer, Array dst, int offset, int length );
+	}
+}
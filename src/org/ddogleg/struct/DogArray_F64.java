@@ -19,6 +19,7 @@
 package org.ddogleg.struct;
 
 import org.ddogleg.sorting.QuickSort_F64;
+import org.ddogleg.sorting.RadixSort_F64;
 
 import java.util.Arrays;
 import java.util.Random;
@@ -492,6 +493,24 @@ public class DogArray_F64 implements DogArrayPrimitive<DogArray_F64> {
 		sorter.sort(data, size);
 	}
 
+	/**
+	 * Sort using radix sort, which is faster for large arrays. The sorter is re-used to avoid declaring new memory
+	 */
+	public void sort( RadixSort_F64 sorter ) {
+		sorter.sort(data, size);
+	}
+
+	/**
+	 * Computes the indexes of the elements in sorted order without modifying this array
+	 *
+	 * @param sorter Radix sort which is re-used to avoid declaring new memory
+	 * @param indexes (Output) Index of the element at each sorted position
+	 */
+	public void sortIndexes( RadixSort_F64 sorter, DogArray_I32 indexes ) {
+		indexes.resize(size);
+		sorter.sort(data, 0, size, indexes.data);
+	}
+
 	/** Shuffle elements by randomly swapping them */
 	public void shuffle( Random rand ) {
 		for (int i = 0; i < size; i++) {
@@ -18,6 +18,8 @@
 
 package org.ddogleg.struct;
 
+import org.ddogleg.sorting.RadixSort_S64;
+
 import java.util.Arrays;
 import java.util.Random;
 
@@ -482,6 +484,24 @@ public class DogArray_I64 implements DogArrayPrimitive<DogArray_I64> {
 		Arrays.sort(data, 0, size);
 	}
 
+	/**
+	 * Sort using radix sort, which is faster for large arrays. The sorter is re-used to avoid declaring new memory
+	 */
+	public void sort( RadixSort_S64 sorter ) {
+		sorter.sort(data, size);
+	}
+
+	/**
+	 * Computes the indexes of the elements in sorted order without modifying this array
+	 *
+	 * @param sorter Radix sort which is re-used to avoid declaring new memory
+	 * @param indexes (Output) Index of the element at each sorted position
+	 */
+	public void sortIndexes( RadixSort_S64 sorter, DogArray_I32 indexes ) {
+		indexes.resize(size);
+		sorter.sort(data, 0, size, indexes.data);
+	}
+
 	/** Shuffle elements by randomly swapping them */
 	public void shuffle( Random rand ) {
 		for (int i = 0; i < size; i++) {
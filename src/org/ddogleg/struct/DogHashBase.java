@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.struct;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Base class for hash maps and sets which have primitive keys. Uses open addressing with linear probing, so
+ * everything is stored in flat arrays and no objects are created when an element is added. Removed elements
+ * are handled by shifting later elements back, so there are no tombstones.
+ * </p>
+ *
+ * <p>
+ * Each slot in the table has a stamp and the slot is in use if its stamp matches the current generation. This
+ * allows {@link #reset()} to remove all the elements in O(1) without freeing any memory, just like
+ * {@link DogArray#reset()}.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+@SuppressWarnings("NullAway.Init")
+public abstract class DogHashBase {
+	/** Default fraction of the table which can be filled before it grows */
+	public static final float DEFAULT_LOAD_FACTOR = 0.5f;
+
+	/** Fraction of the table which can be filled before it grows */
+	protected @Getter final float loadFactor;
+
+	/** Number of elements */
+	protected int size;
+
+	/** A slot is in use if its stamp is equal to the current generation */
+	protected int[] stamps;
+	protected int generation;
+
+	/** Used to convert a hash into an index in the table */
+	protected int mask;
+
+	/** Maximum number of elements before the table needs to grow */
+	protected int threshold;
+
+	protected DogHashBase( float loadFactor ) {
+		if (loadFactor <= 0.0f || loadFactor >= 1.0f)
+			throw new IllegalArgumentException("loadFactor must be more than 0 and less than 1");
+		this.loadFactor = loadFactor;
+	}
+
+	/**
+	 * Removes all elements. No memory is freed.
+	 */
+	public void reset() {
+		size = 0;
+		generation++;
+		// Very unlikely to happen, but the stamps need to be cleared before they can be used again
+		if (generation == Integer.MAX_VALUE) {
+			Arrays.fill(stamps, 0);
+			generation = 1;
+		}
+	}
+
+	/**
+	 * Ensures that it can store the specified number of elements without needing to grow
+	 */
+	public void reserve( int numElements ) {
+		if (numElements > threshold)
+			rehash(tableSizeFor(numElements));
+	}
+
+	/** Number of elements */
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/** Number of slots in the table */
+	public int getTableSize() {
+		return stamps.length;
+	}
+
+	/**
+	 * Allocates a new and empty table. Called by {@link #rehash(int)}.
+	 */
+	protected void declareTable( int tableSize ) {
+		stamps = new int[tableSize];
+		generation = 1;
+		mask = tableSize - 1;
+		threshold = Math.min(tableSize - 1, (int)(tableSize*loadFactor));
+	}
+
+	/**
+	 * Returns the smallest power of two table which can store the elements
+	 */
+	protected int tableSizeFor( int numElements ) {
+		long desired = (long)Math.ceil(Math.max(1, numElements)/loadFactor) + 1;
+		if (desired > (1 << 30))
+			throw new IllegalArgumentException("Too many elements. numElements=" + numElements);
+		int tableSize = 2;
+		while (tableSize < desired) {
+			tableSize *= 2;
+		}
+		return tableSize;
+	}
+
+	/**
+	 * Returns true if the table needs to grow before another element can be added
+	 */
+	protected boolean isFull() {
+		return size >= threshold;
+	}
+
+	/**
+	 * Returns true if 'slot' is not in the range (start, end] of slots, where the range can wrap around the end
+	 * of the table. Used when shifting elements back after a remove.
+	 */
+	protected static boolean isOutside( int start, int slot, int end ) {
+		if (start <= end)
+			return slot <= start || slot > end;
+		else
+			return slot <= start && slot > end;
+	}
+
+	/**
+	 * Resizes the table and adds all the existing elements to it
+	 */
+	protected abstract void rehash( int tableSize );
+
+	/** Mixes the bits in the key so that consecutive keys are spread across the table */
+	protected static int hash( int key ) {
+		int h = key*0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	/** Mixes the bits in the key so that consecutive keys are spread across the table */
+	protected static int hash( long key ) {
+		long h = key*0x9E3779B97F4A7C15L;
+		return (int)(h ^ (h >>> 32));
+	}
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.struct;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * Hash map from a int key to an object. The key isn't boxed and no memory is allocated unless the table needs to
+ * grow. See {@link DogHashBase} for implementation details.
+ *
+ * NOTE: {@link #reset()} doesn't release references to the values. Use {@link #clear()} if that's needed.
+ *
+ * @author Peter Abeles
+ */
+@SuppressWarnings({"NullAway.Init", "unchecked"})
+public class DogHashMap_I32<T> extends DogHashBase {
+	/** Key in each slot */
+	protected int[] keys;
+	/** Value in each slot */
+	protected @Nullable Object[] values;
+
+	public DogHashMap_I32() {
+		this(16);
+	}
+
+	public DogHashMap_I32( int initialCapacity ) {
+		this(initialCapacity, DEFAULT_LOAD_FACTOR);
+	}
+
+	/**
+	 * @param initialCapacity Number of elements it can store before it needs to grow
+	 * @param loadFactor Fraction of the table which can be filled before it grows
+	 */
+	public DogHashMap_I32( int initialCapacity, float loadFactor ) {
+		super(loadFactor);
+		rehash(tableSizeFor(initialCapacity));
+	}
+
+	/**
+	 * Assigns a value to the key. If the key is already in the map its value is replaced.
+	 */
+	public void put( int key, T value ) {
+		int slot = hash(key) & mask;
+		while (stamps[slot] == generation) {
+			if (keys[slot] == key) {
+				values[slot] = value;
+				return;
+			}
+			slot = (slot + 1) & mask;
+		}
+
+		if (isFull()) {
+			rehash(stamps.length*2);
+			put(key, value);
+			return;
+		}
+
+		stamps[slot] = generation;
+		keys[slot] = key;
+		values[slot] = value;
+		size++;
+	}
+
+	/**
+	 * Returns the value for the key
+	 *
+	 * @throws IllegalArgumentException if the key is not in the map
+	 */
+	public T get( int key ) {
+		int slot = findSlot(key);
+		if (slot < 0)
+			throw new IllegalArgumentException("Key is not in the map. key=" + key);
+		return (T)values[slot];
+	}
+
+	/**
+	 * Returns the value for the key or the default value if it's not in the map
+	 */
+	public @Nullable T getOrDefault( int key, @Nullable T defaultValue ) {
+		int slot = findSlot(key);
+		return slot < 0 ? defaultValue : (T)values[slot];
+	}
+
+	public boolean containsKey( int key ) {
+		return findSlot(key) >= 0;
+	}
+
+	/**
+	 * Removes the key from the map
+	 *
+	 * @return true if the key was in the map
+	 */
+	public boolean remove( int key ) {
+		int gap = findSlot(key);
+		if (gap < 0)
+			return false;
+
+		// Shift elements after the gap back so that they can still be found
+		int slot = gap;
+		while (true) {
+			slot = (slot + 1) & mask;
+			if (stamps[slot] != generation)
+				break;
+			if (isOutside(gap, hash(keys[slot]) & mask, slot)) {
+				keys[gap] = keys[slot];
+				values[gap] = values[slot];
+				gap = slot;
+			}
+		}
+		stamps[gap] = 0;
+		values[gap] = null;
+		size--;
+		return true;
+	}
+
+	/**
+	 * Removes all the elements and releases references to the values. Unlike {@link #reset()} this is O(N)
+	 * where N is the table size.
+	 */
+	public void clear() {
+		reset();
+		Arrays.fill(values, null);
+	}
+
+	/**
+	 * Passes in every key and value in the map. The order is not specified.
+	 */
+	public void forEach( FunctionEach<T> op ) {
+		for (int slot = 0; slot < stamps.length; slot++) {
+			if (stamps[slot] == generation)
+				op.process(keys[slot], (T)values[slot]);
+		}
+	}
+
+	/**
+	 * Copies all the keys into the array. The order is not specified.
+	 */
+	public DogArray_I32 getKeys( DogArray_I32 storage ) {
+		storage.reset();
+		storage.reserve(size);
+		for (int slot = 0; slot < stamps.length; slot++) {
+			if (stamps[slot] == generation)
+				storage.add(keys[slot]);
+		}
+		return storage;
+	}
+
+	/**
+	 * Returns the slot the key is in or -1 if it's not in the map
+	 */
+	protected int findSlot( int key ) {
+		int slot = hash(key) & mask;
+		while (stamps[slot] == generation) {
+			if (keys[slot] == key)
+				return slot;
+			slot = (slot + 1) & mask;
+		}
+		return -1;
+	}
+
+	@Override protected void rehash( int tableSize ) {
+		int[] oldKeys = keys;
+		@Nullable Object[] oldValues = values;
+		int[] oldStamps = stamps;
+		int oldGeneration = generation;
+
+		keys = new int[tableSize];
+		values = new Object[tableSize];
+		declareTable(tableSize);
+
+		// Nothing to copy the first time it's called
+		if (oldStamps == null)
+			return;
+
+		for (int i = 0; i < oldStamps.length; i++) {
+			if (oldStamps[i] != oldGeneration)
+				continue;
+			int slot = hash(oldKeys[i]) & mask;
+			while (stamps[slot] == generation) {
+				slot = (slot + 1) & mask;
+			}
+			stamps[slot] = generation;
+			keys[slot] = oldKeys[i];
+			values[slot] = oldValues[i];
+		}
+	}
+
+	@FunctionalInterface
+	public interface FunctionEach<T> {
+		void process( int key, T value );
+	}
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.struct;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * Bounded lock-free queue of objects for passing data from one producer thread to one consumer thread.
+ * Null elements are not allowed. See {@link SpscRingBufferBase} for the threading rules.
+ *
+ * @author Peter Abeles
+ */
+public class SpscRingBuffer<T> extends SpscRingBufferBase {
+	// Storage for the ring buffer. Slots are set to null after being read so objects can be garbage collected
+	final @Nullable Object[] data;
+
+	/**
+	 * Creates a queue that can hold at least the requested number of elements
+	 *
+	 * @param minimumCapacity Requested capacity. Rounded up to the nearest power of two.
+	 */
+	public SpscRingBuffer( int minimumCapacity ) {
+		super(minimumCapacity);
+		data = new Object[capacity];
+	}
+
+	/**
+	 * Producer only. Adds an element to the tail of the queue if there is room for it.
+	 *
+	 * @param value The object which is to be added. Can't be null.
+	 * @return true if it was added or false if the queue is full
+	 */
+	public boolean offer( T value ) {
+		if (value == null)
+			throw new IllegalArgumentException("Null elements are not allowed");
+		if (availableToWrite(1) == 0)
+			return false;
+		data[tailIndex()] = value;
+		publishWrite(1);
+		return true;
+	}
+
+	/**
+	 * Producer only. Adds as many elements from the list as there is room for. Elements are added in order
+	 * and become visible to the consumer all at once.
+	 *
+	 * @param src List containing the objects
+	 * @param offset Index of the first object in src
+	 * @param length Number of objects it will try to add
+	 * @return Number of elements which were added. Will be less than length if the queue is full.
+	 */
+	public int offer( List<T> src, int offset, int length ) {
+		int count = availableToWrite(length);
+		int index = tailIndex();
+		for (int i = 0; i < count; i++) {
+			T value = src.get(offset + i);
+			if (value == null)
+				throw new IllegalArgumentException("Null elements are not allowed");
+			data[(index + i) & mask] = value;
+		}
+		if (count > 0)
+			publishWrite(count);
+		return count;
+	}
+
+	/**
+	 * Consumer only. Removes and returns the element at the head of the queue.
+	 *
+	 * @return The object at the head of the queue or null if it's empty
+	 */
+	@SuppressWarnings("unchecked")
+	public @Nullable T poll() {
+		if (availableToRead(1) == 0)
+			return null;
+		int index = headIndex();
+		var value = (T)data[index];
+		data[index] = null;
+		publishRead(1);
+		return value;
+	}
+
+	/**
+	 * Consumer only. Removes up to maxElements from the head of the queue and appends them to the end of dst.
+	 *
+	 * @param dst (Output) List the objects are appended to
+	 * @param maxElements Maximum number of objects it will remove
+	 * @return Number of elements which were removed
+	 */
+	@SuppressWarnings({"unchecked", "NullAway"})
+	public int poll( List<T> dst, int maxElements ) {
+		int count = availableToRead(maxElements);
+		int index = headIndex();
+		for (int i = 0; i < count; i++) {
+			int j = (index + i) & mask;
+			dst.add((T)data[j]);
+			data[j] = null;
+		}
+		if (count > 0)
+			publishRead(count);
+		return count;
+	}
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.struct;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * <p>
+ * Base class for bounded lock-free queues which pass elements from a single producer thread to a single
+ * consumer thread. Elements are stored in a ring buffer whose capacity is a power of two. The producer owns
+ * the tail sequence and the consumer owns the head sequence. Each side publishes its sequence with a release
+ * store and reads the other side's sequence with an acquire load, so no locks or CAS operations are needed.
+ * </p>
+ *
+ * <p>
+ * The two sequences are padded so that they are on different cache lines, which prevents false sharing
+ * between the producer and consumer. Each side also keeps a cached copy of the other side's sequence and only
+ * reads the shared value when the cached copy says the queue is full or empty.
+ * </p>
+ *
+ * <p>
+ * Only one thread may call the producer functions (offer) and only one thread may call the consumer
+ * functions (poll) at any one time. {@link #size()}, {@link #isEmpty()}, and {@link #isFull()} can be called
+ * from any thread, but the answer might be out of date by the time it's returned.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public abstract class SpscRingBufferBase extends SpscRingBufferPad2 {
+	private static final VarHandle HEAD;
+	private static final VarHandle TAIL;
+
+	static {
+		try {
+			MethodHandles.Lookup lookup = MethodHandles.lookup();
+			HEAD = lookup.findVarHandle(SpscRingBufferConsumer.class, "head", long.class);
+			TAIL = lookup.findVarHandle(SpscRingBufferProducer.class, "tail", long.class);
+		} catch (ReflectiveOperationException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	/** Maximum number of elements in the queue. Always a power of two. */
+	protected final int capacity;
+
+	// Used to convert a sequence into an array index
+	protected final int mask;
+
+	/**
+	 * Creates a queue that can hold at least the requested number of elements
+	 *
+	 * @param minimumCapacity Requested capacity. Rounded up to the nearest power of two.
+	 */
+	protected SpscRingBufferBase( int minimumCapacity ) {
+		if (minimumCapacity <= 0)
+			throw new IllegalArgumentException("Capacity must be positive");
+		if (minimumCapacity > 1 << 30)
+			throw new IllegalArgumentException("Capacity is too large");
+		capacity = minimumCapacity == 1 ? 1 : Integer.highestOneBit(minimumCapacity - 1) << 1;
+		mask = capacity - 1;
+	}
+
+	/**
+	 * Producer only. Returns how many elements can be written, up to the requested amount.
+	 */
+	protected final int availableToWrite( int requested ) {
+		long tail = this.tail;
+		long free = capacity - (tail - cachedHead);
+		if (free < requested) {
+			// The cached value is stale. Check to see if the consumer has freed up more space
+			cachedHead = (long)HEAD.getAcquire(this);
+			free = capacity - (tail - cachedHead);
+		}
+		return (int)Math.min(free, requested);
+	}
+
+	/**
+	 * Producer only. Makes the elements which have been written visible to the consumer.
+	 */
+	protected final void publishWrite( int count ) {
+		TAIL.setRelease(this, tail + count);
+	}
+
+	/**
+	 * Consumer only. Returns how many elements can be read, up to the requested amount.
+	 */
+	protected final int availableToRead( int requested ) {
+		long head = this.head;
+		long ready = cachedTail - head;
+		if (ready < requested) {
+			// The cached value is stale. Check to see if the producer has added more elements
+			cachedTail = (long)TAIL.getAcquire(this);
+			ready = cachedTail - head;
+		}
+		return (int)Math.min(ready, requested);
+	}
+
+	/**
+	 * Consumer only. Releases the slots which have been read so that the producer can write to them again.
+	 */
+	protected final void publishRead( int count ) {
+		HEAD.setRelease(this, head + count);
+	}
+
+	/** Array index of the next element which will be written */
+	protected final int tailIndex() {
+		return (int)tail & mask;
+	}
+
+	/** Array index of the next element which will be read */
+	protected final int headIndex() {
+		return (int)head & mask;
+	}
+
+	/**
+	 * Number of elements in the queue. Safe to call from any thread.
+	 */
+	public int size() {
+		// Read head first. Since tail can only increase, this ensures the difference is never negative
+		long head = (long)HEAD.getAcquire(this);
+		long tail = (long)TAIL.getAcquire(this);
+		return (int)Math.min(capacity, Math.max(0, tail - head));
+	}
+
+	/**
+	 * True if there are no elements in the queue. Safe to call from any thread.
+	 */
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	/**
+	 * True if the queue can't accept any more elements. Safe to call from any thread.
+	 */
+	public boolean isFull() {
+		return size() == capacity;
+	}
+
+	/**
+	 * Maximum number of elements in the queue.
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+}
+
+/**
+ * Padding which keeps the producer's fields away from the object header and anything before this object
+ */
+@SuppressWarnings("unused")
+abstract class SpscRingBufferPad0 {
+	long p00, p01, p02, p03, p04, p05, p06, p07;
+}
+
+/**
+ * Fields written by the producer
+ */
+abstract class SpscRingBufferProducer extends SpscRingBufferPad0 {
+	// Sequence of the next element which will be written
+	volatile long tail;
+	// Producer's copy of head. Only read from head when this says the queue is full
+	long cachedHead;
+}
+
+/**
+ * Padding which keeps the producer's and consumer's fields on different cache lines
+ */
+@SuppressWarnings("unused")
+abstract class SpscRingBufferPad1 extends SpscRingBufferProducer {
+	long p10, p11, p12, p13, p14, p15, p16, p17;
+}
+
+/**
+ * Fields written by the consumer
+ */
+abstract class SpscRingBufferConsumer extends SpscRingBufferPad1 {
+	// Sequence of the next element which will be read
+	volatile long head;
+	// Consumer's copy of tail. Only read from tail when this says the queue is empty
+	long cachedTail;
+}
+
+/**
+ * Padding which keeps the consumer's fields away from the fields in derived classes
+ */
+@SuppressWarnings("unused")
+abstract class SpscRingBufferPad2 extends SpscRingBufferConsumer {
+	long p20, p21, p22, p23, p24, p25, p26, p27;
+}
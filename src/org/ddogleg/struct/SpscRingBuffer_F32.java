@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.struct;
+
+/**
+ * Bounded lock-free queue of floats for passing data from one producer thread to one consumer thread.
+ * Elements are copied into and out of an internal array, so no memory is allocated after construction.
+ * See {@link SpscRingBufferBase} for the threading rules.
+ *
+ * @author Peter Abeles
+ */
+public class SpscRingBuffer_F32 extends SpscRingBufferBase {
+	// WARNING: Autogenerated from SpscRingBuffer_F64. Do not modify.
+
+	// Storage for the ring buffer
+	final float[] data;
+
+	/**
+	 * Creates a queue that can hold at least the requested number of elements
+	 *
+	 * @param minimumCapacity Requested capacity. Rounded up to the nearest power of two.
+	 */
+	public SpscRingBuffer_F32( int minimumCapacity ) {
+		super(minimumCapacity);
+		data = new float[capacity];
+	}
+
+	/**
+	 * Producer only. Adds an element to the tail of the queue if there is room for it.
+	 *
+	 * @param value The value which is to be added
+	 * @return true if it was added or false if the queue is full
+	 */
+	public boolean offer( float value ) {
+		if (availableToWrite(1) == 0)
+			return false;
+		data[tailIndex()] = value;
+		publishWrite(1);
+		return true;
+	}
+
+	/**
+	 * Producer only. Adds as many elements from the array as there is room for. Elements are added in order
+	 * and become visible to the consumer all at once.
+	 *
+	 * @param src Array containing the values
+	 * @param offset Index of the first value in src
+	 * @param length Number of values it will try to add
+	 * @return Number of elements which were added. Will be less than length if the queue is full.
+	 */
+	public int offer( float[] src, int offset, int length ) {
+		int count = availableToWrite(length);
+		if (count == 0)
+			return 0;
+		int index = tailIndex();
+		int first = Math.min(count, capacity - index);
+		System.arraycopy(src, offset, data, index, first);
+		System.arraycopy(src, offset + first, data, 0, count - first);
+		publishWrite(count);
+		return count;
+	}
+
+	/**
+	 * Consumer only. Removes and returns the element at the head of the queue. Check {@link #isEmpty()} first,
+	 * which is safe since only the consumer can remove elements.
+	 *
+	 * @return The value at the head of the queue
+	 * @throws IllegalStateException If the queue is empty
+	 */
+	public float poll() {
+		if (availableToRead(1) == 0)
+			throw new IllegalStateException("Queue is empty");
+		float value = data[headIndex()];
+		publishRead(1);
+		return value;
+	}
+
+	/**
+	 * Consumer only. Removes up to length elements from the head of the queue and writes them into the array.
+	 *
+	 * @param dst Array the values are written to
+	 * @param offset Index in dst that the first value is written to
+	 * @param length Maximum number of values it will remove
+	 * @return Number of elements which were removed
+	 */
+	public int poll( float[] dst, int offset, int length ) {
+		int count = availableToRead(length);
+		if (count == 0)
+			return 0;
+		int index = headIndex();
+		int first = Math.min(count, capacity - index);
+		System.arraycopy(data, index, dst, offset, first);
+		System.arraycopy(data, 0, dst, offset + first, count - first);
+		publishRead(count);
+		return count;
+	}
+
+	/**
+	 * Consumer only. Removes up to maxElements from the head of the queue and appends them to the end of dst.
+	 *
+	 * @param dst (Output) Array the values are appended to
+	 * @param maxElements Maximum number of values it will remove
+	 * @return Number of elements which were removed
+	 */
+	public int poll( DogArray_F32 dst, int maxElements ) {
+		int size = dst.size;
+		dst.reserve(size + Math.min(maxElements, capacity));
+		int count = poll(dst.data, size, Math.min(maxElements, dst.data.length - size));
+		dst.size = size + count;
+		return count;
+	}
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.clustering.dbscan;
+
+import org.ddogleg.clustering.ComputeClustersDensity;
+import org.ddogleg.clustering.ConfigDbscan;
+import org.ddogleg.clustering.FactoryClustering;
+import org.ddogleg.clustering.misc.ListAccessor;
+import org.ddogleg.struct.DogArray_I32;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+class TestDbscan {
+	Random rand = new Random(234);
+
+	protected Dbscan<double[]> createAlg( ConfigDbscan config ) {
+		return FactoryClustering.dbscan(config, 2, double[].class);
+	}
+
+	/**
+	 * Several well separated blobs and a few isolated points
+	 */
+	@Test void blobs() {
+		List<double[]> points = new ArrayList<>();
+		for (int blob = 0; blob < 3; blob++) {
+			for (int i = 0; i < 100; i++) {
+				points.add(new double[]{blob*50 + rand.nextGaussian(), rand.nextGaussian()});
+			}
+		}
+		// isolated points
+		points.add(new double[]{25, 0});
+		points.add(new double[]{75, 30});
+
+		var config = new ConfigDbscan();
+		config.maxDistance = 1.0;
+		config.minPoints = 4;
+		Dbscan<double[]> alg = createAlg(config);
+		alg.process(createAccessor(points));
+
+		DogArray_I32 assignments = alg.getAssignments();
+		assertEquals(points.size(), assignments.size);
+		assertEquals(ComputeClustersDensity.NOISE, assignments.get(300));
+		assertEquals(ComputeClustersDensity.NOISE, assignments.get(301));
+
+		// The largest cluster in each blob should contain almost all of its points
+		for (int blob = 0; blob < 3; blob++) {
+			var counts = new int[alg.getNumberOfClusters()];
+			int largest = 0;
+			for (int i = 0; i < 100; i++) {
+				int cluster = assignments.get(blob*100 + i);
+				if (cluster != ComputeClustersDensity.NOISE)
+					largest = Math.max(largest, ++counts[cluster]);
+			}
+			assertTrue(largest >= 90);
+		}
+
+		compareToBruteForce(alg, points, config);
+	}
+
+	/**
+	 * Points along a line should be connected into a single cluster by their neighbors
+	 */
+	@Test void chain() {
+		List<double[]> points = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			points.add(new double[]{i*0.9, 0});
+		}
+		// Second chain which is too far away to be connected
+		for (int i = 0; i < 10; i++) {
+			points.add(new double[]{100 + i*0.9, 0});
+		}
+
+		var config = new ConfigDbscan();
+		config.maxDistance = 1.0;
+		config.minPoints = 3;
+		Dbscan<double[]> alg = createAlg(config);
+		alg.process(createAccessor(points));
+
+		assertEquals(2, alg.getNumberOfClusters());
+		for (int i = 0; i < points.size(); i++) {
+			assertEquals(i < 20 ? 0 : 1, alg.getAssignments().get(i));
+		}
+		// The end points only have one neighbor and are border points
+		assertFalse(alg.getCore().get(0));
+		assertFalse(alg.getCore().get(19));
+		assertTrue(alg.getCore().get(1));
+		assertEquals(20, alg.getMemberCount().get(0));
+		assertEquals(10, alg.getMemberCount().get(1));
+	}
+
+	/**
+	 * Random points with clusters of all sizes and lots of noise
+	 */
+	@Test void random() {
+		List<double[]> points = new ArrayList<>();
+		for (int i = 0; i < 400; i++) {
+			points.add(new double[]{rand.nextDouble()*20, rand.nextDouble()*20});
+		}
+
+		var config = new ConfigDbscan();
+		config.maxDistance = 1.0;
+		config.minPoints = 4;
+		Dbscan<double[]> alg = createAlg(config);
+
+		// process it twice to make sure the results don't depend on the previous call
+		for (int trial = 0; trial < 2; trial++) {
+			alg.process(createAccessor(points));
+			compareToBruteForce(alg, points, config);
+		}
+	}
+
+	@Test void noPoints() {
+		Dbscan<double[]> alg = createAlg(new ConfigDbscan());
+		alg.process(createAccessor(new ArrayList<>()));
+		assertEquals(0, alg.getNumberOfClusters());
+		assertEquals(0, alg.getAssignments().size);
+	}
+
+	/**
+	 * Checks core points and that two core points are in the same cluster only if they are connected. Border
+	 * points must be assigned to the cluster of a neighboring core point.
+	 */
+	void compareToBruteForce( Dbscan<double[]> alg, List<double[]> points, ConfigDbscan config ) {
+		final int N = points.size();
+		DogArray_I32 assignments = alg.getAssignments();
+
+		// Find neighbors and core points the slow way
+		List<List<Integer>> neighbors = new ArrayList<>();
+		var core = new boolean[N];
+		for (int i = 0; i < N; i++) {
+			List<Integer> list = new ArrayList<>();
+			for (int j = 0; j < N; j++) {
+				if (distanceSq(points.get(i), points.get(j)) <= config.maxDistance)
+					list.add(j);
+			}
+			neighbors.add(list);
+			core[i] = list.size() >= config.minPoints;
+			assertEquals(core[i], alg.getCore().get(i));
+		}
+
+		// Label connected core points using a flood fill
+		var labels = new int[N];
+		Arrays.fill(labels, -1);
+		int total = 0;
+		for (int i = 0; i < N; i++) {
+			if (!core[i] || labels[i] != -1)
+				continue;
+			List<Integer> open = new ArrayList<>();
+			open.add(i);
+			labels[i] = total;
+			while (!open.isEmpty()) {
+				int p = open.remove(open.size() - 1);
+				for (int n : neighbors.get(p)) {
+					if (core[n] && labels[n] == -1) {
+						labels[n] = total;
+						open.add(n);
+					}
+				}
+			}
+			total++;
+		}
+		assertEquals(total, alg.getNumberOfClusters());
+
+		// Core points in the same connected set must be in the same cluster. Order of clusters doesn't matter.
+		var labelToCluster = new int[total];
+		Arrays.fill(labelToCluster, -1);
+		for (int i = 0; i < N; i++) {
+			if (!core[i])
+				continue;
+			if (labelToCluster[labels[i]] == -1)
+				labelToCluster[labels[i]] = assignments.get(i);
+			assertEquals(labelToCluster[labels[i]], assignments.get(i));
+		}
+		assertEquals(total, Arrays.stream(labelToCluster).distinct().count());
+
+		// Border points must be assigned to the cluster of a neighboring core point
+		for (int i = 0; i < N; i++) {
+			if (core[i])
+				continue;
+			int found = assignments.get(i);
+			boolean matched = found == ComputeClustersDensity.NOISE;
+			for (int n : neighbors.get(i)) {
+				if (!core[n])
+					continue;
+				if (labelToCluster[labels[n]] == found)
+					matched = true;
+				else if (found == ComputeClustersDensity.NOISE)
+					fail("Should have been assigned to a cluster");
+			}
+			assertTrue(matched);
+		}
+	}
+
+	static double distanceSq( double[] a, double[] b ) {
+		double total = 0;
+		for (int i = 0; i < a.length; i++) {
+			double d = a[i] - b[i];
+			total += d*d;
+		}
+		return total;
+	}
+
+	static ListAccessor<double[]> createAccessor( List<double[]> points ) {
+		return new ListAccessor<>(points, ( src, dst ) -> System.arraycopy(src, 0, dst, 0, 2), double[].class);
+	}
+}
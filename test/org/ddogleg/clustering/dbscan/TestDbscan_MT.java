@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.clustering.dbscan;
+
+import org.ddogleg.clustering.ConfigDbscan;
+import org.ddogleg.clustering.FactoryClustering;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+class TestDbscan_MT extends TestDbscan {
+	@Override protected Dbscan<double[]> createAlg( ConfigDbscan config ) {
+		return FactoryClustering.dbscan_MT(config, 2, 0, double[].class);
+	}
+
+	/**
+	 * Compare single to threaded results
+	 */
+	@Test void compare() {
+		List<double[]> points = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			points.add(new double[]{rand.nextDouble()*30, rand.nextDouble()*30});
+		}
+
+		var config = new ConfigDbscan();
+		config.maxDistance = 1.0;
+		config.minPoints = 4;
+		Dbscan<double[]> single = super.createAlg(config);
+		Dbscan<double[]> multi = createAlg(config);
+		assertTrue(multi instanceof Dbscan_MT);
+
+		single.process(createAccessor(points));
+		multi.process(createAccessor(points));
+
+		assertEquals(single.getNumberOfClusters(), multi.getNumberOfClusters());
+		for (int i = 0; i < points.size(); i++) {
+			assertEquals(single.getAssignments().get(i), multi.getAssignments().get(i));
+			assertEquals(single.getCore().get(i), multi.getCore().get(i));
+		}
+	}
+}
@@ -18,6 +18,8 @@
 
 package org.ddogleg.clustering.gmm;
 
+import org.ddogleg.nn.FactoryNearestNeighbor;
+import org.ddogleg.nn.alg.distance.KdTreeEuclideanSq_F64;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
@@ -56,6 +58,46 @@ public class TestAssignGmm_F64 {
 		assertTrue(fit[0] < fit[1]);
 	}
 
+	/**
+	 * Points which are so far away that the likelihood underflows to zero
+	 */
+	@Test void assign_farAway() {
+		List<GaussianGmm_F64> clusters = new ArrayList<>();
+
+		clusters.add(createGaussian(2, 1));
+		clusters.add(createGaussian(4, 1));
+
+		AssignGmm_F64 alg = new AssignGmm_F64(clusters);
+
+		assertEquals(1, alg.assign(new double[]{1000}));
+		assertEquals(0, alg.assign(new double[]{-1000}));
+
+		double[] fit = new double[2];
+		alg.assign(new double[]{1000}, fit);
+		assertEquals(1.0, fit[0] + fit[1], 1e-8);
+		assertTrue(fit[0] < fit[1]);
+	}
+
+	/**
+	 * With the same spherical covariance, the closest mean is the most likely Gaussian
+	 */
+	@Test void assign_nearestNeighbor() {
+		List<GaussianGmm_F64> clusters = new ArrayList<>();
+
+		for (int i = 0; i < 10; i++) {
+			clusters.add(createGaussian(i*3.0, 2));
+		}
+
+		AssignGmm_F64 expected = new AssignGmm_F64(clusters);
+		AssignGmm_F64 alg = new AssignGmm_F64(clusters);
+		alg.setNearestNeighbor(FactoryNearestNeighbor.kdtree(new KdTreeEuclideanSq_F64(1)));
+
+		for (int i = 0; i < 100; i++) {
+			double[] point = new double[]{i*0.31 - 1.0};
+			assertEquals(expected.assign(point), alg.assign(point));
+		}
+	}
+
 	public static GaussianGmm_F64 createGaussian( double mean , double var ) {
 		GaussianGmm_F64 ret = new GaussianGmm_F64(1);
 
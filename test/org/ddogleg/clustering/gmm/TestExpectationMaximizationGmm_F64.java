@@ -22,20 +22,25 @@ import org.ddogleg.clustering.ComputeClusters;
 import org.ddogleg.clustering.ConfigKMeans;
 import org.ddogleg.clustering.FactoryClustering;
 import org.ddogleg.clustering.GenericClusterChecks_F64;
-import org.ddogleg.clustering.gmm.ExpectationMaximizationGmm_F64.PointInfo;
+import org.ddogleg.clustering.GmmCovarianceTypes;
 import org.ddogleg.clustering.kmeans.StandardKMeans;
 import org.ddogleg.clustering.kmeans.TestStandardKMeans;
+import org.ddogleg.clustering.misc.FlatArrayAccessorF64;
+import org.ddogleg.clustering.misc.ListAccessor;
 import org.ejml.data.DMatrixRMaj;
 import org.ejml.dense.row.CommonOps_DDRM;
 import org.ejml.dense.row.MatrixFeatures_DDRM;
 import org.ejml.equation.Equation;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 
 import static org.ddogleg.clustering.gmm.TestGaussianLikelihoodManager.computeLikelihood;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
@@ -56,25 +61,23 @@ public class TestExpectationMaximizationGmm_F64 extends GenericClusterChecks_F64
 		alg.initialize(34535);
 
 		// randomly create a few points
+		List<double[]> points = new ArrayList<>();
 		for (int i = 0; i < 20; i++) {
-			PointInfo p = alg.info.grow();
-			p.point = new double[DOF];
+			double[] p = new double[DOF];
 			for (int j = 0; j < DOF; j++) {
-				p.point[j] = rand.nextGaussian()*5;
+				p[j] = rand.nextGaussian()*5;
 			}
+			points.add(p);
 		}
 
 		// try different number of gaussians in the mixture to be more exhaustive in the testing
 		for (int i = 0; i < 3; i++) {
 			// adjust for the number of clusters
-			for (int j = 0; j < alg.info.size; j++) {
-				PointInfo p = alg.info.get(j);
-				p.weights.resize(i+1);
-			}
+			alg.declarePoints(createAccessor(points), i+1);
 
 			// set the mean of the gaussians to be the first N points
-			GaussianGmm_F64 a = alg.mixture.grow();
-			a.setMean(alg.info.get(i).point);
+			GaussianGmm_F64 a = alg.mixture.get(i);
+			a.setMean(points.get(i));
 			a.weight = 2;
 			CommonOps_DDRM.setIdentity(a.covariance);
 
@@ -83,13 +86,11 @@ public class TestExpectationMaximizationGmm_F64 extends GenericClusterChecks_F64
 			alg.expectation();
 
 			for (int j = 0; j <= i; j++) {
-				PointInfo p = alg.info.get(j);
-
-				double expectedMax = p.weights.get(j);
+				double expectedMax = alg.responsibilities.get(j*(i+1) + j);
 
 				double total = 0;
 				for (int k = 0; k <= i; k++) {
-					double w = p.weights.get(k);
+					double w = alg.responsibilities.get(j*(i+1) + k);
 					total += w;
 					if( k != j ) {
 						assertTrue(w<expectedMax);
@@ -101,6 +102,132 @@ public class TestExpectationMaximizationGmm_F64 extends GenericClusterChecks_F64
 		}
 	}
 
+	/**
+	 * If N*K is too large to store in an array it should fail instead of overflowing
+	 */
+	@Test void declarePoints_overflow() {
+		int DOF = 2;
+		var alg = new ExpectationMaximizationGmm_F64(100, 1e-8, DOF, createSeeds(DOF));
+		alg.initialize(34535);
+
+		// Claims to have a lot of points but only has storage for one
+		var accessor = new FlatArrayAccessorF64(new double[DOF], DOF, 1) {
+			@Override public int size() {return 3_000_000;}
+		};
+		assertThrows(IllegalArgumentException.class, () -> alg.declarePoints(accessor, 1000));
+	}
+
+	/**
+	 * Points which are far away from all the Gaussians in a high dimensional space. The likelihood would
+	 * underflow to zero, but the weights should still sum up to one.
+	 */
+	@Test void expectation_underflow() {
+		int DOF = 64;
+
+		var alg = new ExpectationMaximizationGmm_F64(100,1e-8,DOF,createSeeds(DOF));
+		alg.initialize(34535);
+
+		double[] point = new double[DOF];
+		for (int j = 0; j < DOF; j++) {
+			point[j] = 10;
+		}
+		alg.declarePoints(new FlatArrayAccessorF64(point, DOF, 1), 2);
+
+		for (int i = 0; i < 2; i++) {
+			GaussianGmm_F64 a = alg.mixture.get(i);
+			CommonOps_DDRM.setIdentity(a.covariance);
+			a.mean.data[0] = i;
+		}
+		alg.likelihoodManager.precomputeAll();
+
+		assertEquals(0.0, alg.likelihoodManager.getLikelihood(0).likelihood(point));
+
+		double chisq = alg.expectation();
+
+		// the second Gaussian is closer
+		assertEquals(63*100 + 81, chisq, 1e-8);
+		assertEquals(1.0, alg.responsibilities.get(0) + alg.responsibilities.get(1), 1e-8);
+		assertTrue(alg.responsibilities.get(0) < alg.responsibilities.get(1));
+	}
+
+	/**
+	 * The covariance should be constrained by maximization
+	 */
+	@Test void maximization_constrained() {
+		int DOF = 2;
+
+		for (var type : new GmmCovarianceTypes[]{GmmCovarianceTypes.DIAGONAL, GmmCovarianceTypes.SPHERICAL}) {
+			var full = new ExpectationMaximizationGmm_F64(100,1e-8,DOF,createSeeds(DOF));
+			var constrained = new ExpectationMaximizationGmm_F64(100,1e-8,DOF,createSeeds(DOF));
+			constrained.setCovarianceType(type);
+
+			// correlated points
+			List<double[]> points = new ArrayList<>();
+			for (int i = 0; i < 100; i++) {
+				double x = rand.nextGaussian()*2;
+				points.add(new double[]{x, rand.nextGaussian() + 0.5*x});
+			}
+
+			for (var alg : List.of(full, constrained)) {
+				alg.initialize(34535);
+				alg.declarePoints(createAccessor(points), 1);
+				alg.responsibilities.fill(1.0);
+			}
+
+			full.maximization();
+			constrained.maximization();
+
+			DMatrixRMaj expected = full.mixture.get(0).covariance;
+			DMatrixRMaj found = constrained.mixture.get(0).covariance;
+			assertEquals(0.0, found.get(0, 1));
+			assertEquals(0.0, found.get(1, 0));
+			if (type == GmmCovarianceTypes.DIAGONAL) {
+				assertEquals(expected.get(0, 0), found.get(0, 0), 1e-8);
+				assertEquals(expected.get(1, 1), found.get(1, 1), 1e-8);
+			} else {
+				double variance = (expected.get(0, 0) + expected.get(1, 1))/2.0;
+				assertEquals(variance, found.get(0, 0), 1e-8);
+				assertEquals(variance, found.get(1, 1), 1e-8);
+			}
+			assertTrue(MatrixFeatures_DDRM.isIdentical(full.mixture.get(0).mean, constrained.mixture.get(0).mean, 1e-8));
+		}
+	}
+
+	/**
+	 * Points which are provided in a flat array should be read in place and produce identical results
+	 */
+	@Test void process_flatAccessor() {
+		int DOF = 3;
+		List<double[]> points = new ArrayList<>();
+		double[] data = new double[200*DOF];
+		for (int i = 0; i < 200; i++) {
+			double[] p = new double[DOF];
+			for (int j = 0; j < DOF; j++) {
+				p[j] = rand.nextGaussian() + (i%2)*10;
+			}
+			points.add(p);
+			System.arraycopy(p, 0, data, i*DOF, DOF);
+		}
+		var flat = new FlatArrayAccessorF64(data, DOF, 200);
+
+		var expected = new ExpectationMaximizationGmm_F64(100,1e-8,DOF,createSeeds(DOF));
+		var found = new ExpectationMaximizationGmm_F64(100,1e-8,DOF,createSeeds(DOF));
+		expected.initialize(0xBEEF);
+		found.initialize(0xBEEF);
+		expected.process(createAccessor(points), 2);
+		found.process(flat, 2);
+
+		// it shouldn't have copied the points
+		assertSame(flat, found.points);
+
+		assertEquals(expected.getDistanceMeasure(), found.getDistanceMeasure(), 1e-8);
+		for (int i = 0; i < 2; i++) {
+			assertTrue(MatrixFeatures_DDRM.isIdentical(expected.mixture.get(i).mean, found.mixture.get(i).mean, 1e-8));
+			assertTrue(MatrixFeatures_DDRM.isIdentical(
+					expected.mixture.get(i).covariance, found.mixture.get(i).covariance, 1e-8));
+		}
+	}
+
 	@Test void maximization() {
 		int DOF = 2;
 
@@ -119,8 +246,21 @@ public class TestExpectationMaximizationGmm_F64 extends GenericClusterChecks_F64
 
 
 		// uniform generate a bunch of points
-		createPointsAround(1,0.5,alg);
-		createPointsAround(2,3  ,alg);
+		List<double[]> points = new ArrayList<>();
+		createPointsAround(1,0.5,points);
+		createPointsAround(2,3  ,points);
+		alg.declarePoints(createAccessor(points), 2);
+
+		// assign their weight based on their likelihood
+		for (int i = 0; i < points.size(); i++) {
+			double total = 0;
+			for (int k = 0; k < alg.mixture.size; k++) {
+				total += alg.responsibilities.data[i*2 + k] = computeLikelihood(alg.mixture.get(k), points.get(i));
+			}
+			for (int k = 0; k < alg.mixture.size; k++) {
+				alg.responsibilities.data[i*2 + k] /= total;
+			}
+		}
 
 
 		// discard the mixture parameters
@@ -133,8 +273,8 @@ public class TestExpectationMaximizationGmm_F64 extends GenericClusterChecks_F64
 		// compute the density and compare against ground truth
 		alg.maximization();
 
-		GaussianGmm_F64 expectedA = computeGaussian(0,alg.info.toList());
-		GaussianGmm_F64 expectedB = computeGaussian(1,alg.info.toList());
+		GaussianGmm_F64 expectedA = computeGaussian(0,points,alg);
+		GaussianGmm_F64 expectedB = computeGaussian(1,points,alg);
 
 		assertTrue(MatrixFeatures_DDRM.isIdentical(expectedA.mean, a.mean, 1e-8));
 		assertTrue(MatrixFeatures_DDRM.isIdentical(expectedB.mean, b.mean, 1e-8));
@@ -143,41 +283,31 @@ public class TestExpectationMaximizationGmm_F64 extends GenericClusterChecks_F64
 
 	}
 
-	private void createPointsAround( double cx , double cy , ExpectationMaximizationGmm_F64 alg ) {
+	private void createPointsAround( double cx , double cy , List<double[]> points ) {
 		for (int i = 0; i < 50; i++) {
 			for (int j = 0; j < 50; j++) {
 				double x = cx + i*0.1 - 2.5;
 				double y = cy + i*0.1 - 2.5;
 
-				PointInfo p = alg.info.grow();
-				p.point = new double[]{x,y};
-				p.weights.resize(2);
-
-				// assign their weight based on their likelihood
-				double total = 0;
-				for (int k = 0; k < alg.mixture.size; k++) {
-					total += p.weights.data[k] = computeLikelihood(alg.mixture.get(k), p.point);
-				}
-				for (int k = 0; k < alg.mixture.size; k++) {
-					p.weights.data[k] /= total;
-				}
+				points.add(new double[]{x,y});
 			}
 		}
 	}
 
-	private GaussianGmm_F64 computeGaussian( int which , List<PointInfo> points ) {
-		int N = points.get(0).point.length;
+	private GaussianGmm_F64 computeGaussian( int which , List<double[]> points, ExpectationMaximizationGmm_F64 alg ) {
+		int N = points.get(0).length;
+		int K = alg.mixture.size;
 		GaussianGmm_F64 out = new GaussianGmm_F64(N);
 
 		// compute the mean
 		double total = 0;
 		for (int i = 0; i < points.size(); i++) {
-			PointInfo p = points.get(i);
-			double w = p.weights.data[which];
+			double[] p = points.get(i);
+			double w = alg.responsibilities.get(i*K + which);
 			total += w;
 
 			for (int j = 0; j < N; j++) {
-				out.mean.data[j] += w*p.point[j];
+				out.mean.data[j] += w*p[j];
 			}
 		}
 		CommonOps_DDRM.divide(out.mean,total);
@@ -186,10 +316,9 @@ public class TestExpectationMaximizationGmm_F64 extends GenericClusterChecks_F64
 		Equation eq = new Equation();
 		eq.alias(out.mean, "mu", out.covariance, "Q");
 		for (int i = 0; i < points.size(); i++) {
-			PointInfo p = points.get(i);
-			double w = p.weights.data[which];
+			double w = alg.responsibilities.get(i*K + which);
 
-			DMatrixRMaj x = DMatrixRMaj.wrap(N,1,p.point);
+			DMatrixRMaj x = DMatrixRMaj.wrap(N,1,points.get(i));
 			eq.alias(x,"x",w,"w");
 			eq.process("Q = Q + w*(x-mu)*(x-mu)'");
 		}
@@ -220,6 +349,11 @@ public class TestExpectationMaximizationGmm_F64 extends GenericClusterChecks_F64
 		return best;
 	}
 
+	private static ListAccessor<double[]> createAccessor( List<double[]> points ) {
+		int DOF = points.get(0).length;
+		return new ListAccessor<>(points, ( src, dst ) -> System.arraycopy(src, 0, dst, 0, DOF), double[].class);
+	}
+
 	private SeedFromKMeans_F64 createSeeds(int DOF) {
 		ConfigKMeans config = new ConfigKMeans();
 		config.convergeTol = 1e-8;
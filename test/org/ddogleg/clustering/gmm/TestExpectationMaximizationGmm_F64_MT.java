@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.clustering.gmm;
+
+import org.ddogleg.clustering.ConfigKMeans;
+import org.ddogleg.clustering.FactoryClustering;
+import org.ddogleg.clustering.GmmCovarianceTypes;
+import org.ddogleg.clustering.kmeans.StandardKMeans;
+import org.ddogleg.clustering.misc.ListAccessor;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+class TestExpectationMaximizationGmm_F64_MT {
+	Random rand = new Random(234);
+
+	/**
+	 * Create a simple random scenario and compare single to threaded results
+	 */
+	@Test void compare() {
+		final int DOF = 2;
+		List<double[]> points = new ArrayList<>();
+		createPointsAround(0, 0, 300, points);
+		createPointsAround(5, 2, 200, points);
+		createPointsAround(-3, 6, 250, points);
+		ListAccessor<double[]> accessor = new ListAccessor<>(points,
+				( src, dst ) -> System.arraycopy(src, 0, dst, 0, DOF), double[].class);
+
+		// Try block counts which do and do not evenly divide the number of points, and more blocks than points
+		for (var type : GmmCovarianceTypes.values())
+		for (int maxBlocks : new int[]{1, 15, 37, 10_000}) {
+			var single = new ExpectationMaximizationGmm_F64(100, 1e-8, DOF, createSeeds(DOF));
+			var multi = new ExpectationMaximizationGmm_F64_MT(100, 1e-8, DOF, createSeeds(DOF));
+			single.setCovarianceType(type);
+			multi.setCovarianceType(type);
+			multi.setMaxBlocks(maxBlocks);
+
+			single.initialize(0xBEEF);
+			multi.initialize(0xBEEF);
+
+			single.process(accessor, 3);
+			multi.process(accessor, 3);
+
+			assertEquals(single.getDistanceMeasure(), multi.getDistanceMeasure(), 1e-6);
+
+			assertEquals(3, multi.mixture.size);
+			for (int i = 0; i < single.mixture.size; i++) {
+				GaussianGmm_F64 e = single.mixture.get(i);
+				GaussianGmm_F64 f = multi.mixture.get(i);
+
+				assertTrue(MatrixFeatures_DDRM.isIdentical(e.mean, f.mean, 1e-6));
+				assertTrue(MatrixFeatures_DDRM.isIdentical(e.covariance, f.covariance, 1e-6));
+				assertEquals(e.weight, f.weight, 1e-6);
+			}
+		}
+	}
+
+	/**
+	 * If there are too few points it should use the single thread code
+	 */
+	@Test void minimumForConcurrent() {
+		final int DOF = 2;
+		var alg = new ExpectationMaximizationGmm_F64_MT(100, 1e-8, DOF, createSeeds(DOF));
+		alg.setMinimumForConcurrent(1000);
+		alg.setMaxBlocks(10);
+		alg.initialize(0xBEEF);
+
+		List<double[]> points = new ArrayList<>();
+		createPointsAround(0, 0, 100, points);
+		createPointsAround(5, 2, 100, points);
+		alg.process(new ListAccessor<>(points,
+				( src, dst ) -> System.arraycopy(src, 0, dst, 0, DOF), double[].class), 2);
+
+		// blocks are only used by the concurrent code
+		assertEquals(0, alg.blocks.size);
+		assertEquals(2, alg.mixture.size);
+	}
+
+	/**
+	 * The number of blocks should be capped and not grow with the number of points
+	 */
+	@Test void blocksAreBounded() {
+		final int DOF = 2;
+		var alg = new ExpectationMaximizationGmm_F64_MT(5, 1e-8, DOF, createSeeds(DOF));
+		alg.setMaxBlocks(8);
+		alg.initialize(0xBEEF);
+
+		List<double[]> points = new ArrayList<>();
+		createPointsAround(0, 0, 2000, points);
+		createPointsAround(5, 2, 1001, points);
+		alg.process(new ListAccessor<>(points,
+				( src, dst ) -> System.arraycopy(src, 0, dst, 0, DOF), double[].class), 2);
+
+		assertEquals(8, alg.blocks.size);
+		// blocks should be contiguous and cover every point
+		assertEquals(0, alg.blocks.get(0).idx0);
+		for (int i = 1; i < alg.blocks.size; i++) {
+			assertEquals(alg.blocks.get(i - 1).idx1, alg.blocks.get(i).idx0);
+		}
+		assertEquals(points.size(), alg.blocks.getTail().idx1);
+	}
+
+	private void createPointsAround( double cx, double cy, int total, List<double[]> points ) {
+		for (int i = 0; i < total; i++) {
+			points.add(new double[]{cx + rand.nextGaussian(), cy + rand.nextGaussian()*0.5});
+		}
+	}
+
+	private SeedFromKMeans_F64 createSeeds( int DOF ) {
+		ConfigKMeans config = new ConfigKMeans();
+		config.convergeTol = 1e-8;
+		config.maxIterations = 1000;
+		config.reseedAfterIterations = 1000;
+
+		StandardKMeans<double[]> kmeans = FactoryClustering.kMeans(config, DOF, double[].class);
+		return new SeedFromKMeans_F64(kmeans);
+	}
+}
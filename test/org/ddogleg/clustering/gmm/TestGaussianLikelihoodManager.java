@@ -18,12 +18,16 @@
 
 package org.ddogleg.clustering.gmm;
 
+import org.ddogleg.clustering.GmmCovarianceTypes;
 import org.ddogleg.struct.FastArray;
 import org.ejml.data.DMatrixRMaj;
 import org.ejml.equation.Equation;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * @author Peter Abeles
@@ -80,6 +84,108 @@ public class TestGaussianLikelihoodManager {
 		assertEquals(found, expected, 1e-8);
 	}
 
+	/**
+	 * Compare the log-likelihood against the log of the likelihood
+	 */
+	@Test void logLikelihood() {
+		GaussianGmm_F64 a = new GaussianGmm_F64(2);
+		a.mean.data = new double[]{1,2};
+		a.covariance.data = new double[]{3,0.5,0.5,2};
+
+		GaussianLikelihoodManager manager = new GaussianLikelihoodManager(2, List.of(a));
+		manager.precomputeAll();
+		GaussianLikelihoodManager.Likelihood l = manager.getLikelihood(0);
+
+		double[] p = new double[]{2,-1};
+		double expected = Math.log(l.likelihood(p));
+		double expectedChiSq = l.getChisq();
+		assertEquals(expected, l.logLikelihood(p), 1e-8);
+		assertEquals(expectedChiSq, l.getChisq(), 1e-8);
+	}
+
+	/**
+	 * Far away points in a high dimensional space will have a likelihood of zero, but not log-likelihood
+	 */
+	@Test void logLikelihood_underflow() {
+		int DOF = 128;
+		GaussianGmm_F64 a = new GaussianGmm_F64(DOF);
+		for (int i = 0; i < DOF; i++) {
+			a.covariance.set(i, i, 0.5);
+		}
+
+		GaussianLikelihoodManager manager = new GaussianLikelihoodManager(DOF, List.of(a));
+		manager.precomputeAll();
+		GaussianLikelihoodManager.Likelihood l = manager.getLikelihood(0);
+
+		double[] p = new double[DOF];
+		for (int i = 0; i < DOF; i++) {
+			p[i] = 5.0;
+		}
+		assertEquals(0.0, l.likelihood(p));
+
+		// chisq = 128*25/0.5, log(det) = 128*log(0.5)
+		double expected = -0.5*DOF*Math.log(0.5) - 0.5*DOF*25.0/0.5;
+		assertEquals(expected, l.logLikelihood(p), 1e-8);
+	}
+
+	/**
+	 * With a diagonal covariance it should produce the same results as a full covariance. Off diagonal
+	 * elements should be ignored.
+	 */
+	@Test void diagonal() {
+		int DOF = 3;
+		GaussianGmm_F64 a = new GaussianGmm_F64(DOF);
+		a.mean.data = new double[]{5,3,5};
+		a.covariance.set(0,0,3);
+		a.covariance.set(1,1,6);
+		a.covariance.set(2,2,12);
+
+		GaussianGmm_F64 b = a.copy();
+		b.covariance.set(0,1,0.5);
+		b.covariance.set(1,0,0.5);
+
+		var full = new GaussianLikelihoodManager(DOF, List.of(a));
+		var diagonal = new GaussianLikelihoodManager(DOF, List.of(b), GmmCovarianceTypes.DIAGONAL);
+		full.precomputeAll();
+		diagonal.precomputeAll();
+
+		double[] p = new double[]{4,3,-1};
+		assertEquals(full.getLikelihood(0).logLikelihood(p), diagonal.getLikelihood(0).logLikelihood(p), 1e-8);
+		assertEquals(full.getLikelihood(0).getChisq(), diagonal.getLikelihood(0).getChisq(), 1e-8);
+		assertEquals(full.getLikelihood(0).likelihood(p), diagonal.getLikelihood(0).likelihood(p), 1e-8);
+
+		// negative variance isn't valid
+		b.covariance.set(2,2,-1);
+		diagonal.precomputeAll();
+		assertEquals(Double.NEGATIVE_INFINITY, diagonal.getLikelihood(0).logLikelihood(p));
+	}
+
+	/**
+	 * Spherical should use the average variance along all the axises
+	 */
+	@Test void spherical() {
+		int DOF = 3;
+		GaussianGmm_F64 a = new GaussianGmm_F64(DOF);
+		a.mean.data = new double[]{5,3,5};
+		a.covariance.set(0,0,3);
+		a.covariance.set(1,1,6);
+		a.covariance.set(2,2,12);
+
+		GaussianGmm_F64 b = a.copy();
+		for (int i = 0; i < DOF; i++) {
+			b.covariance.set(i, i, 7.0);
+		}
+
+		var spherical = new GaussianLikelihoodManager(DOF, List.of(a), GmmCovarianceTypes.SPHERICAL);
+		var full = new GaussianLikelihoodManager(DOF, List.of(b));
+		spherical.precomputeAll();
+		full.precomputeAll();
+
+		double[] p = new double[]{4,3,-1};
+		assertEquals(full.getLikelihood(0).logLikelihood(p), spherical.getLikelihood(0).logLikelihood(p), 1e-8);
+		assertTrue(spherical.getLikelihood(0).valid);
+	}
+
 	public static double computeLikelihood( GaussianGmm_F64 g , double[] p ) {
 		Equation eq = new Equation();
 
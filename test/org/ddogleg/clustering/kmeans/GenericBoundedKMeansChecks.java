@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.clustering.kmeans;
+
+import org.ddogleg.clustering.ComputeClusters;
+import org.ddogleg.clustering.GenericClusterChecks_F64;
+import org.ddogleg.clustering.PointDistance;
+import org.ddogleg.clustering.misc.EuclideanSqArrayF64;
+import org.ddogleg.clustering.misc.ListAccessor;
+import org.ddogleg.clustering.misc.MeanArrayF64;
+import org.ddogleg.struct.DogArray;
+import org.ejml.UtilEjml;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Common checks for variants of k-means which use bounds to skip distance calculations
+ *
+ * @author Peter Abeles
+ */
+public abstract class GenericBoundedKMeansChecks extends GenericClusterChecks_F64 {
+	/**
+	 * Creates the algorithm being tested
+	 */
+	protected abstract StandardKMeans<double[]> createAlg( PointDistance<double[]> distancer, int DOF );
+
+	/**
+	 * It should produce the same results as StandardKMeans since only distance calculations which can't
+	 * change the results are skipped
+	 */
+	@Test void compareToStandard() {
+		final int DOF = 6;
+		List<double[]> points = TestStandardKMeans.createPoints(DOF, 400, true);
+		ListAccessor<double[]> accessor = new ListAccessor<>(points,
+				( src, dst ) -> System.arraycopy(src, 0, dst, 0, DOF), double[].class);
+
+		var counterStandard = new CountDistance(DOF);
+		var counterBounded = new CountDistance(DOF);
+		StandardKMeans<double[]> standard = configure(new StandardKMeans<>(new MeanArrayF64(DOF),
+				new InitializePlusPlus<>(), counterStandard, () -> new double[DOF]));
+		StandardKMeans<double[]> bounded = createAlg(counterBounded, DOF);
+
+		for (int trial = 0; trial < 2; trial++) {
+			standard.process(accessor, 12);
+			bounded.process(accessor, 12);
+
+			assertEquals(standard.getBestClusterScore(), bounded.getBestClusterScore(), UtilEjml.TEST_F64);
+			assertEquals(standard.getDistanceMeasure(), bounded.getDistanceMeasure(), UtilEjml.TEST_F64);
+
+			DogArray<double[]> expected = standard.getBestClusters();
+			DogArray<double[]> found = bounded.getBestClusters();
+			assertEquals(expected.size, found.size);
+			for (int i = 0; i < expected.size; i++) {
+				assertArrayEquals(expected.get(i), found.get(i), UtilEjml.TEST_F64);
+			}
+
+			assertTrue(standard.getAssignments().isEquals(bounded.getAssignments()));
+			assertTrue(standard.getMemberCount().isEquals(bounded.getMemberCount()));
+		}
+
+		// The whole point is to compute fewer distances
+		assertTrue(counterBounded.count.get() < counterStandard.count.get()*3/4);
+	}
+
+	/**
+	 * Calling process again with a different set of points should not be affected by the previous call
+	 */
+	@Test void changePoints() {
+		final int DOF = 3;
+		List<double[]> pointsA = TestStandardKMeans.createPoints(DOF, 300, true);
+		List<double[]> pointsB = TestStandardKMeans.createPoints(DOF, 250, true);
+
+		StandardKMeans<double[]> standard = configure(new StandardKMeans<>(new MeanArrayF64(DOF),
+				new InitializePlusPlus<>(), new EuclideanSqArrayF64(DOF), () -> new double[DOF]));
+		StandardKMeans<double[]> bounded = createAlg(new EuclideanSqArrayF64(DOF), DOF);
+
+		bounded.process(new ListAccessor<>(pointsA, ( src, dst ) -> System.arraycopy(src, 0, dst, 0, DOF), double[].class), 5);
+
+		ListAccessor<double[]> accessorB = new ListAccessor<>(pointsB,
+				( src, dst ) -> System.arraycopy(src, 0, dst, 0, DOF), double[].class);
+		standard.initialize(123);
+		bounded.initialize(123);
+		standard.process(accessorB, 5);
+		bounded.process(accessorB, 5);
+
+		assertEquals(standard.getBestClusterScore(), bounded.getBestClusterScore(), UtilEjml.TEST_F64);
+		assertTrue(standard.getAssignments().isEquals(bounded.getAssignments()));
+	}
+
+	protected StandardKMeans<double[]> configure( StandardKMeans<double[]> alg ) {
+		alg.reseedAfterIterations = 100;
+		alg.maxIterations = 100;
+		alg.maxReSeed = 0;
+		alg.convergeTol = 1e-8;
+		alg.initialize(123);
+		return alg;
+	}
+
+	@Override
+	public ComputeClusters<double[]> createClustersAlg( boolean seedHint, int dof ) {
+		return createAlg(new EuclideanSqArrayF64(dof), dof);
+	}
+
+	@Override protected int selectBestCluster( ComputeClusters<double[]> alg, double[] p ) {
+		StandardKMeans<double[]> kmeans = (StandardKMeans<double[]>)alg;
+		double bestDistance = Double.MAX_VALUE;
+		int best = -1;
+		for (int i = 0; i < kmeans.bestClusters.size; i++) {
+			double d = kmeans.distancer.distance(p, kmeans.bestClusters.get(i));
+			if (d < bestDistance) {
+				bestDistance = d;
+				best = i;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Counts the number of times distance has been called
+	 */
+	static class CountDistance extends EuclideanSqArrayF64 {
+		AtomicInteger count = new AtomicInteger();
+
+		public CountDistance( int arrayLength ) {
+			super(arrayLength);
+		}
+
+		@Override public double distance( double[] a, double[] b ) {
+			count.incrementAndGet();
+			return super.distance(a, b);
+		}
+	}
+}
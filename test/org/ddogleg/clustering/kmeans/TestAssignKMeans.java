@@ -19,10 +19,19 @@
 package org.ddogleg.clustering.kmeans;
 
 import org.ddogleg.clustering.misc.EuclideanSqArrayF64;
+import org.ddogleg.clustering.misc.ListAccessor;
+import org.ddogleg.nn.FactoryNearestNeighbor;
+import org.ddogleg.nn.alg.distance.KdTreeEuclideanSq_F64;
+import org.ddogleg.struct.DogArray_I32;
 import org.ddogleg.struct.FastArray;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SuppressWarnings({"NullAway"})
@@ -66,4 +75,76 @@ public class TestAssignKMeans {
 		assertTrue(histogram[0]/30.0 > histogram[2]);
 		assertEquals(histogram[0], histogram[1], 0.01);
 	}
+
+	/**
+	 * Hard assignment using a nearest-neighbor search should produce the same results as checking every cluster
+	 */
+	@Test void assign_nearestNeighbor() {
+		var rand = new Random(234);
+		List<double[]> clusters = createRandom(rand, 4, 50);
+		List<double[]> points = createRandom(rand, 4, 200);
+
+		var expected = new AssignKMeans<>(clusters, new EuclideanSqArrayF64(4));
+		var alg = new AssignKMeans<>(clusters, new EuclideanSqArrayF64(4));
+		alg.setNearestNeighbor(FactoryNearestNeighbor.kdtree(new KdTreeEuclideanSq_F64(4)));
+
+		for (double[] p : points) {
+			assertEquals(expected.assign(p), alg.assign(p));
+		}
+
+		// Changing the clusters should update the search
+		List<double[]> modified = createRandom(rand, 4, 20);
+		expected.setClusters(modified);
+		alg.setClusters(modified);
+		for (double[] p : points) {
+			assertEquals(expected.assign(p), alg.assign(p));
+		}
+
+		// Turn it off
+		alg.setNearestNeighbor(null);
+		assertNull(alg.getNearestNeighbor());
+		for (double[] p : points) {
+			assertEquals(expected.assign(p), alg.assign(p));
+		}
+	}
+
+	/**
+	 * Assign a batch of points with and without a nearest-neighbor search
+	 */
+	@Test void assign_batch() {
+		var rand = new Random(234);
+		List<double[]> clusters = createRandom(rand, 3, 30);
+		List<double[]> points = createRandom(rand, 3, 200);
+		var accessor = new ListAccessor<>(points, ( src, dst ) -> System.arraycopy(src, 0, dst, 0, 3), double[].class);
+
+		AssignKMeans<double[]> alg = createAlg(clusters, 3);
+		var assignments = new DogArray_I32();
+
+		for (int trial = 0; trial < 2; trial++) {
+			if (trial == 1)
+				alg.setNearestNeighbor(FactoryNearestNeighbor.kdtree(new KdTreeEuclideanSq_F64(3)));
+
+			alg.assign(accessor, assignments);
+			assertEquals(points.size(), assignments.size);
+			for (int i = 0; i < points.size(); i++) {
+				assertEquals(alg.assign(points.get(i)), assignments.get(i));
+			}
+		}
+	}
+
+	protected AssignKMeans<double[]> createAlg( List<double[]> clusters, int dof ) {
+		return new AssignKMeans<>(clusters, new EuclideanSqArrayF64(dof));
+	}
+
+	public static List<double[]> createRandom( Random rand, int dof, int count ) {
+		List<double[]> list = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			var p = new double[dof];
+			for (int j = 0; j < dof; j++) {
+				p[j] = rand.nextGaussian()*10;
+			}
+			list.add(p);
+		}
+		return list;
+	}
 }
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.clustering.kmeans;
+
+import org.ddogleg.clustering.misc.EuclideanSqArrayF64;
+import org.ddogleg.clustering.misc.ListAccessor;
+import org.ddogleg.nn.FactoryNearestNeighbor;
+import org.ddogleg.nn.alg.distance.KdTreeEuclideanSq_F64;
+import org.ddogleg.struct.DogArray_I32;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+class TestAssignKMeans_MT extends TestAssignKMeans {
+	@Override protected AssignKMeans<double[]> createAlg( List<double[]> clusters, int dof ) {
+		return new AssignKMeans_MT<>(clusters, new EuclideanSqArrayF64(dof), () -> new double[dof]);
+	}
+
+	/**
+	 * Compare single to threaded results, with and without a nearest-neighbor search, and after the clusters change
+	 */
+	@Test void compare() {
+		final int DOF = 5;
+		var rand = new Random(234);
+		List<double[]> clusters = createRandom(rand, DOF, 40);
+		List<double[]> points = createRandom(rand, DOF, 1000);
+		var accessor = new ListAccessor<>(points, ( src, dst ) -> System.arraycopy(src, 0, dst, 0, DOF), double[].class);
+
+		AssignKMeans<double[]> single = super.createAlg(clusters, DOF);
+		AssignKMeans<double[]> multi = createAlg(clusters, DOF);
+
+		var expected = new DogArray_I32();
+		var found = new DogArray_I32();
+
+		for (int trial = 0; trial < 3; trial++) {
+			if (trial == 1) {
+				single.setNearestNeighbor(FactoryNearestNeighbor.kdtree(new KdTreeEuclideanSq_F64(DOF)));
+				multi.setNearestNeighbor(FactoryNearestNeighbor.kdtree(new KdTreeEuclideanSq_F64(DOF)));
+			} else if (trial == 2) {
+				// The thread's search should now use the new clusters
+				List<double[]> moved = createRandom(rand, DOF, 40);
+				single.setClusters(moved);
+				multi.setClusters(moved);
+			}
+			single.assign(accessor, expected);
+			multi.assign(accessor, found);
+
+			assertEquals(expected.size, found.size);
+			for (int i = 0; i < expected.size; i++) {
+				assertEquals(expected.get(i), found.get(i));
+			}
+		}
+	}
+
+	@Test void minimumForConcurrent() {
+		var rand = new Random(234);
+		List<double[]> clusters = createRandom(rand, 3, 10);
+		List<double[]> points = createRandom(rand, 3, 100);
+		var accessor = new ListAccessor<>(points, ( src, dst ) -> System.arraycopy(src, 0, dst, 0, 3), double[].class);
+
+		var alg = (AssignKMeans_MT<double[]>)createAlg(clusters, 3);
+		alg.setMinimumForConcurrent(1000);
+
+		var found = new DogArray_I32();
+		alg.assign(accessor, found);
+		for (int i = 0; i < points.size(); i++) {
+			assertEquals(alg.assign(points.get(i)), found.get(i));
+		}
+	}
+}
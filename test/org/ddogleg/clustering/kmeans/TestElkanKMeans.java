@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.clustering.kmeans;
+
+import org.ddogleg.clustering.PointDistance;
+import org.ddogleg.clustering.misc.EuclideanSqArrayF64;
+import org.ddogleg.clustering.misc.MeanArrayF64;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestElkanKMeans extends GenericBoundedKMeansChecks {
+	@Override protected StandardKMeans<double[]> createAlg( PointDistance<double[]> distancer, int DOF ) {
+		return configure(new ElkanKMeans<>(new MeanArrayF64(DOF), new InitializePlusPlus<>(), distancer,
+				() -> new double[DOF]));
+	}
+
+	/** If the number of bounds can't be stored in an array it should fail instead of overflowing */
+	@Test void initializeBounds_overflow() {
+		var alg = (ElkanKMeans<double[]>)createAlg(new EuclideanSqArrayF64(2), 2);
+
+		// this would overflow an int and become negative
+		assertThrows(IllegalArgumentException.class, () -> alg.initializeBounds(3_000_000, 1000));
+		// this would be positive after overflowing
+		assertThrows(IllegalArgumentException.class, () -> alg.initializeBounds(5_000_000, 1000));
+	}
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.clustering.kmeans;
+
+import org.ddogleg.clustering.misc.EuclideanSqArrayF64;
+import org.ddogleg.clustering.misc.ListAccessor;
+import org.ddogleg.struct.DogArray;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestInitializeScalable extends StandardInitializeKMeansChecks {
+	/**
+	 * The sum of weights should be the number of points and every candidate should be a point
+	 */
+	@Test void candidateWeights() {
+		int DOF = 5;
+		List<double[]> points = TestStandardKMeans.createPoints(DOF, 300, true);
+		var seeds = new DogArray<>(() -> new double[DOF]);
+
+		InitializeScalable<double[]> alg = createAlg(DOF);
+		performClustering(alg, DOF, 10, points, seeds);
+
+		assertEquals(10, seeds.size);
+		assertTrue(alg.getCandidates().size >= 10);
+
+		double total = 0.0;
+		for (int i = 0; i < alg.getWeights().size; i++) {
+			total += alg.getWeights().get(i);
+		}
+		assertEquals(points.size(), total, 1e-8);
+
+		for (double[] c : alg.getCandidates().toList()) {
+			findMatch(c, points);
+		}
+	}
+
+	/**
+	 * Points are in well separated clusters. A seed should be selected in each cluster
+	 */
+	@Test void seedInEachCluster() {
+		int DOF = 2;
+		int numClusters = 8;
+
+		List<double[]> points = new ArrayList<>();
+		for (int i = 0; i < 800; i++) {
+			int cluster = i%numClusters;
+			points.add(new double[]{cluster*100 + rand.nextGaussian(), rand.nextGaussian()});
+		}
+		var seeds = new DogArray<>(() -> new double[DOF]);
+
+		performClustering(createAlg(DOF), DOF, numClusters, points, seeds);
+
+		assertEquals(numClusters, seeds.size);
+		boolean[] found = new boolean[numClusters];
+		for (double[] s : seeds.toList()) {
+			found[(int)Math.round(s[0]/100.0)] = true;
+		}
+		for (boolean b : found) {
+			assertTrue(b);
+		}
+	}
+
+	protected void performClustering( InitializeKMeans<double[]> alg,
+									  int DOF, int NUM_SEEDS, List<double[]> points, DogArray<double[]> seeds ) {
+		var accessor = new ListAccessor<>(points,
+				( src, dst ) -> System.arraycopy(src, 0, dst, 0, DOF), double[].class);
+		alg.initialize(new EuclideanSqArrayF64(DOF), 0xBEEF);
+		alg.selectSeeds(accessor, NUM_SEEDS, seeds);
+	}
+
+	@Override
+	public InitializeScalable<double[]> createAlg( int dof ) {
+		return new InitializeScalable<>(() -> new double[dof]);
+	}
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.clustering.kmeans;
+
+import org.ddogleg.clustering.ComputeClusters;
+import org.ddogleg.clustering.ConfigMiniBatchKMeans;
+import org.ddogleg.clustering.FactoryClustering;
+import org.ddogleg.clustering.GenericClusterChecks_F64;
+import org.ddogleg.clustering.misc.ListAccessor;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestMiniBatchKMeans extends GenericClusterChecks_F64 {
+	protected MiniBatchKMeans<double[]> createAlg( int DOF ) {
+		var config = new ConfigMiniBatchKMeans();
+		config.batchSize = 50;
+		config.totalBatches = 50;
+		config.seedSampleSize = 0;
+		MiniBatchKMeans<double[]> alg = FactoryClustering.kMeansMiniBatch(config, DOF, double[].class);
+		alg.initialize(123);
+		return alg;
+	}
+
+	/**
+	 * Well separated clusters and it should find the true centers
+	 */
+	@Test void findClusterCenters() {
+		int DOF = 3;
+		double[][] centers = new double[][]{{0, 0, 0}, {10, 0, 0}, {0, 10, 5}, {-5, -10, 0}};
+
+		List<double[]> points = new ArrayList<>();
+		for (int i = 0; i < 2000; i++) {
+			double[] center = centers[i%centers.length];
+			double[] p = new double[DOF];
+			for (int j = 0; j < DOF; j++) {
+				p[j] = center[j] + rand.nextGaussian()*0.5;
+			}
+			points.add(p);
+		}
+		ListAccessor<double[]> accessor = new ListAccessor<>(points,
+				( src, dst ) -> System.arraycopy(src, 0, dst, 0, DOF), double[].class);
+
+		MiniBatchKMeans<double[]> alg = createAlg(DOF);
+		alg.setSeedSampleSize(200);
+		alg.process(accessor, centers.length);
+
+		// Each true center should have a cluster near it
+		assertEquals(centers.length, alg.getClusters().size);
+		for (double[] center : centers) {
+			double best = Double.MAX_VALUE;
+			for (int i = 0; i < alg.getClusters().size; i++) {
+				best = Math.min(best, alg.distancer.distance(center, alg.getClusters().get(i)));
+			}
+			assertEquals(0.0, best, 0.1);
+		}
+
+		// Every point should be assigned to the closest cluster
+		assertEquals(points.size(), alg.getAssignments().size);
+		int total = 0;
+		for (int i = 0; i < alg.getMemberCount().size; i++) {
+			total += alg.getMemberCount().get(i);
+		}
+		assertEquals(points.size(), total);
+		for (int i = 0; i < points.size(); i++) {
+			assertEquals(selectBestCluster(alg, points.get(i)), alg.getAssignments().get(i));
+		}
+	}
+
+	/**
+	 * If the final assignment is turned off the distance is estimated from the last batch
+	 */
+	@Test void noFinalAssignment() {
+		int DOF = 4;
+		List<double[]> points = TestStandardKMeans.createPoints(DOF, 500, true);
+		ListAccessor<double[]> accessor = new ListAccessor<>(points,
+				( src, dst ) -> System.arraycopy(src, 0, dst, 0, DOF), double[].class);
+
+		MiniBatchKMeans<double[]> alg = createAlg(DOF);
+		alg.process(accessor, 5);
+		double expected = alg.getDistanceMeasure();
+
+		alg.initialize(123);
+		alg.setFinalAssignment(false);
+		alg.process(accessor, 5);
+
+		assertEquals(0, alg.getAssignments().size);
+		assertEquals(expected, alg.getDistanceMeasure(), expected*0.5);
+	}
+
+	@Override
+	public ComputeClusters<double[]> createClustersAlg( boolean seedHint, int dof ) {
+		return createAlg(dof);
+	}
+
+	@Override protected int selectBestCluster( ComputeClusters<double[]> alg, double[] p ) {
+		MiniBatchKMeans<double[]> kmeans = (MiniBatchKMeans<double[]>)alg;
+		double bestDistance = Double.MAX_VALUE;
+		int best = -1;
+		for (int i = 0; i < kmeans.clusters.size; i++) {
+			double d = kmeans.distancer.distance(p, kmeans.clusters.get(i));
+			if (d < bestDistance) {
+				bestDistance = d;
+				best = i;
+			}
+		}
+		return best;
+	}
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.clustering.kmeans;
+
+import org.ddogleg.clustering.ConfigMiniBatchKMeans;
+import org.ddogleg.clustering.FactoryClustering;
+import org.ddogleg.clustering.misc.ListAccessor;
+import org.ejml.UtilEjml;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+class TestMiniBatchKMeans_MT extends TestMiniBatchKMeans {
+	@Override protected MiniBatchKMeans<double[]> createAlg( int DOF ) {
+		var config = new ConfigMiniBatchKMeans();
+		config.batchSize = 50;
+		config.totalBatches = 50;
+		config.seedSampleSize = 0;
+		MiniBatchKMeans<double[]> alg = FactoryClustering.kMeansMiniBatch_MT(config, DOF, 0, double[].class);
+		alg.initialize(123);
+		return alg;
+	}
+
+	/**
+	 * Create a simple random scenario and compare single to threaded results
+	 */
+	@Test void compare() {
+		final int DOF = 7;
+		List<double[]> points = TestStandardKMeans.createPoints(DOF, 500, true);
+		ListAccessor<double[]> accessor = new ListAccessor<>(points,
+				( src, dst ) -> System.arraycopy(src, 0, dst, 0, DOF), double[].class);
+
+		MiniBatchKMeans<double[]> single = super.createAlg(DOF);
+		MiniBatchKMeans<double[]> multi = createAlg(DOF);
+
+		for (int trial = 0; trial < 2; trial++) {
+			single.process(accessor, 9);
+			multi.process(accessor, 9);
+
+			assertEquals(single.getDistanceMeasure(), multi.getDistanceMeasure(), UtilEjml.TEST_F64);
+			assertEquals(single.getClusters().size, multi.getClusters().size);
+			for (int i = 0; i < single.getClusters().size; i++) {
+				assertArrayEquals(single.getClusters().get(i), multi.getClusters().get(i), UtilEjml.TEST_F64);
+			}
+			assertTrue(single.getAssignments().isEquals(multi.getAssignments()));
+		}
+	}
+}
@@ -23,10 +23,12 @@ import org.ddogleg.clustering.ComputeMeanClusters;
 import org.ddogleg.clustering.GenericClusterChecks_F64;
 import org.ddogleg.clustering.PointDistance;
 import org.ddogleg.clustering.misc.EuclideanSqArrayF64;
+import org.ddogleg.clustering.misc.FlatArrayAccessorF64;
 import org.ddogleg.clustering.misc.ListAccessor;
 import org.ddogleg.clustering.misc.MeanArrayF64;
 import org.ddogleg.struct.DogArray;
 import org.ddogleg.struct.LArrayAccessor;
+import org.ejml.UtilEjml;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
@@ -74,6 +76,46 @@ public class TestStandardKMeans extends GenericClusterChecks_F64 {
 		assertEquals(2, alg.assignments.get(2));
 	}
 
+	/** Points in a flat array should be read in place and produce the same assignments */
+	@Test void matchPointsToClusters_flat() {
+		List<double[]> points = createPoints(DOF, 60, true);
+		DogArray<double[]> clusters = new DogArray<>(() -> new double[DOF]);
+		for (int i = 0; i < 5; i++) {
+			System.arraycopy(points.get(i*7), 0, clusters.grow(), 0, DOF);
+		}
+
+		StandardKMeans<double[]> expected = createAlg(DOF);
+		expected.matchPointsToClusters(new ListAccessor<>(points,
+				( src, dst ) -> System.arraycopy(src, 0, dst, 0, DOF), double[].class), clusters);
+
+		StandardKMeans<double[]> alg = createAlg(DOF);
+		alg.matchPointsToClusters(createNoCopyAccessor(points, DOF), clusters);
+
+		assertEquals(expected.getDistanceMeasure(), alg.getDistanceMeasure(), UtilEjml.TEST_F64);
+		assertEquals(expected.assignments.size, alg.assignments.size);
+		for (int i = 0; i < alg.assignments.size; i++) {
+			assertEquals(expected.assignments.get(i), alg.assignments.get(i));
+		}
+		for (int i = 0; i < clusters.size; i++) {
+			assertEquals(expected.memberCount.get(i), alg.memberCount.get(i));
+		}
+	}
+
+	/**
+	 * Creates a flat accessor for the points which will fail if a point is copied
+	 */
+	public static FlatArrayAccessorF64 createNoCopyAccessor( List<double[]> points, int DOF ) {
+		double[] data = new double[points.size()*DOF];
+		for (int i = 0; i < points.size(); i++) {
+			System.arraycopy(points.get(i), 0, data, i*DOF, DOF);
+		}
+		return new FlatArrayAccessorF64(data, DOF, points.size()) {
+			@Override public double[] getTemp( int index ) {throw new RuntimeException("Copied a point");}
+
+			@Override public void getCopy( int index, double[] dst ) {throw new RuntimeException("Copied a point");}
+		};
+	}
+
 	private StandardKMeans<double[]> createAlg( int DOF ) {
 		ComputeMeanClusters<double[]> updateMeans = new MeanArrayF64(DOF);
 		InitializeKMeans<double[]> seedSelector = new InitializePlusPlus<>();
@@ -72,6 +72,30 @@ class TestStandardKMeans_MT {
 		}
 	}
 
+	/** Points in a flat array should be read in place and produce the same assignments */
+	@Test void matchPointsToClusters_flat() {
+		final int DOF = 5;
+		List<double[]> points = TestStandardKMeans.createPoints(DOF, 300, true);
+		DogArray<double[]> clusters = new DogArray<>(() -> new double[DOF]);
+		for (int i = 0; i < 7; i++) {
+			System.arraycopy(points.get(i*11), 0, clusters.grow(), 0, DOF);
+		}
+
+		StandardKMeans<double[]> single = createAlg(DOF, false);
+		StandardKMeans<double[]> multi = createAlg(DOF, true);
+		single.matchPointsToClusters(new ListAccessor<>(points,
+				( src, dst ) -> System.arraycopy(src, 0, dst, 0, DOF), double[].class), clusters);
+		multi.matchPointsToClusters(TestStandardKMeans.createNoCopyAccessor(points, DOF), clusters);
+
+		assertEquals(single.getDistanceMeasure(), multi.getDistanceMeasure(), UtilEjml.TEST_F64);
+		for (int i = 0; i < points.size(); i++) {
+			assertEquals(single.assignments.get(i), multi.assignments.get(i));
+		}
+		for (int i = 0; i < clusters.size; i++) {
+			assertEquals(single.memberCount.get(i), multi.memberCount.get(i));
+		}
+	}
+
 	private StandardKMeans<double[]> createAlg( int DOF, boolean threaded ) {
 		ComputeMeanClusters<double[]> updateMeans = new MeanArrayF64(DOF);
 		InitializeKMeans<double[]> seedSelector = new InitializePlusPlus<>();
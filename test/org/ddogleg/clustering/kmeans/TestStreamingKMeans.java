@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.clustering.kmeans;
+
+import org.ddogleg.clustering.AssignCluster;
+import org.ddogleg.clustering.ConfigStreamingKMeans;
+import org.ddogleg.clustering.FactoryClustering;
+import org.ddogleg.clustering.misc.ListAccessor;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+class TestStreamingKMeans {
+	Random rand = new Random(234);
+
+	StreamingKMeans<double[]> createAlg( int DOF ) {
+		var config = new ConfigStreamingKMeans();
+		config.seedSampleSize = 200;
+		return FactoryClustering.kMeansStreaming(config, DOF, double[].class);
+	}
+
+	/**
+	 * Well separated clusters which are provided in chunks. It should find the true centers.
+	 */
+	@Test void findClusterCenters() {
+		int DOF = 3;
+		double[][] centers = new double[][]{{0, 0, 0}, {10, 0, 0}, {0, 10, 5}, {-5, -10, 0}};
+		List<double[]> points = createPoints(centers, 4000);
+
+		StreamingKMeans<double[]> alg = createAlg(DOF);
+		alg.initialize(centers.length, 0xBEEF);
+		for (int i = 0; i < points.size(); i += 150) {
+			alg.process(createAccessor(points.subList(i, Math.min(points.size(), i + 150))));
+
+			// Memory should be bounded by the number of saved seed points
+			assertTrue(alg.seedPoints.size <= alg.seedSampleSize);
+		}
+		assertEquals(points.size(), alg.getTotalPoints());
+		assertEquals(0, alg.seedPoints.size);
+
+		// Each true center should have a cluster near it
+		assertEquals(centers.length, alg.getClusters().size);
+		for (double[] center : centers) {
+			double best = Double.MAX_VALUE;
+			for (int i = 0; i < alg.getClusters().size; i++) {
+				best = Math.min(best, alg.distancer.distance(center, alg.getClusters().get(i)));
+			}
+			assertEquals(0.0, best, 0.1);
+		}
+
+		// Counts should add up to the number of points
+		long total = 0;
+		for (int i = 0; i < alg.getCounts().size; i++) {
+			total += alg.getCounts().get(i);
+		}
+		assertEquals(points.size(), total);
+
+		// Points from the same true cluster should be assigned to the same cluster
+		AssignCluster<double[]> assign = alg.getAssignment();
+		for (int i = centers.length; i < points.size(); i++) {
+			assertEquals(assign.assign(points.get(i%centers.length)), assign.assign(points.get(i)));
+		}
+	}
+
+	/**
+	 * Splitting the stream into different sized chunks should produce identical results
+	 */
+	@Test void chunkSizeIndependent() {
+		int DOF = 3;
+		double[][] centers = new double[][]{{0, 0, 0}, {10, 0, 0}, {0, 10, 5}};
+		List<double[]> points = createPoints(centers, 1000);
+
+		StreamingKMeans<double[]> expected = createAlg(DOF);
+		expected.initialize(centers.length, 0xBEEF);
+		expected.process(createAccessor(points));
+
+		StreamingKMeans<double[]> found = createAlg(DOF);
+		found.initialize(centers.length, 0xBEEF);
+		for (int i = 0; i < points.size(); i += 33) {
+			found.process(createAccessor(points.subList(i, Math.min(points.size(), i + 33))));
+		}
+
+		for (int i = 0; i < centers.length; i++) {
+			assertArrayEquals(expected.getClusters().get(i), found.getClusters().get(i));
+			assertEquals(expected.getCounts().get(i), found.getCounts().get(i));
+		}
+	}
+
+	/**
+	 * The assignment can be requested before enough points have been seen to select the seeds. It should also
+	 * be a copy which doesn't change as more points are processed.
+	 */
+	@Test void getAssignment_anyTime() {
+		int DOF = 3;
+		double[][] centers = new double[][]{{0, 0, 0}, {10, 0, 0}};
+		List<double[]> points = createPoints(centers, 1000);
+
+		StreamingKMeans<double[]> alg = createAlg(DOF);
+		alg.initialize(centers.length, 0xBEEF);
+		assertThrows(IllegalStateException.class, alg::getAssignment);
+
+		// Fewer points than clusters. The provisional assignment can only have one cluster
+		alg.process(createAccessor(points.subList(0, 1)));
+		assertEquals(1, ((AssignKMeans<double[]>)alg.getAssignment()).getNumberOfClusters());
+		assertFalse(alg.isSeeded());
+
+		alg.process(createAccessor(points.subList(1, 20)));
+		assertFalse(alg.isSeeded());
+		var assign = (AssignKMeans<double[]>)alg.getAssignment();
+		assertFalse(alg.isSeeded());
+		assertEquals(2, assign.getNumberOfClusters());
+
+		double[] before = assign.getClusters().get(0).clone();
+		alg.process(createAccessor(points.subList(20, points.size())));
+		assertArrayEquals(before, assign.getClusters().get(0));
+		assertNotSame(alg.getClusters().get(0), assign.getClusters().get(0));
+
+		// Requesting an assignment early should not change the final clusters
+		StreamingKMeans<double[]> expected = createAlg(DOF);
+		expected.initialize(centers.length, 0xBEEF);
+		expected.process(createAccessor(points));
+		assertEquals(expected.getClusters().size, alg.getClusters().size);
+		for (int i = 0; i < expected.getClusters().size; i++) {
+			assertArrayEquals(expected.getClusters().get(i), alg.getClusters().get(i));
+		}
+	}
+
+	/**
+	 * If the number of points a cluster remembers is limited, then it should follow the points when they move
+	 */
+	@Test void maxCount() {
+		List<double[]> points = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			points.add(new double[]{i < 500 ? 0.0 : 10.0});
+		}
+
+		StreamingKMeans<double[]> alg = createAlg(1);
+		alg.initialize(1, 0xBEEF);
+		alg.process(createAccessor(points));
+		assertEquals(5.0, alg.getClusters().get(0)[0], 1e-8);
+
+		alg.setMaxCount(10);
+		alg.initialize(1, 0xBEEF);
+		alg.process(createAccessor(points));
+		assertEquals(10.0, alg.getClusters().get(0)[0], 1e-8);
+	}
+
+	/**
+	 * Calling initialize should discard all previous results
+	 */
+	@Test void initialize_reset() {
+		int DOF = 3;
+		List<double[]> points = createPoints(new double[][]{{0, 0, 0}, {10, 0, 0}}, 500);
+
+		StreamingKMeans<double[]> alg = createAlg(DOF);
+		alg.initialize(2, 0xBEEF);
+		alg.process(createAccessor(points));
+		double[] expected = alg.getClusters().get(0).clone();
+
+		alg.initialize(2, 0xBEEF);
+		assertEquals(0, alg.getTotalPoints());
+		assertFalse(alg.isSeeded());
+		alg.process(createAccessor(points));
+		assertArrayEquals(expected, alg.getClusters().get(0));
+	}
+
+	private List<double[]> createPoints( double[][] centers, int total ) {
+		int DOF = centers[0].length;
+		List<double[]> points = new ArrayList<>();
+		for (int i = 0; i < total; i++) {
+			double[] center = centers[i%centers.length];
+			double[] p = new double[DOF];
+			for (int j = 0; j < DOF; j++) {
+				p[j] = center[j] + rand.nextGaussian()*0.5;
+			}
+			points.add(p);
+		}
+		return points;
+	}
+
+	private static ListAccessor<double[]> createAccessor( List<double[]> points ) {
+		int DOF = points.get(0).length;
+		return new ListAccessor<>(points, ( src, dst ) -> System.arraycopy(src, 0, dst, 0, DOF), double[].class);
+	}
+}
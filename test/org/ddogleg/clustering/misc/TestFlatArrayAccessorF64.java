@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.clustering.misc;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Peter Abeles
+ */
+class TestFlatArrayAccessorF64 {
+	/**
+	 * A few simple tests combined into one function
+	 */
+	@Test void various() {
+		double[] data = new double[]{1, 2, 3, 4, 5, 6, 7};
+		var alg = new FlatArrayAccessorF64(data, 3, 2);
+
+		assertEquals(2, alg.size());
+		assertEquals(3, alg.getDimension());
+		assertSame(double[].class, alg.getElementType());
+
+		var tmp = new double[3];
+		for (int i = 0; i < 2; i++) {
+			var expected = new double[]{i*3 + 1, i*3 + 2, i*3 + 3};
+			assertArrayEquals(expected, alg.getTemp(i));
+
+			alg.getCopy(i, tmp);
+			assertArrayEquals(expected, tmp);
+
+			// read in place
+			assertSame(data, alg.getArray(i));
+			assertEquals(i*3, alg.getOffset(i));
+		}
+
+		alg.copy(new double[]{9, 8, 7}, tmp);
+		assertArrayEquals(new double[]{9, 8, 7}, tmp);
+	}
+
+	@Test void wrap_tooSmall() {
+		var alg = new FlatArrayAccessorF64(3);
+		assertThrows(IllegalArgumentException.class, () -> alg.wrap(new double[5], 2));
+	}
+}
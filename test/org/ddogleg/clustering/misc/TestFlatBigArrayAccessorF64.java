@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.clustering.misc;
+
+import org.ddogleg.struct.BigDogArray_F64;
+import org.ddogleg.struct.BigDogGrowth;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Peter Abeles
+ */
+class TestFlatBigArrayAccessorF64 {
+	/**
+	 * Points are spread across multiple blocks
+	 */
+	@Test void multipleBlocks() {
+		int dof = 3;
+		var array = new BigDogArray_F64(1, 4*dof, BigDogGrowth.GROW_FIRST);
+		for (int i = 0; i < 10*dof; i++) {
+			array.append(i);
+		}
+
+		var alg = new FlatBigArrayAccessorF64(array, dof);
+		assertEquals(10, alg.size());
+		assertEquals(dof, alg.getDimension());
+
+		var tmp = new double[dof];
+		for (int i = 0; i < 10; i++) {
+			var expected = new double[]{i*3, i*3 + 1, i*3 + 2};
+			assertArrayEquals(expected, alg.getTemp(i));
+
+			alg.getCopy(i, tmp);
+			assertArrayEquals(expected, tmp);
+
+			// read in place
+			double[] found = alg.getArray(i);
+			int offset = alg.getOffset(i);
+			for (int j = 0; j < dof; j++) {
+				assertEquals(expected[j], found[offset + j]);
+			}
+		}
+	}
+
+	/**
+	 * A point can't be split between two blocks
+	 */
+	@Test void blockSizeNotMultiple() {
+		var array = new BigDogArray_F64(1, 10, BigDogGrowth.GROW_FIRST);
+		assertThrows(IllegalArgumentException.class, () -> new FlatBigArrayAccessorF64(array, 3));
+	}
+
+	@Test void sizeNotMultiple() {
+		var array = new BigDogArray_F64(1, 9, BigDogGrowth.GROW_FIRST);
+		array.append(1);
+		assertThrows(IllegalArgumentException.class, () -> new FlatBigArrayAccessorF64(array, 3));
+	}
+}
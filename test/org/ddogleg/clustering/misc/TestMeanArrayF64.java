@@ -63,4 +63,28 @@ class TestMeanArrayF64 {
 		assertEquals(5.5, means.get(1)[0], UtilEjml.TEST_F64);
 		assertEquals(4.5, means.get(1)[1], UtilEjml.TEST_F64);
 	}
+
+	/**
+	 * Points in a flat array should be read in place and produce the same results
+	 */
+	@Test void flatAccessor() {
+		int dof = 2;
+		double[] data = new double[9*dof];
+		var assignments = new DogArray_I32();
+		for (int i = 0; i < 9; i++) {
+			data[i*2] = i + 1;
+			data[i*2 + 1] = i;
+			assignments.add(i == 0 ? 0 : 1);
+		}
+		var accessor = new FlatArrayAccessorF64(data, dof, 9);
+
+		var means = new DogArray<>(() -> new double[dof]);
+		means.resize(2);
+
+		var alg = new MeanArrayF64(dof);
+		alg.process(accessor, assignments, means);
+
+		assertArrayEquals(new double[]{1, 0}, means.get(0), UtilEjml.TEST_F64);
+		assertArrayEquals(new double[]{5.5, 4.5}, means.get(1), UtilEjml.TEST_F64);
+	}
 }
\ No newline at end of file
@@ -18,6 +18,7 @@
 
 package org.ddogleg.fitting.modelset.lmeds;
 
+import org.ddogleg.fitting.modelset.DoubleArrayManager;
 import org.ddogleg.fitting.modelset.GenericModelMatcherPostTests;
 import org.ddogleg.fitting.modelset.MeanModelFitter;
 import org.ddogleg.fitting.modelset.ModelManager;
@@ -26,9 +27,11 @@ import org.ddogleg.fitting.modelset.distance.DistanceFromMeanModel;
 import org.jetbrains.annotations.Nullable;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
-import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.*;
 
 public class TestLeastMedianOfSquares extends GenericModelMatcherPostTests {
 
@@ -59,4 +62,51 @@ public class TestLeastMedianOfSquares extends GenericModelMatcherPostTests {
 
 		assertFalse(matcher.process(samples));
 	}
+
+	/** Aborting early should not change the results */
+	@Test void earlyAbort_sameResults() {
+		var abort = (LeastMedianOfSquares<double[], Double>)createModel(1, 0.2);
+		var full = (LeastMedianOfSquares<double[], Double>)createModel(1, 0.2);
+		abort.setAbortBlockSize(7);
+		full.setAbortBlockSize(0);
+
+		for (int trial = 0; trial < 5; trial++) {
+			List<Double> samples = createSampleSet(200 + trial*13, 2.5, 0.2, 0.4);
+
+			assertEquals(full.process(samples), abort.process(samples));
+			assertEquals(full.getFitQuality(), abort.getFitQuality());
+			assertArrayEquals(full.getModelParameters(), abort.getModelParameters(), 0.0);
+			assertEquals(full.getMatchSet().size(), abort.getMatchSet().size());
+			for (int i = 0; i < full.getMatchSet().size(); i++) {
+				assertEquals(full.getInputIndex(i), abort.getInputIndex(i));
+			}
+		}
+	}
+
+	/** Makes sure it aborts once the hypothesis is known to be worse and not before */
+	@Test void computeMedian_abort() {
+		var alg = new LeastMedianOfSquares<>(4234, 50, new DoubleArrayManager(1), Double.class);
+		alg.setModel(MeanModelFitter::new, DistanceFromMeanModel::new);
+		alg.setAbortBlockSize(2);
+
+		List<Double> samples = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			samples.add((double)i);
+		}
+
+		LeastMedianOfSquares<double[], Double>.TrialHelper helper = Objects.requireNonNull(alg.helper);
+		helper.initialize(samples.size());
+		helper.candidate[0] = 0.0;
+
+		// errors are 0 to 9 and the median is 5
+		assertEquals(5.0, helper.computeMedian(samples, Double.MAX_VALUE));
+		assertEquals(5.0, helper.computeMedian(samples, 5.0));
+		assertEquals(5.0, helper.computeMedian(samples, 6.0));
+		assertEquals(Double.MAX_VALUE, helper.computeMedian(samples, 4.9999));
+		assertEquals(Double.MAX_VALUE, helper.computeMedian(samples, 1.0));
+
+		// it should be the same with early abort off
+		alg.setAbortBlockSize(0);
+		assertEquals(5.0, helper.computeMedian(samples, 4.0));
+	}
 }
@@ -85,4 +85,28 @@ class TestLeastMedianOfSquares_MT extends TestLeastMedianOfSquares {
 			assertArrayEquals(single.getModelParameters(), multi.getModelParameters(), 1e-16);
 		}
 	}
-}
\ No newline at end of file
+
+	/** Early abort is done using the shared best median. Makes sure it's identical to the single threaded version */
+	@Test void compareToSingleThread_earlyAbort() {
+		var manager = new DoubleArrayManager(1);
+		var single = new LeastMedianOfSquares<>(4234, 200, 0.2, 0.9, manager, Double.class);
+		single.setModel(MeanModelFitter::new, DistanceFromMeanModel::new);
+		var multi = new LeastMedianOfSquares_MT<>(4234, 200, 0.2, 0.9, manager, Double.class);
+		multi.setModel(MeanModelFitter::new, DistanceFromMeanModel::new);
+		single.setAbortBlockSize(0);
+		multi.setAbortBlockSize(20);
+
+		for (int trial = 0; trial < 10; trial++) {
+			List<Double> samples = createSampleSet(500, 2.5, 0.18, 0.1);
+
+			assertTrue(single.process(samples));
+			assertTrue(multi.process(samples));
+
+			assertEquals(single.getFitQuality(), multi.getFitQuality());
+			assertArrayEquals(single.getModelParameters(), multi.getModelParameters(), 0.0);
+			for (int i = 0; i < single.getMatchSet().size(); i++) {
+				assertEquals(single.getInputIndex(i), multi.getInputIndex(i));
+			}
+		}
+	}
+}
@@ -19,7 +19,9 @@
 package org.ddogleg.fitting.modelset.ransac;
 
 import org.ddogleg.fitting.modelset.*;
+import org.ddogleg.fitting.modelset.distance.DistanceFromMeanModel;
 import org.ddogleg.struct.DogArray_I32;
+import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
@@ -46,6 +48,217 @@ public class TestRansac extends GenericModelMatcherPostTests {
 		return ret;
 	}
 
+	/**
+	 * Local optimization should find a model with at least as many inliers as the minimal sample model and
+	 * a mean which is closer to the truth
+	 */
+	@Test void localOptimization_better() {
+		double mean = 2.5;
+		double tol = 0.2;
+
+		for (int trial = 0; trial < 10; trial++) {
+			List<Double> samples = createSampleSet(300, mean, tol, 0.3);
+
+			var plain = new Ransac<>(234 + trial, 5, tol, new DoubleArrayManager(1), Double.class);
+			plain.setModel(MeanModelFitter::new, DistanceFromMeanModel::new);
+			var local = new Ransac<>(234 + trial, 5, tol, new DoubleArrayManager(1), Double.class);
+			local.setModel(MeanModelFitter::new, DistanceFromMeanModel::new);
+			local.setModelFitter(MeanModelFitter::new);
+
+			assertTrue(plain.process(samples));
+			assertTrue(local.process(samples));
+
+			assertTrue(local.getMatchSet().size() >= plain.getMatchSet().size());
+			assertEquals(mean, local.getModelParameters()[0], tol*0.25);
+			// 210 of the points are inliers
+			assertTrue(local.getMatchSet().size() >= 200);
+
+			// Make sure the inlier set and the input index are consistent with the refined model
+			double found = local.getModelParameters()[0];
+			for (int i = 0; i < local.getMatchSet().size(); i++) {
+				assertTrue(Math.abs(local.getMatchSet().get(i) - found) < tol);
+				assertSame(samples.get(local.getInputIndex(i)), local.getMatchSet().get(i));
+			}
+		}
+	}
+
+	/**
+	 * Turning local optimization off after it has been on should produce the same results as never turning it on
+	 */
+	@Test void localOptimization_turnOff() {
+		List<Double> samples = createSampleSet(200, 2.5, 0.2, 0.3);
+
+		var plain = new Ransac<>(234, 20, 0.2, new DoubleArrayManager(1), Double.class);
+		plain.setModel(MeanModelFitter::new, DistanceFromMeanModel::new);
+		var alg = new Ransac<>(234, 20, 0.2, new DoubleArrayManager(1), Double.class);
+		alg.setModel(MeanModelFitter::new, DistanceFromMeanModel::new);
+		alg.setModelFitter(MeanModelFitter::new);
+		assertTrue(alg.process(samples));
+		alg.setModelFitter(null);
+		alg.reset();
+
+		assertTrue(plain.process(samples));
+		assertTrue(alg.process(samples));
+		assertEquals(plain.getFitQuality(), alg.getFitQuality());
+		assertEquals(plain.getModelParameters()[0], alg.getModelParameters()[0]);
+	}
+
+	/**
+	 * When confidence is specified it should stop early if the inlier ratio is high
+	 */
+	@Test void adaptiveTermination() {
+		List<Double> samples = createSampleSet(200, 2.5, 0.2, 0.1);
+
+		var alg = new Ransac<>(234, 500, 0.2, new DoubleArrayManager(1), Double.class);
+		alg.setModel(MeanModelFitter::new, DistanceFromMeanModel::new);
+		assertTrue(alg.process(samples));
+		assertEquals(500, alg.getIterationsPerformed());
+
+		alg.setConfidence(0.99);
+		alg.reset();
+		assertTrue(alg.process(samples));
+		assertTrue(alg.getIterationsPerformed() < 20);
+		assertTrue(alg.getIterationsPerformed() > 0);
+	}
+
+	@Test void computeRequiredTrials() {
+		var alg = new Ransac<>(234, 500, 0.2, new DoubleArrayManager(1), Double.class);
+		alg.setSampleSize(4);
+
+		// turned off
+		assertEquals(500, alg.computeRequiredTrials(50, 100));
+
+		alg.setConfidence(0.99);
+		// log(0.01)/log(1-0.5^4) = 71.34
+		assertEquals(72, alg.computeRequiredTrials(50, 100));
+		// everything is an inlier
+		assertEquals(0, alg.computeRequiredTrials(100, 100));
+		// capped by the maximum number of iterations
+		assertEquals(500, alg.computeRequiredTrials(1, 100));
+	}
+
+	/**
+	 * Given the same hypotheses, MSAC should never select a model with a higher MSAC cost than the one selected
+	 * by counting inliers
+	 */
+	@Test void scoring_msac() {
+		double tol = 0.2;
+		List<Double> samples = createSampleSet(200, 2.5, tol, 0.3);
+
+		var count = new Ransac<>(234, 30, tol, new DoubleArrayManager(1), Double.class);
+		count.setModel(MeanModelFitter::new, DistanceFromMeanModel::new);
+		var msac = new Ransac<>(234, 30, tol, new DoubleArrayManager(1), Double.class);
+		msac.setModel(MeanModelFitter::new, DistanceFromMeanModel::new);
+		msac.setScoring(RansacScoring.MSAC);
+
+		assertTrue(count.process(samples));
+		assertTrue(msac.process(samples));
+
+		double costCount = computeMsacCost(samples, count.getModelParameters()[0], tol);
+		double costMsac = computeMsacCost(samples, msac.getModelParameters()[0], tol);
+		assertTrue(costMsac <= costCount);
+		assertEquals(costMsac, msac.getFitQuality(), 1e-8);
+
+		// The inlier set should still be found using the threshold
+		double found = msac.getModelParameters()[0];
+		for (int i = 0; i < msac.getMatchSet().size(); i++) {
+			assertTrue(Math.abs(msac.getMatchSet().get(i) - found) < tol);
+			assertSame(samples.get(msac.getInputIndex(i)), msac.getMatchSet().get(i));
+		}
+	}
+
+	private static double computeMsacCost( List<Double> samples, double mean, double threshold ) {
+		double cost = 0;
+		for (double d : samples) {
+			cost += Math.min(threshold*threshold, (d - mean)*(d - mean));
+		}
+		return cost;
+	}
+
+	@Test void computeMlesacScore() {
+		double threshold = 0.5;
+		double range = 10.0;
+		double[] distances = new double[]{0.1, 0.2, 0.05, 3.0, 0.3};
+		double[] copy = distances.clone();
+
+		double found = Ransac.computeMlesacScore(distances, distances.length, threshold, range);
+
+		// Compute the expected score
+		double sigma = threshold/1.96;
+		double[] inlier = new double[copy.length];
+		for (int i = 0; i < copy.length; i++) {
+			inlier[i] = Math.exp(-0.5*copy[i]*copy[i]/(sigma*sigma))/(Math.sqrt(2*Math.PI)*sigma);
+		}
+		double gamma = 0.5;
+		for (int iteration = 0; iteration < 5; iteration++) {
+			double sum = 0;
+			for (double p : inlier) {
+				sum += gamma*p/(gamma*p + (1 - gamma)/range);
+			}
+			gamma = sum/inlier.length;
+		}
+		double expected = 0;
+		for (double p : inlier) {
+			expected -= Math.log(gamma*p + (1 - gamma)/range);
+		}
+		assertEquals(expected, found, 1e-8);
+
+		// A better fit should have a lower score
+		double[] better = new double[]{0.05, 0.1, 0.02, 3.0, 0.1};
+		assertTrue(Ransac.computeMlesacScore(better, better.length, threshold, range) < found);
+	}
+
+	@Nested class Msac extends GenericModelMatcherPostTests {
+		Msac() {
+			configure(0.9, 0.05, true);
+		}
+
+		@Override
+		public ModelMatcherPost<double[], Double> createModelMatcher( ModelManager<double[]> manager,
+																	  int minPoints,
+																	  double fitThreshold ) {
+			Ransac<double[], Double> ret = new Ransac<>(344, 50, fitThreshold, manager, Double.class);
+			ret.setSampleSize(minPoints);
+			ret.setScoring(RansacScoring.MSAC);
+			return ret;
+		}
+	}
+
+	@Nested class Mlesac extends GenericModelMatcherPostTests {
+		Mlesac() {
+			configure(0.9, 0.05, true);
+		}
+
+		@Override
+		public ModelMatcherPost<double[], Double> createModelMatcher( ModelManager<double[]> manager,
+																	  int minPoints,
+																	  double fitThreshold ) {
+			Ransac<double[], Double> ret = new Ransac<>(344, 50, fitThreshold, manager, Double.class);
+			ret.setSampleSize(minPoints);
+			ret.setScoring(RansacScoring.MLESAC);
+			return ret;
+		}
+	}
+
+	/**
+	 * Run the standard tests with local optimization turned on
+	 */
+	@Nested class LocalOptimization extends GenericModelMatcherPostTests {
+		LocalOptimization() {
+			configure(0.9, 0.05, true);
+		}
+
+		@Override
+		public ModelMatcherPost<double[], Double> createModelMatcher( ModelManager<double[]> manager,
+																	  int minPoints,
+																	  double fitThreshold ) {
+			Ransac<double[], Double> ret = new Ransac<>(344, 50, fitThreshold, manager, Double.class);
+			ret.setSampleSize(minPoints);
+			ret.setModelFitter(MeanModelFitter::new);
+			return ret;
+		}
+	}
+
 	/**
 	 * See if it correctly randomly selects points when the initial set size is
 	 * much smaller than the data set size
@@ -18,8 +18,10 @@
 
 package org.ddogleg.fitting.modelset.ransac;
 
+import org.ddogleg.fitting.modelset.DistanceFromModel;
 import org.ddogleg.fitting.modelset.GenericModelMatcherMultiTests;
 import org.ddogleg.fitting.modelset.ModelMatcherMulti;
+import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
@@ -38,7 +40,10 @@ public class TestRansacMulti extends GenericModelMatcherMultiTests {
 
 	@Override
 	public ModelMatcherMulti<Double> createModelMatcher(List<ModelInfo> models) {
+		return createRansacMulti(models);
+	}
 
+	static RansacMulti<Double> createRansacMulti(List<ModelInfo> models) {
 		List<RansacMulti.ObjectType> rm = new ArrayList<RansacMulti.ObjectType>();
 
 		for( int i = 0; i < models.size(); i++ ) {
@@ -92,5 +97,60 @@ public class TestRansacMulti extends GenericModelMatcherMultiTests {
 		assertTrue(ransac.candidatePoints.size() == 7);
 	}
 
+	/**
+	 * A child class which overrides selectMatchSet and doesn't compute a score should still work when counting inliers
+	 */
+	@Nested class OverrideSelectMatchSet extends GenericModelMatcherMultiTests {
+		OverrideSelectMatchSet() {
+			configure(0.9, 0.05, true);
+		}
+
+		@Override
+		public ModelMatcherMulti<Double> createModelMatcher(List<ModelInfo> models) {
+			RansacMulti<Double> original = createRansacMulti(models);
+			return new RansacMulti<>(344, 50, original.objectTypes, Double.class) {
+				@Override
+				protected <Model> void selectMatchSet( List<Double> dataSet,
+													   DistanceFromModel<Model, Double> modelDistance,
+													   double threshold, Model param ) {
+					candidatePoints.clear();
+					modelDistance.setModel(param);
+					for (int i = 0; i < dataSet.size(); i++) {
+						if (modelDistance.distance(dataSet.get(i)) < threshold) {
+							matchToInput[candidatePoints.size()] = i;
+							candidatePoints.add(dataSet.get(i));
+						}
+					}
+				}
+			};
+		}
+	}
+
+	@Nested class Msac extends GenericModelMatcherMultiTests {
+		Msac() {
+			configure(0.9, 0.05, true);
+		}
+
+		@Override
+		public ModelMatcherMulti<Double> createModelMatcher(List<ModelInfo> models) {
+			RansacMulti<Double> ret = createRansacMulti(models);
+			ret.setScoring(RansacScoring.MSAC);
+			return ret;
+		}
+	}
+
+	@Nested class Mlesac extends GenericModelMatcherMultiTests {
+		Mlesac() {
+			configure(0.9, 0.05, true);
+		}
+
+		@Override
+		public ModelMatcherMulti<Double> createModelMatcher(List<ModelInfo> models) {
+			RansacMulti<Double> ret = createRansacMulti(models);
+			ret.setScoring(RansacScoring.MLESAC);
+			return ret;
+		}
+	}
+
 
 }
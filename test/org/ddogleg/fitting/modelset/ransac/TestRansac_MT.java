@@ -20,6 +20,8 @@ package org.ddogleg.fitting.modelset.ransac;
 
 import org.ddogleg.fitting.modelset.*;
 import org.ddogleg.fitting.modelset.distance.DistanceFromMeanModel;
+import org.ddogleg.fitting.modelset.ransac.Ransac_MT.ParallelMode;
+import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
@@ -55,13 +57,25 @@ public class TestRansac_MT extends GenericModelMatcherPostTests {
 	}
 
 	@Test void compareToSingleThread() {
+		for (RansacScoring scoring : RansacScoring.values()) {
+			for (ParallelMode mode : new ParallelMode[]{ParallelMode.TRIALS, ParallelMode.SCORING}) {
+				compareToSingleThread(scoring, mode);
+			}
+		}
+	}
+
+	void compareToSingleThread( RansacScoring scoring, ParallelMode mode ) {
 		double mean = 2.5;
 		double tol = 0.2;
 
 		numTrials = 200;
 
-		ModelMatcherPost<double[], Double> multi = createModel(4, tol);
-		ModelMatcherPost<double[], Double> single = createModelSingle(4, tol);
+		var multi = (Ransac_MT<double[], Double>)createModel(4, tol);
+		var single = (Ransac<double[], Double>)createModelSingle(4, tol);
+		multi.setScoring(scoring);
+		multi.setMode(mode);
+		multi.setScoringBlockSize(50);
+		single.setScoring(scoring);
 
 		for (int trial = 0; trial < 10; trial++) {
 			// try different sample sizes in each trial.  a bug was found once where
@@ -85,4 +99,113 @@ public class TestRansac_MT extends GenericModelMatcherPostTests {
 			assertArrayEquals(single.getModelParameters(), multi.getModelParameters(), 1e-16);
 		}
 	}
+
+	/**
+	 * When scoring in parallel it should produce identical results to the single threaded version, even with
+	 * local optimization and adaptive termination turned on
+	 */
+	@Test void compareToSingleThread_parallelScoring() {
+		double mean = 2.5;
+		double tol = 0.2;
+
+		var single = new Ransac<>(344, 50, tol, new DoubleArrayManager(1), Double.class);
+		single.setModel(MeanModelFitter::new, DistanceFromMeanModel::new);
+		var multi = new Ransac_MT<>(344, 50, tol, new DoubleArrayManager(1), Double.class);
+		multi.setModel(MeanModelFitter::new, DistanceFromMeanModel::new);
+		multi.setMode(ParallelMode.SCORING);
+		// small blocks so that there are several of them
+		multi.setScoringBlockSize(50);
+
+		for (int trial = 0; trial < 6; trial++) {
+			if (trial == 2) {
+				single.setModelFitter(MeanModelFitter::new);
+				multi.setModelFitter(MeanModelFitter::new);
+			} else if (trial == 4) {
+				single.setConfidence(0.99);
+				multi.setConfidence(0.99);
+			}
+
+			List<Double> samples = createSampleSet(1000, mean, tol*0.90, 0.4);
+
+			assertTrue(single.process(samples));
+			assertTrue(multi.process(samples));
+
+			assertEquals(single.getIterationsPerformed(), multi.getIterationsPerformed());
+			assertEquals(single.getFitQuality(), multi.getFitQuality());
+			List<Double> expected = single.getMatchSet();
+			List<Double> found = multi.getMatchSet();
+			assertEquals(expected.size(), found.size());
+			for (int i = 0; i < expected.size(); i++) {
+				assertEquals(expected.get(i), found.get(i));
+				assertEquals(single.getInputIndex(i), multi.getInputIndex(i));
+			}
+			assertArrayEquals(single.getModelParameters(), multi.getModelParameters(), 1e-16);
+		}
+	}
+
+	@Test void isParallelScoring() {
+		var alg = new Ransac_MT<>(344, 500, 0.1, new DoubleArrayManager(1), Double.class);
+		alg.setPointsPerTrialScoring(1000);
+		alg.setScoringBlockSize(2000);
+
+		// Too few points to bother
+		assertFalse(alg.isParallelScoring(3000));
+		// Many more points than trials
+		assertFalse(alg.isParallelScoring(499_999));
+		assertTrue(alg.isParallelScoring(500_000));
+
+		alg.setMode(ParallelMode.TRIALS);
+		assertFalse(alg.isParallelScoring(500_000));
+		alg.setMode(ParallelMode.SCORING);
+		assertTrue(alg.isParallelScoring(10));
+	}
+
+	/**
+	 * Run the standard tests when scoring in parallel
+	 */
+	@Nested class ParallelScoring extends GenericModelMatcherPostTests {
+		ParallelScoring() {
+			configure(0.9, 0.05, true);
+		}
+
+		@Override
+		public ModelMatcherPost<double[], Double> createModelMatcher( ModelManager<double[]> manager,
+																	  int minPoints,
+																	  double fitThreshold ) {
+			var ret = new Ransac_MT<>(344, 50, fitThreshold, manager, Double.class);
+			ret.setSampleSize(minPoints);
+			ret.setMode(ParallelMode.SCORING);
+			ret.setScoringBlockSize(10);
+			return ret;
+		}
+	}
+
+	/**
+	 * Local optimization is applied to the final model and should never make it worse
+	 */
+	@Test void localOptimization() {
+		double mean = 2.5;
+		double tol = 0.2;
+
+		var plain = new Ransac_MT<>(344, 5, tol, new DoubleArrayManager(1), Double.class);
+		plain.setModel(MeanModelFitter::new, DistanceFromMeanModel::new);
+		var local = new Ransac_MT<>(344, 5, tol, new DoubleArrayManager(1), Double.class);
+		local.setModel(MeanModelFitter::new, DistanceFromMeanModel::new);
+		local.setModelFitter(MeanModelFitter::new);
+
+		for (int trial = 0; trial < 10; trial++) {
+			List<Double> samples = createSampleSet(300, mean, tol, 0.3);
+
+			assertTrue(plain.process(samples));
+			assertTrue(local.process(samples));
+
+			assertTrue(local.getMatchSet().size() >= plain.getMatchSet().size());
+			assertEquals(mean, local.getModelParameters()[0], tol*0.25);
+			// 210 of the points are inliers
+			assertTrue(local.getMatchSet().size() >= 200);
+			for (int i = 0; i < local.getMatchSet().size(); i++) {
+				assertSame(samples.get(local.getInputIndex(i)), local.getMatchSet().get(i));
+			}
+		}
+	}
 }
@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.fitting.modelset.ransac;
+
+import org.ddogleg.fitting.modelset.DoubleArrayManager;
+import org.ddogleg.fitting.modelset.MeanModelFitter;
+import org.ddogleg.fitting.modelset.distance.DistanceFromMeanModel;
+import org.ddogleg.struct.DogArray_I32;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSequentialRansac {
+	Random rand = new Random(234);
+
+	// location and number of points in each cluster
+	double[] means = new double[]{0.0, 10.0, 20.0};
+	int[] counts = new int[]{150, 100, 50};
+	double tol = 0.2;
+
+	protected SequentialRansac<double[], Double> createAlg() {
+		var alg = new SequentialRansac<>(0xBEEF, 100, tol, new DoubleArrayManager(1), Double.class);
+		alg.setModel(MeanModelFitter::new, DistanceFromMeanModel::new);
+		return alg;
+	}
+
+	protected List<Double> createSamples( int numOutliers ) {
+		List<Double> samples = new ArrayList<>();
+		for (int cluster = 0; cluster < means.length; cluster++) {
+			for (int i = 0; i < counts[cluster]; i++) {
+				samples.add(means[cluster] + (rand.nextDouble() - 0.5)*tol);
+			}
+		}
+		for (int i = 0; i < numOutliers; i++) {
+			samples.add(-100.0 + rand.nextDouble()*50.0);
+		}
+		Collections.shuffle(samples, rand);
+		return samples;
+	}
+
+	/** Should find each cluster, starting with the largest */
+	@Test void findAllInstances() {
+		List<Double> samples = createSamples(30);
+
+		SequentialRansac<double[], Double> alg = createAlg();
+		assertTrue(alg.process(samples));
+		assertEquals(3, alg.getInstances().size);
+
+		for (int idx = 0; idx < 3; idx++) {
+			SequentialRansac<double[], Double>.Instance instance = alg.getInstances().get(idx);
+			assertEquals(means[idx], instance.model[0], tol);
+			assertTrue(instance.inliers.size >= counts[idx]*0.9);
+			assertTrue(instance.inliers.size <= counts[idx]);
+
+			// the inliers should be consistent with the model and owners
+			for (int i = 0; i < instance.inliers.size; i++) {
+				int pointIdx = instance.inliers.get(i);
+				assertEquals(idx, alg.getOwners().get(pointIdx));
+				assertTrue(Math.abs(samples.get(pointIdx) - instance.model[0]) < tol);
+			}
+		}
+
+		// Every point should be owned by at most one instance
+		DogArray_I32 owners = alg.getOwners();
+		assertEquals(samples.size(), owners.size);
+		int totalOwned = 0;
+		for (int i = 0; i < owners.size; i++) {
+			if (owners.get(i) >= 0)
+				totalOwned++;
+		}
+		int totalInliers = 0;
+		for (int idx = 0; idx < alg.getInstances().size; idx++) {
+			totalInliers += alg.getInstances().get(idx).inliers.size;
+		}
+		assertEquals(totalInliers, totalOwned);
+	}
+
+	@Test void maxInstances() {
+		List<Double> samples = createSamples(0);
+
+		SequentialRansac<double[], Double> alg = createAlg();
+		alg.setMaxInstances(2);
+		assertTrue(alg.process(samples));
+		assertEquals(2, alg.getInstances().size);
+	}
+
+	/** The smallest cluster should be rejected because it has too few inliers */
+	@Test void minimumInliers() {
+		List<Double> samples = createSamples(0);
+
+		SequentialRansac<double[], Double> alg = createAlg();
+		alg.setMinimumInliers(80);
+		assertTrue(alg.process(samples));
+		assertEquals(2, alg.getInstances().size);
+
+		// nothing should be found
+		alg.setMinimumInliers(500);
+		assertFalse(alg.process(samples));
+		assertEquals(0, alg.getInstances().size);
+		for (int i = 0; i < samples.size(); i++) {
+			assertEquals(-1, alg.getOwners().get(i));
+		}
+	}
+
+	/** Refitting should move the model closer to the true mean and never lose inliers */
+	@Test void modelFitter() {
+		List<Double> samples = createSamples(30);
+
+		SequentialRansac<double[], Double> alg = createAlg();
+		alg.setModelFitter(MeanModelFitter::new);
+		assertTrue(alg.process(samples));
+		assertEquals(3, alg.getInstances().size);
+
+		for (int idx = 0; idx < 3; idx++) {
+			assertEquals(means[idx], alg.getInstances().get(idx).model[0], tol*0.25);
+		}
+	}
+
+	/** After reset is called it should produce identical results */
+	@Test void reset() {
+		List<Double> samples = createSamples(30);
+
+		SequentialRansac<double[], Double> alg = createAlg();
+		assertTrue(alg.process(samples));
+		double[] expected = new double[alg.getInstances().size];
+		for (int i = 0; i < expected.length; i++) {
+			expected[i] = alg.getInstances().get(i).model[0];
+		}
+
+		alg.reset();
+		assertTrue(alg.process(samples));
+		assertEquals(expected.length, alg.getInstances().size);
+		for (int i = 0; i < expected.length; i++) {
+			assertEquals(expected[i], alg.getInstances().get(i).model[0]);
+		}
+	}
+
+	@Test void tooFewPoints() {
+		SequentialRansac<double[], Double> alg = createAlg();
+		assertFalse(alg.process(new ArrayList<>()));
+		assertFalse(alg.process(createSamples(0).subList(0, 5)));
+	}
+
+	/** Hypotheses from a previous call should not be used when the new data set is too small to sample */
+	@Test void tooFewPoints_afterLargerSet() {
+		SequentialRansac<double[], Double> alg = createAlg();
+		assertTrue(alg.process(createSamples(30)));
+
+		List<Double> tiny = new ArrayList<>();
+		for (int i = 0; i < alg.getMinimumInliers() - 1; i++) {
+			tiny.add(means[0]);
+		}
+		assertFalse(alg.process(tiny));
+		assertEquals(0, alg.getInstances().size);
+		for (int i = 0; i < alg.hypotheses.size; i++) {
+			assertFalse(alg.hypotheses.get(i).valid);
+			assertEquals(0, alg.hypotheses.get(i).inlierCount);
+		}
+	}
+}
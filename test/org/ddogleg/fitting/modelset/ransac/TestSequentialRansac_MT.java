@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.fitting.modelset.ransac;
+
+import org.ddogleg.fitting.modelset.DoubleArrayManager;
+import org.ddogleg.fitting.modelset.MeanModelFitter;
+import org.ddogleg.fitting.modelset.distance.DistanceFromMeanModel;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+class TestSequentialRansac_MT extends TestSequentialRansac {
+	@Override
+	protected SequentialRansac<double[], Double> createAlg() {
+		var alg = new SequentialRansac_MT<>(0xBEEF, 100, tol, new DoubleArrayManager(1), Double.class);
+		alg.setModel(MeanModelFitter::new, DistanceFromMeanModel::new);
+		return alg;
+	}
+
+	@Test void compareToSingleThread() {
+		SequentialRansac<double[], Double> single = super.createAlg();
+		SequentialRansac<double[], Double> multi = createAlg();
+		single.setModelFitter(MeanModelFitter::new);
+		multi.setModelFitter(MeanModelFitter::new);
+
+		for (int trial = 0; trial < 5; trial++) {
+			List<Double> samples = createSamples(50);
+
+			assertEquals(single.process(samples), multi.process(samples));
+			assertEquals(single.getInstances().size, multi.getInstances().size);
+			for (int i = 0; i < single.getInstances().size; i++) {
+				assertArrayEquals(single.getInstances().get(i).model, multi.getInstances().get(i).model, 0.0);
+				assertTrue(single.getInstances().get(i).inliers.isEquals(multi.getInstances().get(i).inliers));
+			}
+			assertTrue(single.getOwners().isEquals(multi.getOwners()));
+		}
+	}
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.sorting;
+
+import org.ddogleg.DDoglegConcurrency;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestParallelSelect_F64 {
+	Random rand = new Random(0xfeed4);
+
+	ParallelSelect_F64 alg = new ParallelSelect_F64();
+
+	int originalThreads;
+	boolean originalConcurrent;
+
+	@BeforeEach void before() {
+		originalThreads = DDoglegConcurrency.getMaxThreads();
+		originalConcurrent = DDoglegConcurrency.USE_CONCURRENT;
+		alg.minimumBlock = 10;
+	}
+
+	@AfterEach void after() {
+		DDoglegConcurrency.setMaxThreads(originalThreads);
+		DDoglegConcurrency.USE_CONCURRENT = originalConcurrent;
+	}
+
+	@Test void select() {
+		int offset = 4;
+		for (int threads : new int[]{1, 2, 3, 5}) {
+			DDoglegConcurrency.setMaxThreads(threads);
+			DDoglegConcurrency.USE_CONCURRENT = true;
+			for (int length : new int[]{1, 15, 37, 500}) {
+				for (int k : new int[]{0, length/3, length - 1}) {
+					double[] data = new double[offset + length + 3];
+					for (int i = 0; i < data.length; i++) {
+						data[i] = createValue();
+					}
+					double[] original = data.clone();
+					double[] sorted = Arrays.copyOfRange(data, offset, offset + length);
+					Arrays.sort(sorted);
+
+					double found = alg.select(data, k, offset, offset + length);
+
+					// QuickSelect is used for small arrays, which doesn't distinguish between -0.0 and 0.0
+					assertEquals(sorted[k], found, 0.0);
+					assertEquals(sorted[k], data[offset + k], 0.0);
+					checkPartitioned(data, offset, length, k);
+
+					// elements outside the range should not be modified
+					for (int i = 0; i < offset; i++) {
+						assertEquals(original[i], data[i]);
+					}
+					for (int i = offset + length; i < data.length; i++) {
+						assertEquals(original[i], data[i]);
+					}
+					// it should contain the same elements
+					double[] after = Arrays.copyOfRange(data, offset, offset + length);
+					Arrays.sort(after);
+					assertArrayEquals(sorted, after, 0.0);
+				}
+			}
+		}
+	}
+
+	@Test void selectIndex() {
+		for (int threads : new int[]{1, 2, 3, 5}) {
+			DDoglegConcurrency.setMaxThreads(threads);
+			DDoglegConcurrency.USE_CONCURRENT = true;
+			for (int length : new int[]{1, 15, 37, 500}) {
+				for (int k : new int[]{0, length/3, length - 1}) {
+					double[] data = new double[length + 3];
+					for (int i = 0; i < data.length; i++) {
+						data[i] = createValue();
+					}
+					double[] original = data.clone();
+					double[] sorted = Arrays.copyOf(data, length);
+					Arrays.sort(sorted);
+					int[] indexes = new int[length];
+
+					int found = alg.selectIndex(data, k, length, indexes);
+
+					// data should not be modified
+					assertArrayEquals(original, data);
+					assertEquals(sorted[k], data[found], 0.0);
+					assertEquals(found, indexes[k]);
+
+					// every index should be used once and be partitioned
+					boolean[] used = new boolean[length];
+					double[] selected = new double[length];
+					for (int i = 0; i < length; i++) {
+						assertFalse(used[indexes[i]]);
+						used[indexes[i]] = true;
+						selected[i] = data[indexes[i]];
+					}
+					checkPartitioned(selected, 0, length, k);
+				}
+			}
+		}
+	}
+
+	/**
+	 * NaN and -0.0 should be handled the same as Arrays.sort() when it's concurrent
+	 */
+	@Test void specialValues() {
+		DDoglegConcurrency.setMaxThreads(3);
+		DDoglegConcurrency.USE_CONCURRENT = true;
+
+		for (int trial = 0; trial < 20; trial++) {
+			double[] data = new double[300];
+			for (int i = 0; i < data.length; i++) {
+				data[i] = switch (rand.nextInt(4)) {
+					case 0 -> -0.0;
+					case 1 -> 0.0;
+					case 2 -> Double.NaN;
+					default -> rand.nextGaussian();
+				};
+			}
+			double[] sorted = data.clone();
+			Arrays.sort(sorted);
+			int[] indexes = new int[data.length];
+
+			int k = rand.nextInt(data.length);
+			assertEquals(sorted[k], data[alg.selectIndex(data, k, data.length, indexes)]);
+			assertEquals(sorted[k], alg.select(data, k, data.length));
+			checkPartitioned(data, 0, data.length, k);
+		}
+	}
+
+	/**
+	 * When not concurrent it should produce the same results as QuickSelect
+	 */
+	@Test void notConcurrent() {
+		DDoglegConcurrency.USE_CONCURRENT = false;
+
+		double[] data = BenchMarkSort.createRandom_F64(rand, 200);
+		double[] copy = data.clone();
+		int[] indexesA = new int[200];
+		int[] indexesB = new int[200];
+
+		assertEquals(QuickSelect.select(copy, 50, 200), alg.select(data, 50, 200));
+		assertArrayEquals(copy, data);
+		assertEquals(QuickSelect.selectIndex(data, 20, 200, indexesA), alg.selectIndex(data, 20, 200, indexesB));
+		assertArrayEquals(indexesA, indexesB);
+	}
+
+	/**
+	 * Checks to see if the elements before k are less than or equal to k and the ones after are more or equal
+	 */
+	void checkPartitioned( double[] data, int offset, int length, int k ) {
+		double value = data[offset + k];
+		for (int i = 0; i < length; i++) {
+			double v = data[offset + i];
+			if (i < k)
+				assertTrue(v <= value || Double.compare(v, value) <= 0);
+			else if (i > k)
+				assertTrue(v >= value || Double.compare(v, value) >= 0);
+		}
+	}
+
+	double createValue() {
+		// Make sure there are repeated values
+		return switch (rand.nextInt(10)) {
+			case 0 -> rand.nextInt(5);
+			case 1 -> -0.0;
+			default -> (rand.nextDouble() - 0.5)*2000.0;
+		};
+	}
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.sorting;
+
+import org.ddogleg.DDoglegConcurrency;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestParallelSort_S32 {
+	Random rand = new Random(0xfeed4);
+
+	ParallelSort_S32 alg = new ParallelSort_S32();
+
+	int originalThreads;
+	boolean originalConcurrent;
+
+	@BeforeEach void before() {
+		originalThreads = DDoglegConcurrency.getMaxThreads();
+		originalConcurrent = DDoglegConcurrency.USE_CONCURRENT;
+		alg.minimumBlock = 10;
+	}
+
+	@AfterEach void after() {
+		DDoglegConcurrency.setMaxThreads(originalThreads);
+		DDoglegConcurrency.USE_CONCURRENT = originalConcurrent;
+	}
+
+	/**
+	 * Compare against Arrays.sort() with a different number of threads, which changes the number of blocks
+	 */
+	@Test void compareToArraysSort() {
+		int offset = 3;
+		for (int threads : new int[]{1, 2, 3, 5, 8}) {
+			DDoglegConcurrency.setMaxThreads(threads);
+			DDoglegConcurrency.USE_CONCURRENT = true;
+			for (int length : new int[]{0, 1, 15, 20, 37, 200, 1001}) {
+				int[] arr = new int[offset + length + 2];
+				for (int i = 0; i < arr.length; i++) {
+					arr[i] = createValue();
+				}
+				int[] expected = arr.clone();
+				Arrays.sort(expected, offset, offset + length);
+
+				alg.sort(arr, offset, length);
+
+				assertArrayEquals(expected, arr);
+			}
+		}
+	}
+
+	@Test void sort_indexes() {
+		int offset = 10;
+		for (int threads : new int[]{1, 2, 3, 5, 8}) {
+			DDoglegConcurrency.setMaxThreads(threads);
+			DDoglegConcurrency.USE_CONCURRENT = true;
+			for (int length : new int[]{0, 1, 15, 20, 37, 200, 1001}) {
+				int[] normal = new int[length];
+				for (int i = 0; i < length; i++) {
+					normal[i] = createValue();
+				}
+				int[] withIndexes = new int[offset + normal.length];
+				int[] indexes = new int[normal.length];
+				System.arraycopy(normal, 0, withIndexes, offset, normal.length);
+				int[] original = withIndexes.clone();
+
+				Arrays.sort(normal);
+				alg.sort(withIndexes, offset, normal.length, indexes);
+
+				// it should not be modified
+				assertArrayEquals(original, withIndexes);
+				boolean[] used = new boolean[withIndexes.length];
+				for (int i = 0; i < normal.length; i++) {
+					assertEquals(normal[i], withIndexes[indexes[i]]);
+					assertFalse(used[indexes[i]]);
+					used[indexes[i]] = true;
+				}
+			}
+		}
+	}
+
+	/**
+	 * If concurrency is turned off then it should still sort
+	 */
+	@Test void notConcurrent() {
+		DDoglegConcurrency.USE_CONCURRENT = false;
+
+		int[] arr = BenchMarkSort.createRandom_S32(rand, 200);
+		int[] expected = arr.clone();
+		Arrays.sort(expected);
+
+		alg.sort(arr, arr.length);
+		assertArrayEquals(expected, arr);
+	}
+
+	int createValue() {
+		// Make sure there are repeated values and extreme values
+		return switch (rand.nextInt(10)) {
+			case 0 -> rand.nextInt(5);
+			case 1 -> Integer.MIN_VALUE;
+			case 2 -> Integer.MAX_VALUE;
+			default -> rand.nextInt();
+		};
+	}
+}
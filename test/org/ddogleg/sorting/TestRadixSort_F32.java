@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.sorting;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestRadixSort_F32 {
+	Random rand = new Random(0xfeed4);
+
+	RadixSort_F32 alg = new RadixSort_F32();
+
+	/**
+	 * Compare against Arrays.sort() for several sizes. The same instance is used to see if it handles the
+	 * work space changing size correctly
+	 */
+	@Test void compareToArraysSort() {
+		int offset = 3;
+		for (int length : new int[]{0, 1, 2, 10, 1000, 20}) {
+			float[] arr = new float[offset + length + 2];
+			for (int i = 0; i < arr.length; i++) {
+				arr[i] = createValue();
+			}
+			float[] expected = arr.clone();
+			Arrays.sort(expected, offset, offset + length);
+
+			alg.sort(arr, offset, length);
+
+			assertArrayEquals(expected, arr);
+		}
+	}
+
+	@Test void specialValues() {
+		float[] arr = new float[]{Float.NaN, 1.0f, -0.0f, Float.POSITIVE_INFINITY, 0.0f, -Float.MAX_VALUE,
+				Float.MIN_VALUE, -1.0f, Float.NEGATIVE_INFINITY, -Float.MIN_VALUE, Float.MAX_VALUE, 0.0f};
+		float[] expected = arr.clone();
+		Arrays.sort(expected);
+
+		alg.sort(arr, arr.length);
+
+		// assertArrayEquals() compares the bits so it will catch -0.0 and 0.0 being swapped
+		assertArrayEquals(expected, arr);
+	}
+
+	/**
+	 * Every key is the same. All the passes will be skipped
+	 */
+	@Test void allTheSame() {
+		float[] arr = new float[50];
+		Arrays.fill(arr, 2.5f);
+		int[] indexes = new int[50];
+
+		alg.sort(arr, 0, arr.length, indexes);
+		for (int i = 0; i < arr.length; i++) {
+			assertEquals(i, indexes[i]);
+		}
+
+		alg.sort(arr, arr.length);
+		for (int i = 0; i < arr.length; i++) {
+			assertEquals(2.5f, arr[i]);
+		}
+	}
+
+	@Test void sort_indexes() {
+		int offset = 10;
+		for (int trial = 0; trial < 20; trial++) {
+			float[] normal = BenchMarkSort.createRandom_F32(rand, 200);
+			float[] withIndexes = new float[offset + normal.length];
+			int[] indexes = new int[normal.length];
+			System.arraycopy(normal, 0, withIndexes, offset, normal.length);
+			float[] original = withIndexes.clone();
+
+			alg.sort(normal, normal.length);
+			alg.sort(withIndexes, offset, normal.length, indexes);
+
+			// it should not be modified
+			assertArrayEquals(original, withIndexes);
+			for (int i = 0; i < normal.length; i++) {
+				assertEquals(normal[i], withIndexes[indexes[i]]);
+			}
+		}
+	}
+
+	/**
+	 * The sort should be stable, so equal elements will be in their original order
+	 */
+	@Test void sort_indexes_stable() {
+		float[] arr = new float[300];
+		for (int i = 0; i < arr.length; i++) {
+			arr[i] = rand.nextInt(10) - 5;
+		}
+		int[] indexes = new int[arr.length];
+
+		alg.sort(arr, 0, arr.length, indexes);
+
+		for (int i = 1; i < arr.length; i++) {
+			float a = arr[indexes[i - 1]];
+			float b = arr[indexes[i]];
+			assertTrue(a <= b);
+			if (a == b)
+				assertTrue(indexes[i - 1] < indexes[i]);
+		}
+	}
+
+	@Test void toKey_fromKey() {
+		float[] values = new float[]{-1e30f, -2.0f, -Float.MIN_VALUE, -0.0f, 0.0f, Float.MIN_VALUE, 3.0f, 1e30f};
+		for (int i = 0; i < values.length; i++) {
+			int key = RadixSort_F32.toKey(values[i]);
+			assertEquals(Float.floatToRawIntBits(values[i]), Float.floatToRawIntBits(RadixSort_F32.fromKey(key)));
+			if (i > 0)
+				assertTrue(Integer.compareUnsigned(RadixSort_F32.toKey(values[i - 1]), key) < 0);
+		}
+	}
+
+	float createValue() {
+		// Make sure there are repeated values and values which differ by a tiny amount
+		return switch (rand.nextInt(4)) {
+			case 0 -> rand.nextInt(5);
+			case 1 -> (rand.nextFloat() - 0.5f)*1e-40f;
+			default -> (rand.nextFloat() - 0.5f)*2000.0f;
+		};
+	}
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.sorting;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestRadixSort_F64 {
+	Random rand = new Random(0xfeed4);
+
+	RadixSort_F64 alg = new RadixSort_F64();
+
+	/**
+	 * Compare against Arrays.sort() for several sizes. The same instance is used to see if it handles the
+	 * work space changing size correctly
+	 */
+	@Test void compareToArraysSort() {
+		int offset = 3;
+		for (int length : new int[]{0, 1, 2, 10, 1000, 20}) {
+			double[] arr = new double[offset + length + 2];
+			for (int i = 0; i < arr.length; i++) {
+				arr[i] = createValue();
+			}
+			double[] expected = arr.clone();
+			Arrays.sort(expected, offset, offset + length);
+
+			alg.sort(arr, offset, length);
+
+			assertArrayEquals(expected, arr);
+		}
+	}
+
+	@Test void specialValues() {
+		double[] arr = new double[]{Double.NaN, 1.0, -0.0, Double.POSITIVE_INFINITY, 0.0, -Double.MAX_VALUE,
+				Double.MIN_VALUE, -1.0, Double.NEGATIVE_INFINITY, -Double.MIN_VALUE, Double.MAX_VALUE, 0.0};
+		double[] expected = arr.clone();
+		Arrays.sort(expected);
+
+		alg.sort(arr, arr.length);
+
+		// assertArrayEquals() compares the bits so it will catch -0.0 and 0.0 being swapped
+		assertArrayEquals(expected, arr);
+	}
+
+	/**
+	 * Every key is the same. All the passes will be skipped
+	 */
+	@Test void allTheSame() {
+		double[] arr = new double[50];
+		Arrays.fill(arr, 2.5);
+		int[] indexes = new int[50];
+
+		alg.sort(arr, 0, arr.length, indexes);
+		for (int i = 0; i < arr.length; i++) {
+			assertEquals(i, indexes[i]);
+		}
+
+		alg.sort(arr, arr.length);
+		for (int i = 0; i < arr.length; i++) {
+			assertEquals(2.5, arr[i]);
+		}
+	}
+
+	@Test void sort_indexes() {
+		int offset = 10;
+		for (int trial = 0; trial < 20; trial++) {
+			double[] normal = BenchMarkSort.createRandom_F64(rand, 200);
+			double[] withIndexes = new double[offset + normal.length];
+			int[] indexes = new int[normal.length];
+			System.arraycopy(normal, 0, withIndexes, offset, normal.length);
+			double[] original = withIndexes.clone();
+
+			alg.sort(normal, normal.length);
+			alg.sort(withIndexes, offset, normal.length, indexes);
+
+			// it should not be modified
+			assertArrayEquals(original, withIndexes);
+			for (int i = 0; i < normal.length; i++) {
+				assertEquals(normal[i], withIndexes[indexes[i]]);
+			}
+		}
+	}
+
+	/**
+	 * The sort should be stable, so equal elements will be in their original order
+	 */
+	@Test void sort_indexes_stable() {
+		double[] arr = new double[300];
+		for (int i = 0; i < arr.length; i++) {
+			arr[i] = rand.nextInt(10) - 5;
+		}
+		int[] indexes = new int[arr.length];
+
+		alg.sort(arr, 0, arr.length, indexes);
+
+		for (int i = 1; i < arr.length; i++) {
+			double a = arr[indexes[i - 1]];
+			double b = arr[indexes[i]];
+			assertTrue(a <= b);
+			if (a == b)
+				assertTrue(indexes[i - 1] < indexes[i]);
+		}
+	}
+
+	@Test void toKey_fromKey() {
+		double[] values = new double[]{-1e200, -2.0, -Double.MIN_VALUE, -0.0, 0.0, Double.MIN_VALUE, 3.0, 1e200};
+		for (int i = 0; i < values.length; i++) {
+			long key = RadixSort_F64.toKey(values[i]);
+			assertEquals(Double.doubleToRawLongBits(values[i]), Double.doubleToRawLongBits(RadixSort_F64.fromKey(key)));
+			if (i > 0)
+				assertTrue(Long.compareUnsigned(RadixSort_F64.toKey(values[i - 1]), key) < 0);
+		}
+	}
+
+	double createValue() {
+		// Make sure there are repeated values and values which differ by a tiny amount
+		return switch (rand.nextInt(4)) {
+			case 0 -> rand.nextInt(5);
+			case 1 -> (rand.nextDouble() - 0.5)*1e-300;
+			default -> (rand.nextDouble() - 0.5)*2000.0;
+		};
+	}
+}
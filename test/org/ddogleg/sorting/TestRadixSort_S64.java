@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.sorting;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestRadixSort_S64 {
+	Random rand = new Random(0xfeed4);
+
+	RadixSort_S64 alg = new RadixSort_S64();
+
+	/**
+	 * Compare against Arrays.sort() for several sizes. The same instance is used to see if it handles the
+	 * work space changing size correctly
+	 */
+	@Test void compareToArraysSort() {
+		int offset = 3;
+		for (int length : new int[]{0, 1, 2, 10, 1000, 20}) {
+			long[] arr = new long[offset + length + 2];
+			for (int i = 0; i < arr.length; i++) {
+				arr[i] = createValue();
+			}
+			long[] expected = arr.clone();
+			Arrays.sort(expected, offset, offset + length);
+
+			alg.sort(arr, offset, length);
+
+			assertArrayEquals(expected, arr);
+		}
+	}
+
+	@Test void extremeValues() {
+		long[] arr = new long[]{Long.MAX_VALUE, 0, -1, Long.MIN_VALUE, 1, 255, 256, -256, Long.MIN_VALUE + 1, Integer.MAX_VALUE,
+				Integer.MIN_VALUE, 1L << 40};
+		long[] expected = arr.clone();
+		Arrays.sort(expected);
+
+		alg.sort(arr, arr.length);
+
+		assertArrayEquals(expected, arr);
+	}
+
+	/**
+	 * Every key is the same. All the passes will be skipped
+	 */
+	@Test void allTheSame() {
+		long[] arr = new long[50];
+		Arrays.fill(arr, -7L);
+		int[] indexes = new int[50];
+
+		alg.sort(arr, 0, arr.length, indexes);
+		for (int i = 0; i < arr.length; i++) {
+			assertEquals(i, indexes[i]);
+		}
+
+		alg.sort(arr, arr.length);
+		for (int i = 0; i < arr.length; i++) {
+			assertEquals(-7L, arr[i]);
+		}
+	}
+
+	@Test void sort_indexes() {
+		int offset = 10;
+		for (int trial = 0; trial < 20; trial++) {
+			long[] normal = createRandom(200);
+			long[] withIndexes = new long[offset + normal.length];
+			int[] indexes = new int[normal.length];
+			System.arraycopy(normal, 0, withIndexes, offset, normal.length);
+			long[] original = withIndexes.clone();
+
+			alg.sort(normal, normal.length);
+			alg.sort(withIndexes, offset, normal.length, indexes);
+
+			// it should not be modified
+			assertArrayEquals(original, withIndexes);
+			for (int i = 0; i < normal.length; i++) {
+				assertEquals(normal[i], withIndexes[indexes[i]]);
+			}
+		}
+	}
+
+	/**
+	 * The sort should be stable, so equal elements will be in their original order
+	 */
+	@Test void sort_indexes_stable() {
+		long[] arr = new long[300];
+		for (int i = 0; i < arr.length; i++) {
+			arr[i] = rand.nextInt(10) - 5;
+		}
+		int[] indexes = new int[arr.length];
+
+		alg.sort(arr, 0, arr.length, indexes);
+
+		for (int i = 1; i < arr.length; i++) {
+			long a = arr[indexes[i - 1]];
+			long b = arr[indexes[i]];
+			assertTrue(a <= b);
+			if (a == b)
+				assertTrue(indexes[i - 1] < indexes[i]);
+		}
+	}
+
+	@Test void sortUnsigned() {
+		long[] arr = new long[200];
+		int[] indexes = new int[arr.length];
+		for (int i = 0; i < arr.length; i++) {
+			arr[i] = rand.nextLong();
+			indexes[i] = i;
+		}
+		long[] original = arr.clone();
+
+		alg.sortUnsigned(arr, 0, arr.length, indexes);
+
+		for (int i = 0; i < arr.length; i++) {
+			assertEquals(original[indexes[i]], arr[i]);
+			if (i > 0)
+				assertTrue(Long.compareUnsigned(arr[i - 1], arr[i]) <= 0);
+		}
+	}
+
+	long createValue() {
+		// Make sure there are repeated values, values which only differ in a single byte, and large values
+		return switch (rand.nextInt(3)) {
+			case 0 -> rand.nextInt(5);
+			case 1 -> rand.nextInt(2000) - 1000;
+			default -> rand.nextLong();
+		};
+	}
+
+	long[] createRandom( int length ) {
+		long[] ret = new long[length];
+		for (int i = 0; i < length; i++) {
+			ret[i] = createValue();
+		}
+		return ret;
+	}
+}
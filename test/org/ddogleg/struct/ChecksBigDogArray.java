@@ -20,6 +20,9 @@ package org.ddogleg.struct;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -112,6 +115,14 @@ public abstract class ChecksBigDogArray<Array> {
 		assertEquals(2, alg.getDesiredBlocks(11));
 		assertEquals(2, alg.getDesiredBlocks(19));
 		assertEquals(2, alg.getDesiredBlocks(20));
+
+		// More elements than can be indexed with an int
+		assertEquals(300_000_000, alg.getDesiredBlocks(3_000_000_000L));
+		assertEquals(300_000_001, alg.getDesiredBlocks(3_000_000_001L));
+
+		// Too many blocks
+		BigDogArrayBase<Array> small = createBigDog(1, 1, BigDogGrowth.GROW_FIRST);
+		assertThrows(IllegalArgumentException.class, () -> small.getDesiredBlocks(3_000_000_000L));
 	}
 
 	@Test void allocate_GROW_FIRST() {
@@ -185,6 +196,28 @@ public abstract class ChecksBigDogArray<Array> {
 		});
 	}
 
+	/**
+	 * The concurrent version should make the exact same calls, but in a different order
+	 */
+	@Test void processByBlock_MT() {
+		BigDogArrayBase<Array> alg = createBigDog(1, 10, BigDogGrowth.FIXED);
+		alg.resize(57);
+
+		for (int[] range : new int[][]{{0, 57}, {3, 45}, {10, 20}, {12, 17}, {5, 5}}) {
+			List<String> expected = new ArrayList<>();
+			alg.processByBlock(range[0], range[1], ( block, idx0, idx1, offset ) ->
+					expected.add(block.hashCode() + " " + idx0 + " " + idx1 + " " + offset));
+
+			List<String> found = Collections.synchronizedList(new ArrayList<>());
+			alg.processByBlock_MT(range[0], range[1], ( block, idx0, idx1, offset ) ->
+					found.add(block.hashCode() + " " + idx0 + " " + idx1 + " " + offset));
+
+			Collections.sort(expected);
+			Collections.sort(found);
+			assertEquals(expected, found);
+		}
+	}
+
 	@Test void removeTail() {
 		for (var growth : BigDogGrowth.values()) {
 			for (int N : new int[]{45, 50}) {
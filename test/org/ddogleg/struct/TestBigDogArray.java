@@ -20,6 +20,8 @@ package org.ddogleg.struct;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -285,7 +287,7 @@ public class TestBigDogArray extends ChecksBigDogArray<TestBigDogArray.Foo[]> {
 
 		DogArray_F64 results = new DogArray_F64(12);
 		results.resize(12);
-		alg.forIdx(1, 12, results::set);
+		alg.forIdx(1, 12, ( idx, value ) -> results.set((int)idx, value));
 		assertEquals(0, results.get(0));
 		for (int i = 1; i < 12; i++) {
 			assertEquals(i + 1, results.get(i));
@@ -354,6 +356,20 @@ public class TestBigDogArray extends ChecksBigDogArray<TestBigDogArray.Foo[]> {
 		return ((Foo)a).stuff == ((Foo)b).stuff;
 	}
 
+	@Test void forEach_forIdx_MT() {
+		var alg = new BigDogArray<>(10, 10, BigDogGrowth.GROW, Foo::new, Foo::reset);
+		alg.resize(35);
+
+		alg.forIdx_MT(3, 30, ( idx, o ) -> o.stuff = (int)idx);
+		for (int i = 0; i < alg.size; i++) {
+			assertEquals(i >= 3 && i < 30 ? i : -1, alg.get(i).stuff);
+		}
+
+		var count = new AtomicInteger();
+		alg.forEach_MT(2, 31, o -> count.incrementAndGet());
+		assertEquals(29, count.get());
+	}
+
 	public static class Foo {
 		public int stuff;
 
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.struct;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestBigDogArrayOps {
+	Random rand = new Random(234);
+
+	// Ranges which start and end inside of blocks, on block boundaries, and are inside a single block
+	long[][] ranges = new long[][]{{0, 257}, {3, 245}, {10, 200}, {12, 17}, {40, 41}};
+
+	@Test void sum_F64() {
+		BigDogArray_F64 array = createF64(257);
+		for (long[] r : ranges) {
+			double expected = 0.0;
+			for (long i = r[0]; i < r[1]; i++) {
+				expected += array.get(i);
+			}
+			assertEquals(expected, BigDogArrayOps.sum(array, r[0], r[1]), 1e-8);
+			assertEquals(BigDogArrayOps.sum(array, r[0], r[1]), BigDogArrayOps.sum_MT(array, r[0], r[1]));
+		}
+		assertEquals(0.0, BigDogArrayOps.sum(array, 5, 5));
+		assertEquals(0.0, BigDogArrayOps.sum_MT(array, 5, 5));
+	}
+
+	@Test void min_max_F64() {
+		BigDogArray_F64 array = createF64(257);
+		for (long[] r : ranges) {
+			double min = Double.MAX_VALUE;
+			double max = -Double.MAX_VALUE;
+			for (long i = r[0]; i < r[1]; i++) {
+				min = Math.min(min, array.get(i));
+				max = Math.max(max, array.get(i));
+			}
+			assertEquals(min, BigDogArrayOps.min(array, r[0], r[1]));
+			assertEquals(min, BigDogArrayOps.min_MT(array, r[0], r[1]));
+			assertEquals(max, BigDogArrayOps.max(array, r[0], r[1]));
+			assertEquals(max, BigDogArrayOps.max_MT(array, r[0], r[1]));
+		}
+		assertThrows(IllegalArgumentException.class, () -> BigDogArrayOps.min(array, 5, 5));
+		assertThrows(IllegalArgumentException.class, () -> BigDogArrayOps.max_MT(array, 5, 5));
+	}
+
+	@Test void count_F64() {
+		BigDogArray_F64 array = createF64(257);
+		for (long[] r : ranges) {
+			int expected = 0;
+			for (long i = r[0]; i < r[1]; i++) {
+				if (array.get(i) > 0.0)
+					expected++;
+			}
+			assertEquals(expected, BigDogArrayOps.count(array, r[0], r[1], v -> v > 0.0));
+			assertEquals(expected, BigDogArrayOps.count_MT(array, r[0], r[1], v -> v > 0.0));
+		}
+	}
+
+	@Test void sum_I32() {
+		BigDogArray_I32 array = createI32(257);
+		for (long[] r : ranges) {
+			long expected = 0;
+			for (long i = r[0]; i < r[1]; i++) {
+				expected += array.get(i);
+			}
+			assertEquals(expected, BigDogArrayOps.sum(array, r[0], r[1]));
+			assertEquals(expected, BigDogArrayOps.sum_MT(array, r[0], r[1]));
+		}
+
+		// The sum shouldn't overflow
+		array.fill(0, array.size, Integer.MAX_VALUE);
+		assertEquals(257L*Integer.MAX_VALUE, BigDogArrayOps.sum_MT(array, 0, array.size));
+	}
+
+	@Test void min_max_I32() {
+		BigDogArray_I32 array = createI32(257);
+		for (long[] r : ranges) {
+			int min = Integer.MAX_VALUE;
+			int max = Integer.MIN_VALUE;
+			for (long i = r[0]; i < r[1]; i++) {
+				min = Math.min(min, array.get(i));
+				max = Math.max(max, array.get(i));
+			}
+			assertEquals(min, BigDogArrayOps.min(array, r[0], r[1]));
+			assertEquals(min, BigDogArrayOps.min_MT(array, r[0], r[1]));
+			assertEquals(max, BigDogArrayOps.max(array, r[0], r[1]));
+			assertEquals(max, BigDogArrayOps.max_MT(array, r[0], r[1]));
+		}
+	}
+
+	@Test void count_I32() {
+		BigDogArray_I32 array = createI32(257);
+		for (long[] r : ranges) {
+			int expected = 0;
+			for (long i = r[0]; i < r[1]; i++) {
+				if (array.get(i)%2 == 0)
+					expected++;
+			}
+			assertEquals(expected, BigDogArrayOps.count(array, r[0], r[1], v -> v%2 == 0));
+			assertEquals(expected, BigDogArrayOps.count_MT(array, r[0], r[1], v -> v%2 == 0));
+		}
+	}
+
+	private BigDogArray_F64 createF64( int size ) {
+		var array = new BigDogArray_F64(1, 20, BigDogGrowth.GROW_FIRST);
+		for (int i = 0; i < size; i++) {
+			array.append(rand.nextGaussian());
+		}
+		return array;
+	}
+
+	private BigDogArray_I32 createI32( int size ) {
+		var array = new BigDogArray_I32(1, 20, BigDogGrowth.GROW_FIRST);
+		for (int i = 0; i < size; i++) {
+			array.append(rand.nextInt(2000) - 1000);
+		}
+		return array;
+	}
+}
@@ -20,6 +20,8 @@ package org.ddogleg.struct;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -227,6 +229,20 @@ public class TestBigDogArray_B extends ChecksBigDogArray<boolean[]> {
 		}
 	}
 
+	/**
+	 * Access elements using long indexes
+	 */
+	@Test void set_get_long() {
+		var alg = new BigDogArray_B(2, 10, BigDogGrowth.GROW);
+		alg.resize(25L);
+
+		for (long i = 0; i < 25; i++) {
+			alg.set(i, i%3 == 0);
+			assertEquals(i%3 == 0, alg.get(i));
+			assertEquals(alg.get((int)i), alg.get(i));
+		}
+	}
+
 	@Test void setTail_getTail() {
 		var alg = new BigDogArray_B(2, 10, BigDogGrowth.GROW);
 		alg.resize(25);
@@ -280,7 +296,7 @@ public class TestBigDogArray_B extends ChecksBigDogArray<boolean[]> {
 
 		DogArray_B results = new DogArray_B(12);
 		results.resize(12);
-		alg.forIdx(1, 12, results::set);
+		alg.forIdx(1, 12, ( idx, value ) -> results.set((int)idx, value));
 		assertFalse(results.get(0));
 		for (int i = 1; i < 12; i++) {
 			assertEquals(i%2 == 0, results.get(i));
@@ -304,6 +320,55 @@ public class TestBigDogArray_B extends ChecksBigDogArray<boolean[]> {
 		}
 	}
 
+	@Test void forEach_MT() {
+		var alg = new BigDogArray_B(2, 10, BigDogGrowth.GROW);
+		alg.resize(22);
+		for (int i = 0; i < alg.size; i++) {
+			alg.set(i, i%3 == 0);
+		}
+
+		var count = new AtomicInteger();
+		alg.forEach_MT(1, 12, value -> {
+			if (value)
+				count.incrementAndGet();
+		});
+		assertEquals(3, count.get());
+	}
+
+	@Test void forIdx_MT() {
+		var alg = new BigDogArray_B(2, 10, BigDogGrowth.GROW);
+		alg.resize(22);
+		for (int i = 0; i < alg.size; i++) {
+			alg.set(i, i%2 == 0);
+		}
+
+		// Each index is written to by a single thread
+		DogArray_B results = new DogArray_B(12);
+		results.resetResize(12, false);
+		alg.forIdx_MT(1, 12, ( idx, value ) -> results.set((int)idx, value));
+		assertFalse(results.get(0));
+		for (int i = 1; i < 12; i++) {
+			assertEquals(i%2 == 0, results.get(i));
+		}
+	}
+
+	@Test void applyIdx_MT() {
+		var alg = new BigDogArray_B(2, 10, BigDogGrowth.GROW);
+		alg.resize(22);
+		for (int i = 0; i < alg.size; i++) {
+			alg.set(i, i%2 == 0);
+		}
+
+		alg.applyIdx_MT(1, 12, ( idx, val ) -> idx%2 == 1);
+		for (int i = 0; i < alg.size; i++) {
+			if (i >= 1 && i < 12) {
+				assertEquals(i%2 == 1, alg.get(i));
+			} else {
+				assertEquals(i%2 == 0, alg.get(i));
+			}
+		}
+	}
+
 	@Test void processByBlock() {
 		var alg = new BigDogArray_B(2, 10, BigDogGrowth.GROW);
 		alg.resize(26);
@@ -227,6 +227,20 @@ public class TestBigDogArray_I8 extends ChecksBigDogArray<byte[]> {
 		}
 	}
 
+	/**
+	 * Access elements using long indexes
+	 */
+	@Test void set_get_long() {
+		var alg = new BigDogArray_I8(2, 10, BigDogGrowth.GROW);
+		alg.resize(25L);
+
+		for (long i = 0; i < 25; i++) {
+			alg.set(i, (byte)(i + 1));
+			assertEquals(i + 1, alg.get(i));
+			assertEquals(alg.get((int)i), alg.get(i));
+		}
+	}
+
 	@Test void setTail_getTail() {
 		var alg = new BigDogArray_I8(2, 10, BigDogGrowth.GROW);
 		alg.resize(25);
@@ -280,7 +294,7 @@ public class TestBigDogArray_I8 extends ChecksBigDogArray<byte[]> {
 
 		DogArray_I8 results = new DogArray_I8(12);
 		results.resize(12);
-		alg.forIdx(1, 12, results::set);
+		alg.forIdx(1, 12, ( idx, value ) -> results.set((int)idx, value));
 		assertEquals(0, results.get(0));
 		for (int i = 1; i < 12; i++) {
 			assertEquals(i + 1, results.get(i));
@@ -304,6 +318,60 @@ public class TestBigDogArray_I8 extends ChecksBigDogArray<byte[]> {
 		}
 	}
 
+	@Test void forEach_MT() {
+		var alg = new BigDogArray_I8(2, 10, BigDogGrowth.GROW);
+		alg.resize(22);
+		for (int i = 0; i < alg.size; i++) {
+			alg.set(i, (byte)(i + 1));
+		}
+
+		DogArray_I8 results = new DogArray_I8();
+		alg.forEach_MT(1, 12, value -> {
+			synchronized (results) {
+				results.add(value);
+			}
+		});
+		assertEquals(11, results.size);
+		results.sort();
+		for (int i = 0; i < 11; i++) {
+			assertEquals(i + 2, results.get(i));
+		}
+	}
+
+	@Test void forIdx_MT() {
+		var alg = new BigDogArray_I8(2, 10, BigDogGrowth.GROW);
+		alg.resize(22);
+		for (int i = 0; i < alg.size; i++) {
+			alg.set(i, (byte)(i + 1));
+		}
+
+		// Each index is written to by a single thread
+		DogArray_I8 results = new DogArray_I8(12);
+		results.resetResize(12, (byte)0);
+		alg.forIdx_MT(1, 12, ( idx, value ) -> results.set((int)idx, value));
+		assertEquals(0, results.get(0));
+		for (int i = 1; i < 12; i++) {
+			assertEquals(i + 1, results.get(i));
+		}
+	}
+
+	@Test void applyIdx_MT() {
+		var alg = new BigDogArray_I8(2, 10, BigDogGrowth.GROW);
+		alg.resize(22);
+		for (int i = 0; i < alg.size; i++) {
+			alg.set(i, (byte)(i + 1));
+		}
+
+		alg.applyIdx_MT(1, 12, ( idx, val ) -> (byte)(idx*2));
+		for (int i = 0; i < alg.size; i++) {
+			if (i >= 1 && i < 12) {
+				assertEquals(i*2, alg.get(i));
+			} else {
+				assertEquals(i + 1, alg.get(i));
+			}
+		}
+	}
+
 	@Test void processByBlock() {
 		var alg = new BigDogArray_I8(2, 10, BigDogGrowth.GROW);
 		alg.resize(26);
@@ -0,0 +1,270 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.struct;
+
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestBigDogBuffer_I8 {
+	// File which arrays are mapped to
+	@Nullable File file;
+
+	@AfterEach void deleteFile() {
+		// Can fail while the file is still mapped on some platforms, e.g. Windows. deleteOnExit() will try again
+		if (file != null)
+			file.delete();
+	}
+
+	/** Blocks should only be added and all have the same size */
+	@Test void resize() {
+		var alg = new BigDogBuffer_I8(10);
+		assertEquals(0, alg.blocks.size);
+		assertEquals(0, alg.getTotalAllocation());
+
+		alg.resize(4, (byte)4);
+		assertEquals(4, alg.size);
+		assertEquals(1, alg.blocks.size);
+		assertEquals(10, alg.getTotalAllocation());
+
+		alg.resize(21, (byte)3);
+		assertEquals(21, alg.size);
+		assertEquals(3, alg.blocks.size);
+		assertEquals(30, alg.getTotalAllocation());
+		for (int i = 0; i < alg.size; i++) {
+			assertEquals(i < 4 ? 4 : 3, alg.get(i));
+		}
+
+		// Shrinking doesn't change the blocks
+		alg.resize(2);
+		assertEquals(2, alg.size);
+		assertEquals(3, alg.blocks.size);
+		for (int i = 0; i < alg.blocks.size; i++) {
+			assertEquals(10, alg.blocks.get(i).capacity());
+		}
+	}
+
+	@Test void appendValue() {
+		var alg = new BigDogBuffer_I8(10);
+		for (int i = 0; i < 21; i++) {
+			alg.append((byte)(i + 1));
+			assertEquals(i + 1, alg.size);
+		}
+		assertEquals(3, alg.blocks.size);
+
+		for (int i = 0; i < alg.size; i++) {
+			assertEquals(i + 1, alg.get(i));
+		}
+	}
+
+	@Test void appendArray() {
+		byte[] array = new byte[25];
+		for (int i = 0; i < array.length; i++) {
+			array[i] = (byte)(i + 1);
+		}
+
+		var alg = new BigDogBuffer_I8(10);
+		alg.append((byte)100);
+		alg.append(array, 1, array.length - 1);
+		assertEquals(array.length, alg.size);
+		assertEquals(100, alg.get(0));
+		for (int i = 1; i < alg.size; i++) {
+			assertEquals(array[i], alg.get(i));
+		}
+	}
+
+	@Test void fill() {
+		var alg = new BigDogBuffer_I8(10);
+		alg.resize(25, (byte)2);
+		alg.fill(3, 22, (byte)1);
+
+		for (int i = 0; i < alg.size; i++) {
+			assertEquals(i >= 3 && i < 22 ? 1 : 2, alg.get(i));
+		}
+	}
+
+	@Test void set_get() {
+		var alg = new BigDogBuffer_I8(10);
+		alg.resize(25);
+
+		for (int i = 0; i < 25; i++) {
+			alg.set(i, (byte)(i + 1));
+			assertEquals(i + 1, alg.get(i));
+		}
+		for (long i = 0; i < 25; i++) {
+			alg.set(i, (byte)(i + 2));
+			assertEquals(i + 2, alg.get(i));
+			assertEquals(alg.get((int)i), alg.get(i));
+		}
+	}
+
+	@Test void setTail_getTail() {
+		var alg = new BigDogBuffer_I8(10);
+		alg.resize(25);
+
+		for (int i = 0; i < 25; i++) {
+			alg.setTail(i, (byte)(i + 1));
+			assertEquals(i + 1, alg.getTail(i));
+		}
+		assertEquals(alg.get(alg.size - 1), alg.getTail(0));
+		assertEquals(alg.get(alg.size - 2), alg.getTail(1));
+	}
+
+	@Test void removeSwap() {
+		var alg = new BigDogBuffer_I8(10);
+		for (int i = 0; i < 15; i++) {
+			alg.append((byte)i);
+		}
+		alg.removeSwap(2);
+		assertEquals(14, alg.size);
+		assertEquals(14, alg.get(2));
+		assertEquals(13, alg.getTail(0));
+	}
+
+	@Test void setArray_getArray() {
+		var alg = new BigDogBuffer_I8(10);
+		alg.resize(25);
+
+		byte[] array = new byte[21];
+		for (int i = 0; i < array.length; i++) {
+			array[i] = (byte)(i + 1);
+		}
+		alg.setArray(1, array, 1, array.length - 1);
+		for (int i = 1; i < array.length; i++) {
+			assertEquals(array[i], alg.get(i));
+		}
+
+		byte[] found = new byte[15];
+		alg.getArray(2, found, 1, 12);
+		for (int i = 0; i < found.length; i++) {
+			if (i >= 1 && i < 13)
+				assertEquals(array[i + 1], found[i]);
+			else
+				assertEquals(0, found[i]);
+		}
+	}
+
+	@Test void forEach_forIdx() {
+		var alg = new BigDogBuffer_I8(10);
+		alg.resize(22);
+		for (int i = 0; i < alg.size; i++) {
+			alg.set(i, (byte)(i + 1));
+		}
+
+		DogArray_I8 results = new DogArray_I8();
+		alg.forEach(1, 12, results::add);
+		assertEquals(11, results.size);
+		for (int i = 0; i < 11; i++) {
+			assertEquals(i + 2, results.get(i));
+		}
+
+		results.resetResize(12, (byte)0);
+		alg.forIdx(1, 12, ( idx, value ) -> results.set((int)idx, value));
+		assertEquals(0, results.get(0));
+		for (int i = 1; i < 12; i++) {
+			assertEquals(i + 1, results.get(i));
+		}
+	}
+
+	@Test void applyIdx() {
+		var alg = new BigDogBuffer_I8(10);
+		alg.resize(22);
+		for (int i = 0; i < alg.size; i++) {
+			alg.set(i, (byte)(i + 1));
+		}
+
+		alg.applyIdx(1, 12, ( idx, val ) -> (byte)(idx*2));
+		for (int i = 0; i < alg.size; i++) {
+			assertEquals(i >= 1 && i < 12 ? i*2 : i + 1, alg.get(i));
+		}
+	}
+
+	@Test void processByBlock() {
+		var alg = new BigDogBuffer_I8(10);
+		alg.resize(26);
+		alg.processByBlock(1, alg.size - 1, ( block, idx0, idx1, offset ) -> {
+			for (int i = idx0; i < idx1; i++) {
+				block.put(i, (byte)(i - idx0 + offset));
+			}
+		});
+		for (int i = 0; i < alg.size; i++) {
+			assertEquals(i >= 1 && i < alg.size - 1 ? i - 1 : 0, alg.get(i));
+		}
+	}
+
+	/**
+	 * Write to a mapped file then open it again as read only
+	 */
+	@Test void map() throws Exception {
+		File file = this.file = File.createTempFile("BigDogBuffer", ".bin");
+		file.deleteOnExit();
+
+		try (var channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+				StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			var alg = BigDogBuffer_I8.map(channel, FileChannel.MapMode.READ_WRITE, 10);
+			assertEquals(0, alg.size);
+			for (int i = 0; i < 25; i++) {
+				alg.append((byte)(i + 1));
+			}
+			((BigDogMappedFile)alg.getGeneratorBlock()).force();
+
+			// The file is extended by entire blocks
+			assertEquals(30L*Byte.BYTES, channel.size());
+		}
+
+		try (var channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			var alg = BigDogBuffer_I8.map(channel, FileChannel.MapMode.READ_ONLY, 8);
+			assertEquals(30, alg.size);
+			for (int i = 0; i < alg.size; i++) {
+				assertEquals(i < 25 ? i + 1 : 0, alg.get(i));
+			}
+			// Last block is only mapped up to the end of the file
+			assertEquals(6, alg.blocks.getTail().capacity());
+		}
+	}
+
+	/**
+	 * A file which ends with part of an element should be rejected
+	 */
+	@Test void map_partialElement() throws Exception {
+		File file = this.file = File.createTempFile("BigDogBuffer", ".bin");
+		file.deleteOnExit();
+
+		try (var channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			channel.write(ByteBuffer.allocate(Byte.BYTES*3 + 1));
+			if (Byte.BYTES == 1) {
+				// Any length is valid when each element is a single byte
+				assertEquals(4, BigDogBuffer_I8.map(channel, FileChannel.MapMode.READ_ONLY, 10).size);
+			} else {
+				assertThrows(IOException.class, () -> BigDogBuffer_I8.map(channel, FileChannel.MapMode.READ_ONLY, 10));
+			}
+		}
+	}
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.struct;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestConcurrentRecycleManager {
+	@Test void requestInstance_recycleInstance() {
+		var manager = new ConcurrentRecycleManager<>(Dummy.class);
+
+		Dummy first = manager.requestInstance();
+		Dummy second = manager.requestInstance();
+		manager.recycleInstance(first);
+		Dummy third = manager.requestInstance();
+
+		assertSame(first, third);
+		assertNotSame(first, second);
+
+		assertEquals(1, manager.getHits());
+		assertEquals(2, manager.getMisses());
+		assertEquals(2, manager.getOutstanding());
+
+		manager.resetStatistics();
+		assertEquals(0, manager.getHits());
+		assertEquals(0, manager.getMisses());
+		assertEquals(2, manager.getOutstanding());
+	}
+
+	/**
+	 * Recycle more instances than fit inside a magazine and make sure none of them are lost
+	 */
+	@Test void overflowMagazine() {
+		var manager = new ConcurrentRecycleManager<>(Dummy::new, 4);
+
+		List<Dummy> list = new ArrayList<>();
+		for (int i = 0; i < 11; i++) {
+			list.add(manager.requestInstance());
+		}
+		list.forEach(manager::recycleInstance);
+		assertEquals(0, manager.getOutstanding());
+
+		List<Dummy> found = new ArrayList<>();
+		for (int i = 0; i < 11; i++) {
+			Dummy d = manager.requestInstance();
+			assertFalse(found.contains(d));
+			assertTrue(list.contains(d));
+			found.add(d);
+		}
+		assertEquals(11, manager.getHits());
+		assertEquals(11, manager.getMisses());
+
+		// now it needs to create a new instance
+		assertFalse(list.contains(manager.requestInstance()));
+		assertEquals(12, manager.getMisses());
+	}
+
+	/**
+	 * Instances recycled in one thread should be available in another thread after they have been flushed
+	 */
+	@Test void shareBetweenThreads() throws Exception {
+		var manager = new ConcurrentRecycleManager<>(Dummy::new, 8);
+		List<Dummy> list = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			list.add(manager.requestInstance());
+		}
+
+		var thread = new Thread(() -> {
+			list.forEach(manager::recycleInstance);
+			manager.flushThread();
+		});
+		thread.start();
+		thread.join();
+
+		for (int i = 0; i < 5; i++) {
+			assertTrue(list.contains(manager.requestInstance()));
+		}
+		assertEquals(5, manager.getHits());
+		assertEquals(5, manager.getOutstanding());
+	}
+
+	/**
+	 * Several threads request and recycle at the same time. Instances should never be given out twice and in
+	 * steady state no new instances should be created
+	 */
+	@Test void multipleThreads() throws Exception {
+		var manager = new ConcurrentRecycleManager<>(Dummy::new, 4);
+		var failed = new AtomicInteger();
+
+		List<Thread> threads = new ArrayList<>();
+		for (int threadIdx = 0; threadIdx < 4; threadIdx++) {
+			threads.add(new Thread(() -> {
+				List<Dummy> held = new ArrayList<>();
+				for (int trial = 0; trial < 2000; trial++) {
+					for (int i = 0; i < 7; i++) {
+						Dummy d = manager.requestInstance();
+						// If it's being used by another thread then this will detect it
+						if (d.owner.getAndIncrement() != 0)
+							failed.incrementAndGet();
+						held.add(d);
+					}
+					for (Dummy d : held) {
+						d.owner.decrementAndGet();
+						manager.recycleInstance(d);
+					}
+					held.clear();
+				}
+			}));
+		}
+		threads.forEach(Thread::start);
+		for (Thread t : threads) {
+			t.join();
+		}
+
+		assertEquals(0, failed.get());
+		assertEquals(0, manager.getOutstanding());
+		// New instances are only created when the shared stack is empty, so the most that can exist is what's
+		// being held plus what's inside of each thread's magazine
+		assertTrue(manager.getMisses() <= 4*(7 + 4));
+		assertEquals(4*2000*7, manager.getHits() + manager.getMisses());
+	}
+
+	/**
+	 * Instances are requested in one thread and recycled in another. After warming up it should stop creating
+	 * new instances and magazines
+	 */
+	@Test void steadyState_crossThread() throws Exception {
+		var manager = new ConcurrentRecycleManager<>(Dummy::new, 4);
+		ExecutorService recycler = Executors.newSingleThreadExecutor();
+		try {
+			List<Dummy> list = new ArrayList<>();
+			int magazines = 0;
+			long misses = 0;
+			for (int round = 0; round < 10; round++) {
+				for (int i = 0; i < 23; i++) {
+					list.add(manager.requestInstance());
+				}
+				recycler.submit(() -> {
+					list.forEach(manager::recycleInstance);
+					manager.flushThread();
+				}).get();
+				list.clear();
+
+				if (round == 1) {
+					magazines = manager.getMagazineCount();
+					misses = manager.getMisses();
+				} else if (round > 1) {
+					assertEquals(magazines, manager.getMagazineCount());
+					assertEquals(misses, manager.getMisses());
+				}
+			}
+			assertEquals(0, manager.getOutstanding());
+		} finally {
+			recycler.shutdown();
+		}
+	}
+
+	/**
+	 * The per-thread magazines must not keep the manager alive after it's no longer referenced
+	 */
+	@Test void garbageCollected() throws Exception {
+		ExecutorService worker = Executors.newSingleThreadExecutor();
+		try {
+			WeakReference<?> reference = createAndUse(worker);
+			for (int i = 0; i < 50 && reference.get() != null; i++) {
+				System.gc();
+				Thread.sleep(10);
+			}
+			assertNull(reference.get());
+		} finally {
+			worker.shutdown();
+		}
+	}
+
+	/**
+	 * Creates a magazine in this thread and in a thread which stays alive. Done in a separate function so that
+	 * there are no local references to the manager left.
+	 */
+	private static WeakReference<?> createAndUse( ExecutorService worker ) throws Exception {
+		var manager = new ConcurrentRecycleManager<>(Dummy::new, 4);
+		manager.recycleInstance(manager.requestInstance());
+		worker.submit(() -> manager.recycleInstance(manager.requestInstance())).get();
+		return new WeakReference<>(manager);
+	}
+
+	public static class Dummy {
+		final AtomicInteger owner = new AtomicInteger();
+	}
+}
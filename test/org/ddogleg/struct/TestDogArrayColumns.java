@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.struct;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestDogArrayColumns {
+	Random rand = new Random(234);
+
+	@Test void addColumn() {
+		var alg = new DogArrayColumns();
+		DogArray_F64 a = alg.addF64();
+		alg.resize(5);
+
+		// new columns should be resized to match
+		DogArray_I32 b = alg.addI32();
+		assertEquals(5, a.size);
+		assertEquals(5, b.size);
+		assertEquals(2, alg.getColumnCount());
+		assertSame(a, alg.getColumn(0));
+		assertSame(b, alg.getColumn(1));
+
+		// The same column can't be added twice
+		assertThrows(IllegalArgumentException.class, () -> alg.addColumn(a));
+
+		// Every primitive type should be supported
+		alg.addB();
+		alg.addI8();
+		alg.addI16();
+		alg.addI64();
+		alg.addF32();
+		alg.addColumn(new DogArray_F64());
+		assertEquals(8, alg.getColumnCount());
+		for (int i = 0; i < alg.getColumnCount(); i++) {
+			assertEquals(5, alg.getColumn(i).size());
+		}
+	}
+
+	@Test void reset_resize_grow() {
+		var alg = new DogArrayColumns();
+		DogArray_F64 a = alg.addF64();
+		DogArray_I8 b = alg.addI8();
+
+		alg.resize(10);
+		assertEquals(10, alg.size);
+		assertEquals(10, a.size);
+		assertEquals(10, b.size);
+
+		assertEquals(10, alg.grow());
+		assertEquals(11, alg.size);
+		assertEquals(11, a.size);
+		assertEquals(11, b.size);
+
+		alg.removeTail();
+		assertEquals(10, alg.size);
+		assertEquals(10, b.size);
+
+		alg.reset();
+		assertEquals(0, alg.size);
+		assertEquals(0, a.size);
+		assertEquals(0, b.size);
+		assertThrows(IllegalArgumentException.class, alg::removeTail);
+	}
+
+	@Test void removeSwap() {
+		var alg = new DogArrayColumns();
+		createFilled(alg, 6);
+
+		alg.removeSwap(1);
+
+		assertEquals(5, alg.size);
+		for (int i = 0; i < alg.getColumnCount(); i++) {
+			assertEquals(5, alg.getColumn(i).size());
+		}
+		// The last record should now be at index 1
+		checkRecord(alg, 1, 5);
+		checkRecord(alg, 0, 0);
+		checkRecord(alg, 4, 4);
+
+		assertThrows(IllegalArgumentException.class, () -> alg.removeSwap(5));
+	}
+
+	@Test void reorder() {
+		var alg = new DogArrayColumns();
+		createFilled(alg, 5);
+
+		// Save references to a couple of the arrays
+		boolean[] arrayB = ((DogArray_B)alg.getColumn(0)).data;
+		double[] arrayF64 = ((DogArray_F64)alg.getColumn(6)).data;
+
+		alg.reorder(new int[]{3, 0, 4, 1, 2});
+
+		// The arrays should not have been replaced
+		assertSame(arrayB, ((DogArray_B)alg.getColumn(0)).data);
+		assertSame(arrayF64, ((DogArray_F64)alg.getColumn(6)).data);
+
+		checkRecord(alg, 0, 3);
+		checkRecord(alg, 1, 0);
+		checkRecord(alg, 2, 4);
+		checkRecord(alg, 3, 1);
+		checkRecord(alg, 4, 2);
+	}
+
+	@Test void sortBy() {
+		var alg = new DogArrayColumns();
+		DogArray_F64 score = alg.addF64();
+		DogArray_I32 id = alg.addI32();
+		DogArray_I64 id64 = alg.addI64();
+		DogArray_F32 score32 = alg.addF32();
+
+		alg.resize(100);
+		for (int i = 0; i < alg.size; i++) {
+			score.data[i] = rand.nextInt(20);
+			id.data[i] = i;
+			id64.data[i] = -i;
+			score32.data[i] = (float)score.data[i];
+		}
+
+		alg.sortBy(score);
+		for (int i = 0; i < alg.size; i++) {
+			// the records should be moved together
+			assertEquals(score.data[i], score32.data[i]);
+			assertEquals(-id.data[i], id64.data[i]);
+			// the sort is stable
+			if (i > 0) {
+				assertTrue(score.data[i - 1] <= score.data[i]);
+				if (score.data[i - 1] == score.data[i])
+					assertTrue(id.data[i - 1] < id.data[i]);
+			}
+		}
+
+		// Should go back to the original order
+		alg.sortBy(id);
+		for (int i = 0; i < alg.size; i++) {
+			assertEquals(i, id.data[i]);
+		}
+
+		alg.sortBy(id64);
+		for (int i = 0; i < alg.size; i++) {
+			assertEquals(99 - i, id.data[i]);
+		}
+
+		alg.sortBy(score32);
+		for (int i = 1; i < alg.size; i++) {
+			assertTrue(score.data[i - 1] <= score.data[i]);
+		}
+
+		// Column isn't in the container
+		assertThrows(IllegalArgumentException.class, () -> alg.sortBy(new DogArray_F64()));
+	}
+
+	/**
+	 * Adds one column of every type with values which are a function of the record's index
+	 */
+	void createFilled( DogArrayColumns alg, int size ) {
+		DogArray_B b = alg.addB();
+		DogArray_I8 i8 = alg.addI8();
+		DogArray_I16 i16 = alg.addI16();
+		DogArray_I32 i32 = alg.addI32();
+		DogArray_I64 i64 = alg.addI64();
+		DogArray_F32 f32 = alg.addF32();
+		DogArray_F64 f64 = alg.addF64();
+
+		alg.resize(size);
+		for (int i = 0; i < size; i++) {
+			b.data[i] = i%2 == 0;
+			i8.data[i] = (byte)i;
+			i16.data[i] = (short)(i + 100);
+			i32.data[i] = i + 200;
+			i64.data[i] = i + 300;
+			f32.data[i] = i + 400;
+			f64.data[i] = i + 500;
+		}
+	}
+
+	void checkRecord( DogArrayColumns alg, int index, int expected ) {
+		assertEquals(expected%2 == 0, ((DogArray_B)alg.getColumn(0)).get(index));
+		assertEquals((byte)expected, ((DogArray_I8)alg.getColumn(1)).get(index));
+		assertEquals((short)(expected + 100), ((DogArray_I16)alg.getColumn(2)).get(index));
+		assertEquals(expected + 200, ((DogArray_I32)alg.getColumn(3)).get(index));
+		assertEquals(expected + 300, ((DogArray_I64)alg.getColumn(4)).get(index));
+		assertEquals(expected + 400, ((DogArray_F32)alg.getColumn(5)).get(index));
+		assertEquals(expected + 500, ((DogArray_F64)alg.getColumn(6)).get(index));
+	}
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.struct;
+
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestDogArrayIO {
+	Random rand = new Random(234);
+
+	// File used by tests which map arrays
+	@Nullable File file;
+
+	@AfterEach void deleteFile() {
+		// Can fail while the file is still mapped on some platforms, e.g. Windows. deleteOnExit() will try again
+		if (file != null)
+			file.delete();
+	}
+
+	// Large enough that it will be written in multiple chunks
+	int N = DogArrayIO.CHUNK_BYTES/2 + 11;
+
+	/** Check the header and byte order by decoding the bytes directly */
+	@Test void format() throws IOException {
+		var array = new DogArray_I32();
+		array.add(1);
+		array.add(0x01020304);
+
+		var stream = new ByteArrayOutputStream();
+		DogArrayIO.write(array, Channels.newChannel(stream));
+		ByteBuffer bytes = ByteBuffer.wrap(stream.toByteArray()).order(ByteOrder.LITTLE_ENDIAN);
+
+		assertEquals(DogArrayIO.HEADER_BYTES + 8, bytes.limit());
+		assertEquals(DogArrayIO.MAGIC, bytes.getInt(0));
+		assertEquals(DogArrayIO.VERSION, bytes.get(4));
+		assertEquals(DogArrayIO.TYPE_I32, bytes.get(5));
+		assertEquals(2, bytes.getLong(8));
+		assertEquals(1, bytes.getInt(16));
+		assertEquals(4, bytes.get(20));
+		assertEquals(0x01020304, bytes.getInt(20));
+	}
+
+	@Test void dogArray() throws IOException {
+		var arrayB = new DogArray_B();
+		var arrayI8 = new DogArray_I8();
+		var arrayI16 = new DogArray_I16();
+		var arrayI32 = new DogArray_I32();
+		var arrayI64 = new DogArray_I64();
+		var arrayF32 = new DogArray_F32();
+		var arrayF64 = new DogArray_F64();
+		for (int i = 0; i < N; i++) {
+			arrayB.add(rand.nextBoolean());
+			arrayI8.add((byte)rand.nextInt());
+			arrayI16.add((short)rand.nextInt());
+			arrayI32.add(rand.nextInt());
+			arrayI64.add(rand.nextLong());
+			arrayF32.add(rand.nextFloat());
+			arrayF64.add(rand.nextDouble());
+		}
+
+		var stream = new ByteArrayOutputStream();
+		WritableByteChannel out = Channels.newChannel(stream);
+		DogArrayIO.write(arrayB, out);
+		DogArrayIO.write(arrayI8, out);
+		DogArrayIO.write(arrayI16, out);
+		DogArrayIO.write(arrayI32, out);
+		DogArrayIO.write(arrayI64, out);
+		DogArrayIO.write(arrayF32, out);
+		DogArrayIO.write(arrayF64, out);
+
+		// The storage should be resized to match
+		ReadableByteChannel in = Channels.newChannel(new ByteArrayInputStream(stream.toByteArray()));
+		assertTrue(arrayB.isEquals(DogArrayIO.read(in, new DogArray_B())));
+		assertTrue(arrayI8.isEquals(DogArrayIO.read(in, new DogArray_I8())));
+		assertTrue(arrayI16.isEquals(DogArrayIO.read(in, new DogArray_I16())));
+		assertTrue(arrayI32.isEquals(DogArrayIO.read(in, new DogArray_I32())));
+		assertTrue(arrayI64.isEquals(DogArrayIO.read(in, new DogArray_I64())));
+		assertTrue(arrayF32.isEquals(DogArrayIO.read(in, new DogArray_F32())));
+		assertTrue(arrayF64.isEquals(DogArrayIO.read(in, new DogArray_F64(N + 100))));
+	}
+
+	@Test void bigDogArray() throws IOException {
+		var arrayB = new BigDogArray_B(1, 1000, BigDogGrowth.GROW_FIRST);
+		var arrayI8 = new BigDogArray_I8(1, 1000, BigDogGrowth.GROW_FIRST);
+		var arrayI32 = new BigDogArray_I32(1, 1000, BigDogGrowth.GROW_FIRST);
+		var arrayI64 = new BigDogArray_I64(1, 1000, BigDogGrowth.GROW_FIRST);
+		var arrayF32 = new BigDogArray_F32(1, 1000, BigDogGrowth.GROW_FIRST);
+		var arrayF64 = new BigDogArray_F64(1, 1000, BigDogGrowth.GROW_FIRST);
+		for (int i = 0; i < N; i++) {
+			arrayB.append(rand.nextBoolean());
+			arrayI8.append((byte)rand.nextInt());
+			arrayI32.append(rand.nextInt());
+			arrayI64.append(rand.nextLong());
+			arrayF32.append(rand.nextFloat());
+			arrayF64.append(rand.nextDouble());
+		}
+
+		var stream = new ByteArrayOutputStream();
+		WritableByteChannel out = Channels.newChannel(stream);
+		DogArrayIO.write(arrayB, out);
+		DogArrayIO.write(arrayI8, out);
+		DogArrayIO.write(arrayI32, out);
+		DogArrayIO.write(arrayI64, out);
+		DogArrayIO.write(arrayF32, out);
+		DogArrayIO.write(arrayF64, out);
+
+		// Read into arrays with a different block size
+		ReadableByteChannel in = Channels.newChannel(new ByteArrayInputStream(stream.toByteArray()));
+		assertTrue(arrayB.isEquivalent(DogArrayIO.read(in, new BigDogArray_B(1, 77, BigDogGrowth.GROW))));
+		assertTrue(arrayI8.isEquivalent(DogArrayIO.read(in, new BigDogArray_I8(1, 77, BigDogGrowth.GROW))));
+		assertTrue(arrayI32.isEquivalent(DogArrayIO.read(in, new BigDogArray_I32(1, 77, BigDogGrowth.GROW))));
+		assertTrue(arrayI64.isEquivalent(DogArrayIO.read(in, new BigDogArray_I64(1, 77, BigDogGrowth.GROW))));
+		assertTrue(arrayF32.isEquivalent(DogArrayIO.read(in, new BigDogArray_F32()), 0.0f));
+		assertTrue(arrayF64.isEquivalent(DogArrayIO.read(in, new BigDogArray_F64()), 0.0));
+	}
+
+	/** A DogArray and BigDogArray should be able to read each other's files */
+	@Test void compatible() throws IOException {
+		var array = new DogArray_F64();
+		for (int i = 0; i < 105; i++) {
+			array.add(rand.nextDouble());
+		}
+
+		var stream = new ByteArrayOutputStream();
+		DogArrayIO.write(array, Channels.newChannel(stream));
+		var big = DogArrayIO.read(Channels.newChannel(new ByteArrayInputStream(stream.toByteArray())),
+				new BigDogArray_F64(1, 10, BigDogGrowth.FIXED));
+		assertEquals(array.size, big.size);
+		for (int i = 0; i < array.size; i++) {
+			assertEquals(array.get(i), big.get(i));
+		}
+
+		stream.reset();
+		DogArrayIO.write(big, Channels.newChannel(stream));
+		var found = DogArrayIO.read(Channels.newChannel(new ByteArrayInputStream(stream.toByteArray())),
+				new DogArray_F64());
+		assertTrue(array.isEquals(found));
+	}
+
+	@Test void read_wrongType() throws IOException {
+		var stream = new ByteArrayOutputStream();
+		DogArrayIO.write(new DogArray_F32(), Channels.newChannel(stream));
+		ReadableByteChannel in = Channels.newChannel(new ByteArrayInputStream(stream.toByteArray()));
+		assertThrows(IOException.class, () -> DogArrayIO.read(in, new DogArray_F64()));
+	}
+
+	@Test void read_truncated() throws IOException {
+		var array = new DogArray_F64();
+		array.resize(20, 1.0);
+
+		var stream = new ByteArrayOutputStream();
+		DogArrayIO.write(array, Channels.newChannel(stream));
+		byte[] bytes = stream.toByteArray();
+		ReadableByteChannel in = Channels.newChannel(new ByteArrayInputStream(bytes, 0, bytes.length - 3));
+		assertThrows(IOException.class, () -> DogArrayIO.read(in, new DogArray_F64()));
+	}
+
+	@Test void map() throws IOException {
+		var array = new BigDogArray_F64(1, 100, BigDogGrowth.GROW_FIRST);
+		for (int i = 0; i < 1234; i++) {
+			array.append(rand.nextDouble());
+		}
+
+		File file = this.file = File.createTempFile("DogArrayIO", ".bin");
+		file.deleteOnExit();
+		try (var channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+			DogArrayIO.write(array, channel);
+		}
+
+		try (var channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			// Mapping should not change where the channel is
+			channel.position(7);
+			BigDogBuffer_F64 found = DogArrayIO.map_F64(channel, 500);
+			assertEquals(7, channel.position());
+			assertEquals(array.size, found.size);
+			for (int i = 0; i < array.size; i++) {
+				assertEquals(array.get(i), found.get(i));
+			}
+
+			// Wrong type
+			assertThrows(IOException.class, () -> DogArrayIO.map_I64(channel, 500));
+		}
+	}
+
+	@Test void map_I8() throws IOException {
+		var array = new DogArray_I8();
+		for (int i = 0; i < 300; i++) {
+			array.add(i);
+		}
+
+		File file = this.file = File.createTempFile("DogArrayIO", ".bin");
+		file.deleteOnExit();
+		try (var channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+			DogArrayIO.write(array, channel);
+		}
+
+		try (var channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			BigDogBuffer_I8 found = DogArrayIO.map_I8(channel, 100);
+			assertEquals(array.size, found.size);
+			for (int i = 0; i < array.size; i++) {
+				assertEquals(array.get(i), found.get(i));
+			}
+		}
+	}
+}
@@ -18,6 +18,7 @@
 
 package org.ddogleg.struct;
 
+import org.ddogleg.sorting.RadixSort_S64;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -314,6 +315,43 @@ public class TestDogArray_I64 extends ChecksDogArrayPrimitive<DogArray_I64> {
 		assertEquals(8, alg.get(3), 1e-8);
 	}
 
+	@Test void sort_radix() {
+		var alg = new DogArray_I64(6);
+
+		alg.push(8);
+		alg.push(2);
+		alg.push(4);
+		alg.push(3);
+
+		alg.sort(new RadixSort_S64());
+
+		assertEquals(4, alg.size);
+		assertEquals(2, alg.get(0), 1e-8);
+		assertEquals(3, alg.get(1), 1e-8);
+		assertEquals(4, alg.get(2), 1e-8);
+		assertEquals(8, alg.get(3), 1e-8);
+	}
+
+	@Test void sortIndexes() {
+		var alg = new DogArray_I64(6);
+
+		alg.push(8);
+		alg.push(2);
+		alg.push(4);
+		alg.push(3);
+
+		var indexes = new DogArray_I32();
+		alg.sortIndexes(new RadixSort_S64(), indexes);
+
+		// it should not be modified
+		assertEquals(8, alg.get(0), 1e-8);
+		assertEquals(4, indexes.size);
+		assertEquals(1, indexes.get(0));
+		assertEquals(3, indexes.get(1));
+		assertEquals(2, indexes.get(2));
+		assertEquals(0, indexes.get(3));
+	}
+
 	@Test void shuffle() {
 		int N = 20;
 		var alg = new DogArray_I64(N);
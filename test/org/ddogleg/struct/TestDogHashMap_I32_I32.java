@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.struct;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestDogHashMap_I32_I32 {
+	Random rand = new Random(234);
+
+	@Test void put_get() {
+		var alg = new DogHashMap_I32_I32(2);
+		for (int i = 0; i < 100; i++) {
+			alg.put((int)(i*31 - 500), (int)i);
+		}
+		assertEquals(100, alg.size());
+		for (int i = 0; i < 100; i++) {
+			assertEquals((int)i, alg.get((int)(i*31 - 500)));
+		}
+
+		// Replace the value
+		alg.put((int)-500, (int)7);
+		assertEquals(100, alg.size());
+		assertEquals((int)7, alg.get((int)-500));
+
+		assertThrows(IllegalArgumentException.class, () -> alg.get((int)1));
+	}
+
+	@Test void getOrDefault_containsKey() {
+		var alg = new DogHashMap_I32_I32();
+		alg.put((int)5, (int)2);
+		assertEquals((int)2, alg.getOrDefault((int)5, (int)9));
+		assertEquals((int)9, alg.getOrDefault((int)6, (int)9));
+		assertTrue(alg.containsKey((int)5));
+		assertFalse(alg.containsKey((int)6));
+	}
+
+	@Test void increment() {
+		var alg = new DogHashMap_I32_I32();
+		assertEquals((int)3, alg.increment((int)5, (int)3));
+		assertEquals((int)5, alg.increment((int)5, (int)2));
+		assertEquals((int)5, alg.get((int)5));
+		assertEquals(1, alg.size());
+	}
+
+	/**
+	 * Randomly add and remove keys and compare against a brute force map
+	 */
+	@Test void compareToBruteForce() {
+		var alg = new DogHashMap_I32_I32(4);
+		var keys = new DogArray_I32();
+		var values = new DogArray_I32();
+
+		for (int trial = 0; trial < 5000; trial++) {
+			int key = (int)(rand.nextInt(300) - 150);
+			int idx = keys.indexOf(key);
+			if (rand.nextInt(3) == 0) {
+				assertEquals(idx >= 0, alg.remove(key));
+				if (idx >= 0) {
+					keys.removeSwap(idx);
+					values.removeSwap(idx);
+				}
+			} else {
+				int value = (int)rand.nextInt(1000);
+				alg.put(key, value);
+				if (idx >= 0) {
+					values.set(idx, value);
+				} else {
+					keys.add(key);
+					values.add(value);
+				}
+			}
+
+			assertEquals(keys.size, alg.size());
+			if (trial%100 == 0) {
+				for (int i = 0; i < keys.size; i++) {
+					assertEquals(values.get(i), alg.get(keys.get(i)));
+				}
+			}
+		}
+		for (int i = 0; i < keys.size; i++) {
+			assertEquals(values.get(i), alg.get(keys.get(i)));
+		}
+	}
+
+	@Test void reset() {
+		var alg = new DogHashMap_I32_I32(4);
+		for (int i = 0; i < 20; i++) {
+			alg.put((int)i, (int)i);
+		}
+		int tableSize = alg.getTableSize();
+
+		alg.reset();
+		assertEquals(0, alg.size());
+		assertTrue(alg.isEmpty());
+		assertEquals(tableSize, alg.getTableSize());
+		for (int i = 0; i < 20; i++) {
+			assertFalse(alg.containsKey((int)i));
+		}
+
+		// It should work just like before
+		alg.put((int)3, (int)4);
+		assertEquals(1, alg.size());
+		assertEquals((int)4, alg.get((int)3));
+	}
+
+	@Test void reserve() {
+		var alg = new DogHashMap_I32_I32(4);
+		alg.reserve(100);
+		int tableSize = alg.getTableSize();
+		assertTrue(tableSize*alg.getLoadFactor() >= 100);
+		for (int i = 0; i < 100; i++) {
+			alg.put((int)i, (int)i);
+		}
+		assertEquals(tableSize, alg.getTableSize());
+	}
+
+	@Test void forEach_getKeys() {
+		var alg = new DogHashMap_I32_I32();
+		for (int i = 0; i < 30; i++) {
+			alg.put((int)(i*3), (int)(i*2));
+		}
+
+		var found = new DogArray_I32();
+		alg.forEach(( key, value ) -> {
+			assertEquals((int)(key*2/3), value);
+			found.add((int)key);
+		});
+		assertEquals(30, found.size);
+
+		DogArray_I32 keys = alg.getKeys(new DogArray_I32());
+		assertEquals(30, keys.size);
+		keys.sort();
+		for (int i = 0; i < keys.size; i++) {
+			assertEquals((int)(i*3), keys.get(i));
+		}
+	}
+}
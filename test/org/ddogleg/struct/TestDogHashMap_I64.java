@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.struct;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestDogHashMap_I64 {
+	Random rand = new Random(234);
+
+	@Test void put_get() {
+		var alg = new DogHashMap_I64<String>(2);
+		for (int i = 0; i < 100; i++) {
+			alg.put((long)(i*31 - 500), "v" + i);
+		}
+		assertEquals(100, alg.size());
+		for (int i = 0; i < 100; i++) {
+			assertEquals("v" + i, alg.get((long)(i*31 - 500)));
+		}
+
+		alg.put((long)-500, "foo");
+		assertEquals(100, alg.size());
+		assertEquals("foo", alg.get((long)-500));
+
+		assertThrows(IllegalArgumentException.class, () -> alg.get((long)1));
+		assertNull(alg.getOrDefault((long)1, null));
+		assertEquals("bar", alg.getOrDefault((long)1, "bar"));
+	}
+
+	/**
+	 * Randomly add and remove keys and compare against a brute force map
+	 */
+	@Test void compareToBruteForce() {
+		var alg = new DogHashMap_I64<Integer>(4);
+		var keys = new DogArray_I64();
+		List<Integer> values = new ArrayList<>();
+
+		for (int trial = 0; trial < 5000; trial++) {
+			long key = (long)(rand.nextInt(300) - 150);
+			int idx = keys.indexOf(key);
+			if (rand.nextInt(3) == 0) {
+				assertEquals(idx >= 0, alg.remove(key));
+				if (idx >= 0) {
+					keys.removeSwap(idx);
+					values.set(idx, values.get(values.size() - 1));
+					values.remove(values.size() - 1);
+				}
+			} else {
+				Integer value = rand.nextInt(1000);
+				alg.put(key, value);
+				if (idx >= 0) {
+					values.set(idx, value);
+				} else {
+					keys.add(key);
+					values.add(value);
+				}
+			}
+			assertEquals(keys.size, alg.size());
+		}
+		for (int i = 0; i < keys.size; i++) {
+			assertSame(values.get(i), alg.get(keys.get(i)));
+		}
+	}
+
+	@Test void reset_clear() {
+		var alg = new DogHashMap_I64<String>(4);
+		for (int i = 0; i < 20; i++) {
+			alg.put((long)i, "a");
+		}
+		int tableSize = alg.getTableSize();
+
+		alg.reset();
+		assertEquals(0, alg.size());
+		assertEquals(tableSize, alg.getTableSize());
+		assertFalse(alg.containsKey((long)2));
+
+		alg.put((long)2, "b");
+		assertEquals("b", alg.get((long)2));
+
+		// references to the values should be released
+		alg.clear();
+		assertEquals(0, alg.size());
+		for (int i = 0; i < alg.values.length; i++) {
+			assertNull(alg.values[i]);
+		}
+	}
+
+	@Test void forEach_getKeys() {
+		var alg = new DogHashMap_I64<String>();
+		for (int i = 0; i < 30; i++) {
+			alg.put((long)(i*3), "" + i*3);
+		}
+
+		var count = new DogArray_I32();
+		alg.forEach(( key, value ) -> {
+			assertEquals("" + key, value);
+			count.add(1);
+		});
+		assertEquals(30, count.size);
+
+		DogArray_I64 keys = alg.getKeys(new DogArray_I64());
+		keys.sort();
+		assertEquals(30, keys.size);
+		for (int i = 0; i < keys.size; i++) {
+			assertEquals((long)(i*3), keys.get(i));
+		}
+	}
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.struct;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestDogHashSet_I32 {
+	Random rand = new Random(234);
+
+	@Test void add_contains() {
+		var alg = new DogHashSet_I32(2);
+		for (int i = 0; i < 100; i++) {
+			assertTrue(alg.add((int)(i*31 - 500)));
+		}
+		assertFalse(alg.add((int)-500));
+		assertEquals(100, alg.size());
+
+		for (int i = 0; i < 100; i++) {
+			assertTrue(alg.contains((int)(i*31 - 500)));
+			assertFalse(alg.contains((int)(i*31 - 499)));
+		}
+	}
+
+	/**
+	 * Randomly add and remove keys and compare against a brute force set
+	 */
+	@Test void compareToBruteForce() {
+		var alg = new DogHashSet_I32(4);
+		var keys = new DogArray_I32();
+
+		for (int trial = 0; trial < 5000; trial++) {
+			int key = (int)(rand.nextInt(300) - 150);
+			int idx = keys.indexOf(key);
+			if (rand.nextInt(3) == 0) {
+				assertEquals(idx >= 0, alg.remove(key));
+				if (idx >= 0)
+					keys.removeSwap(idx);
+			} else {
+				assertEquals(idx < 0, alg.add(key));
+				if (idx < 0)
+					keys.add(key);
+			}
+			assertEquals(keys.size, alg.size());
+		}
+		for (int i = 0; i < keys.size; i++) {
+			assertTrue(alg.contains(keys.get(i)));
+		}
+	}
+
+	@Test void reset() {
+		var alg = new DogHashSet_I32(4);
+		for (int i = 0; i < 20; i++) {
+			alg.add((int)i);
+		}
+		int tableSize = alg.getTableSize();
+
+		alg.reset();
+		assertTrue(alg.isEmpty());
+		assertEquals(tableSize, alg.getTableSize());
+		for (int i = 0; i < 20; i++) {
+			assertFalse(alg.contains((int)i));
+		}
+		assertTrue(alg.add((int)3));
+		assertEquals(1, alg.size());
+	}
+
+	/** Reset so many times that the generation needs to wrap around */
+	@Test void reset_wrapGeneration() {
+		var alg = new DogHashSet_I32(4);
+		alg.add((int)1);
+		alg.generation = Integer.MAX_VALUE - 1;
+		alg.reset();
+		assertEquals(1, alg.generation);
+		assertFalse(alg.contains((int)1));
+		alg.add((int)2);
+		assertTrue(alg.contains((int)2));
+	}
+
+	@Test void forEach_getKeys() {
+		var alg = new DogHashSet_I32();
+		for (int i = 0; i < 30; i++) {
+			alg.add((int)(i*3));
+		}
+
+		var found = new DogArray_I32();
+		alg.forEach(found::add);
+		assertEquals(30, found.size);
+
+		DogArray_I32 keys = alg.getKeys(new DogArray_I32());
+		keys.sort();
+		found.sort();
+		assertEquals(30, keys.size);
+		for (int i = 0; i < keys.size; i++) {
+			assertEquals((int)(i*3), keys.get(i));
+			assertEquals(keys.get(i), found.get(i));
+		}
+	}
+}
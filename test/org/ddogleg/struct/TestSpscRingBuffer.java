@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.struct;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSpscRingBuffer {
+	@Test void offer_poll_single() {
+		var alg = new SpscRingBuffer<Integer>(4);
+		assertNull(alg.poll());
+		assertThrows(IllegalArgumentException.class, () -> alg.offer(null));
+
+		for (int trial = 0; trial < 5; trial++) {
+			for (int i = 0; i < 4; i++) {
+				assertTrue(alg.offer(trial*10 + i));
+			}
+			assertTrue(alg.isFull());
+			assertFalse(alg.offer(1));
+
+			for (int i = 0; i < 4; i++) {
+				assertEquals(trial*10 + i, alg.poll());
+			}
+			assertNull(alg.poll());
+		}
+	}
+
+	@Test void offer_poll_list() {
+		var alg = new SpscRingBuffer<Integer>(8);
+		List<Integer> src = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			src.add(i);
+		}
+
+		assertEquals(8, alg.offer(src, 2, 12));
+		assertEquals(0, alg.offer(src, 0, 1));
+
+		List<Integer> dst = new ArrayList<>();
+		assertEquals(5, alg.poll(dst, 5));
+		assertEquals(5, alg.offer(src, 10, 10));
+		assertEquals(8, alg.poll(dst, 20));
+		assertEquals(0, alg.poll(dst, 20));
+
+		assertEquals(13, dst.size());
+		for (int i = 0; i < dst.size(); i++) {
+			assertEquals(i + 2, dst.get(i));
+		}
+
+		// References to removed objects should not be kept around
+		for (int i = 0; i < alg.data.length; i++) {
+			assertNull(alg.data[i]);
+		}
+	}
+
+	@Test void producerConsumer() throws Exception {
+		var alg = new SpscRingBuffer<Integer>(16);
+		final int total = 50_000;
+
+		var producer = new Thread(() -> {
+			int next = 0;
+			while (next < total) {
+				if (alg.offer(next))
+					next++;
+				else
+					Thread.yield();
+			}
+		});
+		producer.start();
+
+		int expected = 0;
+		while (expected < total) {
+			Integer value = alg.poll();
+			if (value == null) {
+				Thread.yield();
+				continue;
+			}
+			assertEquals(expected++, value);
+		}
+		producer.join();
+	}
+}
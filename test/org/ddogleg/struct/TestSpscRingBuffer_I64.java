@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2012-2023, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of DDogleg (http://ddogleg.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddogleg.struct;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSpscRingBuffer_I64 {
+	@Test void capacity() {
+		assertEquals(1, new SpscRingBuffer_I64(1).getCapacity());
+		assertEquals(8, new SpscRingBuffer_I64(8).getCapacity());
+		assertEquals(16, new SpscRingBuffer_I64(9).getCapacity());
+		assertThrows(IllegalArgumentException.class, () -> new SpscRingBuffer_I64(0));
+	}
+
+	@Test void offer_poll_single() {
+		var alg = new SpscRingBuffer_I64(4);
+		assertTrue(alg.isEmpty());
+		assertThrows(IllegalStateException.class, alg::poll);
+
+		// Go around the ring a few times to make sure it wraps correctly
+		for (int trial = 0; trial < 5; trial++) {
+			for (int i = 0; i < 4; i++) {
+				assertTrue(alg.offer((long)(trial*10 + i)));
+				assertEquals(i + 1, alg.size());
+			}
+			assertTrue(alg.isFull());
+			assertFalse(alg.offer((long)1));
+
+			for (int i = 0; i < 3; i++) {
+				assertEquals((long)(trial*10 + i), alg.poll());
+			}
+			assertTrue(alg.offer((long)(trial*10 + 4)));
+			assertEquals((long)(trial*10 + 3), alg.poll());
+			assertEquals((long)(trial*10 + 4), alg.poll());
+			assertTrue(alg.isEmpty());
+		}
+	}
+
+	@Test void offer_poll_array() {
+		var alg = new SpscRingBuffer_I64(8);
+		var src = new long[20];
+		for (int i = 0; i < src.length; i++) {
+			src[i] = (long)i;
+		}
+
+		// Only part of it will fit
+		assertEquals(8, alg.offer(src, 2, 12));
+		assertEquals(0, alg.offer(src, 0, 1));
+
+		var dst = new long[20];
+		assertEquals(5, alg.poll(dst, 1, 5));
+		for (int i = 0; i < 5; i++) {
+			assertEquals(src[2 + i], dst[1 + i]);
+		}
+
+		// This will wrap around the end of the internal array
+		assertEquals(5, alg.offer(src, 10, 10));
+		assertEquals(8, alg.poll(dst, 0, 20));
+		long[] expected = {7, 8, 9, 10, 11, 12, 13, 14};
+		for (int i = 0; i < expected.length; i++) {
+			assertEquals((long)expected[i], dst[i]);
+		}
+		assertEquals(0, alg.poll(dst, 0, 20));
+		assertTrue(alg.isEmpty());
+	}
+
+	@Test void poll_DogArray() {
+		var alg = new SpscRingBuffer_I64(8);
+		for (int i = 0; i < 6; i++) {
+			alg.offer((long)i);
+		}
+
+		var dst = new DogArray_I64();
+		dst.add((long)-1);
+		assertEquals(4, alg.poll(dst, 4));
+		assertEquals(2, alg.poll(dst, 10));
+		assertEquals(0, alg.poll(dst, 10));
+		assertEquals(7, dst.size);
+		for (int i = 0; i < 6; i++) {
+			assertEquals((long)i, dst.get(i + 1));
+		}
+	}
+
+	/**
+	 * Have one thread add elements while another removes them and see if they come out in the same order
+	 */
+	@Test void producerConsumer() throws Exception {
+		var alg = new SpscRingBuffer_I64(64);
+		final int total = 100_000;
+
+		var producer = new Thread(() -> {
+			var src = new long[7];
+			int next = 0;
+			while (next < total) {
+				// Alternate between adding single elements and blocks of elements
+				if (next%2 == 0) {
+					if (alg.offer((long)next))
+						next++;
+				} else {
+					int length = Math.min(src.length, total - next);
+					for (int i = 0; i < length; i++) {
+						src[i] = (long)(next + i);
+					}
+					next += alg.offer(src, 0, length);
+				}
+				Thread.yield();
+			}
+		});
+		producer.start();
+
+		var dst = new long[11];
+		int expected = 0;
+		while (expected < total) {
+			if (expected%3 == 0) {
+				if (alg.isEmpty()) {
+					Thread.yield();
+					continue;
+				}
+				assertEquals((long)expected, alg.poll());
+				expected++;
+			} else {
+				int count = alg.poll(dst, 0, dst.length);
+				for (int i = 0; i < count; i++) {
+					assertEquals((long)(expected + i), dst[i]);
+				}
+				expected += count;
+			}
+		}
+		producer.join();
+		assertTrue(alg.isEmpty());
+	}
+}